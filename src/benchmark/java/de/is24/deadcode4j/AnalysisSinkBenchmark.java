@@ -0,0 +1,76 @@
+package de.is24.deadcode4j;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.BitSet;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures threads concurrently reporting analyzed classes to the same {@link AnalysisSink} - as the threads of the
+ * parallel file analysis do - and compares it with setting the bits of a single, commonly locked <code>BitSet</code>.
+ * The class names are interned up front, so only the recording of the classes is measured.
+ * <p/>
+ * Run with <tt>mvn -Pbenchmark test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=de.is24.deadcode4j.AnalysisSinkBenchmark</tt>.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+@Threads(Threads.MAX)
+@State(Scope.Benchmark)
+public class AnalysisSinkBenchmark {
+
+    private static final int NUMBER_OF_CLASSES = 1 << 16;
+
+    private final String[] classNames = new String[NUMBER_OF_CLASSES];
+    private final ClassNameTable classNameTable = new ClassNameTable();
+    private final BitSet commonlyLockedClasses = new BitSet();
+    private AnalysisSink analysisSink;
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(AnalysisSinkBenchmark.class.getSimpleName()).build()).run();
+    }
+
+    @Setup
+    public void internClassNames() {
+        for (int i = 0; i < NUMBER_OF_CLASSES; i++) {
+            this.classNames[i] = "de.is24.deadcode4j.Class" + i;
+            this.classNameTable.getId(this.classNames[i]);
+        }
+        this.analysisSink = new AnalysisSink(this.classNameTable);
+    }
+
+    @Benchmark
+    public void analysisSink(ReportingThread thread) {
+        this.analysisSink.addAnalyzedClass(this.classNames[thread.nextClass()]);
+    }
+
+    @Benchmark
+    public void commonlyLockedBitSet(ReportingThread thread) {
+        int id = this.classNameTable.getId(this.classNames[thread.nextClass()]);
+        synchronized (this.commonlyLockedClasses) {
+            this.commonlyLockedClasses.set(id);
+        }
+    }
+
+    /**
+     * Each thread reports all classes, starting at a different one.
+     */
+    @State(Scope.Thread)
+    public static class ReportingThread {
+
+        private int nextClass = (int) (Math.random() * NUMBER_OF_CLASSES);
+
+        int nextClass() {
+            this.nextClass = (this.nextClass + 1) & (NUMBER_OF_CLASSES - 1);
+            return this.nextClass;
+        }
+
+    }
+
+}
@@ -0,0 +1,71 @@
+package de.is24.deadcode4j.analyzer.classfile;
+
+import javassist.ClassPool;
+import javassist.CtClass;
+import org.apache.commons.io.FileUtils;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static com.google.common.collect.Lists.newArrayList;
+
+/**
+ * Compares extracting the classes a class refers to via {@link ClassReferences} with the javassist way of calling
+ * {@link CtClass#getRefClasses()}. The class files examined are those found in the directory specified by the
+ * <tt>deadcode4j.benchmark.classes</tt> system property - <tt>target/classes</tt> by default.
+ * <p/>
+ * Run with <tt>mvn -Pbenchmark test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=de.is24.deadcode4j.analyzer.classfile.ClassReferencesBenchmark</tt>.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ClassReferencesBenchmark {
+
+    private final List<byte[]> classFiles = newArrayList();
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(ClassReferencesBenchmark.class.getSimpleName()).build()).run();
+    }
+
+    @Setup
+    public void readClassFiles() throws IOException {
+        File directory = new File(System.getProperty("deadcode4j.benchmark.classes", "target/classes"));
+        for (File file : FileUtils.listFiles(directory, new String[]{"class"}, true)) {
+            this.classFiles.add(FileUtils.readFileToByteArray(file));
+        }
+        if (this.classFiles.isEmpty()) {
+            throw new IllegalStateException("No class files found in [" + directory + "]!");
+        }
+    }
+
+    @Benchmark
+    public void constantPool(Blackhole blackhole) {
+        for (byte[] classFile : this.classFiles) {
+            blackhole.consume(ClassReferences.of(ByteBuffer.wrap(classFile)));
+        }
+    }
+
+    @Benchmark
+    public void javassist(Blackhole blackhole) throws IOException {
+        ClassPool classPool = new ClassPool(true);
+        for (byte[] classFile : this.classFiles) {
+            CtClass clazz = classPool.makeClass(new ByteArrayInputStream(classFile));
+            blackhole.consume(clazz.getRefClasses());
+            clazz.detach();
+        }
+    }
+
+}
@@ -0,0 +1,409 @@
+package de.is24.deadcode4j;
+
+import com.google.common.base.Charsets;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import org.apache.commons.io.IOUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static com.google.common.collect.Maps.newHashMap;
+import static com.google.common.collect.Sets.newHashSet;
+import static de.is24.deadcode4j.FileContents.fileContentsFor;
+
+/**
+ * The <code>AnalysisCache</code> stores the findings of {@link CacheableAnalyzer}s per file on disk, keyed by a hash
+ * of the file's content and the {@link CacheableAnalyzer#getCacheKey() analyzer's cache key}. If a file didn't
+ * change since the last run, the {@link DeadCodeFinder} replays the stored findings instead of analyzing the file
+ * again.<br/>
+ * There is one cache file per module; it only retains the files analyzed during the last run. The whole cache is
+ * invalidated if the version it was created with differs.<br/>
+ * Additionally, the whole analysis of a module - its <code>AnalyzedCode</code> and the {@link IntermediateResult}s
+ * it provides - is stored along with a fingerprint of the module. This fingerprint covers the files of the module's
+ * repositories (path, size and modification date), its class path entries, the configuration of the analyzers and
+ * the fingerprints of the required modules; the latter also cover the intermediate results passed to the module.
+ * If the fingerprint didn't change, the analysis is reused without examining any file; only
+ * {@link StatefulAnalyzer}s are told about it.
+ *
+ * @since 2.2.0
+ */
+public final class AnalysisCache {
+
+    @Nonnull
+    private final Logger logger = LoggerFactory.getLogger(getClass());
+    @Nonnull
+    private final File directory;
+    @Nonnull
+    private final String version;
+    @Nonnull
+    private final ConcurrentMap<Module, String> fingerprints = new ConcurrentHashMap<Module, String>();
+
+    /**
+     * Creates a new <code>AnalysisCache</code>.
+     *
+     * @param directory the directory to store the cache files in
+     * @param version   the version of the analysis, e.g. the plugin's version; cache files created with another
+     *                  version are discarded
+     * @since 2.2.0
+     */
+    public AnalysisCache(@Nonnull File directory, @Nonnull String version) {
+        this.directory = directory;
+        this.version = version;
+    }
+
+    @Override
+    public String toString() {
+        return "AnalysisCache at [" + this.directory + "]";
+    }
+
+    @Nonnull
+    private static String hashOf(@Nonnull ByteBuffer content) {
+        Hasher hasher = Hashing.murmur3_128().newHasher();
+        byte[] chunk = new byte[8192];
+        while (content.hasRemaining()) {
+            int length = Math.min(chunk.length, content.remaining());
+            content.get(chunk, 0, length);
+            hasher.putBytes(chunk, 0, length);
+        }
+        return hasher.hash().toString();
+    }
+
+    private static void putFile(@Nonnull Hasher hasher, @Nonnull File file) {
+        hasher.putString(file.getAbsolutePath(), Charsets.UTF_8).putLong(file.length()).putLong(file.lastModified());
+    }
+
+    /**
+     * Loads the cached findings for the given module and calculates its fingerprint. This must be called for the
+     * required modules first.
+     *
+     * @param files     the files of the module's repositories
+     * @param analyzers a description of the analyzers and their configuration
+     * @since 2.2.0
+     */
+    @Nonnull
+    ModuleCache loadFor(@Nonnull Module module, @Nonnull Iterable<File> files, @Nonnull String analyzers) {
+        String fileName = module.getModuleId().replaceAll("[^\\w.-]", "_");
+        String fingerprint = calculateFingerprint(module, files, analyzers);
+        if (fingerprint != null) {
+            this.fingerprints.put(module, fingerprint);
+        }
+        return new ModuleCache(new File(this.directory, fileName + ".cache"),
+                new File(this.directory, fileName + ".module"),
+                fingerprint);
+    }
+
+    @Nullable
+    private String calculateFingerprint(@Nonnull Module module,
+                                        @Nonnull Iterable<File> files,
+                                        @Nonnull String analyzers) {
+        Hasher hasher = Hashing.murmur3_128().newHasher()
+                .putString(module.getModuleId(), Charsets.UTF_8)
+                .putString(String.valueOf(module.getEncoding()), Charsets.UTF_8)
+                .putString(analyzers, Charsets.UTF_8);
+        for (File file : files) {
+            putFile(hasher, file);
+        }
+        for (File classPathEntry : module.getClassPath()) {
+            putFile(hasher, classPathEntry);
+        }
+        for (Module requiredModule : module.getRequiredModules()) {
+            String fingerprint = this.fingerprints.get(requiredModule);
+            if (fingerprint == null) {
+                logger.debug("{} has no fingerprint, so {} hasn't either.", requiredModule, module);
+                return null;
+            }
+            hasher.putString(fingerprint, Charsets.UTF_8);
+        }
+        return hasher.hash().toString();
+    }
+
+    @Nullable
+    private Object readCacheFile(@Nonnull File cacheFile) {
+        if (!cacheFile.isFile()) {
+            return null;
+        }
+        ObjectInputStream in = null;
+        try {
+            in = new ObjectInputStream(new GZIPInputStream(new BufferedInputStream(new FileInputStream(cacheFile))));
+            if (!this.version.equals(in.readObject())) {
+                logger.debug("Discarding [{}] as it was created by another version.", cacheFile);
+                return null;
+            }
+            return in.readObject();
+        } catch (Exception e) {
+            logger.warn("Failed to read analysis cache [{}]; analyzing anew.", cacheFile, e);
+            return null;
+        } finally {
+            IOUtils.closeQuietly(in);
+        }
+    }
+
+    private void writeCacheFile(@Nonnull File cacheFile, @Nonnull Object content) {
+        ObjectOutputStream out = null;
+        try {
+            if (!this.directory.isDirectory() && !this.directory.mkdirs()) {
+                throw new IOException("Failed to create directory [" + this.directory + "]!");
+            }
+            out = new ObjectOutputStream(new GZIPOutputStream(new BufferedOutputStream(new FileOutputStream(cacheFile))));
+            out.writeObject(this.version);
+            out.writeObject(content);
+        } catch (IOException e) {
+            logger.warn("Failed to write analysis cache [{}]!", cacheFile, e);
+            IOUtils.closeQuietly(out);
+            out = null;
+            deleteCacheFile(cacheFile);
+        } finally {
+            IOUtils.closeQuietly(out);
+        }
+    }
+
+    private void deleteCacheFile(@Nonnull File cacheFile) {
+        if (cacheFile.exists() && !cacheFile.delete()) {
+            logger.warn("Failed to delete analysis cache [{}]!", cacheFile);
+        }
+    }
+
+    /**
+     * Provides the cached findings for the files of one module. Each file must be analyzed by one thread only, but
+     * different files may be analyzed concurrently.
+     *
+     * @since 2.2.0
+     */
+    final class ModuleCache {
+
+        @Nonnull
+        private final File filesCacheFile;
+        @Nonnull
+        private final File moduleCacheFile;
+        @Nullable
+        private final String fingerprint;
+        @Nonnull
+        private final ConcurrentMap<String, CachedFile> currentFiles = new ConcurrentHashMap<String, CachedFile>();
+        @Nullable
+        private Map<String, CachedFile> previousFiles;
+
+        private ModuleCache(@Nonnull File filesCacheFile, @Nonnull File moduleCacheFile, @Nullable String fingerprint) {
+            this.filesCacheFile = filesCacheFile;
+            this.moduleCacheFile = moduleCacheFile;
+            this.fingerprint = fingerprint;
+        }
+
+        /**
+         * Reports the stored analysis of the module to the given context if the module's fingerprint didn't change.
+         *
+         * @return <code>true</code> if the analysis was restored, i.e. the module needn't be analyzed
+         * @since 2.2.0
+         */
+        boolean restoreAnalysisInto(@Nonnull AnalysisContext analysisContext) {
+            if (this.fingerprint == null) {
+                return false;
+            }
+            Object cachedResult = readCacheFile(this.moduleCacheFile);
+            if (!ModuleResult.class.isInstance(cachedResult)) {
+                return false;
+            }
+            ModuleResult moduleResult = ModuleResult.class.cast(cachedResult);
+            if (!this.fingerprint.equals(moduleResult.fingerprint)) {
+                return false;
+            }
+            moduleResult.findings.replayInto(analysisContext);
+            analysisContext.getCache().putAll(moduleResult.intermediateResults);
+            return true;
+        }
+
+        /**
+         * Returns the cache entry for the given file. Previous findings are discarded if the file's content changed.
+         *
+         * @since 2.2.0
+         */
+        @Nonnull
+        CachedFile getEntryFor(@Nonnull AnalysisContext analysisContext, @Nonnull File file) {
+            String path = file.getAbsolutePath();
+            String hash = hashOf(fileContentsFor(analysisContext).getContentOf(file));
+            CachedFile cachedFile = getPreviousFiles().get(path);
+            if (cachedFile == null || !hash.equals(cachedFile.hash)) {
+                cachedFile = new CachedFile(hash);
+            }
+            this.currentFiles.put(path, cachedFile);
+            return cachedFile;
+        }
+
+        /**
+         * Stores the entries of all files requested via {@link #getEntryFor(AnalysisContext, File)} and the analysis of
+         * the module, unless exceptions occurred.
+         *
+         * @since 2.2.0
+         */
+        void save(@Nonnull AnalysisContext analysisContext) {
+            writeCacheFile(this.filesCacheFile, newHashMap(this.currentFiles));
+            AnalyzedCode analyzedCode = analysisContext.getAnalyzedCode();
+            if (this.fingerprint == null || !analyzedCode.getStagesWithExceptions().isEmpty()) {
+                deleteCacheFile(this.moduleCacheFile);
+                return;
+            }
+            Map<Object, IntermediateResult> intermediateResults = newHashMap();
+            for (Map.Entry<Object, Object> cachedEntry : analysisContext.getCache().entrySet()) {
+                if (IntermediateResult.class.isInstance(cachedEntry.getValue())) {
+                    intermediateResults.put(cachedEntry.getKey(), IntermediateResult.class.cast(cachedEntry.getValue()));
+                }
+            }
+            writeCacheFile(this.moduleCacheFile,
+                    new ModuleResult(this.fingerprint, new Findings(analyzedCode), intermediateResults));
+        }
+
+        @Nonnull
+        @SuppressWarnings("unchecked")
+        private synchronized Map<String, CachedFile> getPreviousFiles() {
+            if (this.previousFiles == null) {
+                Object cachedFiles = readCacheFile(this.filesCacheFile);
+                this.previousFiles = Map.class.isInstance(cachedFiles)
+                        ? (Map<String, CachedFile>) cachedFiles
+                        : Collections.<String, CachedFile>emptyMap();
+            }
+            return this.previousFiles;
+        }
+
+    }
+
+    /**
+     * Holds the findings of the analyzers for one file.
+     *
+     * @since 2.2.0
+     */
+    static final class CachedFile implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+        @Nonnull
+        private final String hash;
+        @Nonnull
+        private final Map<String, Findings> findingsOfAnalyzers = newHashMap();
+
+        CachedFile(@Nonnull String hash) {
+            this.hash = hash;
+        }
+
+        /**
+         * Replays the cached findings of the given analyzer; if there are none, the file is analyzed and the
+         * findings are recorded - unless the analyzer reported an exception, as the findings are incomplete then.
+         *
+         * @since 2.2.0
+         */
+        void analyze(@Nonnull AnalysisContext analysisContext,
+                     @Nonnull CacheableAnalyzer analyzer,
+                     @Nonnull File file) {
+            String cacheKey = analyzer.getCacheKey();
+            Findings findings = this.findingsOfAnalyzers.get(cacheKey);
+            if (findings == null) {
+                RecordingAnalysisContext recordingContext = new RecordingAnalysisContext(analysisContext);
+                analyzer.doAnalysis(recordingContext, file);
+                AnalyzedCode recordedCode = recordingContext.getAnalyzedCode();
+                findings = new Findings(recordedCode);
+                if (recordedCode.getStagesWithExceptions().isEmpty()) {
+                    this.findingsOfAnalyzers.put(cacheKey, findings);
+                }
+            }
+            findings.replayInto(analysisContext);
+        }
+
+    }
+
+    private static final class ModuleResult implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+        @Nonnull
+        private final String fingerprint;
+        @Nonnull
+        private final Findings findings;
+        @Nonnull
+        private final Map<Object, IntermediateResult> intermediateResults;
+
+        ModuleResult(@Nonnull String fingerprint,
+                     @Nonnull Findings findings,
+                     @Nonnull Map<Object, IntermediateResult> intermediateResults) {
+            this.fingerprint = fingerprint;
+            this.findings = findings;
+            this.intermediateResults = intermediateResults;
+        }
+
+    }
+
+    private static final class Findings implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+        @Nonnull
+        private final Set<String> analyzedClasses;
+        @Nonnull
+        private final Map<String, Set<String>> dependencies;
+
+        Findings(@Nonnull AnalyzedCode analyzedCode) {
+            this.analyzedClasses = newHashSet(analyzedCode.getAnalyzedClasses());
+            this.dependencies = newHashMap();
+            for (Map.Entry<String, Set<String>> dependency : analyzedCode.getCodeDependencies().entrySet()) {
+                this.dependencies.put(dependency.getKey(), newHashSet(dependency.getValue()));
+            }
+        }
+
+        void replayInto(@Nonnull AnalysisSink analysisSink) {
+            for (String analyzedClass : this.analyzedClasses) {
+                analysisSink.addAnalyzedClass(analyzedClass);
+            }
+            for (Map.Entry<String, Set<String>> dependency : this.dependencies.entrySet()) {
+                analysisSink.addDependencies(dependency.getKey(), dependency.getValue());
+            }
+        }
+
+    }
+
+    /**
+     * Records the findings reported by an analyzer; everything else is delegated to the original context. Exceptions
+     * are both recorded and passed on.
+     */
+    private static final class RecordingAnalysisContext extends AnalysisContext {
+
+        @Nonnull
+        private final AnalysisContext originalContext;
+
+        RecordingAnalysisContext(@Nonnull AnalysisContext originalContext) {
+            super(originalContext.getModule(), Collections.<Object, IntermediateResult>emptyMap());
+            this.originalContext = originalContext;
+        }
+
+        @Nonnull
+        @Override
+        public Map<Object, Object> getCache() {
+            return this.originalContext.getCache();
+        }
+
+        @Nonnull
+        @Override
+        public ConcurrentMap<Object, Object> getProjectCache() {
+            return this.originalContext.getProjectCache();
+        }
+
+        @Nullable
+        @Override
+        public IntermediateResult getIntermediateResult(@Nonnull Object key) {
+            return this.originalContext.getIntermediateResult(key);
+        }
+
+        @Override
+        public void addException(@Nonnull AnalysisStage stage) {
+            super.addException(stage);
+            this.originalContext.addException(stage);
+        }
+
+    }
+
+}
@@ -5,6 +5,7 @@ import de.is24.guava.NonNullFunction;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.util.Map;
+import java.util.concurrent.*;
 
 import static com.google.common.collect.Maps.newHashMap;
 
@@ -12,13 +13,20 @@ import static com.google.common.collect.Maps.newHashMap;
  * The <code>AnalysisContext</code> extends {@link de.is24.deadcode4j.AnalysisSink} by providing access to the
  * {@link #getModule() analyzed module} and {@link #getIntermediateResult(Object) the intermediate results} of the
  * modules it depends on. Additionally, it provides a {@link #getCache() <em>cache</em>} to use for caching calculated
- * data relevant for one context.
+ * data relevant for one context.<br/>
+ * The cache may be accessed concurrently; {@link #getOrCreateCacheEntry(Object, NonNullFunction)} creates each entry
+ * only once. Data relevant for all modules can be put into the {@link #getProjectCache() project cache}.
  *
  * @since 1.1.0
  */
 public class AnalysisContext extends AnalysisSink {
     @Nonnull
-    private final Map<Object, Object> cache = newHashMap();
+    private final Map<Object, Object> cache = new ConcurrentHashMap<Object, Object>();
+    @Nonnull
+    private final ConcurrentMap<Object, FutureTask<Object>> pendingCacheEntries =
+            new ConcurrentHashMap<Object, FutureTask<Object>>();
+    @Nonnull
+    private final ConcurrentMap<Object, Object> projectCache;
     @Nonnull
     private final Module module;
     @Nonnull
@@ -30,8 +38,44 @@ public class AnalysisContext extends AnalysisSink {
      * @since 2.0.0
      */
     public AnalysisContext(@Nonnull Module module, @Nonnull Map<Object, IntermediateResult> intermediateResults) {
+        this(module, intermediateResults, new ClassNameTable());
+    }
+
+    /**
+     * Creates a new instance of <code>AnalysisContext</code> for the specified module, using the given
+     * <code>ClassNameTable</code>.
+     *
+     * @see AnalysisSink#AnalysisSink(ClassNameTable)
+     * @since 2.2.0
+     */
+    public AnalysisContext(@Nonnull Module module,
+                           @Nonnull Map<Object, IntermediateResult> intermediateResults,
+                           @Nonnull ClassNameTable classNames) {
+        this(module, intermediateResults, classNames, new ConcurrentHashMap<Object, Object>());
+    }
+
+    /**
+     * Creates a new instance of <code>AnalysisContext</code> for the specified module, using the given
+     * <code>ClassNameTable</code> and project cache. The contexts of all modules analyzed together should share both.
+     *
+     * @see #getProjectCache()
+     * @since 2.2.0
+     */
+    public AnalysisContext(@Nonnull Module module,
+                           @Nonnull Map<Object, IntermediateResult> intermediateResults,
+                           @Nonnull ClassNameTable classNames,
+                           @Nonnull ConcurrentMap<Object, Object> projectCache) {
+        super(classNames);
         this.module = module;
         this.intermediateResults = newHashMap(intermediateResults);
+        this.projectCache = projectCache;
+    }
+
+    private AnalysisContext(@Nonnull AnalysisContext analysisContext) {
+        super(analysisContext);
+        this.projectCache = analysisContext.projectCache;
+        this.module = analysisContext.module;
+        this.intermediateResults = analysisContext.intermediateResults;
     }
 
     @Override
@@ -52,22 +96,58 @@ public class AnalysisContext extends AnalysisSink {
     /**
      * Returns a <code>Map</code> that can be used to cache things or pass along between analyzers.
      *
-     * @return a simple {@link java.util.Map}
+     * @return a thread-safe {@link java.util.Map}
      */
     @Nonnull
     public Map<Object, Object> getCache() {
         return cache;
     }
 
+    /**
+     * Returns a <code>Map</code> that is shared by the contexts of all modules being analyzed together. It is meant
+     * for data that doesn't depend on a specific module - like an index of a jar file. Entries implementing
+     * {@link java.io.Closeable} are closed as soon as the analysis is finished.
+     *
+     * @return a thread-safe {@link java.util.Map}
+     * @since 2.2.0
+     */
+    @Nonnull
+    public ConcurrentMap<Object, Object> getProjectCache() {
+        return this.projectCache;
+    }
+
+    /**
+     * Returns the cache entry for the given key. If there is none, it is created using the given supplier; if several
+     * threads request the same missing entry, only one of them calls the supplier, the others wait for its result.
+     *
+     * @since 2.0.0
+     */
     @Nonnull
-    public <T> T getOrCreateCacheEntry(Object key, NonNullFunction<AnalysisContext, T> supplier) {
-        @SuppressWarnings("unchecked")
+    @SuppressWarnings("unchecked")
+    public <T> T getOrCreateCacheEntry(final Object key, final NonNullFunction<AnalysisContext, T> supplier) {
         T entry = (T) getCache().get(key);
-        if (entry == null) {
-            entry = supplier.apply(this);
+        if (entry != null) {
+            return entry;
+        }
+        FutureTask<Object> creation = new FutureTask<Object>(new Callable<Object>() {
+            @Override
+            public Object call() {
+                Object existingEntry = getCache().get(key); // another thread may have finished in the meantime
+                return existingEntry != null ? existingEntry : supplier.apply(AnalysisContext.this);
+            }
+        });
+        FutureTask<Object> pendingCreation = this.pendingCacheEntries.putIfAbsent(key, creation);
+        if (pendingCreation != null) {
+            return (T) waitFor(pendingCreation);
+        }
+        try {
+            creation.run();
+            entry = (T) waitFor(creation);
             getCache().put(key, entry);
+            return entry;
+        } finally {
+            this.pendingCacheEntries.remove(key, creation);
         }
-        return entry;
     }
 
     @Nullable
@@ -75,4 +155,36 @@ public class AnalysisContext extends AnalysisSink {
         return this.intermediateResults.get(key);
     }
 
+    /**
+     * Creates a view of this context sharing the module, the intermediate results and the reported findings, but
+     * providing its own cache. Used to analyze files of the same module concurrently, as cached entries like the
+     * {@link FileContents} are meant to be used by one thread only. Findings reported to a view are stored by this
+     * context right away.
+     *
+     * @since 2.2.0
+     */
+    @Nonnull
+    AnalysisContext createView() {
+        return new AnalysisContext(this);
+    }
+
+    @Nonnull
+    private Object waitFor(@Nonnull FutureTask<Object> creation) {
+        try {
+            return creation.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for cache entry!", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new RuntimeException("Failed to create cache entry!", cause);
+        }
+    }
+
 }
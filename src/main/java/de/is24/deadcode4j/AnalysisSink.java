@@ -3,36 +3,85 @@ package de.is24.deadcode4j;
 import org.slf4j.LoggerFactory;
 
 import javax.annotation.Nonnull;
+import javax.annotation.concurrent.ThreadSafe;
+import java.util.BitSet;
 import java.util.EnumSet;
-import java.util.Map;
-import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import static com.google.common.base.Predicates.equalTo;
 import static com.google.common.base.Predicates.not;
 import static com.google.common.collect.Iterables.filter;
 import static com.google.common.collect.Iterables.size;
-import static com.google.common.collect.Maps.newHashMap;
-import static com.google.common.collect.Sets.newHashSet;
-import static de.is24.deadcode4j.Utils.getOrAddMappedSet;
 import static java.util.Arrays.asList;
 
 /**
  * The <code>AnalysisSink</code> provides the capability to
  * {@link #addAnalyzedClass(String) report the existence of code} and
  * {@link #addDependencies(String, Iterable) the dependencies of it}.
- * It also allows to notify of {@link #addException(AnalysisStage) exceptions that occurred}.
+ * It also allows to notify of {@link #addException(AnalysisStage) exceptions that occurred}.<br/>
+ * The reported names are {@link ClassNameTable interned}, so each of them is stored only once; classes are collected
+ * in bit sets and the dependees of each depender in a set of IDs.<br/>
+ * Reports may be made concurrently: the dependers are kept in a concurrent map and each depender's set is locked
+ * separately, so threads reporting for different dependers hardly ever contend. Likewise, the analyzed classes are
+ * spread over {@link #STRIPES} separately locked bit sets by their IDs.
  *
  * @since 2.0.0
  */
+@ThreadSafe
 public class AnalysisSink {
+    /**
+     * The number of bit sets the analyzed classes are spread over; must be a power of two.
+     */
+    private static final int STRIPES = 16;
+    private static final int STRIPE_SHIFT = Integer.numberOfTrailingZeros(STRIPES);
     @Nonnull
     protected final org.slf4j.Logger logger = LoggerFactory.getLogger(getClass());
     @Nonnull
-    private final Set<String> analyzedClasses = newHashSet();
+    private final ClassNameTable classNames;
     @Nonnull
-    private final Map<String, Set<String>> dependencyMap = newHashMap();
+    private final BitSet[] analyzedClasses;
     @Nonnull
-    private final EnumSet<AnalysisStage> stagesWithExceptions = EnumSet.noneOf(AnalysisStage.class);
+    private final ConcurrentMap<Integer, IntHashSet> dependencyMap;
+    @Nonnull
+    private final EnumSet<AnalysisStage> stagesWithExceptions;
+
+    /**
+     * Creates a new, empty <code>AnalysisSink</code> using its own <code>ClassNameTable</code>.
+     *
+     * @since 2.0.0
+     */
+    public AnalysisSink() {
+        this(new ClassNameTable());
+    }
+
+    /**
+     * Creates a new, empty <code>AnalysisSink</code> using the given <code>ClassNameTable</code>. Sinks sharing the
+     * same table produce <code>AnalyzedCode</code> that can be combined without translating any names.
+     *
+     * @since 2.2.0
+     */
+    public AnalysisSink(@Nonnull ClassNameTable classNames) {
+        this.classNames = classNames;
+        this.analyzedClasses = new BitSet[STRIPES];
+        for (int i = 0; i < STRIPES; i++) {
+            this.analyzedClasses[i] = new BitSet();
+        }
+        this.dependencyMap = new ConcurrentHashMap<Integer, IntHashSet>();
+        this.stagesWithExceptions = EnumSet.noneOf(AnalysisStage.class);
+    }
+
+    /**
+     * Creates an <code>AnalysisSink</code> sharing the reports of the given sink.
+     *
+     * @since 2.2.0
+     */
+    AnalysisSink(@Nonnull AnalysisSink analysisSink) {
+        this.classNames = analysisSink.classNames;
+        this.analyzedClasses = analysisSink.analyzedClasses;
+        this.dependencyMap = analysisSink.dependencyMap;
+        this.stagesWithExceptions = analysisSink.stagesWithExceptions;
+    }
 
     @Override
     public String toString() {
@@ -45,7 +94,11 @@ public class AnalysisSink {
      * @since 1.1.0
      */
     public void addAnalyzedClass(@Nonnull String clazz) {
-        this.analyzedClasses.add(clazz);
+        int id = this.classNames.getId(clazz);
+        BitSet stripe = this.analyzedClasses[id & (STRIPES - 1)];
+        synchronized (stripe) {
+            stripe.set(id >>> STRIPE_SHIFT);
+        }
     }
 
     /**
@@ -62,9 +115,11 @@ public class AnalysisSink {
         if (size(dependees) == 0) {
             return;
         }
-        Set<String> existingDependees = getOrAddMappedSet(this.dependencyMap, depender);
-        for (String aDependee : dependees) {
-            existingDependees.add(aDependee);
+        IntHashSet existingDependees = getDependeesOf(this.classNames.getId(depender));
+        synchronized (existingDependees) {
+            for (String aDependee : dependees) {
+                existingDependees.add(this.classNames.getId(aDependee));
+            }
         }
         logger.debug("Added dependencies from [{}] to {}.", depender, dependees);
     }
@@ -88,7 +143,9 @@ public class AnalysisSink {
      * @since 2.0.0
      */
     public void addException(@Nonnull AnalysisStage stage) {
-        this.stagesWithExceptions.add(stage);
+        synchronized (this.stagesWithExceptions) {
+            this.stagesWithExceptions.add(stage);
+        }
     }
 
     /**
@@ -99,7 +156,33 @@ public class AnalysisSink {
      */
     @Nonnull
     public AnalyzedCode getAnalyzedCode() {
-        return new AnalyzedCode(this.stagesWithExceptions, this.analyzedClasses, this.dependencyMap);
+        EnumSet<AnalysisStage> stages;
+        synchronized (this.stagesWithExceptions) {
+            stages = EnumSet.copyOf(this.stagesWithExceptions);
+        }
+        BitSet classes = new BitSet(this.classNames.size());
+        for (int i = 0; i < STRIPES; i++) {
+            BitSet stripe = this.analyzedClasses[i];
+            synchronized (stripe) {
+                for (int bit = stripe.nextSetBit(0); bit >= 0; bit = stripe.nextSetBit(bit + 1)) {
+                    classes.set(bit << STRIPE_SHIFT | i);
+                }
+            }
+        }
+        return new AnalyzedCode(stages, this.classNames, classes, DependencyGraph.of(this.dependencyMap));
+    }
+
+    @Nonnull
+    private IntHashSet getDependeesOf(int dependerId) {
+        IntHashSet dependees = this.dependencyMap.get(dependerId);
+        if (dependees == null) {
+            IntHashSet newDependees = new IntHashSet();
+            dependees = this.dependencyMap.putIfAbsent(dependerId, newDependees);
+            if (dependees == null) {
+                dependees = newDependees;
+            }
+        }
+        return dependees;
     }
 
 }
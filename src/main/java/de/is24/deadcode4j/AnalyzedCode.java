@@ -1,12 +1,18 @@
 package de.is24.deadcode4j;
 
 import javax.annotation.Nonnull;
-import java.util.EnumSet;
-import java.util.Map;
-import java.util.Set;
+import javax.annotation.Nullable;
+import java.util.*;
+
+import static com.google.common.collect.Maps.newHashMapWithExpectedSize;
+import static com.google.common.collect.Sets.newHashSetWithExpectedSize;
 
 /**
- * <code>AnalyzedCode</code> comprises the classes being analyzed as well as the code dependencies.
+ * <code>AnalyzedCode</code> comprises the classes being analyzed as well as the code dependencies.<br/>
+ * Internally, classes are represented by the IDs assigned by a {@link ClassNameTable}; the <code>String</code> based
+ * accessors create their results on each call, so prefer the ID based ones when processing large code bases.<br/>
+ * An <code>AnalyzedCode</code> {@link AnalyzedCodeBuilder built incrementally} may consist of several dependency
+ * graphs; those are united on the first call of {@link #getDependencyGraph()}.
  *
  * @since 1.0.0
  */
@@ -14,21 +20,83 @@ public class AnalyzedCode {
     @Nonnull
     private final EnumSet<AnalysisStage> stagesWithExceptions;
     @Nonnull
-    private final Set<String> analyzedClasses;
+    private final ClassNameTable classNames;
     @Nonnull
-    private final Map<String, Set<String>> codeDependencies;
+    private final BitSet analyzedClasses;
+    @Nullable
+    private DependencyGraph codeDependencies;
+    @Nullable
+    private List<DependencyGraph> pendingCodeDependencies;
 
     public AnalyzedCode(@Nonnull EnumSet<AnalysisStage> stagesWithExceptions,
                         @Nonnull Set<String> analyzedClasses,
                         @Nonnull Map<String, Set<String>> codeDependencies) {
         this.stagesWithExceptions = stagesWithExceptions;
+        this.classNames = new ClassNameTable();
+        this.analyzedClasses = new BitSet();
+        for (String analyzedClass : analyzedClasses) {
+            this.analyzedClasses.set(this.classNames.getId(analyzedClass));
+        }
+        Map<Integer, IntHashSet> dependencies = newHashMapWithExpectedSize(codeDependencies.size());
+        for (Map.Entry<String, Set<String>> dependency : codeDependencies.entrySet()) {
+            IntHashSet dependees = new IntHashSet();
+            for (String dependee : dependency.getValue()) {
+                dependees.add(this.classNames.getId(dependee));
+            }
+            dependencies.put(this.classNames.getId(dependency.getKey()), dependees);
+        }
+        this.codeDependencies = DependencyGraph.of(dependencies);
+    }
+
+    /**
+     * Creates a new <code>AnalyzedCode</code> based on the IDs assigned by the given table.
+     *
+     * @since 2.2.0
+     */
+    AnalyzedCode(@Nonnull EnumSet<AnalysisStage> stagesWithExceptions,
+                 @Nonnull ClassNameTable classNames,
+                 @Nonnull BitSet analyzedClasses,
+                 @Nonnull DependencyGraph codeDependencies) {
+        this.stagesWithExceptions = stagesWithExceptions;
+        this.classNames = classNames;
         this.analyzedClasses = analyzedClasses;
         this.codeDependencies = codeDependencies;
     }
 
+    /**
+     * Creates a new <code>AnalyzedCode</code> based on the IDs assigned by the given table; the given graphs are
+     * united as soon as the dependencies are requested.
+     *
+     * @since 2.2.0
+     */
+    AnalyzedCode(@Nonnull EnumSet<AnalysisStage> stagesWithExceptions,
+                 @Nonnull ClassNameTable classNames,
+                 @Nonnull BitSet analyzedClasses,
+                 @Nonnull List<DependencyGraph> codeDependencies) {
+        this.stagesWithExceptions = stagesWithExceptions;
+        this.classNames = classNames;
+        this.analyzedClasses = analyzedClasses;
+        this.pendingCodeDependencies = codeDependencies;
+    }
+
     @Nonnull
     public Set<String> getAnalyzedClasses() {
-        return analyzedClasses;
+        Set<String> classes = newHashSetWithExpectedSize(this.analyzedClasses.cardinality());
+        for (int id = this.analyzedClasses.nextSetBit(0); id >= 0; id = this.analyzedClasses.nextSetBit(id + 1)) {
+            classes.add(this.classNames.getName(id));
+        }
+        return Collections.unmodifiableSet(classes);
+    }
+
+    /**
+     * Indicates if the given class was analyzed. Unlike {@link #getAnalyzedClasses()}, this doesn't create the names
+     * of all analyzed classes.
+     *
+     * @since 2.2.0
+     */
+    public boolean isAnalyzedClass(@Nonnull String className) {
+        int id = this.classNames.findId(className);
+        return id >= 0 && this.analyzedClasses.get(id);
     }
 
     /**
@@ -36,7 +104,17 @@ public class AnalyzedCode {
      */
     @Nonnull
     public Map<String, Set<String>> getCodeDependencies() {
-        return codeDependencies;
+        DependencyGraph graph = getDependencyGraph();
+        BitSet dependers = graph.getDependerIds();
+        Map<String, Set<String>> dependencies = newHashMapWithExpectedSize(dependers.cardinality());
+        for (int dependerId = dependers.nextSetBit(0); dependerId >= 0; dependerId = dependers.nextSetBit(dependerId + 1)) {
+            Set<String> dependees = newHashSetWithExpectedSize(graph.getNumberOfDependeesOf(dependerId));
+            for (int i = graph.getOffsetOf(dependerId), end = graph.getEndOffsetOf(dependerId); i < end; i++) {
+                dependees.add(this.classNames.getName(graph.getDependee(i)));
+            }
+            dependencies.put(this.classNames.getName(dependerId), Collections.unmodifiableSet(dependees));
+        }
+        return Collections.unmodifiableMap(dependencies);
     }
 
     /**
@@ -49,4 +127,70 @@ public class AnalyzedCode {
         return stagesWithExceptions;
     }
 
+    /**
+     * Returns the table defining the IDs used by {@link #getAnalyzedClassIds()} and {@link #getDependencyGraph()}.
+     *
+     * @since 2.2.0
+     */
+    @Nonnull
+    public ClassNameTable getClassNames() {
+        return this.classNames;
+    }
+
+    /**
+     * Returns the IDs of the analyzed classes.
+     *
+     * @since 2.2.0
+     */
+    @Nonnull
+    public BitSet getAnalyzedClassIds() {
+        return (BitSet) this.analyzedClasses.clone();
+    }
+
+    /**
+     * Returns the code dependencies as an immutable graph of IDs.
+     *
+     * @since 2.2.0
+     */
+    @Nonnull
+    public synchronized DependencyGraph getDependencyGraph() {
+        if (this.codeDependencies == null) {
+            this.codeDependencies = DependencyGraph.union(this.pendingCodeDependencies);
+            this.pendingCodeDependencies = null;
+        }
+        return this.codeDependencies;
+    }
+
+    /**
+     * Returns the number of dependees of the given depender. Unlike {@link #getDependencyGraph()}, this doesn't unite
+     * the graphs making up the code dependencies; only the dependees of the given depender are combined.
+     *
+     * @since 2.2.0
+     */
+    public int getNumberOfDependeesOf(int dependerId) {
+        List<DependencyGraph> graphs = getDependencyGraphs();
+        if (graphs.size() == 1) {
+            return graphs.get(0).getNumberOfDependeesOf(dependerId);
+        }
+        IntHashSet dependees = new IntHashSet();
+        for (DependencyGraph graph : graphs) {
+            for (int i = graph.getOffsetOf(dependerId), end = graph.getEndOffsetOf(dependerId); i < end; i++) {
+                dependees.add(graph.getDependee(i));
+            }
+        }
+        return dependees.size();
+    }
+
+    /**
+     * Returns the graphs making up the code dependencies - without uniting them, if that didn't happen yet.
+     *
+     * @since 2.2.0
+     */
+    @Nonnull
+    synchronized List<DependencyGraph> getDependencyGraphs() {
+        return this.codeDependencies != null
+                ? Collections.singletonList(this.codeDependencies)
+                : this.pendingCodeDependencies;
+    }
+
 }
@@ -0,0 +1,106 @@
+package de.is24.deadcode4j;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.BitSet;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static com.google.common.collect.Maps.newHashMap;
+
+/**
+ * The <code>AnalyzedCodeBuilder</code> combines several {@link AnalyzedCode} instances - like those of all modules
+ * and of the project-wide {@link Analyzer#finishAnalysis(AnalysisSink, AnalyzedCode) analysis} - into one.<br/>
+ * It is append-only: the dependency graphs added are merely collected and united by the <code>AnalyzedCode</code>
+ * {@link #build() built} when its dependencies are requested for the first time. Adding some dependencies thus costs
+ * as much as those dependencies, not as much as the whole project. If a built instance united its graphs, the next
+ * one starts off with that union.
+ *
+ * @since 2.2.0
+ */
+final class AnalyzedCodeBuilder {
+
+    @Nonnull
+    private final ClassNameTable classNames;
+    @Nonnull
+    private final EnumSet<AnalysisStage> stagesWithExceptions = EnumSet.noneOf(AnalysisStage.class);
+    @Nonnull
+    private final BitSet analyzedClasses = new BitSet();
+    @Nonnull
+    private final List<DependencyGraph> dependencyGraphs = newArrayList();
+    @Nullable
+    private AnalyzedCode lastBuiltCode;
+    private int numberOfGraphsOfLastBuiltCode;
+
+    AnalyzedCodeBuilder(@Nonnull ClassNameTable classNames) {
+        this.classNames = classNames;
+    }
+
+    /**
+     * Adds the given code; if it is based on another <code>ClassNameTable</code>, its IDs are translated.
+     *
+     * @since 2.2.0
+     */
+    @Nonnull
+    AnalyzedCodeBuilder add(@Nonnull AnalyzedCode analyzedCode) {
+        this.stagesWithExceptions.addAll(analyzedCode.getStagesWithExceptions());
+        if (analyzedCode.getClassNames() != this.classNames) {
+            addTranslated(analyzedCode);
+            return this;
+        }
+        this.analyzedClasses.or(analyzedCode.getAnalyzedClassIds());
+        for (DependencyGraph dependencyGraph : analyzedCode.getDependencyGraphs()) {
+            if (dependencyGraph.getDependerIdBound() > 0) {
+                this.dependencyGraphs.add(dependencyGraph);
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Creates an <code>AnalyzedCode</code> comprising everything added so far.
+     *
+     * @since 2.2.0
+     */
+    @Nonnull
+    AnalyzedCode build() {
+        if (this.lastBuiltCode != null) {
+            List<DependencyGraph> graphsOfLastBuiltCode = this.lastBuiltCode.getDependencyGraphs();
+            this.dependencyGraphs.subList(0, this.numberOfGraphsOfLastBuiltCode).clear();
+            this.dependencyGraphs.addAll(0, graphsOfLastBuiltCode);
+        }
+        this.lastBuiltCode = new AnalyzedCode(EnumSet.copyOf(this.stagesWithExceptions), this.classNames,
+                (BitSet) this.analyzedClasses.clone(), newArrayList(this.dependencyGraphs));
+        this.numberOfGraphsOfLastBuiltCode = this.dependencyGraphs.size();
+        return this.lastBuiltCode;
+    }
+
+    private void addTranslated(@Nonnull AnalyzedCode analyzedCode) {
+        ClassNameTable namesOfCode = analyzedCode.getClassNames();
+        BitSet classesOfCode = analyzedCode.getAnalyzedClassIds();
+        for (int id = classesOfCode.nextSetBit(0); id >= 0; id = classesOfCode.nextSetBit(id + 1)) {
+            this.analyzedClasses.set(translate(id, namesOfCode));
+        }
+        DependencyGraph graph = analyzedCode.getDependencyGraph();
+        BitSet dependers = graph.getDependerIds();
+        if (dependers.isEmpty()) {
+            return;
+        }
+        Map<Integer, IntHashSet> dependencies = newHashMap();
+        for (int dependerId = dependers.nextSetBit(0); dependerId >= 0; dependerId = dependers.nextSetBit(dependerId + 1)) {
+            IntHashSet dependees = new IntHashSet();
+            for (int i = graph.getOffsetOf(dependerId), end = graph.getEndOffsetOf(dependerId); i < end; i++) {
+                dependees.add(translate(graph.getDependee(i), namesOfCode));
+            }
+            dependencies.put(translate(dependerId, namesOfCode), dependees);
+        }
+        this.dependencyGraphs.add(DependencyGraph.of(dependencies));
+    }
+
+    private int translate(int id, @Nonnull ClassNameTable source) {
+        return this.classNames.getId(source.getName(id));
+    }
+
+}
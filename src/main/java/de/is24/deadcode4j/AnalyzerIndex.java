@@ -0,0 +1,187 @@
+package de.is24.deadcode4j;
+
+import com.google.common.collect.ConcurrentHashMultiset;
+import com.google.common.collect.Multiset;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.File;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static com.google.common.collect.Maps.newHashMap;
+import static com.google.common.collect.Maps.newTreeMap;
+import static com.google.common.collect.Sets.newHashSet;
+import static de.is24.deadcode4j.Utils.addIfNonNull;
+import static java.util.Collections.singletonList;
+
+/**
+ * The <code>AnalyzerIndex</code> determines the analyzers being interested in a file. It is built once for a set of
+ * analyzers and indexes the {@link SelectiveAnalyzer}s by the file extension of their suffixes, so a file is only
+ * offered to the analyzers registered for its extension and to those not declaring any suffixes.<br/>
+ * The order of the analyzers is retained. Additionally, the number of files looked up is counted per file extension.
+ *
+ * @since 2.2.0
+ */
+final class AnalyzerIndex {
+
+    @Nonnull
+    private final Map<String, List<Candidate>> candidatesByExtension = newHashMap();
+    @Nonnull
+    private final List<Candidate> candidatesForOtherFiles = newArrayList();
+    @Nonnull
+    private final Multiset<String> fileCounts = ConcurrentHashMultiset.create();
+
+    public AnalyzerIndex(@Nonnull Iterable<? extends Analyzer> analyzers) {
+        Set<String> extensions = newHashSet();
+        for (Analyzer analyzer : analyzers) {
+            if (SelectiveAnalyzer.class.isInstance(analyzer)) {
+                for (String suffix : SelectiveAnalyzer.class.cast(analyzer).getFileSuffixes()) {
+                    addIfNonNull(extensions, getExtensionOf(suffix));
+                }
+            }
+        }
+        for (String extension : extensions) {
+            this.candidatesByExtension.put(extension, listCandidatesFor(analyzers, extension));
+        }
+        this.candidatesForOtherFiles.addAll(listCandidatesFor(analyzers, null));
+    }
+
+    @Nullable
+    private static String getExtensionOf(@Nonnull String suffix) {
+        int lastSlash = suffix.lastIndexOf('/');
+        int lastDot = suffix.lastIndexOf('.');
+        return lastDot > lastSlash ? suffix.substring(lastDot) : null;
+    }
+
+    @Nonnull
+    private static List<Candidate> listCandidatesFor(@Nonnull Iterable<? extends Analyzer> analyzers,
+                                                     @Nullable String extension) {
+        List<Candidate> candidates = newArrayList();
+        for (Analyzer analyzer : analyzers) {
+            if (!SelectiveAnalyzer.class.isInstance(analyzer)) {
+                candidates.add(new Candidate(analyzer, null));
+                continue;
+            }
+            List<String> suffixesToCheck = newArrayList();
+            boolean acceptsEveryFile = false;
+            for (String suffix : SelectiveAnalyzer.class.cast(analyzer).getFileSuffixes()) {
+                String extensionOfSuffix = getExtensionOf(suffix);
+                if (extensionOfSuffix == null || extensionOfSuffix.equals(extension)) {
+                    if (suffix.equals(extension)) {
+                        acceptsEveryFile = true;
+                    } else {
+                        suffixesToCheck.add(suffix);
+                    }
+                }
+            }
+            if (acceptsEveryFile) {
+                candidates.add(new Candidate(analyzer, null));
+            } else if (!suffixesToCheck.isEmpty()) {
+                candidates.add(new Candidate(analyzer, suffixesToCheck));
+            }
+        }
+        return candidates;
+    }
+
+    /**
+     * Returns the analyzers being interested in the given file.
+     *
+     * @since 2.2.0
+     */
+    @Nonnull
+    public List<Analyzer> getAnalyzersFor(@Nonnull File file) {
+        String extension = getExtensionOf(file);
+        this.fileCounts.add(extension);
+
+        List<Candidate> candidates = getCandidatesFor(extension);
+        if (candidates.size() == 1 && candidates.get(0).suffixesToCheck == null) {
+            return singletonList(candidates.get(0).analyzer);
+        }
+        List<Analyzer> analyzers = newArrayList();
+        for (Candidate candidate : candidates) {
+            if (candidate.accepts(file)) {
+                analyzers.add(candidate.analyzer);
+            }
+        }
+        return analyzers;
+    }
+
+    /**
+     * Returns those of the given files the given analyzer is interested in, retaining their order. Other than
+     * {@link #getAnalyzersFor(File)}, this doesn't count the files.
+     *
+     * @since 2.2.0
+     */
+    @Nonnull
+    public List<File> selectFilesFor(@Nonnull Analyzer analyzer, @Nonnull Iterable<File> files) {
+        List<File> selectedFiles = newArrayList();
+        for (File file : files) {
+            for (Candidate candidate : getCandidatesFor(getExtensionOf(file))) {
+                if (candidate.analyzer == analyzer && candidate.accepts(file)) {
+                    selectedFiles.add(file);
+                    break;
+                }
+            }
+        }
+        return selectedFiles;
+    }
+
+    /**
+     * Returns the number of files {@link #getAnalyzersFor(File) looked up} per file extension; files without an
+     * extension are listed with an empty extension.
+     *
+     * @since 2.2.0
+     */
+    @Nonnull
+    public Map<String, Integer> getFileCounts() {
+        Map<String, Integer> fileCounts = newTreeMap();
+        for (Multiset.Entry<String> entry : this.fileCounts.entrySet()) {
+            fileCounts.put(entry.getElement(), entry.getCount());
+        }
+        return fileCounts;
+    }
+
+    @Nonnull
+    private static String getExtensionOf(@Nonnull File file) {
+        String fileName = file.getName();
+        int lastDot = fileName.lastIndexOf('.');
+        return lastDot < 0 ? "" : fileName.substring(lastDot);
+    }
+
+    @Nonnull
+    private List<Candidate> getCandidatesFor(@Nonnull String extension) {
+        List<Candidate> candidates = this.candidatesByExtension.get(extension);
+        return candidates != null ? candidates : this.candidatesForOtherFiles;
+    }
+
+    private static final class Candidate {
+
+        @Nonnull
+        final Analyzer analyzer;
+        @Nullable
+        final List<String> suffixesToCheck;
+
+        Candidate(@Nonnull Analyzer analyzer, @Nullable List<String> suffixesToCheck) {
+            this.analyzer = analyzer;
+            this.suffixesToCheck = suffixesToCheck;
+        }
+
+        boolean accepts(@Nonnull File file) {
+            if (this.suffixesToCheck == null) {
+                return true;
+            }
+            for (String suffix : this.suffixesToCheck) {
+                String nameToCheck = suffix.indexOf('/') < 0 ? file.getName() : file.getAbsolutePath();
+                if (nameToCheck.endsWith(suffix)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+    }
+
+}
@@ -0,0 +1,26 @@
+package de.is24.deadcode4j;
+
+import javax.annotation.Nonnull;
+
+/**
+ * A <code>CacheableAnalyzer</code> is an {@link Analyzer} whose findings for a file depend on nothing but the file's
+ * content and the analyzer's configuration. This allows the {@link DeadCodeFinder} to
+ * {@link AnalysisCache cache those findings} and replay them instead of analyzing an unchanged file again.<br/>
+ * Consequently, {@link #doAnalysis(AnalysisContext, java.io.File)} must report its findings solely via
+ * {@link AnalysisContext#addAnalyzedClass(String)} and {@link AnalysisContext#addDependencies(String, Iterable)} and
+ * must not keep any state.
+ *
+ * @since 2.2.0
+ */
+public interface CacheableAnalyzer extends Analyzer {
+
+    /**
+     * Returns a key identifying this analyzer and its configuration; cached findings are only reused if the key is
+     * the same.
+     *
+     * @since 2.2.0
+     */
+    @Nonnull
+    String getCacheKey();
+
+}
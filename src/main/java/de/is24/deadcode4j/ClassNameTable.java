@@ -0,0 +1,96 @@
+package de.is24.deadcode4j;
+
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.ThreadSafe;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import static com.google.common.base.Preconditions.checkElementIndex;
+
+/**
+ * The <code>ClassNameTable</code> assigns a dense <code>int</code> ID to each class name (or other depending
+ * entity) reported to an {@link AnalysisSink}. This way, each name is stored only once, no matter how often it is
+ * reported, and the dependency model can be kept in <code>int</code> arrays & bit sets.<br/>
+ * IDs are assigned in the order the names are first seen, starting at <code>0</code>.
+ *
+ * @since 2.2.0
+ */
+@ThreadSafe
+public final class ClassNameTable {
+
+    @Nonnull
+    private final ConcurrentMap<String, Integer> ids = new ConcurrentHashMap<String, Integer>();
+    @Nonnull
+    private final Object lock = new Object();
+    @Nonnull
+    private volatile String[] names = new String[1024];
+    private volatile int size = 0;
+
+    @Override
+    public String toString() {
+        return "ClassNameTable with " + this.size + " entries";
+    }
+
+    /**
+     * Returns the ID of the given name; a new ID is assigned if the name wasn't known yet.
+     *
+     * @since 2.2.0
+     */
+    public int getId(@Nonnull String name) {
+        Integer id = this.ids.get(name);
+        if (id != null) {
+            return id;
+        }
+        synchronized (this.lock) {
+            id = this.ids.get(name);
+            if (id != null) {
+                return id;
+            }
+            int newId = this.size;
+            String[] currentNames = this.names;
+            if (newId == currentNames.length) {
+                currentNames = Arrays.copyOf(currentNames, 2 * newId);
+            }
+            currentNames[newId] = name;
+            this.names = currentNames;
+            this.size = newId + 1;
+            this.ids.put(name, newId);
+            return newId;
+        }
+    }
+
+    /**
+     * Returns the ID of the given name without assigning a new one.
+     *
+     * @return the ID or <code>-1</code> if the name isn't known
+     * @since 2.2.0
+     */
+    public int findId(@Nonnull String name) {
+        Integer id = this.ids.get(name);
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * Returns the name for the given ID.
+     *
+     * @throws IndexOutOfBoundsException if the ID wasn't assigned by this table
+     * @since 2.2.0
+     */
+    @Nonnull
+    public String getName(int id) {
+        checkElementIndex(id, this.size, "id");
+        return this.names[id];
+    }
+
+    /**
+     * Returns the number of names known to this table; as IDs are dense, this is the upper bound (exclusive) of all
+     * IDs assigned so far.
+     *
+     * @since 2.2.0
+     */
+    public int size() {
+        return this.size;
+    }
+
+}
@@ -2,6 +2,7 @@ package de.is24.deadcode4j;
 
 import javax.annotation.Nonnull;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.EnumSet;
 
 /**
@@ -16,13 +17,29 @@ public class DeadCode {
     private final Collection<String> analyzedClasses;
     @Nonnull
     private final Collection<String> deadClasses;
+    @Nonnull
+    private final Collection<Collection<String>> deadIslands;
 
     public DeadCode(@Nonnull EnumSet<AnalysisStage> stagesWithExceptions,
                     @Nonnull Collection<String> analyzedClasses,
                     @Nonnull Collection<String> deadClasses) {
+        this(stagesWithExceptions, analyzedClasses, deadClasses, Collections.<Collection<String>>emptyList());
+    }
+
+    /**
+     * Creates a new <code>DeadCode</code> instance.
+     *
+     * @param deadIslands the groups of classes depending on each other, but not being used by anything else
+     * @since 2.2.0
+     */
+    public DeadCode(@Nonnull EnumSet<AnalysisStage> stagesWithExceptions,
+                    @Nonnull Collection<String> analyzedClasses,
+                    @Nonnull Collection<String> deadClasses,
+                    @Nonnull Collection<Collection<String>> deadIslands) {
         this.stagesWithExceptions = stagesWithExceptions;
         this.analyzedClasses = analyzedClasses;
         this.deadClasses = deadClasses;
+        this.deadIslands = deadIslands;
     }
 
     @Nonnull
@@ -35,6 +52,18 @@ public class DeadCode {
         return this.deadClasses;
     }
 
+    /**
+     * Returns the groups of classes that depend on each other (directly or transitively), but are not used by any
+     * other entity. Those classes keep each other alive, so they are not necessarily reported as
+     * {@link #getDeadClasses() dead classes}.
+     *
+     * @since 2.2.0
+     */
+    @Nonnull
+    public Collection<Collection<String>> getDeadIslands() {
+        return this.deadIslands;
+    }
+
     /**
      * Returns the stages for which an exception occurred.
      *
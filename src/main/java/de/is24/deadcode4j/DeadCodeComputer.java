@@ -1,38 +1,156 @@
 package de.is24.deadcode4j;
 
 import javax.annotation.Nonnull;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.List;
-import java.util.Set;
+import java.util.Map;
 
 import static com.google.common.collect.Lists.newArrayList;
-import static com.google.common.collect.Sets.newHashSet;
+import static com.google.common.collect.Lists.newArrayListWithCapacity;
+import static com.google.common.collect.Maps.newTreeMap;
 
 /**
- * The <code>DeadCodeComputer</code> computes the {@link DeadCode} based on {@link AnalyzedCode}.
+ * The <code>DeadCodeComputer</code> computes the {@link DeadCode} based on {@link AnalyzedCode}.<br/>
+ * By default, a class is considered dead if no other entity depends on it. If
+ * {@link #DeadCodeComputer(boolean) computing transitively dead code}, the entities depending on others without being
+ * an analyzed class themselves - like <code>_Spring-XML_</code>, <code>_web.xml_</code> or any other ID an analyzer
+ * reports dependencies for - are taken as roots; every class not reachable from those roots is considered dead. This
+ * way, a class only used by dead classes is reported as well.<br/>
+ * Independent of that, groups of classes depending on each other but not being used by anything else - the strongly
+ * connected components of the dependency graph without incoming dependencies - are reported as
+ * {@link DeadCode#getDeadIslands() dead islands}.
  *
  * @since 2.0.0
  */
 public class DeadCodeComputer {
 
+    private final boolean transitive;
+
+    /**
+     * Creates a <code>DeadCodeComputer</code> reporting the classes no other entity depends on.
+     *
+     * @since 2.0.0
+     */
+    public DeadCodeComputer() {
+        this(false);
+    }
+
+    /**
+     * Creates a new <code>DeadCodeComputer</code>.
+     *
+     * @param transitive if <code>true</code>, all classes that are not reachable from a non-class depender are
+     *                   reported; otherwise, only the classes no other entity depends on are reported
+     * @since 2.2.0
+     */
+    public DeadCodeComputer(boolean transitive) {
+        this.transitive = transitive;
+    }
+
     @Nonnull
     public DeadCode computeDeadCode(@Nonnull AnalyzedCode analyzedCode) {
         Collection<String> deadClasses = determineDeadClasses(analyzedCode);
-        return new DeadCode(analyzedCode.getStagesWithExceptions(), analyzedCode.getAnalyzedClasses(), deadClasses);
+        return new DeadCode(analyzedCode.getStagesWithExceptions(), analyzedCode.getAnalyzedClasses(), deadClasses,
+                determineDeadIslands(analyzedCode));
     }
 
     @Nonnull
     private Collection<String> determineDeadClasses(@Nonnull AnalyzedCode analyzedCode) {
-        Set<String> classesInUse = newHashSet();
-        for (Iterable<String> usedClasses : analyzedCode.getCodeDependencies().values()) {
-            for (String clazz : usedClasses) {
-                classesInUse.add(clazz);
+        BitSet deadClassIds = analyzedCode.getAnalyzedClassIds();
+        deadClassIds.andNot(this.transitive
+                ? determineReachableClasses(analyzedCode.getDependencyGraph(), deadClassIds)
+                : determineReferencedClasses(analyzedCode.getDependencyGraph()));
+        ClassNameTable classNames = analyzedCode.getClassNames();
+        List<String> deadClasses = newArrayListWithCapacity(deadClassIds.cardinality());
+        for (int id = deadClassIds.nextSetBit(0); id >= 0; id = deadClassIds.nextSetBit(id + 1)) {
+            deadClasses.add(classNames.getName(id));
+        }
+        return deadClasses;
+    }
+
+    @Nonnull
+    private BitSet determineReferencedClasses(@Nonnull DependencyGraph dependencies) {
+        BitSet classesInUse = new BitSet();
+        for (int i = 0; i < dependencies.getNumberOfDependencies(); i++) {
+            classesInUse.set(dependencies.getDependee(i));
+        }
+        return classesInUse;
+    }
+
+    /**
+     * Performs a breadth-first search starting at all dependers that are no analyzed classes. As each entity is
+     * enqueued only once, the queue is a plain <code>int</code> array.
+     */
+    @Nonnull
+    private BitSet determineReachableClasses(@Nonnull DependencyGraph dependencies, @Nonnull BitSet analyzedClasses) {
+        BitSet reached = dependencies.getDependerIds();
+        reached.andNot(analyzedClasses);
+        int[] queue = new int[Math.max(reached.length(), 16)];
+        int head = 0;
+        int tail = 0;
+        for (int id = reached.nextSetBit(0); id >= 0; id = reached.nextSetBit(id + 1)) {
+            queue[tail++] = id;
+        }
+        while (head < tail) {
+            int dependerId = queue[head++];
+            for (int i = dependencies.getOffsetOf(dependerId), end = dependencies.getEndOffsetOf(dependerId); i < end; i++) {
+                int dependeeId = dependencies.getDependee(i);
+                if (reached.get(dependeeId)) {
+                    continue;
+                }
+                reached.set(dependeeId);
+                if (tail == queue.length) {
+                    queue = Arrays.copyOf(queue, 2 * tail);
+                }
+                queue[tail++] = dependeeId;
             }
         }
+        return reached;
+    }
 
-        List<String> deadClasses = newArrayList(analyzedCode.getAnalyzedClasses());
-        deadClasses.removeAll(classesInUse);
-        return deadClasses;
+    /**
+     * Determines the strongly connected components consisting of at least two analyzed classes which aren't depended
+     * upon by any entity outside of the component.
+     */
+    @Nonnull
+    private Collection<Collection<String>> determineDeadIslands(@Nonnull AnalyzedCode analyzedCode) {
+        DependencyGraph dependencies = analyzedCode.getDependencyGraph();
+        ClassNameTable classNames = analyzedCode.getClassNames();
+        int numberOfEntities = Math.max(classNames.size(), dependencies.getDependerIdBound());
+        StronglyConnectedComponents components = StronglyConnectedComponents.of(dependencies, numberOfEntities);
+
+        BitSet analyzedClasses = analyzedCode.getAnalyzedClassIds();
+        int[] sizeOfComponent = new int[components.getNumberOfComponents()];
+        BitSet nonIslands = new BitSet(components.getNumberOfComponents());
+        for (int id = 0; id < numberOfEntities; id++) {
+            int component = components.getComponentOf(id);
+            sizeOfComponent[component]++;
+            if (!analyzedClasses.get(id)) {
+                nonIslands.set(component);
+            }
+            for (int i = dependencies.getOffsetOf(id), end = dependencies.getEndOffsetOf(id); i < end; i++) {
+                int componentOfDependee = components.getComponentOf(dependencies.getDependee(i));
+                if (componentOfDependee != component) {
+                    nonIslands.set(componentOfDependee);
+                }
+            }
+        }
+
+        Map<Integer, Collection<String>> islands = newTreeMap();
+        for (int id = 0; id < numberOfEntities; id++) {
+            int component = components.getComponentOf(id);
+            if (sizeOfComponent[component] < 2 || nonIslands.get(component)) {
+                continue;
+            }
+            Collection<String> island = islands.get(component);
+            if (island == null) {
+                island = newArrayListWithCapacity(sizeOfComponent[component]);
+                islands.put(component, island);
+            }
+            island.add(classNames.getName(id));
+        }
+        return newArrayList(islands.values());
     }
 
 }
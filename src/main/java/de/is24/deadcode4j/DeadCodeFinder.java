@@ -1,20 +1,26 @@
 package de.is24.deadcode4j;
 
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.ListMultimap;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import org.apache.commons.io.DirectoryWalker;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.Closeable;
 import java.io.File;
 import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.*;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.collect.Lists.newArrayList;
 import static com.google.common.collect.Maps.newHashMap;
 import static com.google.common.collect.Sets.newHashSet;
+import static de.is24.deadcode4j.FileContents.fileContentsFor;
 import static de.is24.deadcode4j.Module.sort;
-import static de.is24.deadcode4j.Utils.getOrAddMappedSet;
-import static java.util.Arrays.asList;
 
 /**
  * The <code>DeadCodeFinder</code> ties everything together in order to ultimately find dead code.
@@ -23,49 +29,292 @@ import static java.util.Arrays.asList;
  */
 public class DeadCodeFinder {
 
+    /**
+     * The key of the {@link AnalysisContext#getProjectCache() project cache} entry providing the number of threads
+     * the analysis uses, as <code>Integer</code>. Allows analyzers running threads on their own to size them alike.
+     *
+     * @since 2.2.0
+     */
+    public static final String NUMBER_OF_THREADS = "deadcode4j.threads";
     private final Logger logger = LoggerFactory.getLogger(getClass());
     @Nonnull
     private final DeadCodeComputer deadCodeComputer;
     @Nonnull
     private final Iterable<? extends Analyzer> analyzers;
+    @Nonnull
+    private final AnalyzerIndex analyzerIndex;
+    private final int numberOfThreads;
+    @Nullable
+    private final AnalysisCache analysisCache;
+    @Nonnull
+    private final Map<Object, Object> projectSettings;
 
+    /**
+     * Creates a new <code>DeadCodeFinder</code> analyzing the files of a module one after another.
+     *
+     * @since 1.0.0
+     */
     public DeadCodeFinder(@Nonnull DeadCodeComputer deadCodeComputer, @Nonnull Set<? extends Analyzer> analyzers) {
+        this(deadCodeComputer, analyzers, 1);
+    }
+
+    /**
+     * Creates a new <code>DeadCodeFinder</code> analyzing modules and their files using the given number of threads.
+     * If more than one thread is used, each module is analyzed as soon as all modules it requires are finished, and
+     * each thread analyzing files uses its own view of the module's <code>AnalysisContext</code>, reporting to the
+     * same findings but having its own cache.
+     *
+     * @param numberOfThreads the number of threads to analyze modules and files with; <code>1</code> means sequential
+     *                        analysis
+     * @since 2.2.0
+     */
+    public DeadCodeFinder(@Nonnull DeadCodeComputer deadCodeComputer,
+                          @Nonnull Set<? extends Analyzer> analyzers,
+                          int numberOfThreads) {
+        this(deadCodeComputer, analyzers, numberOfThreads, null);
+    }
+
+    /**
+     * Creates a new <code>DeadCodeFinder</code> analyzing modules and their files using the given number of threads.
+     * Files that didn't change since the previous run aren't analyzed again by {@link CacheableAnalyzer}s; their
+     * findings are replayed from the given cache instead.
+     *
+     * @param numberOfThreads the number of threads to analyze modules and files with; <code>1</code> means sequential
+     *                        analysis
+     * @param analysisCache   the cache to use; <code>null</code> disables caching
+     * @since 2.2.0
+     */
+    public DeadCodeFinder(@Nonnull DeadCodeComputer deadCodeComputer,
+                          @Nonnull Set<? extends Analyzer> analyzers,
+                          int numberOfThreads,
+                          @Nullable AnalysisCache analysisCache) {
+        this(deadCodeComputer, analyzers, numberOfThreads, analysisCache, Collections.<Object, Object>emptyMap());
+    }
+
+    /**
+     * Creates a new <code>DeadCodeFinder</code> analyzing modules and their files using the given number of threads.
+     * Files that didn't change since the previous run aren't analyzed again by {@link CacheableAnalyzer}s; their
+     * findings are replayed from the given cache instead.
+     *
+     * @param numberOfThreads the number of threads to analyze modules and files with; <code>1</code> means sequential
+     *                        analysis
+     * @param analysisCache   the cache to use; <code>null</code> disables caching
+     * @param projectSettings entries to put into the {@link AnalysisContext#getProjectCache() project cache} before
+     *                        the analysis starts, e.g. to configure analyzers
+     * @since 2.2.0
+     */
+    public DeadCodeFinder(@Nonnull DeadCodeComputer deadCodeComputer,
+                          @Nonnull Set<? extends Analyzer> analyzers,
+                          int numberOfThreads,
+                          @Nullable AnalysisCache analysisCache,
+                          @Nonnull Map<Object, Object> projectSettings) {
+        checkArgument(numberOfThreads > 0, "[numberOfThreads] must be positive!");
         this.deadCodeComputer = deadCodeComputer;
         this.analyzers = newArrayList(analyzers);
+        this.analyzerIndex = new AnalyzerIndex(this.analyzers);
+        this.numberOfThreads = numberOfThreads;
+        this.analysisCache = analysisCache;
+        this.projectSettings = newHashMap(projectSettings);
     }
 
     @Nonnull
     public DeadCode findDeadCode(@Nonnull Iterable<Module> modules) {
-        AnalyzedCode analyzedCode = analyzeCode(modules);
-        return computeDeadCode(analyzedCode);
+        ExecutorService moduleExecutor = createExecutorService("deadcode4j-module-%d");
+        ExecutorService fileExecutor = createExecutorService("deadcode4j-analysis-%d");
+        ConcurrentMap<Object, Object> projectCache = new ConcurrentHashMap<Object, Object>(this.projectSettings);
+        projectCache.put(NUMBER_OF_THREADS, this.numberOfThreads);
+        try {
+            AnalyzedCode analyzedCode = analyzeCode(modules, projectCache, moduleExecutor, fileExecutor);
+            return computeDeadCode(analyzedCode);
+        } finally {
+            shutdown(moduleExecutor);
+            shutdown(fileExecutor);
+            close(projectCache);
+        }
+    }
+
+    @Nullable
+    private ExecutorService createExecutorService(@Nonnull String nameFormat) {
+        if (this.numberOfThreads == 1) {
+            return null;
+        }
+        return Executors.newFixedThreadPool(this.numberOfThreads,
+                new ThreadFactoryBuilder().setDaemon(true).setNameFormat(nameFormat).build());
+    }
+
+    private void shutdown(@Nullable ExecutorService executorService) {
+        if (executorService != null) {
+            executorService.shutdownNow();
+        }
+    }
+
+    private void close(@Nonnull ConcurrentMap<Object, Object> projectCache) {
+        for (Object entry : projectCache.values()) {
+            if (entry instanceof Closeable) {
+                try {
+                    ((Closeable) entry).close();
+                } catch (IOException e) {
+                    logger.debug("Failed to close [{}]!", entry, e);
+                }
+            }
+        }
+        projectCache.clear();
+    }
+
+    @Nonnull
+    private AnalyzedCode analyzeCode(@Nonnull Iterable<Module> modules,
+                                     @Nonnull ConcurrentMap<Object, Object> projectCache,
+                                     @Nullable ExecutorService moduleExecutor,
+                                     @Nullable ExecutorService fileExecutor) {
+        List<Module> sortedModules = newArrayList(sort(modules));
+        ClassNameTable classNames = new ClassNameTable();
+        Map<Module, AnalyzedCode> analyzedModules;
+        if (moduleExecutor == null) {
+            analyzedModules = analyzeModules(sortedModules, classNames, projectCache, fileExecutor);
+        } else {
+            logger.debug("Analyzing modules using {} threads.", this.numberOfThreads);
+            analyzedModules = analyzeModulesInParallel(sortedModules, classNames, projectCache, moduleExecutor,
+                    fileExecutor);
+        }
+        AnalyzedCodeBuilder analyzedCode = new AnalyzedCodeBuilder(classNames);
+        for (Module module : sortedModules) {
+            analyzedCode.add(analyzedModules.get(module));
+        }
+        logger.debug("Analyzed files by extension: {}", this.analyzerIndex.getFileCounts());
+        logger.debug("Finishing analysis of whole project...");
+        for (Analyzer analyzer : this.analyzers) {
+            AnalysisSink analysisSink = new AnalysisSink(classNames);
+            analyzer.finishAnalysis(analysisSink, analyzedCode.build());
+            analyzedCode.add(analysisSink.getAnalyzedCode());
+        }
+        logger.debug("Finished analysis of project.");
+        return analyzedCode.build();
+    }
+
+    @Nonnull
+    private Map<Module, AnalyzedCode> analyzeModules(@Nonnull List<Module> sortedModules,
+                                                    @Nonnull ClassNameTable classNames,
+                                                    @Nonnull ConcurrentMap<Object, Object> projectCache,
+                                                    @Nullable ExecutorService fileExecutor) {
+        Map<Module, AnalyzedCode> analyzedCode = newHashMap();
+        IntermediateResults intermediateResults = new IntermediateResults();
+        for (Module module : sortedModules) {
+            AnalysisContext analysisContext = analyzeModule(
+                    module, intermediateResults.calculateIntermediateResultsFor(module), classNames, projectCache,
+                    fileExecutor);
+            intermediateResults.add(analysisContext);
+            analyzedCode.put(module, analysisContext.getAnalyzedCode());
+        }
+        return analyzedCode;
     }
 
+    /**
+     * Analyzes each module as soon as all of its required modules are finished - i.e. the modules of a "wave" as
+     * defined by {@link Module#sort(Iterable)} are analyzed concurrently, yet a module needn't wait for the whole
+     * previous wave to be finished.<br/>
+     * The <code>IntermediateResults</code> are only accessed by the calling thread.
+     */
     @Nonnull
-    private AnalyzedCode analyzeCode(@Nonnull Iterable<Module> modules) {
-        List<AnalyzedCode> analyzedCode = newArrayList();
+    private Map<Module, AnalyzedCode> analyzeModulesInParallel(@Nonnull List<Module> sortedModules,
+                                                              @Nonnull ClassNameTable classNames,
+                                                              @Nonnull ConcurrentMap<Object, Object> projectCache,
+                                                              @Nonnull ExecutorService moduleExecutor,
+                                                              @Nullable ExecutorService fileExecutor) {
+        Map<Module, AnalyzedCode> analyzedCode = newHashMap();
         IntermediateResults intermediateResults = new IntermediateResults();
-        for (Module module : sort(modules)) {
-            AnalysisContext analysisContext = new AnalysisContext(module, intermediateResults.calculateIntermediateResultsFor(module));
-            for (Repository repository : module.getAllRepositories()) {
-                analyzeRepository(analysisContext, repository);
+        CompletionService<AnalysisContext> runningModules =
+                new ExecutorCompletionService<AnalysisContext>(moduleExecutor);
+        Map<Module, Integer> numberOfPendingModules = newHashMap();
+        ListMultimap<Module, Module> dependentModules = ArrayListMultimap.create();
+        int numberOfRunningModules = 0;
+        for (Module module : sortedModules) {
+            Set<Module> requiredModules = newHashSet(module.getRequiredModules());
+            for (Module requiredModule : requiredModules) {
+                dependentModules.put(requiredModule, module);
             }
-            logger.debug("Finishing analysis of [{}]...", analysisContext);
-            for (Analyzer analyzer : this.analyzers) {
-                analyzer.finishAnalysis(analysisContext);
+            numberOfPendingModules.put(module, requiredModules.size());
+            if (requiredModules.isEmpty()) {
+                runningModules.submit(new ModuleAnalysisTask(module,
+                        intermediateResults.calculateIntermediateResultsFor(module), classNames, projectCache,
+                        fileExecutor));
+                numberOfRunningModules++;
             }
-            logger.debug("Finished analysis of [{}].", analysisContext);
+        }
+        while (numberOfRunningModules > 0) {
+            AnalysisContext analysisContext = waitFor(takeNext(runningModules));
+            numberOfRunningModules--;
+            Module finishedModule = analysisContext.getModule();
             intermediateResults.add(analysisContext);
-            analyzedCode.add(analysisContext.getAnalyzedCode());
+            analyzedCode.put(finishedModule, analysisContext.getAnalyzedCode());
+            for (Module dependentModule : dependentModules.get(finishedModule)) {
+                int pendingModules = numberOfPendingModules.get(dependentModule) - 1;
+                numberOfPendingModules.put(dependentModule, pendingModules);
+                if (pendingModules == 0) {
+                    runningModules.submit(new ModuleAnalysisTask(dependentModule,
+                            intermediateResults.calculateIntermediateResultsFor(dependentModule), classNames,
+                            projectCache, fileExecutor));
+                    numberOfRunningModules++;
+                }
+            }
         }
-        logger.debug("Finishing analysis of whole project...");
-        AnalyzedCode combinedAnalysis = merge(analyzedCode);
+        return analyzedCode;
+    }
+
+    @Nonnull
+    private AnalysisContext analyzeModule(@Nonnull Module module,
+                                          @Nonnull Map<Object, IntermediateResult> intermediateResults,
+                                          @Nonnull ClassNameTable classNames,
+                                          @Nonnull ConcurrentMap<Object, Object> projectCache,
+                                          @Nullable ExecutorService fileExecutor) {
+        AnalysisContext analysisContext = new AnalysisContext(module, intermediateResults, classNames, projectCache);
+        List<File> files = newArrayList();
+        for (Repository repository : module.getAllRepositories()) {
+            files.addAll(listFiles(repository));
+        }
+        AnalysisCache.ModuleCache moduleCache = null;
+        if (this.analysisCache != null) {
+            moduleCache = this.analysisCache.loadFor(module, files, describeAnalyzers());
+            if (moduleCache.restoreAnalysisInto(analysisContext)) {
+                logger.debug("Reused the analysis of [{}] as it didn't change.", analysisContext);
+                for (Analyzer analyzer : this.analyzers) {
+                    if (StatefulAnalyzer.class.isInstance(analyzer)) {
+                        StatefulAnalyzer.class.cast(analyzer).restoreAnalysis(analysisContext);
+                    }
+                }
+                return analysisContext;
+            }
+        }
+        announceFiles(analysisContext, files);
+        if (fileExecutor == null) {
+            analyzeFiles(analysisContext, files, moduleCache);
+        } else {
+            analyzeFilesInParallel(analysisContext, files, moduleCache, fileExecutor);
+        }
+        logger.debug("Finishing analysis of [{}]...", analysisContext);
         for (Analyzer analyzer : this.analyzers) {
-            AnalysisSink analysisSink = new AnalysisSink();
-            analyzer.finishAnalysis(analysisSink, combinedAnalysis);
-            combinedAnalysis = merge(combinedAnalysis, analysisSink);
+            analyzer.finishAnalysis(analysisContext);
         }
-        logger.debug("Finished analysis of project.");
-        return combinedAnalysis;
+        if (moduleCache != null) {
+            moduleCache.save(analysisContext);
+        }
+        logger.debug("Finished analysis of [{}].", analysisContext);
+        return analysisContext;
+    }
+
+    /**
+     * Describes the configured analyzers for the fingerprint of a module's analysis. Analyzers that aren't cacheable
+     * are described by their <code>toString()</code>, which thus has to reflect their configuration.
+     */
+    @Nonnull
+    private String describeAnalyzers() {
+        List<String> descriptions = newArrayList();
+        for (Analyzer analyzer : this.analyzers) {
+            descriptions.add(analyzer instanceof CacheableAnalyzer
+                    ? ((CacheableAnalyzer) analyzer).getCacheKey()
+                    : analyzer.toString());
+        }
+        Collections.sort(descriptions);
+        return descriptions.toString();
     }
 
     @Nonnull
@@ -73,77 +322,183 @@ public class DeadCodeFinder {
         return this.deadCodeComputer.computeDeadCode(analyzedCode);
     }
 
-    private void analyzeRepository(@Nonnull AnalysisContext analysisContext, @Nonnull Repository repository) {
-        RepositoryAnalyzer repositoryAnalyzer = new RepositoryAnalyzer(analysisContext, repository, this.analyzers);
+    @Nonnull
+    private List<File> listFiles(@Nonnull Repository repository) {
         try {
-            repositoryAnalyzer.analyze();
+            return new RepositoryWalker(repository).listFiles();
         } catch (IOException e) {
             throw new RuntimeException("This was unexpected; failed to parse files of " + repository + "!", e);
         }
     }
 
-    @Nonnull
-    private AnalyzedCode merge(@Nonnull List<AnalyzedCode> analyzedCode) {
-        EnumSet<AnalysisStage> stagesWithExceptions = EnumSet.noneOf(AnalysisStage.class);
-        Set<String> analyzedClasses = newHashSet();
-        Map<String, Set<String>> dependencies = newHashMap();
-        for (AnalyzedCode code : analyzedCode) {
-            stagesWithExceptions.addAll(code.getStagesWithExceptions());
-            analyzedClasses.addAll(code.getAnalyzedClasses());
-            for (Map.Entry<String, Set<String>> dependencyEntry : code.getCodeDependencies().entrySet()) {
-                Set<String> knownDependencies = getOrAddMappedSet(dependencies, dependencyEntry.getKey());
-                knownDependencies.addAll(dependencyEntry.getValue());
+    private void announceFiles(@Nonnull AnalysisContext analysisContext, @Nonnull List<File> files) {
+        for (Analyzer analyzer : this.analyzers) {
+            if (!PrefetchingAnalyzer.class.isInstance(analyzer)) {
+                continue;
+            }
+            List<File> filesOfInterest = this.analyzerIndex.selectFilesFor(analyzer, files);
+            if (!filesOfInterest.isEmpty()) {
+                try {
+                    PrefetchingAnalyzer.class.cast(analyzer).prefetch(analysisContext, filesOfInterest);
+                } catch (RuntimeException rE) {
+                    logger.warn("Analyzer [{}] failed to prepare the analysis of [{}]!", analyzer, analysisContext, rE);
+                }
             }
         }
-        return new AnalyzedCode(stagesWithExceptions, analyzedClasses, dependencies);
+    }
+
+    private void analyzeFiles(@Nonnull AnalysisContext analysisContext,
+                              @Nonnull Iterable<File> files,
+                              @Nullable AnalysisCache.ModuleCache moduleCache) {
+        for (File file : files) {
+            analyzeFile(analysisContext, file, moduleCache);
+        }
+    }
+
+    private void analyzeFile(@Nonnull AnalysisContext analysisContext,
+                             @Nonnull File file,
+                             @Nullable AnalysisCache.ModuleCache moduleCache) {
+        logger.debug("Analyzing file [{}]...", file);
+        try {
+            AnalysisCache.CachedFile cachedFile = null;
+            for (Analyzer analyzer : this.analyzerIndex.getAnalyzersFor(file)) {
+                try {
+                    if (moduleCache != null && analyzer instanceof CacheableAnalyzer) {
+                        if (cachedFile == null) {
+                            cachedFile = moduleCache.getEntryFor(analysisContext, file);
+                        }
+                        cachedFile.analyze(analysisContext, (CacheableAnalyzer) analyzer, file);
+                    } else {
+                        analyzer.doAnalysis(analysisContext, file);
+                    }
+                } catch (RuntimeException rE) {
+                    logger.warn("Analyzer [{}] failed to analyze file [{}]!", analyzer, file, rE);
+                    analysisContext.addException(AnalysisStage.FILE_ANALYSIS);
+                }
+            }
+        } finally {
+            fileContentsFor(analysisContext).release();
+        }
+    }
+
+    /**
+     * Each worker pulls the next file from a shared queue as soon as it is done with the previous one, so threads that
+     * got cheap files simply take over more of the work. A file is passed to all analyzers by the same worker, thus
+     * analyzers can rely on seeing the files one by one per <code>AnalysisContext</code>.<br/>
+     * The workers' views of the module's context report to its findings directly, so there is nothing to merge once
+     * they are done.
+     */
+    private void analyzeFilesInParallel(@Nonnull AnalysisContext analysisContext,
+                                        @Nonnull Collection<File> files,
+                                        @Nullable AnalysisCache.ModuleCache moduleCache,
+                                        @Nonnull ExecutorService executorService) {
+        Queue<File> filesToAnalyze = new ConcurrentLinkedQueue<File>(files);
+        int numberOfWorkers = Math.min(this.numberOfThreads, files.size());
+        List<Future<Void>> workers = newArrayList();
+        for (int i = 0; i < numberOfWorkers; i++) {
+            workers.add(executorService.submit(new FileAnalysisWorker(analysisContext, filesToAnalyze, moduleCache)));
+        }
+        for (Future<Void> worker : workers) {
+            waitFor(worker);
+        }
     }
 
     @Nonnull
-    private AnalyzedCode merge(@Nonnull AnalyzedCode analyzedCode, @Nonnull AnalysisSink analysisSink) {
-        AnalyzedCode analysisToAdd = analysisSink.getAnalyzedCode();
-        if (analysisToAdd.getStagesWithExceptions().isEmpty()
-                && analysisToAdd.getAnalyzedClasses().isEmpty()
-                && analysisToAdd.getCodeDependencies().isEmpty()) {
-            return analyzedCode;
+    private Future<AnalysisContext> takeNext(@Nonnull CompletionService<AnalysisContext> completionService) {
+        try {
+            return completionService.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while analyzing modules!", e);
         }
-        return merge(asList(analyzedCode, analysisToAdd));
     }
 
-    private static class RepositoryAnalyzer extends DirectoryWalker<Void> {
+    private <T> T waitFor(@Nonnull Future<T> worker) {
+        try {
+            return worker.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while analyzing code!", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new RuntimeException("Failed to analyze code!", cause);
+        }
+    }
+
+    private static class RepositoryWalker extends DirectoryWalker<File> {
 
-        private final Logger logger = LoggerFactory.getLogger(getClass());
-        private final AnalysisContext analysisContext;
         private final Repository repository;
-        private final Iterable<? extends Analyzer> analyzers;
 
-        public RepositoryAnalyzer(@Nonnull AnalysisContext analysisContext, @Nonnull Repository repository, @Nonnull Iterable<? extends Analyzer> analyzers) {
+        public RepositoryWalker(@Nonnull Repository repository) {
             super(repository.getFileFilter(), -1);
             this.repository = repository;
-            this.analysisContext = analysisContext;
-            this.analyzers = analyzers;
         }
 
-        public void analyze() throws IOException {
-            logger.debug("Starting analysis of [{}]...", this.repository);
-            super.walk(this.repository.getDirectory(), null);
+        @Nonnull
+        public List<File> listFiles() throws IOException {
+            List<File> files = newArrayList();
+            super.walk(this.repository.getDirectory(), files);
+            return files;
         }
 
         @Override
-        protected void handleFile(File file, int depth, Collection results) {
-            logger.debug("Analyzing file [{}]...", file);
-            for (Analyzer analyzer : this.analyzers) {
-                try {
-                    analyzer.doAnalysis(this.analysisContext, file);
-                } catch (RuntimeException rE) {
-                    logger.warn("Analyzer [{}] failed to analyze file [{}]!", analyzer, file, rE);
-                    analysisContext.addException(AnalysisStage.FILE_ANALYSIS);
-                }
+        protected void handleFile(File file, int depth, Collection<File> results) {
+            results.add(file);
+        }
+
+    }
+
+    private class FileAnalysisWorker implements Callable<Void> {
+
+        private final AnalysisContext analysisContext;
+        private final Queue<File> filesToAnalyze;
+        private final AnalysisCache.ModuleCache moduleCache;
+
+        public FileAnalysisWorker(@Nonnull AnalysisContext moduleContext,
+                                  @Nonnull Queue<File> filesToAnalyze,
+                                  @Nullable AnalysisCache.ModuleCache moduleCache) {
+            this.analysisContext = moduleContext.createView();
+            this.filesToAnalyze = filesToAnalyze;
+            this.moduleCache = moduleCache;
+        }
+
+        @Override
+        public Void call() {
+            for (File file = filesToAnalyze.poll(); file != null; file = filesToAnalyze.poll()) {
+                analyzeFile(this.analysisContext, file, this.moduleCache);
             }
+            return null;
+        }
+
+    }
+
+    private class ModuleAnalysisTask implements Callable<AnalysisContext> {
+
+        private final Module module;
+        private final Map<Object, IntermediateResult> intermediateResults;
+        private final ClassNameTable classNames;
+        private final ConcurrentMap<Object, Object> projectCache;
+        private final ExecutorService fileExecutor;
+
+        public ModuleAnalysisTask(@Nonnull Module module,
+                                  @Nonnull Map<Object, IntermediateResult> intermediateResults,
+                                  @Nonnull ClassNameTable classNames,
+                                  @Nonnull ConcurrentMap<Object, Object> projectCache,
+                                  @Nullable ExecutorService fileExecutor) {
+            this.module = module;
+            this.intermediateResults = intermediateResults;
+            this.classNames = classNames;
+            this.projectCache = projectCache;
+            this.fileExecutor = fileExecutor;
         }
 
         @Override
-        protected void handleEnd(Collection<Void> results) {
-            logger.debug("Analysis of [{}] is done.", this.repository);
+        public AnalysisContext call() {
+            return analyzeModule(this.module, this.intermediateResults, this.classNames, this.projectCache,
+                    this.fileExecutor);
         }
 
     }
@@ -0,0 +1,258 @@
+package de.is24.deadcode4j;
+
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.Immutable;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The <code>DependencyGraph</code> holds the code dependencies of an {@link AnalyzedCode} in
+ * <a href="https://en.wikipedia.org/wiki/Sparse_matrix#Compressed_sparse_row_.28CSR.2C_CRS_or_Yale_format.29">compressed
+ * sparse row</a> format: the dependees of all dependers are stored in one <code>int</code> array, sorted by depender
+ * and dependee; a second array defines the offset at which the dependees of each depender start.<br/>
+ * All entities are represented by the IDs assigned by a {@link ClassNameTable}. The dependees of a depender are
+ * iterated like this, neither boxing nor allocating anything:
+ * <pre>
+ * for (int i = graph.getOffsetOf(dependerId), end = graph.getEndOffsetOf(dependerId); i &lt; end; i++) {
+ *     int dependeeId = graph.getDependee(i);
+ * }
+ * </pre>
+ *
+ * @since 2.2.0
+ */
+@Immutable
+public final class DependencyGraph {
+
+    private static final DependencyGraph EMPTY = new DependencyGraph(new BitSet(), new int[1], new int[0]);
+    @Nonnull
+    private final BitSet dependers;
+    @Nonnull
+    private final int[] offsets;
+    @Nonnull
+    private final int[] dependees;
+
+    private DependencyGraph(@Nonnull BitSet dependers, @Nonnull int[] offsets, @Nonnull int[] dependees) {
+        this.dependers = dependers;
+        this.offsets = offsets;
+        this.dependees = dependees;
+    }
+
+    /**
+     * Returns a graph without any dependencies.
+     *
+     * @since 2.2.0
+     */
+    @Nonnull
+    public static DependencyGraph empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Creates a graph from the given dependee sets, mapped by the ID of the depender. Each set is locked while it is
+     * read.
+     *
+     * @since 2.2.0
+     */
+    @Nonnull
+    static DependencyGraph of(@Nonnull Map<Integer, IntHashSet> dependencies) {
+        if (dependencies.isEmpty()) {
+            return EMPTY;
+        }
+        int bound = 0;
+        for (Integer dependerId : dependencies.keySet()) {
+            bound = Math.max(bound, dependerId + 1);
+        }
+        int[][] dependeesOfDepender = new int[bound][];
+        BitSet dependers = new BitSet(bound);
+        int numberOfDependees = 0;
+        for (Map.Entry<Integer, IntHashSet> dependency : dependencies.entrySet()) {
+            IntHashSet dependees = dependency.getValue();
+            int[] sortedDependees;
+            synchronized (dependees) {
+                sortedDependees = dependees.toSortedArray();
+            }
+            dependeesOfDepender[dependency.getKey()] = sortedDependees;
+            dependers.set(dependency.getKey());
+            numberOfDependees += sortedDependees.length;
+        }
+        int[] offsets = new int[bound + 1];
+        int[] dependees = new int[numberOfDependees];
+        int offset = 0;
+        for (int dependerId = 0; dependerId < bound; dependerId++) {
+            offsets[dependerId] = offset;
+            int[] sortedDependees = dependeesOfDepender[dependerId];
+            if (sortedDependees != null) {
+                System.arraycopy(sortedDependees, 0, dependees, offset, sortedDependees.length);
+                offset += sortedDependees.length;
+            }
+        }
+        offsets[bound] = offset;
+        return new DependencyGraph(dependers, offsets, dependees);
+    }
+
+    /**
+     * Creates the union of the given graphs, which must be based on the same <code>ClassNameTable</code>.<br/>
+     * The dependees of each depender are first copied into one contiguous run; only runs fed by more than one graph
+     * need to be sorted &amp; cleared of duplicates. Thus, the union takes linear time no matter how many graphs are
+     * united.
+     *
+     * @since 2.2.0
+     */
+    @Nonnull
+    static DependencyGraph union(@Nonnull List<DependencyGraph> graphs) {
+        if (graphs.size() == 1) {
+            return graphs.get(0);
+        }
+        int bound = 0;
+        for (DependencyGraph graph : graphs) {
+            bound = Math.max(bound, graph.getDependerIdBound());
+        }
+        if (bound == 0) {
+            return EMPTY;
+        }
+        BitSet dependers = new BitSet(bound);
+        BitSet dependersOfSeveralGraphs = new BitSet(bound);
+        int[] runStarts = new int[bound + 1];
+        for (DependencyGraph graph : graphs) {
+            BitSet dependersOfGraph = graph.dependers;
+            for (int dependerId = dependersOfGraph.nextSetBit(0); dependerId >= 0;
+                 dependerId = dependersOfGraph.nextSetBit(dependerId + 1)) {
+                if (dependers.get(dependerId)) {
+                    dependersOfSeveralGraphs.set(dependerId);
+                }
+                dependers.set(dependerId);
+                runStarts[dependerId + 1] += graph.getNumberOfDependeesOf(dependerId);
+            }
+        }
+        for (int dependerId = 0; dependerId < bound; dependerId++) {
+            runStarts[dependerId + 1] += runStarts[dependerId];
+        }
+
+        int[] dependees = new int[runStarts[bound]];
+        int[] runEnds = Arrays.copyOf(runStarts, bound);
+        for (DependencyGraph graph : graphs) {
+            BitSet dependersOfGraph = graph.dependers;
+            for (int dependerId = dependersOfGraph.nextSetBit(0); dependerId >= 0;
+                 dependerId = dependersOfGraph.nextSetBit(dependerId + 1)) {
+                int start = graph.getOffsetOf(dependerId);
+                int length = graph.getEndOffsetOf(dependerId) - start;
+                System.arraycopy(graph.dependees, start, dependees, runEnds[dependerId], length);
+                runEnds[dependerId] += length;
+            }
+        }
+
+        int[] offsets = new int[bound + 1];
+        int offset = 0;
+        for (int dependerId = 0; dependerId < bound; dependerId++) {
+            offsets[dependerId] = offset;
+            int start = runStarts[dependerId];
+            int end = runStarts[dependerId + 1];
+            if (!dependersOfSeveralGraphs.get(dependerId)) {
+                System.arraycopy(dependees, start, dependees, offset, end - start);
+                offset += end - start;
+                continue;
+            }
+            Arrays.sort(dependees, start, end);
+            for (int i = start; i < end; i++) {
+                if (offset == offsets[dependerId] || dependees[i] != dependees[offset - 1]) {
+                    dependees[offset++] = dependees[i];
+                }
+            }
+        }
+        offsets[bound] = offset;
+        return new DependencyGraph(dependers, offsets,
+                offset == dependees.length ? dependees : Arrays.copyOf(dependees, offset));
+    }
+
+    @Override
+    public String toString() {
+        return "DependencyGraph with " + this.dependers.cardinality() + " depender(s) and "
+                + this.dependees.length + " dependencies";
+    }
+
+    /**
+     * Returns the upper bound (exclusive) of the IDs of all dependers; <code>0</code> if there are none.
+     *
+     * @since 2.2.0
+     */
+    public int getDependerIdBound() {
+        return this.offsets.length - 1;
+    }
+
+    /**
+     * Indicates if the given ID represents an entity for which dependencies were reported - possibly none at all.
+     *
+     * @since 2.2.0
+     */
+    public boolean isDepender(int id) {
+        return id >= 0 && this.dependers.get(id);
+    }
+
+    /**
+     * Returns the IDs of all dependers.
+     *
+     * @since 2.2.0
+     */
+    @Nonnull
+    public BitSet getDependerIds() {
+        return (BitSet) this.dependers.clone();
+    }
+
+    /**
+     * Returns the total number of dependencies.
+     *
+     * @since 2.2.0
+     */
+    public int getNumberOfDependencies() {
+        return this.dependees.length;
+    }
+
+    /**
+     * Returns the offset of the first dependee of the given depender.
+     *
+     * @see #getDependee(int)
+     * @since 2.2.0
+     */
+    public int getOffsetOf(int dependerId) {
+        if (dependerId < 0) {
+            return 0;
+        }
+        return dependerId < this.offsets.length ? this.offsets[dependerId] : this.dependees.length;
+    }
+
+    /**
+     * Returns the offset following the last dependee of the given depender.
+     *
+     * @see #getDependee(int)
+     * @since 2.2.0
+     */
+    public int getEndOffsetOf(int dependerId) {
+        if (dependerId < 0) {
+            return 0;
+        }
+        return dependerId + 1 < this.offsets.length ? this.offsets[dependerId + 1] : this.dependees.length;
+    }
+
+    /**
+     * Returns the number of dependees of the given depender.
+     *
+     * @since 2.2.0
+     */
+    public int getNumberOfDependeesOf(int dependerId) {
+        return getEndOffsetOf(dependerId) - getOffsetOf(dependerId);
+    }
+
+    /**
+     * Returns the ID of the dependee stored at the given offset.
+     *
+     * @throws ArrayIndexOutOfBoundsException if the offset is not within <code>0</code> and
+     *                                        {@link #getNumberOfDependencies()}
+     * @since 2.2.0
+     */
+    public int getDependee(int offset) {
+        return this.dependees[offset];
+    }
+
+}
@@ -0,0 +1,161 @@
+package de.is24.deadcode4j;
+
+import de.is24.guava.NonNullFunction;
+import org.apache.commons.io.IOUtils;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * The <code>FileContents</code> provide read-only access to the content of the file being analyzed. The file is read
+ * only once, no matter how many analyzers examine it: small files are read into a heap buffer that is reused for the
+ * next file, large files are memory-mapped.<br/>
+ * As the buffer is reused, the views handed out must not be used any more once the next file is read; this is
+ * the case when the {@link DeadCodeFinder} passes the next file to the analyzers.
+ *
+ * @since 2.2.0
+ */
+public final class FileContents {
+
+    /**
+     * Files having at least this size are memory-mapped instead of being read into the heap.
+     */
+    static final int MAPPING_THRESHOLD = 1024 * 1024;
+    @Nonnull
+    private static final NonNullFunction<AnalysisContext, FileContents> SUPPLIER = new NonNullFunction<AnalysisContext, FileContents>() {
+        @Nonnull
+        @Override
+        public FileContents apply(@Nonnull AnalysisContext input) {
+            return new FileContents();
+        }
+    };
+    @Nonnull
+    private byte[] heapBuffer = new byte[8192];
+    @Nullable
+    private File currentFile;
+    @Nullable
+    private ByteBuffer currentContent;
+
+    /**
+     * Creates or retrieves the <code>FileContents</code> for the given analysis context.<br/>
+     * A new instance will be put in the analysis context's cache and subsequently retrieved from there.
+     *
+     * @since 2.2.0
+     */
+    @Nonnull
+    public static FileContents fileContentsFor(@Nonnull AnalysisContext analysisContext) {
+        return analysisContext.getOrCreateCacheEntry(FileContents.class, SUPPLIER);
+    }
+
+    /**
+     * Returns a read-only view of the given file's content. The file is only read if it differs from the one
+     * requested before.
+     *
+     * @since 2.2.0
+     */
+    @Nonnull
+    public ByteBuffer getContentOf(@Nonnull File file) {
+        if (!file.equals(this.currentFile) || this.currentContent == null) {
+            release();
+            this.currentContent = read(file);
+            this.currentFile = file;
+        }
+        return this.currentContent.asReadOnlyBuffer();
+    }
+
+    /**
+     * Returns an <code>InputStream</code> reading the given file's content.
+     *
+     * @see #getContentOf(File)
+     * @since 2.2.0
+     */
+    @Nonnull
+    public InputStream openStream(@Nonnull File file) {
+        return new ByteBufferInputStream(getContentOf(file));
+    }
+
+    /**
+     * Drops the content of the current file; its buffer will be reused for the next one.
+     *
+     * @since 2.2.0
+     */
+    void release() {
+        this.currentFile = null;
+        this.currentContent = null;
+    }
+
+    @Nonnull
+    private ByteBuffer read(@Nonnull File file) {
+        RandomAccessFile randomAccessFile = null;
+        try {
+            randomAccessFile = new RandomAccessFile(file, "r");
+            FileChannel channel = randomAccessFile.getChannel();
+            long size = channel.size();
+            if (size >= MAPPING_THRESHOLD) {
+                return channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            }
+            if (this.heapBuffer.length < size) {
+                this.heapBuffer = new byte[Math.max((int) size, 2 * this.heapBuffer.length)];
+            }
+            ByteBuffer buffer = ByteBuffer.wrap(this.heapBuffer, 0, (int) size);
+            int bytesRead = 0;
+            while (buffer.hasRemaining() && bytesRead >= 0) {
+                bytesRead = channel.read(buffer);
+            }
+            buffer.flip();
+            return buffer;
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read [" + file + "]!", e);
+        } finally {
+            IOUtils.closeQuietly(randomAccessFile);
+        }
+    }
+
+    private static final class ByteBufferInputStream extends InputStream {
+
+        @Nonnull
+        private final ByteBuffer buffer;
+
+        ByteBufferInputStream(@Nonnull ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return this.buffer.hasRemaining() ? this.buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(@Nonnull byte[] bytes, int offset, int length) {
+            if (length == 0) {
+                return 0;
+            }
+            if (!this.buffer.hasRemaining()) {
+                return -1;
+            }
+            int bytesToRead = Math.min(length, this.buffer.remaining());
+            this.buffer.get(bytes, offset, bytesToRead);
+            return bytesToRead;
+        }
+
+        @Override
+        public long skip(long n) {
+            int bytesToSkip = (int) Math.max(0, Math.min(n, this.buffer.remaining()));
+            this.buffer.position(this.buffer.position() + bytesToSkip);
+            return bytesToSkip;
+        }
+
+        @Override
+        public int available() {
+            return this.buffer.remaining();
+        }
+
+    }
+
+}
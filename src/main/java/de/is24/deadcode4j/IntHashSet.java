@@ -0,0 +1,115 @@
+package de.is24.deadcode4j;
+
+import javax.annotation.Nonnull;
+import java.util.Arrays;
+
+/**
+ * A set of non-negative <code>int</code>s using open addressing, i.e. neither boxing the values nor allocating an
+ * entry object per value.<br/>
+ * It is not thread-safe.
+ *
+ * @since 2.2.0
+ */
+final class IntHashSet {
+
+    /**
+     * A slot holds the value plus one; thus <code>0</code> marks an empty slot.
+     */
+    @Nonnull
+    private int[] slots;
+    private int size = 0;
+
+    IntHashSet() {
+        this.slots = new int[8];
+    }
+
+    private static int indexFor(int slot, int mask) {
+        int hash = slot * 0x9E3779B9;
+        return (hash ^ hash >>> 16) & mask;
+    }
+
+    private static boolean insert(@Nonnull int[] slots, int slot) {
+        int mask = slots.length - 1;
+        for (int i = indexFor(slot, mask); ; i = (i + 1) & mask) {
+            if (slots[i] == slot) {
+                return false;
+            }
+            if (slots[i] == 0) {
+                slots[i] = slot;
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Adds the given value.
+     *
+     * @return <code>true</code> if the value wasn't contained yet
+     * @since 2.2.0
+     */
+    boolean add(int value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("Only non-negative values can be stored!");
+        }
+        if (4 * (this.size + 1) > 3 * this.slots.length) {
+            grow();
+        }
+        if (insert(this.slots, value + 1)) {
+            this.size++;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Indicates if the given value is contained.
+     *
+     * @since 2.2.0
+     */
+    boolean contains(int value) {
+        if (value < 0) {
+            return false;
+        }
+        int slot = value + 1;
+        int mask = this.slots.length - 1;
+        for (int i = indexFor(slot, mask); this.slots[i] != 0; i = (i + 1) & mask) {
+            if (this.slots[i] == slot) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    int size() {
+        return this.size;
+    }
+
+    /**
+     * Returns the values in ascending order.
+     *
+     * @since 2.2.0
+     */
+    @Nonnull
+    int[] toSortedArray() {
+        int[] values = new int[this.size];
+        int index = 0;
+        for (int slot : this.slots) {
+            if (slot != 0) {
+                values[index++] = slot - 1;
+            }
+        }
+        Arrays.sort(values);
+        return values;
+    }
+
+    private void grow() {
+        int[] newSlots = new int[2 * this.slots.length];
+        for (int slot : this.slots) {
+            if (slot != 0) {
+                insert(newSlots, slot);
+            }
+        }
+        this.slots = newSlots;
+    }
+
+}
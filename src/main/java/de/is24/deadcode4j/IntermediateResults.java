@@ -1,21 +1,25 @@
 package de.is24.deadcode4j;
 
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import java.io.Serializable;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Map;
 import java.util.Set;
 
 import static com.google.common.collect.Maps.newHashMap;
-import static com.google.common.collect.Sets.newHashSet;
 
 /**
  * Instances of <code>IntermediateResults</code> are used to keep track of and calculate the {@link IntermediateResult}s
- * produced by and being made available to {@link AnalysisContext} instances, respectively.
+ * produced by and being made available to {@link AnalysisContext} instances, respectively.<br/>
+ * The results calculated for a module are memoized as soon as the module's own results were added, so shared
+ * ancestors of a diamond-shaped module hierarchy are calculated only once.
  *
  * @since 2.0.0
  */
@@ -24,6 +28,8 @@ public final class IntermediateResults {
     private final Logger logger = LoggerFactory.getLogger(getClass());
     @Nonnull
     private final Map<Module, Map<Object, IntermediateResult>> intermediateResults = newHashMap();
+    @Nonnull
+    private final Map<Module, Map<Object, IntermediateResult>> calculatedResults = newHashMap();
 
     /**
      * Returns an <code>IntermediateResultSet</code> for the given <code>Set</code>.<br/>
@@ -107,8 +113,16 @@ public final class IntermediateResults {
 
     @Nonnull
     private Map<Object, IntermediateResult> calculateIntermediateResults(@Nonnull Module module) {
-        Map<Object, IntermediateResult> results = calculateResultsOfParentsFor(module);
+        Map<Object, IntermediateResult> results = calculatedResults.get(module);
+        if (results != null) {
+            return results;
+        }
+        results = calculateResultsOfParentsFor(module);
         mergeWithResultsOf(module, results);
+        results = Collections.unmodifiableMap(results);
+        if (intermediateResults.containsKey(module)) {
+            calculatedResults.put(module, results);
+        }
         return results;
     }
 
@@ -149,13 +163,18 @@ public final class IntermediateResults {
     /**
      * An <code>IntermediateResultSet</code> is an implementation of {@link de.is24.deadcode4j.IntermediateResult} using
      * a <code>Set</code> to store the results. Concerning merging with siblings & parents, it simply adds both sets.
+     * <br/>
+     * The results are stored in a persistent set, so merging adds the elements of the smaller set to the larger one
+     * instead of copying both.<br/>
+     * It is <code>Serializable</code> if its elements are, which allows to cache it.
      *
      * @since 2.0.0
      */
-    public static class IntermediateResultSet<E> implements IntermediateResult {
+    public static class IntermediateResultSet<E> implements IntermediateResult, Serializable {
 
+        private static final long serialVersionUID = 2L;
         @Nonnull
-        private final Set<E> results;
+        private final PersistentHashSet<E> results;
 
         /**
          * Creates an <code>IntermediateResultSet</code> to store the given <code>Set</code>.
@@ -163,7 +182,7 @@ public final class IntermediateResults {
          * @since 2.0.0
          */
         public IntermediateResultSet(@Nonnull Collection<E> results) {
-            this.results = Collections.unmodifiableSet(newHashSet(results));
+            this.results = PersistentHashSet.copyOf(results);
         }
 
         @Override
@@ -195,15 +214,17 @@ public final class IntermediateResults {
 
         @Nonnull
         private IntermediateResult merge(@Nonnull IntermediateResult result) {
-            Set<E> mergedResults = newHashSet(this.results);
-            mergedResults.addAll(getResults(result));
+            PersistentHashSet<E> otherResults = getResults(result);
+            PersistentHashSet<E> mergedResults = this.results.size() >= otherResults.size()
+                    ? this.results.plusAll(otherResults)
+                    : otherResults.plusAll(this.results);
             return new IntermediateResultSet<E>(mergedResults);
         }
 
         @Nonnull
         @SuppressWarnings("unchecked")
-        private Set<E> getResults(@Nonnull IntermediateResult result) {
-            return IntermediateResultSet.class.cast(result).getResults();
+        private PersistentHashSet<E> getResults(@Nonnull IntermediateResult result) {
+            return IntermediateResultSet.class.cast(result).results;
         }
 
     }
@@ -220,14 +241,18 @@ public final class IntermediateResults {
      * </ul>
      * </li>
      * </ul>
+     * The results are stored in a persistent map, so merging adds the entries of the smaller map to the larger one
+     * instead of copying both. Colliding <code>Collection</code>s are copied, never modified.<br/>
+     * It is <code>Serializable</code> if its keys and values are, which allows to cache it.
      *
      * @since 2.0.0
      */
-    public static class IntermediateResultMap<K, V> implements IntermediateResult {
+    public static class IntermediateResultMap<K, V> implements IntermediateResult, Serializable {
+        private static final long serialVersionUID = 2L;
         @Nonnull
-        private final Logger logger = LoggerFactory.getLogger(getClass());
+        private final transient Logger logger = LoggerFactory.getLogger(getClass());
         @Nonnull
-        private final Map<K, V> results;
+        private final PersistentHashMap<K, V> results;
 
         /**
          * Creates an <code>IntermediateResultMap</code> to store the given <code>Map</code>.
@@ -235,7 +260,7 @@ public final class IntermediateResults {
          * @since 2.0.0
          */
         public IntermediateResultMap(@Nonnull Map<K, V> results) {
-            this.results = Collections.unmodifiableMap(newHashMap(results));
+            this.results = PersistentHashMap.copyOf(results);
         }
 
         @Nonnull
@@ -267,28 +292,77 @@ public final class IntermediateResults {
         }
 
         @Nonnull
-        @SuppressWarnings("unchecked")
         private IntermediateResult merge(@Nonnull IntermediateResult result) {
-            Map<K, V> mergedResults = newHashMap(getResults());
-            for (Map.Entry<K, V> resultEntry : getResults(result).entrySet()) {
-                K key = resultEntry.getKey();
-                V value = resultEntry.getValue();
-                V existingResult = mergedResults.get(key);
-                if (existingResult == null) {
-                    mergedResults.put(key, value);
-                } else if (Collection.class.isInstance(existingResult)) {
-                    Collection.class.cast(existingResult).addAll(Collection.class.cast(value));
-                } else if (!existingResult.equals(value)) {
-                    logger.debug("Intermediate result [{}] refers to [{}] and [{}] defined by different modules, keeping the former.", key, existingResult, value);
+            PersistentHashMap<K, V> otherResults = getResults(result);
+            PersistentHashMap<K, V> mergedResults;
+            if (this.results.size() >= otherResults.size()) {
+                mergedResults = this.results;
+                for (Map.Entry<K, V> resultEntry : otherResults.entrySet()) {
+                    mergedResults = merge(mergedResults, resultEntry.getKey(), this.results.get(resultEntry.getKey()),
+                            resultEntry.getValue());
+                }
+            } else {
+                mergedResults = otherResults;
+                for (Map.Entry<K, V> resultEntry : this.results.entrySet()) {
+                    mergedResults = merge(mergedResults, resultEntry.getKey(), resultEntry.getValue(),
+                            otherResults.get(resultEntry.getKey()));
                 }
             }
             return new IntermediateResultMap<K, V>(mergedResults);
         }
 
+        /**
+         * Merges the own value and the other one for the given key into the given map.
+         */
+        @Nonnull
+        @SuppressWarnings("unchecked")
+        private PersistentHashMap<K, V> merge(@Nonnull PersistentHashMap<K, V> mergedResults,
+                                              @Nonnull K key,
+                                              @Nullable V ownValue,
+                                              @Nullable V otherValue) {
+            if (ownValue == null) {
+                return mergedResults.plus(key, otherValue);
+            }
+            if (otherValue == null) {
+                return mergedResults.plus(key, ownValue);
+            }
+            if (Collection.class.isInstance(ownValue)) {
+                return mergedResults.plus(key, (V) union((Collection<Object>) ownValue, (Collection<Object>) otherValue));
+            }
+            if (!ownValue.equals(otherValue)) {
+                logger.debug("Intermediate result [{}] refers to [{}] and [{}] defined by different modules, keeping the former.", key, ownValue, otherValue);
+            }
+            return mergedResults.plus(key, ownValue);
+        }
+
+        /**
+         * Creates a new collection of the same type as the first one, containing the elements of both collections.
+         */
         @Nonnull
         @SuppressWarnings("unchecked")
-        private Map<K, V> getResults(IntermediateResult result) {
-            return IntermediateResultMap.class.cast(result).getResults();
+        private Collection<Object> union(@Nonnull Collection<Object> first, @Nonnull Collection<Object> second) {
+            Collection<Object> union;
+            try {
+                union = first.getClass().newInstance();
+            } catch (Exception e) {
+                union = first instanceof Set ? Sets.newLinkedHashSet() : Lists.newArrayList();
+            }
+            union.addAll(first);
+            union.addAll(second);
+            return union;
+        }
+
+        @Nonnull
+        @SuppressWarnings("unchecked")
+        private PersistentHashMap<K, V> getResults(@Nonnull IntermediateResult result) {
+            return IntermediateResultMap.class.cast(result).results;
+        }
+
+        /**
+         * Creates a new instance upon deserialization in order to set up the logger.
+         */
+        private Object readResolve() {
+            return new IntermediateResultMap<K, V>(this.results);
         }
 
     }
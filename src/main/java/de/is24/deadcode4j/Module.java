@@ -2,6 +2,8 @@ package de.is24.deadcode4j;
 
 import com.google.common.base.Function;
 import com.google.common.base.Optional;
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.ListMultimap;
 import com.google.common.collect.Ordering;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -11,10 +13,14 @@ import javax.annotation.Nullable;
 import java.io.File;
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import static com.google.common.collect.Iterables.addAll;
 import static com.google.common.collect.Lists.newArrayList;
 import static com.google.common.collect.Lists.newArrayListWithCapacity;
+import static com.google.common.collect.Maps.newHashMap;
+import static com.google.common.collect.Sets.newHashSet;
 import static de.is24.deadcode4j.Utils.addIfNonNull;
 
 /**
@@ -60,38 +66,67 @@ public class Module {
     }
 
     /**
-     * Sorts the given modules by their dependencies onto one another, and alphabetically on second order.
+     * Sorts the given modules by their dependencies onto one another, and alphabetically on second order.<br/>
+     * The modules are sorted in "waves": the first wave consists of all modules requiring no other module, the next
+     * one of all modules requiring only modules of previous waves, and so on. Each wave is sorted alphabetically.
      *
      * @since 2.0.0
      */
     @Nonnull
     public static Iterable<Module> sort(@Nonnull Iterable<Module> modules) {
-        List<Module> unsortedModules = newArrayList(modules);
-        List<Module> sortedModules = newArrayListWithCapacity(unsortedModules.size());
-        while (!unsortedModules.isEmpty()) {
-            List<Module> modulesToAdd = newArrayList();
-            for (Module module : unsortedModules) {
-                if (sortedModules.containsAll(module.getRequiredModules())) {
-                    modulesToAdd.add(module);
-                }
+        Map<Module, Integer> numberOfUnresolvedModules = newHashMap();
+        ListMultimap<Module, Module> dependentModules = ArrayListMultimap.create();
+        for (Module module : modules) {
+            numberOfUnresolvedModules.put(module, 0);
+        }
+        List<Module> sortedModules = newArrayListWithCapacity(numberOfUnresolvedModules.size());
+        List<Module> modulesToAdd = newArrayList();
+        for (Module module : numberOfUnresolvedModules.keySet()) {
+            Set<Module> requiredModules = newHashSet(module.getRequiredModules());
+            for (Module requiredModule : requiredModules) {
+                dependentModules.put(requiredModule, module);
             }
-            if (modulesToAdd.isEmpty()) {
-                Logger logger = LoggerFactory.getLogger(Module.class);
-                logger.error("Could not resolve dependencies for all modules! Those modules are affected:");
-                for (Module unsortedModule : unsortedModules) {
-                    List<Module> unresolvedModules = newArrayList(unsortedModule.getRequiredModules());
-                    unresolvedModules.removeAll(sortedModules);
-                    logger.error("  {} requires {}", unsortedModule, unresolvedModules);
-                }
-                throw new RuntimeException("Could not build dependency graph!");
+            numberOfUnresolvedModules.put(module, requiredModules.size());
+            if (requiredModules.isEmpty()) {
+                modulesToAdd.add(module);
             }
+        }
+        while (!modulesToAdd.isEmpty()) {
             modulesToAdd = Ordering.natural().onResultOf(toModuleId()).sortedCopy(modulesToAdd);
             sortedModules.addAll(modulesToAdd);
-            unsortedModules.removeAll(modulesToAdd);
+            List<Module> nextModulesToAdd = newArrayList();
+            for (Module addedModule : modulesToAdd) {
+                for (Module dependentModule : dependentModules.get(addedModule)) {
+                    int unresolvedModules = numberOfUnresolvedModules.get(dependentModule) - 1;
+                    numberOfUnresolvedModules.put(dependentModule, unresolvedModules);
+                    if (unresolvedModules == 0) {
+                        nextModulesToAdd.add(dependentModule);
+                    }
+                }
+            }
+            modulesToAdd = nextModulesToAdd;
+        }
+        if (sortedModules.size() < numberOfUnresolvedModules.size()) {
+            logUnresolvedModules(numberOfUnresolvedModules.keySet(), sortedModules);
+            throw new RuntimeException("Could not build dependency graph!");
         }
         return sortedModules;
     }
 
+    private static void logUnresolvedModules(@Nonnull Set<Module> allModules, @Nonnull List<Module> sortedModules) {
+        Set<Module> resolvedModules = newHashSet(sortedModules);
+        Logger logger = LoggerFactory.getLogger(Module.class);
+        logger.error("Could not resolve dependencies for all modules! Those modules are affected:");
+        for (Module module : allModules) {
+            if (resolvedModules.contains(module)) {
+                continue;
+            }
+            List<Module> unresolvedModules = newArrayList(module.getRequiredModules());
+            unresolvedModules.removeAll(resolvedModules);
+            logger.error("  {} requires {}", module, unresolvedModules);
+        }
+    }
+
     @Nonnull
     private static Function<Module, String> toModuleId() {
         return new Function<Module, String>() {
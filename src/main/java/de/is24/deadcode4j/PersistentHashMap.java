@@ -0,0 +1,371 @@
+package de.is24.deadcode4j;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
+import java.util.*;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * An immutable <code>Map</code> implemented as a
+ * <a href="https://en.wikipedia.org/wiki/Hash_array_mapped_trie">hash array mapped trie</a>.<br/>
+ * {@link #plus(Object, Object) Adding an entry} creates a new map that shares all but the path to the modified node
+ * with the original one, i.e. it costs <i>O(log<sub>32</sub> n)</i> instead of copying the whole map. This makes it
+ * suitable for results that are merged over and over again.<br/>
+ * <code>null</code> keys are not supported. The map is serialized as a list of its entries.
+ *
+ * @since 2.2.0
+ */
+@Immutable
+final class PersistentHashMap<K, V> extends AbstractMap<K, V> implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+    private static final int BITS_PER_LEVEL = 5;
+    private static final int MAX_DEPTH = 8; // 7 levels of 5 bits + 1 level of colliding hash codes
+    private static final Object NOT_FOUND = new Object();
+    private static final PersistentHashMap<?, ?> EMPTY =
+            new PersistentHashMap<Object, Object>(new BitmapNode(0, new Object[0]), 0);
+    @Nonnull
+    private final transient Node root;
+    private final transient int size;
+
+    private PersistentHashMap(@Nonnull Node root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    /**
+     * Returns an empty map.
+     *
+     * @since 2.2.0
+     */
+    @Nonnull
+    @SuppressWarnings("unchecked")
+    static <K, V> PersistentHashMap<K, V> empty() {
+        return (PersistentHashMap<K, V>) EMPTY;
+    }
+
+    /**
+     * Returns a map containing the entries of the given map; if it is a <code>PersistentHashMap</code> already, it is
+     * returned as is.
+     *
+     * @since 2.2.0
+     */
+    @Nonnull
+    @SuppressWarnings("unchecked")
+    static <K, V> PersistentHashMap<K, V> copyOf(@Nonnull Map<? extends K, ? extends V> map) {
+        if (map instanceof PersistentHashMap) {
+            return (PersistentHashMap<K, V>) map;
+        }
+        PersistentHashMap<K, V> copy = empty();
+        for (Map.Entry<? extends K, ? extends V> entry : map.entrySet()) {
+            copy = copy.plus(entry.getKey(), entry.getValue());
+        }
+        return copy;
+    }
+
+    private static int hash(@Nonnull Object key) {
+        int hashCode = key.hashCode();
+        return hashCode ^ (hashCode >>> 16);
+    }
+
+    private static int bitFor(int hash, int shift) {
+        return 1 << ((hash >>> shift) & 0x1f);
+    }
+
+    /**
+     * Returns a map containing the entries of this map plus the given one, replacing the entry of the same key.
+     * If the key is mapped to the very same value already, this instance is returned.
+     *
+     * @since 2.2.0
+     */
+    @Nonnull
+    PersistentHashMap<K, V> plus(@Nonnull K key, @Nullable V value) {
+        checkNotNull(key, "PersistentHashMap does not support null keys!");
+        boolean[] addedEntry = new boolean[1];
+        Node newRoot = this.root.plus(0, hash(key), key, value, addedEntry);
+        if (newRoot == this.root) {
+            return this;
+        }
+        return new PersistentHashMap<K, V>(newRoot, addedEntry[0] ? this.size + 1 : this.size);
+    }
+
+    @Override
+    public int size() {
+        return this.size;
+    }
+
+    @Override
+    public boolean containsKey(@Nullable Object key) {
+        return key != null && this.root.find(0, hash(key), key) != NOT_FOUND;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V get(@Nullable Object key) {
+        if (key == null) {
+            return null;
+        }
+        Object value = this.root.find(0, hash(key), key);
+        return value == NOT_FOUND ? null : (V) value;
+    }
+
+    @Nonnull
+    @Override
+    public Set<Map.Entry<K, V>> entrySet() {
+        return new AbstractSet<Map.Entry<K, V>>() {
+            @Override
+            public Iterator<Map.Entry<K, V>> iterator() {
+                return new EntryIterator<K, V>(root);
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    private Object writeReplace() {
+        return new SerializedForm(this);
+    }
+
+    private void readObject(ObjectInputStream stream) throws InvalidObjectException {
+        throw new InvalidObjectException("Use SerializedForm!");
+    }
+
+    /**
+     * A node of the trie. Its array holds pairs of key &amp; value; a <code>null</code> key indicates that the value is a
+     * sub node.
+     */
+    private static abstract class Node {
+        @Nonnull
+        final Object[] array;
+
+        Node(@Nonnull Object[] array) {
+            this.array = array;
+        }
+
+        abstract Object find(int shift, int hash, @Nonnull Object key);
+
+        @Nonnull
+        abstract Node plus(int shift, int hash, @Nonnull Object key, @Nullable Object value,
+                           @Nonnull boolean[] addedEntry);
+
+        @Nonnull
+        static Object[] replace(@Nonnull Object[] array, int index, @Nullable Object value) {
+            Object[] copy = array.clone();
+            copy[index] = value;
+            return copy;
+        }
+
+    }
+
+    /**
+     * A node holding up to 32 entries or sub nodes; the bitmap indicates which of the 32 slots are used.
+     */
+    private static final class BitmapNode extends Node {
+        private final int bitmap;
+
+        BitmapNode(int bitmap, @Nonnull Object[] array) {
+            super(array);
+            this.bitmap = bitmap;
+        }
+
+        @Nonnull
+        private static Node createNode(int shift, @Nonnull Object firstKey, @Nullable Object firstValue,
+                                       int secondHash, @Nonnull Object secondKey, @Nullable Object secondValue) {
+            int firstHash = hash(firstKey);
+            if (firstHash == secondHash) {
+                return new CollisionNode(firstHash, new Object[]{firstKey, firstValue, secondKey, secondValue});
+            }
+            boolean[] addedEntry = new boolean[1];
+            return new BitmapNode(0, new Object[0])
+                    .plus(shift, firstHash, firstKey, firstValue, addedEntry)
+                    .plus(shift, secondHash, secondKey, secondValue, addedEntry);
+        }
+
+        private int indexOf(int bit) {
+            return 2 * Integer.bitCount(this.bitmap & (bit - 1));
+        }
+
+        @Override
+        Object find(int shift, int hash, @Nonnull Object key) {
+            int bit = bitFor(hash, shift);
+            if ((this.bitmap & bit) == 0) {
+                return NOT_FOUND;
+            }
+            int index = indexOf(bit);
+            Object existingKey = this.array[index];
+            if (existingKey == null) {
+                return ((Node) this.array[index + 1]).find(shift + BITS_PER_LEVEL, hash, key);
+            }
+            return key.equals(existingKey) ? this.array[index + 1] : NOT_FOUND;
+        }
+
+        @Nonnull
+        @Override
+        Node plus(int shift, int hash, @Nonnull Object key, @Nullable Object value, @Nonnull boolean[] addedEntry) {
+            int bit = bitFor(hash, shift);
+            int index = indexOf(bit);
+            if ((this.bitmap & bit) == 0) {
+                Object[] newArray = new Object[this.array.length + 2];
+                System.arraycopy(this.array, 0, newArray, 0, index);
+                newArray[index] = key;
+                newArray[index + 1] = value;
+                System.arraycopy(this.array, index, newArray, index + 2, this.array.length - index);
+                addedEntry[0] = true;
+                return new BitmapNode(this.bitmap | bit, newArray);
+            }
+            Object existingKey = this.array[index];
+            Object existingValue = this.array[index + 1];
+            if (existingKey == null) {
+                Node subNode = (Node) existingValue;
+                Node newSubNode = subNode.plus(shift + BITS_PER_LEVEL, hash, key, value, addedEntry);
+                return newSubNode == subNode ? this : new BitmapNode(this.bitmap, replace(this.array, index + 1, newSubNode));
+            }
+            if (key.equals(existingKey)) {
+                return existingValue == value ? this : new BitmapNode(this.bitmap, replace(this.array, index + 1, value));
+            }
+            addedEntry[0] = true;
+            Object[] newArray = replace(this.array, index, null);
+            newArray[index + 1] = createNode(shift + BITS_PER_LEVEL, existingKey, existingValue, hash, key, value);
+            return new BitmapNode(this.bitmap, newArray);
+        }
+
+    }
+
+    /**
+     * A node holding the entries of keys with the very same hash code.
+     */
+    private static final class CollisionNode extends Node {
+        private final int hash;
+
+        CollisionNode(int hash, @Nonnull Object[] array) {
+            super(array);
+            this.hash = hash;
+        }
+
+        @Override
+        Object find(int shift, int hash, @Nonnull Object key) {
+            if (hash == this.hash) {
+                for (int i = 0; i < this.array.length; i += 2) {
+                    if (key.equals(this.array[i])) {
+                        return this.array[i + 1];
+                    }
+                }
+            }
+            return NOT_FOUND;
+        }
+
+        @Nonnull
+        @Override
+        Node plus(int shift, int hash, @Nonnull Object key, @Nullable Object value, @Nonnull boolean[] addedEntry) {
+            if (hash != this.hash) {
+                return new BitmapNode(bitFor(this.hash, shift), new Object[]{null, this})
+                        .plus(shift, hash, key, value, addedEntry);
+            }
+            for (int i = 0; i < this.array.length; i += 2) {
+                if (key.equals(this.array[i])) {
+                    return this.array[i + 1] == value ? this : new CollisionNode(hash, replace(this.array, i + 1, value));
+                }
+            }
+            Object[] newArray = Arrays.copyOf(this.array, this.array.length + 2);
+            newArray[this.array.length] = key;
+            newArray[this.array.length + 1] = value;
+            addedEntry[0] = true;
+            return new CollisionNode(hash, newArray);
+        }
+
+    }
+
+    /**
+     * Traverses the trie depth-first, keeping the path in fixed-size arrays.
+     */
+    private static final class EntryIterator<K, V> implements Iterator<Map.Entry<K, V>> {
+        private final Object[][] arrays = new Object[MAX_DEPTH][];
+        private final int[] positions = new int[MAX_DEPTH];
+        private int depth = 0;
+        @Nullable
+        private Map.Entry<K, V> next;
+
+        EntryIterator(@Nonnull Node root) {
+            this.arrays[0] = root.array;
+            advance();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return this.next != null;
+        }
+
+        @Override
+        public Map.Entry<K, V> next() {
+            Map.Entry<K, V> entry = this.next;
+            if (entry == null) {
+                throw new NoSuchElementException();
+            }
+            advance();
+            return entry;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException("PersistentHashMap is immutable!");
+        }
+
+        @SuppressWarnings("unchecked")
+        private void advance() {
+            while (this.depth >= 0) {
+                Object[] array = this.arrays[this.depth];
+                int position = this.positions[this.depth];
+                if (position >= array.length) {
+                    this.depth--;
+                    continue;
+                }
+                this.positions[this.depth] = position + 2;
+                if (array[position] == null) {
+                    this.depth++;
+                    this.arrays[this.depth] = ((Node) array[position + 1]).array;
+                    this.positions[this.depth] = 0;
+                    continue;
+                }
+                this.next = new AbstractMap.SimpleImmutableEntry<K, V>((K) array[position], (V) array[position + 1]);
+                return;
+            }
+            this.next = null;
+        }
+
+    }
+
+    /**
+     * The serialized form of a <code>PersistentHashMap</code>, simply listing keys &amp; values.
+     */
+    private static final class SerializedForm implements Serializable {
+        private static final long serialVersionUID = 1L;
+        @Nonnull
+        private final Object[] keysAndValues;
+
+        SerializedForm(@Nonnull PersistentHashMap<?, ?> map) {
+            this.keysAndValues = new Object[2 * map.size()];
+            int i = 0;
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                this.keysAndValues[i++] = entry.getKey();
+                this.keysAndValues[i++] = entry.getValue();
+            }
+        }
+
+        private Object readResolve() {
+            PersistentHashMap<Object, Object> map = empty();
+            for (int i = 0; i < this.keysAndValues.length; i += 2) {
+                map = map.plus(this.keysAndValues[i], this.keysAndValues[i + 1]);
+            }
+            return map;
+        }
+    }
+
+}
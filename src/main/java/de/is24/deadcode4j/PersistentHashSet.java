@@ -0,0 +1,116 @@
+package de.is24.deadcode4j;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+import java.io.Serializable;
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * An immutable <code>Set</code> backed by a {@link PersistentHashMap}, i.e. {@link #plus(Object) adding an element}
+ * creates a new set sharing most of its structure with the original one.<br/>
+ * <code>null</code> elements are not supported.
+ *
+ * @since 2.2.0
+ */
+@Immutable
+final class PersistentHashSet<E> extends AbstractSet<E> implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+    private static final PersistentHashSet<?> EMPTY = new PersistentHashSet<Object>(PersistentHashMap.<Object, Boolean>empty());
+    @Nonnull
+    private final PersistentHashMap<E, Boolean> elements;
+
+    private PersistentHashSet(@Nonnull PersistentHashMap<E, Boolean> elements) {
+        this.elements = elements;
+    }
+
+    /**
+     * Returns an empty set.
+     *
+     * @since 2.2.0
+     */
+    @Nonnull
+    @SuppressWarnings("unchecked")
+    static <E> PersistentHashSet<E> empty() {
+        return (PersistentHashSet<E>) EMPTY;
+    }
+
+    /**
+     * Returns a set containing the given elements; if they are a <code>PersistentHashSet</code> already, it is
+     * returned as is.
+     *
+     * @since 2.2.0
+     */
+    @Nonnull
+    @SuppressWarnings("unchecked")
+    static <E> PersistentHashSet<E> copyOf(@Nonnull Collection<? extends E> elements) {
+        if (elements instanceof PersistentHashSet) {
+            return (PersistentHashSet<E>) elements;
+        }
+        PersistentHashSet<E> copy = empty();
+        return copy.plusAll(elements);
+    }
+
+    /**
+     * Returns a set containing the elements of this set plus the given one; if the element is contained already, this
+     * instance is returned.
+     *
+     * @since 2.2.0
+     */
+    @Nonnull
+    PersistentHashSet<E> plus(@Nonnull E element) {
+        PersistentHashMap<E, Boolean> newElements = this.elements.plus(element, Boolean.TRUE);
+        return newElements == this.elements ? this : new PersistentHashSet<E>(newElements);
+    }
+
+    /**
+     * Returns a set containing the elements of this set plus the given ones.
+     *
+     * @since 2.2.0
+     */
+    @Nonnull
+    PersistentHashSet<E> plusAll(@Nonnull Iterable<? extends E> elements) {
+        PersistentHashMap<E, Boolean> newElements = this.elements;
+        for (E element : elements) {
+            newElements = newElements.plus(element, Boolean.TRUE);
+        }
+        return newElements == this.elements ? this : new PersistentHashSet<E>(newElements);
+    }
+
+    @Override
+    public boolean contains(@Nullable Object o) {
+        return this.elements.containsKey(o);
+    }
+
+    @Override
+    public int size() {
+        return this.elements.size();
+    }
+
+    @Nonnull
+    @Override
+    public Iterator<E> iterator() {
+        final Iterator<Map.Entry<E, Boolean>> entries = this.elements.entrySet().iterator();
+        return new Iterator<E>() {
+            @Override
+            public boolean hasNext() {
+                return entries.hasNext();
+            }
+
+            @Override
+            public E next() {
+                return entries.next().getKey();
+            }
+
+            @Override
+            public void remove() {
+                throw new UnsupportedOperationException("PersistentHashSet is immutable!");
+            }
+        };
+    }
+
+}
@@ -0,0 +1,27 @@
+package de.is24.deadcode4j;
+
+import javax.annotation.Nonnull;
+import java.io.File;
+import java.util.List;
+
+/**
+ * A <code>PrefetchingAnalyzer</code> is a {@link SelectiveAnalyzer} that is told in advance which files of a module it
+ * will be asked to analyze. This allows it to prepare upcoming files - e.g. parsing them in the background - while the
+ * current one is being analyzed.
+ *
+ * @since 2.2.0
+ */
+public interface PrefetchingAnalyzer extends SelectiveAnalyzer {
+
+    /**
+     * Announces the files of a module this analyzer is interested in, in the order they are going to be analyzed.
+     * The announcement is just a hint: files may be skipped (e.g. if their findings are restored from the
+     * {@link AnalysisCache}) and, if files are analyzed concurrently, they will arrive roughly in this order only.<br/>
+     * This method is called before the first file of the module is analyzed; once the last one is done,
+     * {@link #finishAnalysis(AnalysisContext)} is called.
+     *
+     * @since 2.2.0
+     */
+    void prefetch(@Nonnull AnalysisContext analysisContext, @Nonnull List<File> files);
+
+}
@@ -0,0 +1,24 @@
+package de.is24.deadcode4j;
+
+import javax.annotation.Nonnull;
+
+/**
+ * A <code>SelectiveAnalyzer</code> is an {@link Analyzer} that declares which files it is interested in; the
+ * {@link DeadCodeFinder} will only call {@link #doAnalysis(AnalysisContext, java.io.File)} for those files.<br/>
+ * <code>Analyzer</code>s not implementing this interface are called for every file.
+ *
+ * @since 2.2.0
+ */
+public interface SelectiveAnalyzer extends Analyzer {
+
+    /**
+     * Returns the suffixes of the files this analyzer is interested in. A suffix can be a mere file extension like
+     * <tt>.class</tt>, a file name like <tt>web.xml</tt> or a partial path like <tt>META-INF/spring.handlers</tt>; the
+     * latter is matched against the absolute path of a file, the others against its name.
+     *
+     * @since 2.2.0
+     */
+    @Nonnull
+    Iterable<String> getFileSuffixes();
+
+}
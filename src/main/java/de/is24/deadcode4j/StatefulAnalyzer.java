@@ -0,0 +1,25 @@
+package de.is24.deadcode4j;
+
+import javax.annotation.Nonnull;
+
+/**
+ * A <code>StatefulAnalyzer</code> is an {@link Analyzer} keeping state across modules, which it evaluates in
+ * {@link #finishAnalysis(AnalysisSink, AnalyzedCode)}. As the {@link DeadCodeFinder} may
+ * {@link AnalysisCache reuse the analysis} of an unchanged module without calling any analyzer, such an analyzer has to
+ * store its state of a module as {@link IntermediateResult} in {@link #finishAnalysis(AnalysisContext)}; that result is
+ * cached along with the module's analysis and handed back via {@link #restoreAnalysis(AnalysisContext)}.
+ *
+ * @since 2.2.0
+ */
+public interface StatefulAnalyzer extends Analyzer {
+
+    /**
+     * Indicates that the analysis of a module was restored from the {@link AnalysisCache}; this is called instead of
+     * {@link #finishAnalysis(AnalysisContext)}. The {@link IntermediateResult}s stored by the module's last analysis
+     * are available via {@link AnalysisContext#getCache()}.
+     *
+     * @since 2.2.0
+     */
+    void restoreAnalysis(@Nonnull AnalysisContext analysisContext);
+
+}
@@ -0,0 +1,112 @@
+package de.is24.deadcode4j;
+
+import javax.annotation.Nonnull;
+import java.util.BitSet;
+
+/**
+ * Decomposes a {@link DependencyGraph} into its
+ * <a href="https://en.wikipedia.org/wiki/Strongly_connected_component">strongly connected components</a> using
+ * Tarjan's algorithm.<br/>
+ * The depth-first search is implemented iteratively, keeping its call stack in an <code>int</code> array, so deep
+ * dependency chains cannot cause a <code>StackOverflowError</code>. Runtime and memory are linear in the number of
+ * entities and dependencies.
+ *
+ * @since 2.2.0
+ */
+final class StronglyConnectedComponents {
+
+    @Nonnull
+    private final int[] componentOf;
+    private final int numberOfComponents;
+
+    private StronglyConnectedComponents(@Nonnull int[] componentOf, int numberOfComponents) {
+        this.componentOf = componentOf;
+        this.numberOfComponents = numberOfComponents;
+    }
+
+    /**
+     * Computes the components of the given graph.
+     *
+     * @param numberOfEntities the upper bound (exclusive) of all IDs used by the graph
+     * @since 2.2.0
+     */
+    @Nonnull
+    static StronglyConnectedComponents of(@Nonnull DependencyGraph graph, int numberOfEntities) {
+        int[] index = new int[numberOfEntities];       // 0 means "not visited yet"
+        int[] lowLink = new int[numberOfEntities];
+        int[] componentOf = new int[numberOfEntities];
+        int[] tarjanStack = new int[numberOfEntities];
+        BitSet onTarjanStack = new BitSet(numberOfEntities);
+        int[] callStackOfEntity = new int[numberOfEntities];
+        int[] callStackOfOffset = new int[numberOfEntities];
+        int tarjanStackSize = 0;
+        int callStackSize = 0;
+        int nextIndex = 1;
+        int numberOfComponents = 0;
+
+        for (int root = 0; root < numberOfEntities; root++) {
+            if (index[root] != 0) {
+                continue;
+            }
+            index[root] = lowLink[root] = nextIndex++;
+            tarjanStack[tarjanStackSize++] = root;
+            onTarjanStack.set(root);
+            callStackOfEntity[callStackSize] = root;
+            callStackOfOffset[callStackSize++] = graph.getOffsetOf(root);
+
+            while (callStackSize > 0) {
+                int entity = callStackOfEntity[callStackSize - 1];
+                int offset = callStackOfOffset[callStackSize - 1];
+                if (offset < graph.getEndOffsetOf(entity)) {
+                    callStackOfOffset[callStackSize - 1]++;
+                    int dependee = graph.getDependee(offset);
+                    if (index[dependee] == 0) {
+                        index[dependee] = lowLink[dependee] = nextIndex++;
+                        tarjanStack[tarjanStackSize++] = dependee;
+                        onTarjanStack.set(dependee);
+                        callStackOfEntity[callStackSize] = dependee;
+                        callStackOfOffset[callStackSize++] = graph.getOffsetOf(dependee);
+                    } else if (onTarjanStack.get(dependee)) {
+                        lowLink[entity] = Math.min(lowLink[entity], index[dependee]);
+                    }
+                    continue;
+                }
+
+                callStackSize--;
+                if (lowLink[entity] == index[entity]) {
+                    int member;
+                    do {
+                        member = tarjanStack[--tarjanStackSize];
+                        onTarjanStack.clear(member);
+                        componentOf[member] = numberOfComponents;
+                    } while (member != entity);
+                    numberOfComponents++;
+                }
+                if (callStackSize > 0) {
+                    int caller = callStackOfEntity[callStackSize - 1];
+                    lowLink[caller] = Math.min(lowLink[caller], lowLink[entity]);
+                }
+            }
+        }
+        return new StronglyConnectedComponents(componentOf, numberOfComponents);
+    }
+
+    /**
+     * Returns the number of components; components are numbered from <code>0</code> on.
+     *
+     * @since 2.2.0
+     */
+    int getNumberOfComponents() {
+        return this.numberOfComponents;
+    }
+
+    /**
+     * Returns the number of the component the given entity belongs to.
+     *
+     * @since 2.2.0
+     */
+    int getComponentOf(int id) {
+        return this.componentOf[id];
+    }
+
+}
@@ -0,0 +1,148 @@
+package de.is24.deadcode4j.analyzer;
+
+import de.is24.deadcode4j.AnalysisContext;
+import de.is24.deadcode4j.analyzer.classfile.AnnotationFacts;
+import de.is24.deadcode4j.analyzer.classfile.ClassFacts;
+import de.is24.deadcode4j.analyzer.javassist.ClassHierarchy;
+import de.is24.deadcode4j.analyzer.javassist.ClassMetadata;
+import de.is24.guava.NonNullFunction;
+
+import javax.annotation.Nonnull;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static com.google.common.collect.Maps.newHashMap;
+import static com.google.common.collect.Sets.newHashSet;
+import static de.is24.deadcode4j.analyzer.javassist.ClassHierarchy.classHierarchyFor;
+
+/**
+ * The <code>AnnotationMarkers</code> combine the annotations of all {@link AnnotationsAnalyzer}s that indicate a class
+ * is in use. A class is examined only once for all of those analyzers: each of its annotations (including the
+ * meta-annotations provided by the {@link ClassHierarchy}) is looked up once in the combined markers, yielding all
+ * analyzers it matches.<br/>
+ * Like the <code>ClassHierarchy</code>, an instance is meant to be used by one thread only.
+ *
+ * @since 2.2.0
+ */
+final class AnnotationMarkers {
+    @Nonnull
+    private static final NonNullFunction<AnalysisContext, AnnotationMarkers> SUPPLIER = new NonNullFunction<AnalysisContext, AnnotationMarkers>() {
+        @Nonnull
+        @Override
+        public AnnotationMarkers apply(@Nonnull AnalysisContext input) {
+            return new AnnotationMarkers(classHierarchyFor(input));
+        }
+    };
+    @Nonnull
+    private final ClassHierarchy classHierarchy;
+    @Nonnull
+    private final Map<String, List<AnnotationsAnalyzer>> analyzersByAnnotation = newHashMap();
+    @Nonnull
+    private final Set<AnnotationsAnalyzer> registeredAnalyzers = newHashSet();
+    @Nonnull
+    private final Set<AnnotationsAnalyzer> analyzersConsideringSuperclasses = newHashSet();
+    private ClassFacts lastClass;
+    private int registrationsForLastClass;
+    private Set<AnnotationsAnalyzer> analyzersMatchingLastClass;
+
+    private AnnotationMarkers(@Nonnull ClassHierarchy classHierarchy) {
+        this.classHierarchy = classHierarchy;
+    }
+
+    /**
+     * Creates or retrieves the <code>AnnotationMarkers</code> for the given analysis context.
+     */
+    @Nonnull
+    static AnnotationMarkers annotationMarkersFor(@Nonnull AnalysisContext analysisContext) {
+        return analysisContext.getOrCreateCacheEntry(AnnotationMarkers.class, SUPPLIER);
+    }
+
+    /**
+     * Indicates if the given analyzer has been registered already.
+     */
+    boolean isRegistered(@Nonnull AnnotationsAnalyzer analyzer) {
+        return this.registeredAnalyzers.contains(analyzer);
+    }
+
+    /**
+     * Registers the annotations an analyzer is looking for.
+     *
+     * @param considerSuperclasses indicates if the annotations of the superclasses are to be considered as well
+     */
+    void register(@Nonnull AnnotationsAnalyzer analyzer,
+                  @Nonnull Iterable<String> annotations,
+                  boolean considerSuperclasses) {
+        if (!this.registeredAnalyzers.add(analyzer)) {
+            return;
+        }
+        for (String annotation : annotations) {
+            List<AnnotationsAnalyzer> analyzers = this.analyzersByAnnotation.get(annotation);
+            if (analyzers == null) {
+                analyzers = newArrayList();
+                this.analyzersByAnnotation.put(annotation, analyzers);
+            }
+            analyzers.add(analyzer);
+        }
+        if (considerSuperclasses) {
+            this.analyzersConsideringSuperclasses.add(analyzer);
+        }
+    }
+
+    /**
+     * Returns all registered analyzers for which the given class carries one of the annotations they are looking for.
+     * The result for the last examined class is memoized, as all analyzers examine the same class in turn.
+     */
+    @Nonnull
+    Set<AnnotationsAnalyzer> getAnalyzersMatching(@Nonnull ClassFacts classFacts) {
+        if (classFacts != this.lastClass || this.registeredAnalyzers.size() != this.registrationsForLastClass) {
+            this.analyzersMatchingLastClass = computeAnalyzersMatching(classFacts);
+            this.lastClass = classFacts;
+            this.registrationsForLastClass = this.registeredAnalyzers.size();
+        }
+        return this.analyzersMatchingLastClass;
+    }
+
+    @Nonnull
+    private Set<AnnotationsAnalyzer> computeAnalyzersMatching(@Nonnull ClassFacts classFacts) {
+        Set<String> annotationsOfClass = newHashSet();
+        for (AnnotationFacts annotation : classFacts.getAnnotations()) {
+            annotationsOfClass.addAll(this.classHierarchy.getAnnotationClosureOf(annotation.getTypeName()));
+        }
+        Set<AnnotationsAnalyzer> matchingAnalyzers = newHashSet();
+        for (String annotation : annotationsOfClass) {
+            List<AnnotationsAnalyzer> analyzers = this.analyzersByAnnotation.get(annotation);
+            if (analyzers != null) {
+                matchingAnalyzers.addAll(analyzers);
+            }
+        }
+        if (!matchingAnalyzers.containsAll(this.analyzersConsideringSuperclasses)) {
+            addAnalyzersMatchingSuperclasses(classFacts, matchingAnalyzers);
+        }
+        return matchingAnalyzers.isEmpty() ? Collections.<AnnotationsAnalyzer>emptySet() : matchingAnalyzers;
+    }
+
+    private void addAnalyzersMatchingSuperclasses(@Nonnull ClassFacts classFacts,
+                                                  @Nonnull Set<AnnotationsAnalyzer> matchingAnalyzers) {
+        for (String superclass : this.classHierarchy.getSuperclassesOf(classFacts)) {
+            ClassMetadata classMetadata = this.classHierarchy.getClassMetadata(superclass);
+            if (classMetadata == null) {
+                continue;
+            }
+            for (String annotation : classMetadata.getAnnotations()) {
+                List<AnnotationsAnalyzer> analyzers = this.analyzersByAnnotation.get(annotation);
+                if (analyzers == null) {
+                    continue;
+                }
+                for (AnnotationsAnalyzer analyzer : analyzers) {
+                    if (this.analyzersConsideringSuperclasses.contains(analyzer)) {
+                        matchingAnalyzers.add(analyzer);
+                    }
+                }
+            }
+        }
+    }
+
+}
@@ -1,58 +1,49 @@
 package de.is24.deadcode4j.analyzer;
 
 import de.is24.deadcode4j.AnalysisContext;
+import de.is24.deadcode4j.analyzer.classfile.ClassFacts;
+import de.is24.deadcode4j.analyzer.classfile.ClassFileHeader;
+import de.is24.deadcode4j.analyzer.javassist.ClassHierarchy;
+import de.is24.deadcode4j.analyzer.javassist.ClassMetadata;
 import de.is24.deadcode4j.analyzer.javassist.ClassPathFilter;
 import de.is24.guava.NonNullFunction;
-import javassist.ClassPool;
-import javassist.CtClass;
-import javassist.bytecode.annotation.Annotation;
 
 import javax.annotation.Nonnull;
-import java.lang.annotation.Inherited;
 import java.util.List;
 import java.util.Set;
+import java.util.TreeSet;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.collect.Lists.newArrayList;
 import static com.google.common.collect.Sets.newHashSet;
-import static de.is24.deadcode4j.analyzer.javassist.ClassPoolAccessor.classPoolAccessorFor;
-import static de.is24.javassist.CtClasses.*;
-import static java.lang.annotation.ElementType.PACKAGE;
-import static java.lang.annotation.ElementType.TYPE;
-import static java.util.Collections.disjoint;
-import static java.util.Collections.emptySet;
+import static de.is24.deadcode4j.analyzer.AnnotationMarkers.annotationMarkersFor;
+import static de.is24.deadcode4j.analyzer.javassist.ClassHierarchy.classHierarchyFor;
 
 /**
  * Serves as a base class with which to mark classes as being in use if they carry one of the specified annotations.
+ * The annotations of all <code>AnnotationsAnalyzer</code>s are combined in the {@link AnnotationMarkers}, so each class
+ * is examined only once.
  *
  * @since 1.3
  */
 public abstract class AnnotationsAnalyzer extends ByteCodeAnalyzer {
-    private static final Set<String> DEAD_ENDS = newHashSet(
-            "java.lang.annotation.Documented",
-            "java.lang.annotation.Inherited",
-            "java.lang.annotation.Retention",
-            "java.lang.annotation.Target");
     private final String dependerId;
+    private final Set<String> annotations;
     private final NonNullFunction<AnalysisContext, Set<String>> supplyAnnotationsFoundInClassPath;
     private final NonNullFunction<AnalysisContext, List<String>> supplyAnnotationsMarkedAsInherited = new NonNullFunction<AnalysisContext, List<String>>() {
         @Nonnull
         @Override
         public List<String> apply(@Nonnull AnalysisContext analysisContext) {
             List<String> inheritedAnnotations = newArrayList();
-            ClassPool classPool = classPoolAccessorFor(analysisContext).getClassPool();
+            ClassHierarchy classHierarchy = classHierarchyFor(analysisContext);
             for (String annotation : getAnnotationsFoundInClassPath(analysisContext)) {
-                CtClass annotationClazz = classPool.getOrNull(annotation);
-                if (annotationClazz == null) {
+                ClassMetadata annotationMetadata = classHierarchy.getClassMetadata(annotation);
+                if (annotationMetadata == null) {
                     logger.debug("Annotation [{}] cannot be found on the class path; skipping detection", annotation);
                     continue;
                 }
-                try {
-                    if (annotationClazz.getAnnotation(Inherited.class) != null) {
-                        inheritedAnnotations.add(annotation);
-                    }
-                } catch (ClassNotFoundException e) {
-                    logger.debug("@Inherited is not available; this is quite disturbing.");
+                if (annotationMetadata.isInheritedAnnotation()) {
+                    inheritedAnnotations.add(annotation);
                 }
             }
             logger.debug("Found those inheritable annotations: {}", inheritedAnnotations);
@@ -63,6 +54,7 @@ public abstract class AnnotationsAnalyzer extends ByteCodeAnalyzer {
     private AnnotationsAnalyzer(@Nonnull String dependerId, @Nonnull Set<String> annotations) {
         checkArgument(!annotations.isEmpty(), "annotations cannot by empty!");
         this.dependerId = dependerId;
+        this.annotations = new TreeSet<String>(annotations);
         this.supplyAnnotationsFoundInClassPath = new ClassPathFilter(annotations);
     }
 
@@ -91,55 +83,42 @@ public abstract class AnnotationsAnalyzer extends ByteCodeAnalyzer {
     }
 
     @Override
-    protected final void analyzeClass(@Nonnull AnalysisContext analysisContext, @Nonnull CtClass clazz) {
+    public String toString() {
+        return super.toString() + " reporting [" + this.dependerId + "] for " + this.annotations;
+    }
+
+    @Override
+    protected final boolean preAnalyzeClass(@Nonnull AnalysisContext analysisContext,
+                                            @Nonnull ClassFileHeader header) {
+        if (getAnnotationsFoundInClassPath(analysisContext).isEmpty()) {
+            return false;
+        }
+        if (header.mayCarryAnnotations()
+                || header.hasSuperclass() && !getAnnotationsMarkedAsInherited(analysisContext).isEmpty()) {
+            return true;
+        }
+        analysisContext.addAnalyzedClass(header.getClassName());
+        return false;
+    }
+
+    @Override
+    protected final void analyzeClass(@Nonnull AnalysisContext analysisContext, @Nonnull ClassFacts classFacts) {
         Set<String> availableAnnotations = getAnnotationsFoundInClassPath(analysisContext);
         if (availableAnnotations.isEmpty()) {
             return;
         }
 
-        String className = clazz.getName();
+        String className = classFacts.getClassName();
         analysisContext.addAnalyzedClass(className);
 
-        Set<String> allAnnotations = newHashSet();
-        addAnnotations(clazz, allAnnotations);
-        allAnnotations.addAll(getInheritedAnnotations(analysisContext, clazz));
-
-        if (!disjoint(availableAnnotations, allAnnotations)) {
-            analysisContext.addDependencies(this.dependerId, className);
-        }
-    }
-
-    private void addAnnotations(@Nonnull CtClass clazz, Set<String> knownAnnotations) {
-        for (Annotation annotation : getAnnotations(clazz, PACKAGE, TYPE)) {
-            String annotationClassName = annotation.getTypeName();
-            if (!knownAnnotations.add(annotationClassName)) {
-                continue;
-            }
-            if (DEAD_ENDS.contains(annotationClassName)) {
-                continue;
-            }
-            CtClass annotationClazz = getCtClass(clazz.getClassPool(), annotationClassName);
-            if (annotationClazz != null) {
-                addAnnotations(annotationClazz, knownAnnotations);
-            }
+        AnnotationMarkers annotationMarkers = annotationMarkersFor(analysisContext);
+        if (!annotationMarkers.isRegistered(this)) {
+            annotationMarkers.register(this, availableAnnotations,
+                    !getAnnotationsMarkedAsInherited(analysisContext).isEmpty());
         }
-    }
-
-    @Nonnull
-    private Set<String> getInheritedAnnotations(@Nonnull final AnalysisContext analysisContext, @Nonnull final CtClass clazz) {
-        List<String> annotationsMarkedAsInherited = getAnnotationsMarkedAsInherited(analysisContext);
-        if (annotationsMarkedAsInherited.isEmpty()) {
-            return emptySet();
-        }
-        Set<String> inheritedAnnotations = newHashSet();
-        CtClass loopClass = getSuperclassOf(clazz);
-        while (loopClass != null && !isJavaLangObject(loopClass)) {
-            for (Annotation annotation : getAnnotations(loopClass, PACKAGE, TYPE)) {
-                inheritedAnnotations.add(annotation.getTypeName());
-            }
-            loopClass = getSuperclassOf(loopClass);
+        if (annotationMarkers.getAnalyzersMatching(classFacts).contains(this)) {
+            analysisContext.addDependencies(this.dependerId, className);
         }
-        return inheritedAnnotations;
     }
 
     @Nonnull
@@ -3,120 +3,196 @@ package de.is24.deadcode4j.analyzer;
 import com.google.common.base.Optional;
 import com.google.common.cache.LoadingCache;
 import de.is24.deadcode4j.AnalysisContext;
+import de.is24.deadcode4j.SelectiveAnalyzer;
+import de.is24.deadcode4j.analyzer.classfile.ClassFacts;
+import de.is24.deadcode4j.analyzer.classfile.ClassFileHeader;
+import de.is24.deadcode4j.analyzer.classfile.ConstantPool;
 import de.is24.guava.NonNullFunction;
 import de.is24.guava.SequentialLoadingCache;
-import javassist.CtClass;
-import javassist.CtField;
-import javassist.CtMethod;
-import javassist.bytecode.AnnotationsAttribute;
-import javassist.bytecode.AttributeInfo;
-import javassist.bytecode.annotation.Annotation;
-import org.apache.commons.io.IOUtils;
 
 import javax.annotation.Nonnull;
 import java.io.File;
-import java.io.FileInputStream;
-import java.io.IOException;
-import java.lang.annotation.ElementType;
-import java.util.Collections;
-import java.util.List;
 
 import static com.google.common.base.Optional.of;
-import static com.google.common.collect.Lists.newArrayList;
-import static de.is24.deadcode4j.analyzer.javassist.ClassPoolAccessor.classPoolAccessorFor;
+import static de.is24.deadcode4j.FileContents.fileContentsFor;
 import static de.is24.guava.NonNullFunctions.toFunction;
-import static java.lang.annotation.ElementType.FIELD;
-import static java.lang.annotation.ElementType.METHOD;
-import static java.util.Arrays.asList;
+import static java.util.Collections.singleton;
 
 /**
- * Serves as a base class with which to analyze byte code (classes).
+ * Serves as a base class with which to analyze byte code (classes).<br/>
+ * The {@link ClassFileHeader} of a class file is read first, allowing to reject classes cheaply; the
+ * {@link ClassFacts} are extracted only if an analyzer is interested in the class. Both are extracted once; all
+ * <code>ByteCodeAnalyzer</code>s analyzing the same file share them.
  *
- * @see de.is24.deadcode4j.analyzer.javassist.ClassPoolAccessor
+ * @see ClassFacts
  * @since 1.3
  */
-public abstract class ByteCodeAnalyzer extends AnalyzerAdapter {
+public abstract class ByteCodeAnalyzer extends AnalyzerAdapter implements SelectiveAnalyzer {
 
-    private static final NonNullFunction<AnalysisContext, LoadingCache<File, Optional<CtClass>>> SUPPLIER =
-            new NonNullFunction<AnalysisContext, LoadingCache<File, Optional<CtClass>>>() {
+    private static final NonNullFunction<AnalysisContext, LoadingCache<File, Optional<ConstantPool>>> CONSTANT_POOL_SUPPLIER =
+            new NonNullFunction<AnalysisContext, LoadingCache<File, Optional<ConstantPool>>>() {
                 @Nonnull
                 @Override
-                public LoadingCache<File, Optional<CtClass>> apply(@Nonnull final AnalysisContext analysisContext) {
-                    return SequentialLoadingCache.createSingleValueCache(toFunction(new NonNullFunction<File, Optional<CtClass>>() {
+                public LoadingCache<File, Optional<ConstantPool>> apply(@Nonnull final AnalysisContext analysisContext) {
+                    return SequentialLoadingCache.createSingleValueCache(toFunction(new NonNullFunction<File, Optional<ConstantPool>>() {
                         @Nonnull
                         @Override
-                        public Optional<CtClass> apply(@Nonnull File file) {
-                            FileInputStream in = null;
+                        public Optional<ConstantPool> apply(@Nonnull File file) {
                             try {
-                                in = new FileInputStream(file);
-                                return of(classPoolAccessorFor(analysisContext).getClassPool().makeClass(in));
-                            } catch (IOException e) {
-                                throw new RuntimeException("Could not load class from [" + file + "]!", e);
-                            } finally {
-                                IOUtils.closeQuietly(in);
+                                return of(ConstantPool.read(fileContentsFor(analysisContext).getContentOf(file)));
+                            } catch (IllegalArgumentException e) {
+                                // handled by analyzeMalformedClass
+                                return Optional.absent();
+                            }
+                        }
+                    }));
+                }
+            };
+    private static final NonNullFunction<AnalysisContext, LoadingCache<File, Optional<ClassFileHeader>>> HEADER_SUPPLIER =
+            new NonNullFunction<AnalysisContext, LoadingCache<File, Optional<ClassFileHeader>>>() {
+                @Nonnull
+                @Override
+                public LoadingCache<File, Optional<ClassFileHeader>> apply(@Nonnull final AnalysisContext analysisContext) {
+                    return SequentialLoadingCache.createSingleValueCache(toFunction(new NonNullFunction<File, Optional<ClassFileHeader>>() {
+                        @Nonnull
+                        @Override
+                        public Optional<ClassFileHeader> apply(@Nonnull File file) {
+                            Optional<ConstantPool> constantPool = getConstantPoolReader(analysisContext).getUnchecked(file);
+                            if (!constantPool.isPresent()) {
+                                return Optional.absent();
+                            }
+                            try {
+                                return of(ClassFileHeader.of(constantPool.get()));
+                            } catch (IllegalArgumentException e) {
+                                return Optional.absent();
+                            }
+                        }
+                    }));
+                }
+            };
+    private static final NonNullFunction<AnalysisContext, LoadingCache<File, Optional<ClassFacts>>> CLASS_FACTS_SUPPLIER =
+            new NonNullFunction<AnalysisContext, LoadingCache<File, Optional<ClassFacts>>>() {
+                @Nonnull
+                @Override
+                public LoadingCache<File, Optional<ClassFacts>> apply(@Nonnull final AnalysisContext analysisContext) {
+                    return SequentialLoadingCache.createSingleValueCache(toFunction(new NonNullFunction<File, Optional<ClassFacts>>() {
+                        @Nonnull
+                        @Override
+                        public Optional<ClassFacts> apply(@Nonnull File file) {
+                            Optional<ClassFileHeader> header = getHeaderReader(analysisContext).getUnchecked(file);
+                            if (!header.isPresent()) {
+                                return Optional.absent();
+                            }
+                            try {
+                                return of(ClassFacts.of(getConstantPoolReader(analysisContext).getUnchecked(file).get()));
+                            } catch (IllegalArgumentException e) {
+                                return Optional.absent();
                             }
                         }
                     }));
                 }
             };
 
+    private static LoadingCache<File, Optional<ConstantPool>> getConstantPoolReader(AnalysisContext analysisContext) {
+        return analysisContext.getOrCreateCacheEntry(ConstantPool.class, CONSTANT_POOL_SUPPLIER);
+    }
+
+    private static LoadingCache<File, Optional<ClassFileHeader>> getHeaderReader(AnalysisContext analysisContext) {
+        return analysisContext.getOrCreateCacheEntry(ClassFileHeader.class, HEADER_SUPPLIER);
+    }
+
+    private static LoadingCache<File, Optional<ClassFacts>> getClassFactsReader(AnalysisContext analysisContext) {
+        return analysisContext.getOrCreateCacheEntry(ByteCodeAnalyzer.class, CLASS_FACTS_SUPPLIER);
+    }
+
     /**
-     * Retrieves all annotations of a package/class and its members (if requested).
+     * Returns the {@link ClassFacts} of the given class file, sharing them with the <code>ByteCodeAnalyzer</code>s
+     * analyzing the same file.
      *
-     * @param clazz        the <code>CtClass</code> to examine
-     * @param elementTypes indicates which annotations to retrieve
-     * @since 1.4
+     * @return the facts or <code>absent</code> if the class file is malformed
      */
     @Nonnull
-    @SuppressWarnings("unchecked")
-    protected static Iterable<Annotation> getAnnotations(@Nonnull CtClass clazz, ElementType... elementTypes) {
-        List<ElementType> types = asList(elementTypes);
-        List<AttributeInfo> attributes = newArrayList();
-
-        if (clazz.getName().endsWith("package-info") && types.contains(ElementType.PACKAGE) ||
-                !clazz.getName().endsWith("package-info") && types.contains(ElementType.TYPE)) {
-            attributes.addAll(clazz.getClassFile2().getAttributes());
-        }
-        if (types.contains(METHOD)) {
-            for (CtMethod method : clazz.getDeclaredMethods()) {
-                attributes.addAll(method.getMethodInfo2().getAttributes());
-            }
-        }
-        if (types.contains(FIELD)) {
-            for (CtField field : clazz.getDeclaredFields()) {
-                attributes.addAll(field.getFieldInfo2().getAttributes());
-            }
-        }
-
-        List<Annotation> annotations = newArrayList();
-        for (AttributeInfo attribute : attributes) {
-            if (AnnotationsAttribute.class.isInstance(attribute)) {
-                Collections.addAll(annotations, AnnotationsAttribute.class.cast(attribute).getAnnotations());
-            }
-        }
-
-        return annotations;
+    static Optional<ClassFacts> getClassFacts(@Nonnull AnalysisContext analysisContext, @Nonnull File file) {
+        return getClassFactsReader(analysisContext).getUnchecked(file);
     }
 
-    private static LoadingCache<File, Optional<CtClass>> getClassLoader(AnalysisContext analysisContext) {
-        return analysisContext.getOrCreateCacheEntry(ByteCodeAnalyzer.class, SUPPLIER);
+    @Nonnull
+    @Override
+    public Iterable<String> getFileSuffixes() {
+        return singleton(".class");
     }
 
     @Override
     public final void doAnalysis(@Nonnull AnalysisContext analysisContext, @Nonnull File file) {
         if (file.getName().endsWith(".class")) {
-            CtClass ctClass = getClassLoader(analysisContext).getUnchecked(file).get();
-            logger.debug("Analyzing class [{}]...", ctClass.getName());
-            analyzeClass(analysisContext, ctClass);
+            Optional<ClassFileHeader> header = getHeaderReader(analysisContext).getUnchecked(file);
+            if (header.isPresent() && !preAnalyzeClass(analysisContext,
+                    getConstantPoolReader(analysisContext).getUnchecked(file).get(), header.get())) {
+                logger.debug("Skipping class [{}].", header.get().getClassName());
+                return;
+            }
+            Optional<ClassFacts> classFacts = getClassFactsReader(analysisContext).getUnchecked(file);
+            if (!classFacts.isPresent()) {
+                analyzeMalformedClass(analysisContext, file);
+                return;
+            }
+            logger.debug("Analyzing class [{}]...", classFacts.get().getClassName());
+            analyzeClass(analysisContext, classFacts.get());
         }
     }
 
+    /**
+     * Examines the header of a class file before its {@link ClassFacts} are extracted. This allows to reject classes
+     * that cannot be of interest for this analyzer cheaply: if all analyzers reject a class, its facts aren't
+     * extracted at all.<br/>
+     * Results may be reported via the capabilities of the {@link de.is24.deadcode4j.AnalysisContext}, just like
+     * {@link #analyzeClass(AnalysisContext, ClassFacts)} does.
+     * The default implementation accepts every class.
+     *
+     * @return <code>true</code> if {@link #analyzeClass(AnalysisContext, ClassFacts)} is to be called for the class
+     * @since 2.2.0
+     */
+    protected boolean preAnalyzeClass(@Nonnull AnalysisContext analysisContext, @Nonnull ClassFileHeader header) {
+        return true;
+    }
+
+    /**
+     * Examines the constant pool and the header of a class file before its {@link ClassFacts} are extracted. Allows to
+     * extract more information than the {@link ClassFileHeader} provides; the constant pool must not be used once
+     * this method returns.
+     * The default implementation delegates to {@link #preAnalyzeClass(AnalysisContext, ClassFileHeader)}.
+     *
+     * @return <code>true</code> if {@link #analyzeClass(AnalysisContext, ClassFacts)} is to be called for the class
+     * @since 2.2.0
+     */
+    protected boolean preAnalyzeClass(@Nonnull AnalysisContext analysisContext,
+                                      @Nonnull ConstantPool constantPool,
+                                      @Nonnull ClassFileHeader header) {
+        return preAnalyzeClass(analysisContext, header);
+    }
+
     /**
      * Perform an analysis for the specified class.
      * Results must be reported via the capabilities of the {@link de.is24.deadcode4j.AnalysisContext}.
      *
-     * @since 1.3
+     * @since 2.2.0
      */
-    protected abstract void analyzeClass(@Nonnull AnalysisContext analysisContext, @Nonnull CtClass clazz);
+    protected abstract void analyzeClass(@Nonnull AnalysisContext analysisContext, @Nonnull ClassFacts classFacts);
+
+    /**
+     * Is called for a class file the {@link ClassFacts} cannot be extracted from.
+     * The default implementation fails the analysis.
+     *
+     * @since 2.2.0
+     */
+    protected void analyzeMalformedClass(@Nonnull AnalysisContext analysisContext, @Nonnull File file) {
+        try {
+            // read the file again to report the cause
+            ClassFacts.read(fileContentsFor(analysisContext).getContentOf(file));
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Could not load class from [" + file + "]!", e);
+        }
+        throw new RuntimeException("Could not load class from [" + file + "]!");
+    }
 
 }
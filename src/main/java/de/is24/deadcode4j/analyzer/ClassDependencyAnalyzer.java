@@ -1,20 +1,118 @@
 package de.is24.deadcode4j.analyzer;
 
 import de.is24.deadcode4j.AnalysisContext;
+import de.is24.deadcode4j.CacheableAnalyzer;
+import de.is24.deadcode4j.analyzer.classfile.ClassFacts;
+import de.is24.deadcode4j.analyzer.classfile.ClassFileHeader;
+import de.is24.deadcode4j.analyzer.classfile.ClassReferences;
+import de.is24.deadcode4j.analyzer.classfile.ConstantPool;
 import javassist.CtClass;
+import org.apache.commons.io.IOUtils;
 
 import javax.annotation.Nonnull;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
 import java.util.Collection;
 
+import static de.is24.deadcode4j.FileContents.fileContentsFor;
+import static de.is24.deadcode4j.analyzer.javassist.ClassPoolAccessor.classPoolAccessorFor;
+
 /**
  * Analyzes class files: lists the classes a class is depending on.
  *
  * @since 1.0.0
  */
-public class ClassDependencyAnalyzer extends ByteCodeAnalyzer {
+public class ClassDependencyAnalyzer extends ByteCodeAnalyzer implements CacheableAnalyzer {
+
+    /**
+     * The engines available to extract the classes a class is depending on. Both report the same dependencies.
+     *
+     * @since 2.2.0
+     */
+    public enum Engine {
+        /**
+         * Streams over the class file's bytes using {@link ClassReferences}; no <code>CtClass</code> is created.
+         * Falls back to {@link #JAVASSIST} for class files that cannot be read this way.
+         */
+        CONSTANT_POOL,
+        /**
+         * Loads the class as a <code>CtClass</code> and calls {@link CtClass#getRefClasses()}.
+         */
+        JAVASSIST
+    }
+
+    @Nonnull
+    private final Engine engine;
+
+    /**
+     * Creates a new <code>ClassDependencyAnalyzer</code> using the {@link Engine#CONSTANT_POOL} engine.
+     *
+     * @since 1.0.0
+     */
+    public ClassDependencyAnalyzer() {
+        this(Engine.CONSTANT_POOL);
+    }
+
+    /**
+     * Creates a new <code>ClassDependencyAnalyzer</code> using the given engine.
+     *
+     * @since 2.2.0
+     */
+    public ClassDependencyAnalyzer(@Nonnull Engine engine) {
+        this.engine = engine;
+    }
+
+    @Nonnull
+    @Override
+    public String getCacheKey() {
+        return getClass().getName() + "|" + this.engine;
+    }
+
+    @Override
+    protected boolean preAnalyzeClass(@Nonnull AnalysisContext analysisContext,
+                                      @Nonnull ConstantPool constantPool,
+                                      @Nonnull ClassFileHeader header) {
+        if (this.engine != Engine.JAVASSIST) {
+            return true;
+        }
+        ByteBuffer classFile = constantPool.getClassFile();
+        byte[] bytes = new byte[classFile.remaining()];
+        classFile.get(bytes);
+        try {
+            analyzeWithJavassist(analysisContext, new ByteArrayInputStream(bytes));
+        } catch (IOException e) {
+            throw new RuntimeException("Could not load class [" + header.getClassName() + "]!", e);
+        }
+        return false;
+    }
+
+    @Override
+    protected void analyzeClass(@Nonnull AnalysisContext analysisContext, @Nonnull ClassFacts classFacts) {
+        String className = classFacts.getClassName();
+        analysisContext.addAnalyzedClass(className);
+        analysisContext.addDependencies(className, classFacts.getReferencedClasses());
+    }
 
     @Override
-    protected void analyzeClass(@Nonnull AnalysisContext analysisContext, @Nonnull CtClass clazz) {
+    protected void analyzeMalformedClass(@Nonnull AnalysisContext analysisContext, @Nonnull File file) {
+        logger.debug("Failed to extract dependencies of [{}]; falling back to javassist.", file);
+        InputStream in = null;
+        try {
+            in = fileContentsFor(analysisContext).openStream(file);
+            analyzeWithJavassist(analysisContext, in);
+        } catch (IOException e) {
+            throw new RuntimeException("Could not load class from [" + file + "]!", e);
+        } finally {
+            IOUtils.closeQuietly(in);
+        }
+    }
+
+    private void analyzeWithJavassist(@Nonnull AnalysisContext analysisContext,
+                                      @Nonnull InputStream classFile) throws IOException {
+        CtClass clazz = classPoolAccessorFor(analysisContext).getClassPool().makeClass(classFile);
         String className = clazz.getName();
 
         @SuppressWarnings("unchecked")
@@ -0,0 +1,383 @@
+package de.is24.deadcode4j.analyzer;
+
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.TypeParameter;
+import com.github.javaparser.ast.body.*;
+import com.github.javaparser.ast.expr.*;
+import com.github.javaparser.ast.stmt.BlockStmt;
+import com.github.javaparser.ast.stmt.CatchClause;
+import com.github.javaparser.ast.stmt.ForStmt;
+import com.github.javaparser.ast.stmt.ForeachStmt;
+import com.github.javaparser.ast.stmt.TryStmt;
+import com.github.javaparser.ast.type.ClassOrInterfaceType;
+import com.github.javaparser.ast.visitor.VoidVisitorAdapter;
+import com.google.common.base.Predicate;
+import com.google.common.collect.Sets;
+import de.is24.deadcode4j.analyzer.JavaFileAnalyzer.NodeCallbacks;
+import de.is24.deadcode4j.analyzer.JavaFileAnalyzer.Scope;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import static com.google.common.base.Predicates.not;
+import static com.google.common.collect.Sets.newHashSet;
+import static de.is24.deadcode4j.Utils.checkNotNull;
+import static de.is24.deadcode4j.Utils.emptyIfNull;
+
+/**
+ * The <code>CompilationUnitTraversal</code> visits a compilation unit exactly once for the {@link NodeCallbacks} of
+ * several <code>JavaFileAnalyzer</code>s, keeping track of the {@link Scope} for all of them.<br/>
+ * If a callback decides not to visit the children of a node, it isn't called for any node of that subtree; if no
+ * callback is interested in the subtree, the subtree isn't visited at all.<br/>
+ * Names that never denote a type or a variable - the package declaration, the imports (which are provided by the
+ * <code>Scope</code>) and the names of annotations - are skipped.
+ *
+ * @since 2.2.0
+ */
+final class CompilationUnitTraversal extends VoidVisitorAdapter<Void> {
+
+    private static final Dispatcher<ClassOrInterfaceType> CLASS_OR_INTERFACE_TYPE =
+            new Dispatcher<ClassOrInterfaceType>() {
+                @Override
+                public boolean dispatch(@Nonnull NodeCallbacks callbacks,
+                                        @Nonnull ClassOrInterfaceType node,
+                                        @Nonnull Scope scope) {
+                    return callbacks.visit(node, scope);
+                }
+            };
+    private static final Dispatcher<FieldAccessExpr> FIELD_ACCESS_EXPR = new Dispatcher<FieldAccessExpr>() {
+        @Override
+        public boolean dispatch(@Nonnull NodeCallbacks callbacks,
+                                @Nonnull FieldAccessExpr node,
+                                @Nonnull Scope scope) {
+            return callbacks.visit(node, scope);
+        }
+    };
+    private static final Dispatcher<MethodReferenceExpr> METHOD_REFERENCE_EXPR =
+            new Dispatcher<MethodReferenceExpr>() {
+                @Override
+                public boolean dispatch(@Nonnull NodeCallbacks callbacks,
+                                        @Nonnull MethodReferenceExpr node,
+                                        @Nonnull Scope scope) {
+                    return callbacks.visit(node, scope);
+                }
+            };
+    private static final Dispatcher<NameExpr> NAME_EXPR = new Dispatcher<NameExpr>() {
+        @Override
+        public boolean dispatch(@Nonnull NodeCallbacks callbacks, @Nonnull NameExpr node, @Nonnull Scope scope) {
+            return callbacks.visit(node, scope);
+        }
+    };
+    private static final Dispatcher<Parameter> PARAMETER = new Dispatcher<Parameter>() {
+        @Override
+        public boolean dispatch(@Nonnull NodeCallbacks callbacks, @Nonnull Parameter node, @Nonnull Scope scope) {
+            return callbacks.visit(node, scope);
+        }
+    };
+
+    @Nonnull
+    private final CompilationUnit compilationUnit;
+    @Nonnull
+    private final NodeCallbacks[] callbacks;
+    /**
+     * Records for each callback the nesting level of the node below which it is muted; <code>0</code> if it is active.
+     */
+    @Nonnull
+    private final int[] mutedAtLevel;
+    @Nonnull
+    private final Scope scope;
+    private int level;
+
+    CompilationUnitTraversal(@Nonnull CompilationUnit compilationUnit, @Nonnull List<NodeCallbacks> callbacks) {
+        this.compilationUnit = compilationUnit;
+        this.callbacks = callbacks.toArray(new NodeCallbacks[callbacks.size()]);
+        this.mutedAtLevel = new int[this.callbacks.length];
+        this.scope = new Scope(compilationUnit);
+    }
+
+    /**
+     * Visits the compilation unit, calling all callbacks.
+     */
+    public void run() {
+        visit(this.compilationUnit, null);
+    }
+
+    @Override
+    public void visit(CompilationUnit n, Void arg) {
+        for (TypeDeclaration typeDeclaration : emptyIfNull(n.getTypes())) {
+            typeDeclaration.accept(this, arg);
+        }
+    }
+
+    @Override
+    public void visit(MarkerAnnotationExpr n, Void arg) {
+    }
+
+    @Override
+    public void visit(NormalAnnotationExpr n, Void arg) {
+        for (MemberValuePair memberValuePair : emptyIfNull(n.getPairs())) {
+            memberValuePair.accept(this, arg);
+        }
+    }
+
+    @Override
+    public void visit(SingleMemberAnnotationExpr n, Void arg) {
+        n.getMemberValue().accept(this, arg);
+    }
+
+    @Override
+    public void visit(ClassOrInterfaceType n, Void arg) {
+        if (enter(n, CLASS_OR_INTERFACE_TYPE)) {
+            super.visit(n, arg);
+        }
+        exit();
+    }
+
+    @Override
+    public void visit(FieldAccessExpr n, Void arg) {
+        if (enter(n, FIELD_ACCESS_EXPR)) {
+            super.visit(n, arg);
+        }
+        exit();
+    }
+
+    @Override
+    public void visit(MethodReferenceExpr n, Void arg) {
+        if (enter(n, METHOD_REFERENCE_EXPR)) {
+            super.visit(n, arg);
+        }
+        exit();
+    }
+
+    @Override
+    public void visit(NameExpr n, Void arg) {
+        if (enter(n, NAME_EXPR)) {
+            super.visit(n, arg);
+        }
+        exit();
+    }
+
+    @Override
+    public void visit(Parameter n, Void arg) {
+        if (enter(n, PARAMETER)) {
+            super.visit(n, arg);
+        }
+        exit();
+    }
+
+    @Override
+    public void visit(ClassOrInterfaceDeclaration n, Void arg) {
+        Set<String> fields = newHashSet();
+        addFieldVariables(n.getMembers(), fields);
+        this.scope.enter(fields, getTypeParameterNames(n.getTypeParameters()));
+        try {
+            super.visit(n, arg);
+        } finally {
+            this.scope.exit();
+        }
+    }
+
+    @Override
+    public void visit(EnumDeclaration n, Void arg) {
+        Set<String> fieldsAndEnums = newHashSet();
+        for (EnumConstantDeclaration enumConstantDeclaration : emptyIfNull(n.getEntries())) {
+            fieldsAndEnums.add(enumConstantDeclaration.getName());
+        }
+        addFieldVariables(n.getMembers(), fieldsAndEnums);
+        this.scope.enter(fieldsAndEnums);
+        try {
+            super.visit(n, arg);
+        } finally {
+            this.scope.exit();
+        }
+    }
+
+    @Override
+    public void visit(ObjectCreationExpr n, Void arg) {
+        Set<String> fields = newHashSet();
+        addFieldVariables(n.getAnonymousClassBody(), fields);
+        this.scope.enter(fields);
+        try {
+            super.visit(n, arg);
+        } finally {
+            this.scope.exit();
+        }
+    }
+
+    @Override
+    public void visit(ConstructorDeclaration n, Void arg) {
+        this.scope.enter(getParameterNames(n.getParameters()), getTypeParameterNames(n.getTypeParameters()));
+        try {
+            super.visit(n, arg);
+        } finally {
+            this.scope.exit();
+        }
+    }
+
+    @Override
+    public void visit(MethodDeclaration n, Void arg) {
+        this.scope.enter(getParameterNames(n.getParameters()), getTypeParameterNames(n.getTypeParameters()));
+        try {
+            super.visit(n, arg);
+        } finally {
+            this.scope.exit();
+        }
+    }
+
+    @Override
+    public void visit(LambdaExpr n, Void arg) {
+        this.scope.enter(getParameterNames(n.getParameters()));
+        try {
+            super.visit(n, arg);
+        } finally {
+            this.scope.exit();
+        }
+    }
+
+    @Override
+    public void visit(CatchClause n, Void arg) {
+        Set<String> blockVariables = newHashSet();
+        blockVariables.add(n.getParam().getId().getName());
+        this.scope.enter(blockVariables);
+        try {
+            super.visit(n, arg);
+        } finally {
+            this.scope.exit();
+        }
+    }
+
+    @Override
+    public void visit(BlockStmt n, Void arg) {
+        this.scope.enter(Sets.<String>newHashSet());
+        try {
+            super.visit(n, arg);
+        } finally {
+            this.scope.exit();
+        }
+    }
+
+    @Override
+    public void visit(ForeachStmt n, Void arg) {
+        this.scope.enter(Sets.<String>newHashSet());
+        try {
+            super.visit(n, arg);
+        } finally {
+            this.scope.exit();
+        }
+    }
+
+    @Override
+    public void visit(ForStmt n, Void arg) {
+        this.scope.enter(Sets.<String>newHashSet());
+        try {
+            super.visit(n, arg);
+        } finally {
+            this.scope.exit();
+        }
+    }
+
+    @Override
+    public void visit(TryStmt n, Void arg) {
+        this.scope.enter(Sets.<String>newHashSet());
+        try {
+            super.visit(n, arg);
+        } finally {
+            this.scope.exit();
+        }
+    }
+
+    @Override
+    public void visit(VariableDeclarator n, Void arg) {
+        super.visit(n, arg);
+        if (VariableDeclarationExpr.class.isInstance(n.getParentNode())) {
+            // the variable is in scope after its initializer only
+            this.scope.addVariable(n.getId().getName());
+        }
+    }
+
+    @Nonnull
+    private static Set<String> getParameterNames(@Nullable List<Parameter> parameters) {
+        Set<String> blockVariables = newHashSet();
+        for (Parameter parameter : emptyIfNull(parameters)) {
+            blockVariables.add(parameter.getId().getName());
+        }
+        return blockVariables;
+    }
+
+    @Nonnull
+    private static Set<String> getTypeParameterNames(@Nullable List<TypeParameter> typeParameters) {
+        if (typeParameters == null) {
+            return Collections.emptySet();
+        }
+        Set<String> parameters = newHashSet();
+        for (TypeParameter typeParameter : typeParameters) {
+            parameters.add(typeParameter.getName());
+        }
+        return parameters;
+    }
+
+    @Nonnull
+    private static Predicate<? super FieldDeclaration> constants() {
+        return new Predicate<FieldDeclaration>() {
+            @Override
+            @SuppressWarnings("ConstantConditions")
+            public boolean apply(@Nullable FieldDeclaration fieldDeclaration) {
+                int modifiers = checkNotNull(fieldDeclaration).getModifiers();
+                return ModifierSet.isStatic(modifiers) && ModifierSet.isFinal(modifiers);
+            }
+        };
+    }
+
+    /**
+     * Adds the names of all fields that are no constants; references to constants are considered to be qualified by
+     * the declaring type.
+     */
+    private static void addFieldVariables(@Nullable Iterable<? extends BodyDeclaration> declarations,
+                                          @Nonnull Set<String> variables) {
+        for (FieldDeclaration fieldDeclaration : emptyIfNull(declarations).
+                filter(FieldDeclaration.class).filter(not(constants()))) {
+            for (VariableDeclarator variableDeclarator : fieldDeclaration.getVariables()) {
+                variables.add(variableDeclarator.getId().getName());
+            }
+        }
+    }
+
+    /**
+     * Calls all active callbacks for the given node, muting those that aren't interested in the node's children.
+     *
+     * @return <code>true</code> if any callback is interested in the node's children
+     */
+    private <T extends Node> boolean enter(@Nonnull T node, @Nonnull Dispatcher<T> dispatcher) {
+        this.level++;
+        boolean visitChildren = false;
+        for (int i = 0; i < this.callbacks.length; i++) {
+            if (this.mutedAtLevel[i] != 0) {
+                continue;
+            }
+            if (dispatcher.dispatch(this.callbacks[i], node, this.scope)) {
+                visitChildren = true;
+            } else {
+                this.mutedAtLevel[i] = this.level;
+            }
+        }
+        return visitChildren;
+    }
+
+    private void exit() {
+        for (int i = 0; i < this.callbacks.length; i++) {
+            if (this.mutedAtLevel[i] == this.level) {
+                this.mutedAtLevel[i] = 0;
+            }
+        }
+        this.level--;
+    }
+
+    private interface Dispatcher<T extends Node> {
+        boolean dispatch(@Nonnull NodeCallbacks callbacks, @Nonnull T node, @Nonnull Scope scope);
+    }
+
+}
@@ -3,21 +3,19 @@ package de.is24.deadcode4j.analyzer;
 import de.is24.deadcode4j.AnalysisContext;
 import de.is24.deadcode4j.AnalysisSink;
 import de.is24.deadcode4j.AnalyzedCode;
+import de.is24.deadcode4j.StatefulAnalyzer;
 
 import javax.annotation.Nonnull;
-import java.util.Set;
-
-import static com.google.common.collect.Sets.newHashSet;
 
 /**
  * Analyzes class files: marks a class as being in use if it is annotated with one of the specified annotations.
  *
  * @since 1.3
  */
-public final class CustomAnnotationsAnalyzer extends AnnotationsAnalyzer {
+public final class CustomAnnotationsAnalyzer extends AnnotationsAnalyzer implements StatefulAnalyzer {
 
     @Nonnull
-    private final Set<String> annotationsNotFoundInClassPath;
+    private final MarkersNotFoundInClassPath annotationsNotFoundInClassPath;
 
     /**
      * Creates a new <code>CustomAnnotationsAnalyzer</code>.
@@ -27,19 +25,24 @@ public final class CustomAnnotationsAnalyzer extends AnnotationsAnalyzer {
      */
     public CustomAnnotationsAnalyzer(@Nonnull Iterable<String> customAnnotations) {
         super("_custom-annotations_", customAnnotations);
-        annotationsNotFoundInClassPath = newHashSet(customAnnotations);
+        annotationsNotFoundInClassPath = new MarkersNotFoundInClassPath(getClass().getName() + "|foundInClassPath", customAnnotations);
     }
 
     @Override
     public void finishAnalysis(@Nonnull AnalysisContext analysisContext) {
         super.finishAnalysis(analysisContext);
-        annotationsNotFoundInClassPath.removeAll(getAnnotationsFoundInClassPath(analysisContext));
+        annotationsNotFoundInClassPath.foundInClassPath(analysisContext, getAnnotationsFoundInClassPath(analysisContext));
+    }
+
+    @Override
+    public void restoreAnalysis(@Nonnull AnalysisContext analysisContext) {
+        annotationsNotFoundInClassPath.restoredFrom(analysisContext);
     }
 
     @Override
     public void finishAnalysis(@Nonnull AnalysisSink analysisSink, @Nonnull AnalyzedCode analyzedCode) {
         super.finishAnalysis(analysisSink, analyzedCode);
-        for (String interfaceName : annotationsNotFoundInClassPath) {
+        for (String interfaceName : annotationsNotFoundInClassPath.get()) {
             logger.warn("Annotation [{}] wasn't ever found in the class path. You should remove the configuration entry.", interfaceName);
         }
     }
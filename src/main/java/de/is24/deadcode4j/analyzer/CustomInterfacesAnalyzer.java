@@ -3,21 +3,19 @@ package de.is24.deadcode4j.analyzer;
 import de.is24.deadcode4j.AnalysisContext;
 import de.is24.deadcode4j.AnalysisSink;
 import de.is24.deadcode4j.AnalyzedCode;
+import de.is24.deadcode4j.StatefulAnalyzer;
 
 import javax.annotation.Nonnull;
-import java.util.Set;
-
-import static com.google.common.collect.Sets.newHashSet;
 
 /**
  * Analyzes class files: marks a class as being in use if it explicitly implements one of the specified interfaces.
  *
  * @since 1.4
  */
-public final class CustomInterfacesAnalyzer extends InterfacesAnalyzer {
+public final class CustomInterfacesAnalyzer extends InterfacesAnalyzer implements StatefulAnalyzer {
 
     @Nonnull
-    private final Set<String> interfacesNotFoundInClassPath;
+    private final MarkersNotFoundInClassPath interfacesNotFoundInClassPath;
 
     /**
      * Creates a new <code>CustomInterfacesAnalyzer</code>.
@@ -27,19 +25,24 @@ public final class CustomInterfacesAnalyzer extends InterfacesAnalyzer {
      */
     public CustomInterfacesAnalyzer(@Nonnull Iterable<String> customInterfaces) {
         super("_custom-interfaces_", customInterfaces);
-        interfacesNotFoundInClassPath = newHashSet(customInterfaces);
+        interfacesNotFoundInClassPath = new MarkersNotFoundInClassPath(getClass().getName() + "|foundInClassPath", customInterfaces);
     }
 
     @Override
     public void finishAnalysis(@Nonnull AnalysisContext analysisContext) {
         super.finishAnalysis(analysisContext);
-        interfacesNotFoundInClassPath.removeAll(getInterfacesFoundInClassPath(analysisContext));
+        interfacesNotFoundInClassPath.foundInClassPath(analysisContext, getInterfacesFoundInClassPath(analysisContext));
+    }
+
+    @Override
+    public void restoreAnalysis(@Nonnull AnalysisContext analysisContext) {
+        interfacesNotFoundInClassPath.restoredFrom(analysisContext);
     }
 
     @Override
     public void finishAnalysis(@Nonnull AnalysisSink analysisSink, @Nonnull AnalyzedCode analyzedCode) {
         super.finishAnalysis(analysisSink, analyzedCode);
-        for (String interfaceName : interfacesNotFoundInClassPath) {
+        for (String interfaceName : interfacesNotFoundInClassPath.get()) {
             logger.warn("Interface [{}] wasn't ever found in the class path. You should remove the configuration entry.", interfaceName);
         }
     }
@@ -3,21 +3,19 @@ package de.is24.deadcode4j.analyzer;
 import de.is24.deadcode4j.AnalysisContext;
 import de.is24.deadcode4j.AnalysisSink;
 import de.is24.deadcode4j.AnalyzedCode;
+import de.is24.deadcode4j.StatefulAnalyzer;
 
 import javax.annotation.Nonnull;
-import java.util.Set;
-
-import static com.google.common.collect.Sets.newHashSet;
 
 /**
  * Analyzes class files: marks a class as being in use if it is a direct subclass of one of the specified classes.
  *
  * @since 1.4
  */
-public final class CustomSuperClassAnalyzer extends SuperClassAnalyzer {
+public final class CustomSuperClassAnalyzer extends SuperClassAnalyzer implements StatefulAnalyzer {
 
     @Nonnull
-    private final Set<String> superClassesNotFoundInClassPath;
+    private final MarkersNotFoundInClassPath superClassesNotFoundInClassPath;
 
     /**
      * Creates a new <code>CustomAnnotationsAnalyzer</code>.
@@ -27,19 +25,24 @@ public final class CustomSuperClassAnalyzer extends SuperClassAnalyzer {
      */
     public CustomSuperClassAnalyzer(@Nonnull Iterable<String> customSuperClasses) {
         super("_custom-superclass_", customSuperClasses);
-        superClassesNotFoundInClassPath = newHashSet(customSuperClasses);
+        superClassesNotFoundInClassPath = new MarkersNotFoundInClassPath(getClass().getName() + "|foundInClassPath", customSuperClasses);
     }
 
     @Override
     public void finishAnalysis(@Nonnull AnalysisContext analysisContext) {
         super.finishAnalysis(analysisContext);
-        superClassesNotFoundInClassPath.removeAll(getSuperClassesFoundInClassPath(analysisContext));
+        superClassesNotFoundInClassPath.foundInClassPath(analysisContext, getSuperClassesFoundInClassPath(analysisContext));
+    }
+
+    @Override
+    public void restoreAnalysis(@Nonnull AnalysisContext analysisContext) {
+        superClassesNotFoundInClassPath.restoredFrom(analysisContext);
     }
 
     @Override
     public void finishAnalysis(@Nonnull AnalysisSink analysisSink, @Nonnull AnalyzedCode analyzedCode) {
         super.finishAnalysis(analysisSink, analyzedCode);
-        for (String interfaceName : superClassesNotFoundInClassPath) {
+        for (String interfaceName : superClassesNotFoundInClassPath.get()) {
             logger.warn("SuperClass [{}] wasn't ever found in the class path. You should remove the configuration entry.", interfaceName);
         }
     }
@@ -1,17 +1,16 @@
 package de.is24.deadcode4j.analyzer;
 
-import de.is24.deadcode4j.AnalysisContext;
 import de.is24.deadcode4j.AnalysisSink;
 import de.is24.deadcode4j.AnalyzedCode;
-import de.is24.deadcode4j.Utils;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
-import java.util.Set;
+import java.util.List;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.collect.Lists.newArrayList;
 
 /**
  * Analyzes XML files: lists the registered elements' text or attribute values as being referenced classes.
@@ -23,7 +22,7 @@ public final class CustomXmlAnalyzer extends SimpleXmlAnalyzer {
     //                                                              element       [@attribute='value']    /   @attribute|text()
     private static final Pattern XPATH_PATTERN = Pattern.compile("^([^/\\[]+)(?:\\[@([^=]+)='([^']+)'\\])?/(?:@(.*)|text\\(\\))$");
     private static volatile int instanceNumber = 0; // we assign this to make sure the self check works
-    private boolean dependencyWasFound = false;
+    private final List<String> registeredXPaths = newArrayList();
 
     /**
      * Creates a new <code>CustomXmlAnalyzer</code>.
@@ -86,21 +85,20 @@ public final class CustomXmlAnalyzer extends SimpleXmlAnalyzer {
         if (matcher.group(2) != null) {
             element.withAttributeValue(matcher.group(2), matcher.group(3));
         }
+        this.registeredXPaths.add(xPath);
     }
 
+    @Nonnull
     @Override
-    public void finishAnalysis(@Nonnull AnalysisContext analysisContext) {
-        super.finishAnalysis(analysisContext);
-        Set<String> dependencies = analysisContext.getAnalyzedCode().getCodeDependencies().get(super.dependerId);
-        if (!Utils.isEmpty(dependencies)) {
-            dependencyWasFound = true;
-        }
+    public String getCacheKey() {
+        return this + "|" + super.dependerId + "|" + this.registeredXPaths;
     }
 
     @Override
     public void finishAnalysis(@Nonnull AnalysisSink analysisSink, @Nonnull AnalyzedCode analyzedCode) {
         super.finishAnalysis(analysisSink, analyzedCode);
-        if (!dependencyWasFound) {
+        int dependerId = analyzedCode.getClassNames().findId(super.dependerId);
+        if (analyzedCode.getNumberOfDependeesOf(dependerId) == 0) {
             logger.warn("The {} didn't find any class to report. You should remove the configuration entry.", this);
         }
     }
@@ -3,6 +3,7 @@ package de.is24.deadcode4j.analyzer;
 import com.google.common.base.Optional;
 import com.google.common.collect.Iterables;
 import de.is24.deadcode4j.AnalysisContext;
+import de.is24.deadcode4j.CacheableAnalyzer;
 import org.xml.sax.Attributes;
 import org.xml.sax.helpers.DefaultHandler;
 
@@ -26,7 +27,7 @@ import static java.util.Collections.emptyMap;
  *
  * @since 2.1.0
  */
-public abstract class ExtendedXmlAnalyzer extends XmlAnalyzer {
+public abstract class ExtendedXmlAnalyzer extends XmlAnalyzer implements CacheableAnalyzer {
     @Nonnull
     protected final String dependerId;
     @Nullable
@@ -75,6 +76,12 @@ public abstract class ExtendedXmlAnalyzer extends XmlAnalyzer {
         return buffy.toString();
     }
 
+    @Nonnull
+    @Override
+    public String getCacheKey() {
+        return getClass().getName() + "|" + this.dependerId;
+    }
+
     /**
      * Sets up a path to an element to match.
      * Be sure to call {@link Path#registerTextAsClass()} or {@link Path#registerAttributeAsClass(String)} eventually.
@@ -1,29 +1,29 @@
 package de.is24.deadcode4j.analyzer;
 
-import com.google.common.base.Function;
 import com.google.common.base.Optional;
 import com.google.common.base.Predicate;
 import de.is24.deadcode4j.AnalysisContext;
-import javassist.CtClass;
-import javassist.bytecode.annotation.*;
+import de.is24.deadcode4j.Module;
+import de.is24.deadcode4j.analyzer.classfile.AnnotationFacts;
+import de.is24.deadcode4j.analyzer.classfile.ClassFacts;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.lang.annotation.ElementType;
 import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import static com.google.common.base.Preconditions.checkState;
-import static com.google.common.base.Predicates.notNull;
 import static com.google.common.collect.Iterables.filter;
-import static com.google.common.collect.Iterables.transform;
 import static com.google.common.collect.Maps.newHashMap;
 import static de.is24.deadcode4j.IntermediateResults.*;
 import static de.is24.deadcode4j.Utils.getOrAddMappedSet;
 import static de.is24.deadcode4j.analyzer.javassist.ClassPoolAccessor.classPoolAccessorFor;
 import static java.lang.annotation.ElementType.*;
-import static java.util.Arrays.asList;
 import static java.util.Collections.emptyList;
 
 /**
@@ -57,34 +57,30 @@ import static java.util.Collections.emptyList;
  */
 public final class HibernateAnnotationsAnalyzer extends ByteCodeAnalyzer {
 
-    private final Map<String, String> typeDefinitions = newHashMap();
-    private final Map<String, Set<String>> typeUsages = newHashMap();
-    private final Map<String, String> generatorDefinitions = newHashMap();
-    private final Map<String, Set<String>> generatorUsages = newHashMap();
+    private final ConcurrentMap<Module, ModuleAnalysis> moduleAnalyses = new ConcurrentHashMap<Module, ModuleAnalysis>();
 
     @Nonnull
-    private static Iterable<Annotation> getAnnotations(@Nonnull CtClass clazz, @Nonnull final String typeName, ElementType... elementTypes) {
-        return filter(getAnnotations(clazz, elementTypes), new Predicate<Annotation>() {
+    private static Iterable<AnnotationFacts> getAnnotations(@Nonnull ClassFacts classFacts, @Nonnull final String typeName, ElementType... elementTypes) {
+        return filter(classFacts.getAnnotations(elementTypes), new Predicate<AnnotationFacts>() {
             @Override
-            public boolean apply(@Nullable Annotation annotation) {
+            public boolean apply(@Nullable AnnotationFacts annotation) {
                 return annotation != null && typeName.equals(annotation.getTypeName());
             }
         });
     }
 
     @Nullable
-    private static String getStringFrom(@Nonnull Annotation annotation, @Nonnull String memberName) {
-        MemberValue memberValue = annotation.getMemberValue(memberName);
+    private static String getStringFrom(@Nonnull AnnotationFacts annotation, @Nonnull String memberName) {
+        Object memberValue = annotation.getMemberValue(memberName);
         if (memberValue == null) {
             return null;
         }
-        checkState(StringMemberValue.class.isInstance(memberValue),
-                "The member [" + memberName + "] is no StringMemberValue!");
-        return StringMemberValue.class.cast(memberValue).getValue();
+        checkState(String.class.isInstance(memberValue), "The member [" + memberName + "] is no String!");
+        return String.class.cast(memberValue);
     }
 
     @Nonnull
-    private static String getMandatoryStringFrom(@Nonnull Annotation annotation, @Nonnull String memberName) {
+    private static String getMandatoryStringFrom(@Nonnull AnnotationFacts annotation, @Nonnull String memberName) {
         String memberValue = getStringFrom(annotation, memberName);
         if (memberValue == null) {
             throw new RuntimeException("Annotation [" + annotation.getTypeName()
@@ -95,123 +91,140 @@ public final class HibernateAnnotationsAnalyzer extends ByteCodeAnalyzer {
 
 
     @Nonnull
-    private static Iterable<Annotation> getAnnotationsFrom(@Nonnull Annotation annotation, @Nonnull String memberName) {
-        MemberValue memberValue = annotation.getMemberValue(memberName);
+    private static Iterable<AnnotationFacts> getAnnotationsFrom(@Nonnull AnnotationFacts annotation, @Nonnull String memberName) {
+        Object memberValue = annotation.getMemberValue(memberName);
         if (memberValue == null) {
             return emptyList();
         }
-        checkState(ArrayMemberValue.class.isInstance(memberValue),
-                "The member [" + memberName + "] is no ArrayMemberValue!");
-        MemberValue[] nestedMembers = ArrayMemberValue.class.cast(memberValue).getValue();
-        return filter(transform(asList(nestedMembers), new Function<MemberValue, Annotation>() {
-            @Override
-            public Annotation apply(@Nullable MemberValue memberValue) {
-                return memberValue == null ? null : AnnotationMemberValue.class.cast(memberValue).getValue();
-            }
-        }), notNull());
+        checkState(List.class.isInstance(memberValue), "The member [" + memberName + "] is no array!");
+        return filter(List.class.cast(memberValue), AnnotationFacts.class);
     }
 
     @Override
-    protected void analyzeClass(@Nonnull AnalysisContext analysisContext, @Nonnull CtClass clazz) {
-        analysisContext.addAnalyzedClass(clazz.getName());
-        processTypeDefAnnotation(clazz);
-        processTypeDefsAnnotation(clazz);
-        processTypeAnnotations(clazz);
-        processGenericGenerator(analysisContext, clazz);
-        processGenericGenerators(analysisContext, clazz);
-        processGeneratedValueAnnotations(clazz);
+    protected void analyzeClass(@Nonnull AnalysisContext analysisContext, @Nonnull ClassFacts classFacts) {
+        analysisContext.addAnalyzedClass(classFacts.getClassName());
+        ModuleAnalysis moduleAnalysis = getModuleAnalysisFor(analysisContext);
+        processTypeDefAnnotation(moduleAnalysis, classFacts);
+        processTypeDefsAnnotation(moduleAnalysis, classFacts);
+        processTypeAnnotations(moduleAnalysis, classFacts);
+        processGenericGenerator(analysisContext, moduleAnalysis, classFacts);
+        processGenericGenerators(analysisContext, moduleAnalysis, classFacts);
+        processGeneratedValueAnnotations(moduleAnalysis, classFacts);
     }
 
     @Override
     public void finishAnalysis(@Nonnull AnalysisContext analysisContext) {
-        reportDependencies(analysisContext);
-        storeIntermediateResults(analysisContext);
+        ModuleAnalysis moduleAnalysis = this.moduleAnalyses.remove(analysisContext.getModule());
+        if (moduleAnalysis == null) {
+            moduleAnalysis = new ModuleAnalysis();
+        }
+        reportDependencies(analysisContext, moduleAnalysis);
+        storeIntermediateResults(analysisContext, moduleAnalysis);
     }
 
-    private void processTypeDefAnnotation(@Nonnull CtClass clazz) {
-        for (Annotation annotation : getAnnotations(clazz, "org.hibernate.annotations.TypeDef", PACKAGE, TYPE)) {
-            processTypeDefinition(clazz, annotation);
+    @Nonnull
+    private ModuleAnalysis getModuleAnalysisFor(@Nonnull AnalysisContext analysisContext) {
+        Module module = analysisContext.getModule();
+        ModuleAnalysis moduleAnalysis = this.moduleAnalyses.get(module);
+        if (moduleAnalysis == null) {
+            ModuleAnalysis newModuleAnalysis = new ModuleAnalysis();
+            moduleAnalysis = this.moduleAnalyses.putIfAbsent(module, newModuleAnalysis);
+            if (moduleAnalysis == null) {
+                moduleAnalysis = newModuleAnalysis;
+            }
         }
+        return moduleAnalysis;
     }
 
-    private void processTypeDefinition(@Nonnull CtClass clazz, @Nonnull Annotation annotation) {
+    private void processTypeDefAnnotation(@Nonnull ModuleAnalysis moduleAnalysis, @Nonnull ClassFacts classFacts) {
+        for (AnnotationFacts annotation : getAnnotations(classFacts, "org.hibernate.annotations.TypeDef", PACKAGE, TYPE)) {
+            processTypeDefinition(moduleAnalysis, classFacts, annotation);
+        }
+    }
+
+    private void processTypeDefinition(@Nonnull ModuleAnalysis moduleAnalysis,
+                                       @Nonnull ClassFacts classFacts,
+                                       @Nonnull AnnotationFacts annotation) {
         String typeName = getStringFrom(annotation, "name");
         if (typeName == null) {
             return;
         }
-        String className = clazz.getName();
-        String previousEntry = this.typeDefinitions.put(typeName, className);
+        String className = classFacts.getClassName();
+        String previousEntry = moduleAnalysis.addTypeDefinition(typeName, className);
         if (previousEntry != null) {
             logger.warn("The @TypeDef named [{}] is defined both by {} and {}.", typeName, previousEntry, className);
         }
     }
 
-    private void processTypeDefsAnnotation(@Nonnull CtClass clazz) {
-        for (Annotation annotation : getAnnotations(clazz, "org.hibernate.annotations.TypeDefs", PACKAGE, TYPE)) {
-            for (Annotation childAnnotation : getAnnotationsFrom(annotation, "value")) {
-                processTypeDefinition(clazz, childAnnotation);
+    private void processTypeDefsAnnotation(@Nonnull ModuleAnalysis moduleAnalysis, @Nonnull ClassFacts classFacts) {
+        for (AnnotationFacts annotation : getAnnotations(classFacts, "org.hibernate.annotations.TypeDefs", PACKAGE, TYPE)) {
+            for (AnnotationFacts childAnnotation : getAnnotationsFrom(annotation, "value")) {
+                processTypeDefinition(moduleAnalysis, classFacts, childAnnotation);
             }
         }
     }
 
-    private void processTypeAnnotations(@Nonnull CtClass clazz) {
-        for (Annotation annotation : getAnnotations(clazz, "org.hibernate.annotations.Type", METHOD, FIELD)) {
+    private void processTypeAnnotations(@Nonnull ModuleAnalysis moduleAnalysis, @Nonnull ClassFacts classFacts) {
+        for (AnnotationFacts annotation : getAnnotations(classFacts, "org.hibernate.annotations.Type", METHOD, FIELD)) {
             String typeName = getMandatoryStringFrom(annotation, "type");
-            getOrAddMappedSet(this.typeUsages, typeName).add(clazz.getName());
+            moduleAnalysis.addTypeUsage(typeName, classFacts.getClassName());
         }
     }
 
-    private void processGenericGenerator(AnalysisContext analysisContext, CtClass clazz) {
-        for (Annotation annotation : getAnnotations(clazz, "org.hibernate.annotations.GenericGenerator", PACKAGE, TYPE, METHOD, FIELD)) {
-            processGenericGenerator(analysisContext, clazz, annotation);
+    private void processGenericGenerator(AnalysisContext analysisContext, ModuleAnalysis moduleAnalysis, ClassFacts classFacts) {
+        for (AnnotationFacts annotation : getAnnotations(classFacts, "org.hibernate.annotations.GenericGenerator", PACKAGE, TYPE, METHOD, FIELD)) {
+            processGenericGenerator(analysisContext, moduleAnalysis, classFacts, annotation);
         }
     }
 
-    private void processGenericGenerator(AnalysisContext analysisContext, CtClass clazz, Annotation annotation) {
-        String className = clazz.getName();
+    private void processGenericGenerator(AnalysisContext analysisContext,
+                                         ModuleAnalysis moduleAnalysis,
+                                         ClassFacts classFacts,
+                                         AnnotationFacts annotation) {
+        String className = classFacts.getClassName();
         Optional<String> resolvedStrategyClass = classPoolAccessorFor(analysisContext).resolveClass(
                 getMandatoryStringFrom(annotation, "strategy"));
         if (resolvedStrategyClass.isPresent()) {
             analysisContext.addDependencies(className, resolvedStrategyClass.get());
         }
         String generatorName = getMandatoryStringFrom(annotation, "name");
-        String previousEntry = this.generatorDefinitions.put(generatorName, className);
+        String previousEntry = moduleAnalysis.addGeneratorDefinition(generatorName, className);
         if (previousEntry != null) {
             logger.warn("The @GenericGenerator named [{}] is defined both by {} and {}.",
                     generatorName, previousEntry, className);
         }
     }
 
-    private void processGenericGenerators(AnalysisContext analysisContext, CtClass clazz) {
-        for (Annotation annotation : getAnnotations(clazz, "org.hibernate.annotations.GenericGenerators", PACKAGE, TYPE)) {
-            for (Annotation childAnnotation : getAnnotationsFrom(annotation, "value")) {
-                processGenericGenerator(analysisContext, clazz, childAnnotation);
+    private void processGenericGenerators(AnalysisContext analysisContext, ModuleAnalysis moduleAnalysis, ClassFacts classFacts) {
+        for (AnnotationFacts annotation : getAnnotations(classFacts, "org.hibernate.annotations.GenericGenerators", PACKAGE, TYPE)) {
+            for (AnnotationFacts childAnnotation : getAnnotationsFrom(annotation, "value")) {
+                processGenericGenerator(analysisContext, moduleAnalysis, classFacts, childAnnotation);
             }
         }
     }
 
-    private void processGeneratedValueAnnotations(CtClass clazz) {
-        for (Annotation annotation : getAnnotations(clazz, "javax.persistence.GeneratedValue", METHOD, FIELD)) {
+    private void processGeneratedValueAnnotations(ModuleAnalysis moduleAnalysis, ClassFacts classFacts) {
+        for (AnnotationFacts annotation : getAnnotations(classFacts, "javax.persistence.GeneratedValue", METHOD, FIELD)) {
             String generatorName = getStringFrom(annotation, "generator");
             if (generatorName != null) {
-                getOrAddMappedSet(this.generatorUsages, generatorName).add(clazz.getName());
+                moduleAnalysis.addGeneratorUsage(generatorName, classFacts.getClassName());
             }
         }
     }
 
-    private void reportDependencies(@Nonnull AnalysisContext analysisContext) {
-        reportNewGeneratorUsages(analysisContext);
-        reportExistingGeneratorUsagesForNewDefinitions(analysisContext);
-        reportNewTypeUsages(analysisContext);
-        reportExistingTypeUsagesForNewDefinitions(analysisContext);
+    private void reportDependencies(@Nonnull AnalysisContext analysisContext, @Nonnull ModuleAnalysis moduleAnalysis) {
+        reportNewGeneratorUsages(analysisContext, moduleAnalysis);
+        reportExistingGeneratorUsagesForNewDefinitions(analysisContext, moduleAnalysis);
+        reportNewTypeUsages(analysisContext, moduleAnalysis);
+        reportExistingTypeUsagesForNewDefinitions(analysisContext, moduleAnalysis);
     }
 
-    private void reportNewGeneratorUsages(AnalysisContext analysisContext) {
-        if (this.generatorUsages.isEmpty()) {
+    private void reportNewGeneratorUsages(AnalysisContext analysisContext, ModuleAnalysis moduleAnalysis) {
+        if (moduleAnalysis.generatorUsages.isEmpty()) {
             return;
         }
-        Map<String, String> allGeneratorDefinitions = getAllGeneratorDefinitions(analysisContext);
-        for (Map.Entry<String, Set<String>> generatorUsage : this.generatorUsages.entrySet()) {
+        Map<String, String> allGeneratorDefinitions = getAllGeneratorDefinitions(analysisContext, moduleAnalysis);
+        for (Map.Entry<String, Set<String>> generatorUsage : moduleAnalysis.generatorUsages.entrySet()) {
             String generatorName = generatorUsage.getKey();
             String classDefiningGenerator = allGeneratorDefinitions.get(generatorName);
             if (classDefiningGenerator != null) {
@@ -222,13 +235,13 @@ public final class HibernateAnnotationsAnalyzer extends ByteCodeAnalyzer {
         }
     }
 
-    private void reportExistingGeneratorUsagesForNewDefinitions(AnalysisContext analysisContext) {
-        if (this.generatorDefinitions.isEmpty()) {
+    private void reportExistingGeneratorUsagesForNewDefinitions(AnalysisContext analysisContext, ModuleAnalysis moduleAnalysis) {
+        if (moduleAnalysis.generatorDefinitions.isEmpty()) {
             return;
         }
         for (Map.Entry<String, Set<String>> usage : getExistingGeneratorUsages(analysisContext).entrySet()) {
             String usageName = usage.getKey();
-            String classDefiningType = this.generatorDefinitions.get(usageName);
+            String classDefiningType = moduleAnalysis.generatorDefinitions.get(usageName);
             if (classDefiningType == null) {
                 continue;
             }
@@ -239,12 +252,12 @@ public final class HibernateAnnotationsAnalyzer extends ByteCodeAnalyzer {
         }
     }
 
-    private void reportNewTypeUsages(AnalysisContext analysisContext) {
-        if (this.typeUsages.isEmpty()) {
+    private void reportNewTypeUsages(AnalysisContext analysisContext, ModuleAnalysis moduleAnalysis) {
+        if (moduleAnalysis.typeUsages.isEmpty()) {
             return;
         }
-        Map<String, String> allTypeDefinitions = getAllTypeDefinitions(analysisContext);
-        for (Map.Entry<String, Set<String>> typeUsage : this.typeUsages.entrySet()) {
+        Map<String, String> allTypeDefinitions = getAllTypeDefinitions(analysisContext, moduleAnalysis);
+        for (Map.Entry<String, Set<String>> typeUsage : moduleAnalysis.typeUsages.entrySet()) {
             String typeName = typeUsage.getKey();
             String classDefiningType = allTypeDefinitions.get(typeName);
 
@@ -266,13 +279,13 @@ public final class HibernateAnnotationsAnalyzer extends ByteCodeAnalyzer {
         }
     }
 
-    private void reportExistingTypeUsagesForNewDefinitions(AnalysisContext analysisContext) {
-        if (this.typeDefinitions.isEmpty()) {
+    private void reportExistingTypeUsagesForNewDefinitions(AnalysisContext analysisContext, ModuleAnalysis moduleAnalysis) {
+        if (moduleAnalysis.typeDefinitions.isEmpty()) {
             return;
         }
         for (Map.Entry<String, Set<String>> typeUsage : getExistingTypeUsages(analysisContext).entrySet()) {
             String typeName = typeUsage.getKey();
-            String classDefiningType = this.typeDefinitions.get(typeName);
+            String classDefiningType = moduleAnalysis.typeDefinitions.get(typeName);
             if (classDefiningType == null) {
                 continue;
             }
@@ -284,15 +297,16 @@ public final class HibernateAnnotationsAnalyzer extends ByteCodeAnalyzer {
     }
 
     @Nonnull
-    private Map<String, String> getAllGeneratorDefinitions(@Nonnull AnalysisContext analysisContext) {
+    private Map<String, String> getAllGeneratorDefinitions(@Nonnull AnalysisContext analysisContext,
+                                                           @Nonnull ModuleAnalysis moduleAnalysis) {
         IntermediateResultMap<String, String> resultMap =
                 resultMapFrom(analysisContext, getClass().getName() + "|generatorDefinitions");
         if (resultMap == null) {
-            return this.generatorDefinitions;
+            return moduleAnalysis.generatorDefinitions;
         }
         Map<String, String> inheritedDefinitions = resultMap.getResults();
 
-        Map<String, String> allDefinitions = newHashMap(this.generatorDefinitions);
+        Map<String, String> allDefinitions = newHashMap(moduleAnalysis.generatorDefinitions);
         for (Map.Entry<String, String> inheritedDefinition : inheritedDefinitions.entrySet()) {
             String definitionName = inheritedDefinition.getKey();
             if (allDefinitions.containsKey(definitionName)) {
@@ -306,15 +320,16 @@ public final class HibernateAnnotationsAnalyzer extends ByteCodeAnalyzer {
     }
 
     @Nonnull
-    private Map<String, String> getAllTypeDefinitions(@Nonnull AnalysisContext analysisContext) {
+    private Map<String, String> getAllTypeDefinitions(@Nonnull AnalysisContext analysisContext,
+                                                      @Nonnull ModuleAnalysis moduleAnalysis) {
         IntermediateResultMap<String, String> resultMap =
                 resultMapFrom(analysisContext, getClass().getName() + "|typeDefinitions");
         if (resultMap == null) {
-            return this.typeDefinitions;
+            return moduleAnalysis.typeDefinitions;
         }
         Map<String, String> inheritedTypeDefinitions = resultMap.getResults();
 
-        Map<String, String> allTypeDefinitions = newHashMap(this.typeDefinitions);
+        Map<String, String> allTypeDefinitions = newHashMap(moduleAnalysis.typeDefinitions);
         for (Map.Entry<String, String> inheritedDefinition : inheritedTypeDefinitions.entrySet()) {
             String typeName = inheritedDefinition.getKey();
             if (allTypeDefinitions.containsKey(typeName)) {
@@ -341,23 +356,49 @@ public final class HibernateAnnotationsAnalyzer extends ByteCodeAnalyzer {
         return resultMap != null ? resultMap.getResults() : Collections.<String, Set<String>>emptyMap();
     }
 
-    private void storeIntermediateResults(@Nonnull AnalysisContext analysisContext) {
-        if (!this.generatorDefinitions.isEmpty()) {
-            analysisContext.getCache().put(getClass().getName() + "|generatorDefinitions", resultMapFor(this.generatorDefinitions));
-            this.generatorDefinitions.clear();
+    private void storeIntermediateResults(@Nonnull AnalysisContext analysisContext,
+                                          @Nonnull ModuleAnalysis moduleAnalysis) {
+        if (!moduleAnalysis.generatorDefinitions.isEmpty()) {
+            analysisContext.getCache().put(getClass().getName() + "|generatorDefinitions", resultMapFor(moduleAnalysis.generatorDefinitions));
+        }
+        if (!moduleAnalysis.generatorUsages.isEmpty()) {
+            analysisContext.getCache().put(getClass().getName() + "|generatorUsages", resultMapFor(moduleAnalysis.generatorUsages));
+        }
+        if (!moduleAnalysis.typeDefinitions.isEmpty()) {
+            analysisContext.getCache().put(getClass().getName() + "|typeDefinitions", resultMapFor(moduleAnalysis.typeDefinitions));
+        }
+        if (!moduleAnalysis.typeUsages.isEmpty()) {
+            analysisContext.getCache().put(getClass().getName() + "|typeUsages", resultMapFor(moduleAnalysis.typeUsages));
+        }
+    }
+
+    /**
+     * Collects the definitions and usages found while analyzing the classes of one module.
+     */
+    private static final class ModuleAnalysis {
+        final Map<String, String> typeDefinitions = newHashMap();
+        final Map<String, Set<String>> typeUsages = newHashMap();
+        final Map<String, String> generatorDefinitions = newHashMap();
+        final Map<String, Set<String>> generatorUsages = newHashMap();
+
+        @Nullable
+        synchronized String addTypeDefinition(@Nonnull String typeName, @Nonnull String className) {
+            return this.typeDefinitions.put(typeName, className);
         }
-        if (!this.generatorUsages.isEmpty()) {
-            analysisContext.getCache().put(getClass().getName() + "|generatorUsages", resultMapFor(this.generatorUsages));
-            this.generatorUsages.clear();
+
+        synchronized void addTypeUsage(@Nonnull String typeName, @Nonnull String className) {
+            getOrAddMappedSet(this.typeUsages, typeName).add(className);
         }
-        if (!this.typeDefinitions.isEmpty()) {
-            analysisContext.getCache().put(getClass().getName() + "|typeDefinitions", resultMapFor(this.typeDefinitions));
-            this.typeDefinitions.clear();
+
+        @Nullable
+        synchronized String addGeneratorDefinition(@Nonnull String generatorName, @Nonnull String className) {
+            return this.generatorDefinitions.put(generatorName, className);
         }
-        if (!this.typeUsages.isEmpty()) {
-            analysisContext.getCache().put(getClass().getName() + "|typeUsages", resultMapFor(this.typeUsages));
-            this.typeUsages.clear();
+
+        synchronized void addGeneratorUsage(@Nonnull String generatorName, @Nonnull String className) {
+            getOrAddMappedSet(this.generatorUsages, generatorName).add(className);
         }
+
     }
 
 }
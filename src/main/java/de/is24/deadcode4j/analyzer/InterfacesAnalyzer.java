@@ -1,16 +1,18 @@
 package de.is24.deadcode4j.analyzer;
 
 import de.is24.deadcode4j.AnalysisContext;
+import de.is24.deadcode4j.analyzer.classfile.ClassFacts;
+import de.is24.deadcode4j.analyzer.classfile.ClassFileHeader;
 import de.is24.deadcode4j.analyzer.javassist.ClassPathFilter;
 import de.is24.guava.NonNullFunction;
-import javassist.CtClass;
 
 import javax.annotation.Nonnull;
 import java.util.Set;
+import java.util.TreeSet;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.collect.Sets.newHashSet;
-import static de.is24.javassist.CtClasses.getAllImplementedInterfaces;
+import static de.is24.deadcode4j.analyzer.javassist.ClassHierarchy.classHierarchyFor;
 import static java.util.Collections.disjoint;
 
 /**
@@ -23,11 +25,14 @@ public abstract class InterfacesAnalyzer extends ByteCodeAnalyzer {
 
     @Nonnull
     private final String dependerId;
+    @Nonnull
+    private final Set<String> interfaceNames;
     private final NonNullFunction<AnalysisContext, Set<String>> supplyInterfacesFoundInClassPath;
 
     private InterfacesAnalyzer(@Nonnull String dependerId, @Nonnull Set<String> interfaceNames) {
         checkArgument(!interfaceNames.isEmpty(), "interfaceNames cannot by empty!");
         this.dependerId = dependerId;
+        this.interfaceNames = new TreeSet<String>(interfaceNames);
         this.supplyInterfacesFoundInClassPath = new ClassPathFilter(interfaceNames);
     }
 
@@ -58,15 +63,33 @@ public abstract class InterfacesAnalyzer extends ByteCodeAnalyzer {
     }
 
     @Override
-    protected final void analyzeClass(@Nonnull AnalysisContext analysisContext, @Nonnull CtClass clazz) {
+    public String toString() {
+        return super.toString() + " reporting [" + this.dependerId + "] for " + this.interfaceNames;
+    }
+
+    @Override
+    protected final boolean preAnalyzeClass(@Nonnull AnalysisContext analysisContext,
+                                            @Nonnull ClassFileHeader header) {
+        if (getInterfacesFoundInClassPath(analysisContext).isEmpty()) {
+            return false;
+        }
+        if (header.hasSupertypes()) {
+            return true;
+        }
+        analysisContext.addAnalyzedClass(header.getClassName());
+        return false;
+    }
+
+    @Override
+    protected final void analyzeClass(@Nonnull AnalysisContext analysisContext, @Nonnull ClassFacts classFacts) {
         Set<String> knownInterfaces = getInterfacesFoundInClassPath(analysisContext);
         if (knownInterfaces.isEmpty()) {
             return;
         }
 
-        String clazzName = clazz.getName();
+        String clazzName = classFacts.getClassName();
         analysisContext.addAnalyzedClass(clazzName);
-        if (!disjoint(knownInterfaces, getAllImplementedInterfaces(clazz))) {
+        if (!disjoint(knownInterfaces, classHierarchyFor(analysisContext).getAllInterfacesOf(classFacts))) {
             analysisContext.addDependencies(this.dependerId, clazzName);
         }
     }
@@ -8,10 +8,21 @@ import com.github.javaparser.ast.ImportDeclaration;
 import com.github.javaparser.ast.Node;
 import com.github.javaparser.ast.PackageDeclaration;
 import com.github.javaparser.ast.body.BodyDeclaration;
+import com.github.javaparser.ast.body.Parameter;
 import com.github.javaparser.ast.body.TypeDeclaration;
+import com.github.javaparser.ast.expr.FieldAccessExpr;
+import com.github.javaparser.ast.expr.MethodReferenceExpr;
+import com.github.javaparser.ast.expr.NameExpr;
+import com.github.javaparser.ast.expr.ObjectCreationExpr;
+import com.github.javaparser.ast.expr.QualifiedNameExpr;
+import com.github.javaparser.ast.type.ClassOrInterfaceType;
 import com.google.common.base.Optional;
+import com.google.common.base.Predicate;
 import com.google.common.cache.LoadingCache;
 import de.is24.deadcode4j.AnalysisContext;
+import de.is24.deadcode4j.PrefetchingAnalyzer;
+import de.is24.deadcode4j.analyzer.classfile.ClassFacts;
+import de.is24.deadcode4j.analyzer.javassist.ClassHierarchy;
 import de.is24.deadcode4j.analyzer.javassist.ClassPoolAccessor;
 import de.is24.guava.NonNullFunction;
 import de.is24.guava.SequentialLoadingCache;
@@ -24,21 +35,24 @@ import org.slf4j.LoggerFactory;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.io.*;
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
+import java.util.*;
+import java.util.concurrent.ConcurrentMap;
 
 import static com.google.common.base.Optional.absent;
 import static com.google.common.base.Optional.of;
-import static com.google.common.base.Predicates.and;
-import static com.google.common.base.Predicates.not;
-import static com.google.common.collect.Iterables.getOnlyElement;
+import static com.google.common.collect.Iterables.concat;
 import static com.google.common.collect.Lists.newArrayList;
+import static com.google.common.collect.Lists.newLinkedList;
+import static com.google.common.collect.Maps.immutableEntry;
+import static com.google.common.collect.Maps.newConcurrentMap;
+import static com.google.common.collect.Maps.newHashMap;
+import static com.google.common.collect.Maps.newIdentityHashMap;
+import static com.google.common.collect.Sets.newHashSet;
+import static de.is24.deadcode4j.FileContents.fileContentsFor;
 import static de.is24.deadcode4j.Utils.emptyIfNull;
+import static de.is24.deadcode4j.Utils.isEmpty;
 import static de.is24.guava.NonNullFunctions.or;
 import static de.is24.guava.NonNullFunctions.toFunction;
-import static de.is24.javaparser.ImportDeclarations.isAsterisk;
-import static de.is24.javaparser.ImportDeclarations.refersTo;
 import static de.is24.javaparser.Nodes.getTypeName;
 import static de.is24.javaparser.Nodes.prepend;
 import static de.is24.javassist.CtClasses.*;
@@ -47,40 +61,39 @@ import static java.util.Collections.singletonList;
 import static org.apache.commons.io.IOUtils.closeQuietly;
 
 /**
- * Serves as a base class with which to analyze java files.
+ * Serves as a base class with which to analyze java files.<br/>
+ * Each file is parsed only once for all <code>JavaFileAnalyzer</code>s. The files announced via
+ * {@link #prefetch(AnalysisContext, List)} are parsed ahead of their analysis by the {@link JavaSourcePipeline}.<br/>
+ * Analyzers providing {@link #createNodeCallbacks(AnalysisContext, CompilationUnit) node callbacks} share a single
+ * traversal of each compilation unit: as soon as the first of them analyzes a file, the callbacks of all analyzers the
+ * file was announced to are called; the {@link Scope} is tracked once for all of them.<br/>
+ * Analyzers may {@link #analyzeClass(AnalysisContext, ClassFacts) analyze class files} as well.
  *
  * @since 2.0.0
  */
-public abstract class JavaFileAnalyzer extends AnalyzerAdapter {
+public abstract class JavaFileAnalyzer extends AnalyzerAdapter implements PrefetchingAnalyzer {
 
     private static final String JAVA_PARSER_KEY = JavaFileAnalyzer.class.getName() + ":JavaParser";
-    private static final NonNullFunction<AnalysisContext, LoadingCache<File, Optional<CompilationUnit>>>
-            JAVA_PARSER_SUPPLIER = new JavaParserSupplier(true);
+    private static final JavaParserSupplier JAVA_PARSER_SUPPLIER = new JavaParserSupplier(true);
+
+    private static final String COVERED_ANALYSES_KEY = JavaFileAnalyzer.class.getName() + ":CoveredAnalyses";
+    private static final NonNullFunction<AnalysisContext, CoveredAnalyses> COVERED_ANALYSES_SUPPLIER =
+            new NonNullFunction<AnalysisContext, CoveredAnalyses>() {
+                @Nonnull
+                @Override
+                public CoveredAnalyses apply(@Nonnull AnalysisContext input) {
+                    return new CoveredAnalyses();
+                }
+            };
 
     private static final String TYPE_RESOLVER_KEY = JavaFileAnalyzer.class.getName() + ":TypeResolver";
-    private static final NonNullFunction<AnalysisContext, NonNullFunction<Qualifier<?>, Optional<String>>>
-            TYPE_RESOLVER_SUPPLIER =
-            new NonNullFunction<AnalysisContext, NonNullFunction<Qualifier<?>, Optional<String>>>() {
+    private static final NonNullFunction<AnalysisContext, TypeResolver> TYPE_RESOLVER_SUPPLIER =
+            new NonNullFunction<AnalysisContext, TypeResolver>() {
                 @Nonnull
                 @Override
-                public NonNullFunction<Qualifier<?>, Optional<String>> apply(@Nonnull AnalysisContext analysisContext) {
-                    final ClassPoolAccessor classPoolAccessor = ClassPoolAccessor.classPoolAccessorFor(analysisContext);
-                    return new NonNullFunction<Qualifier<?>, Optional<String>>() {
-                        @Nonnull
-                        @Override
-                        @SuppressWarnings("unchecked")
-                        public Optional<String> apply(@Nonnull Qualifier<?> input) {
-                            return or(
-                                    new FullyQualifiedTypeResolver(classPoolAccessor),
-                                    new InnerTypeResolver(),
-                                    new InheritedTypeResolver(classPoolAccessor),
-                                    new ImportedTypeResolver(classPoolAccessor),
-                                    new PackageTypeResolver(classPoolAccessor),
-                                    new AsteriskImportedTypeResolver(classPoolAccessor),
-                                    new JavaLangTypeResolver(classPoolAccessor)
-                            ).apply(input);
-                        }
-                    };
+                public TypeResolver apply(@Nonnull AnalysisContext analysisContext) {
+                    return new TypeResolver(ClassPoolAccessor.classPoolAccessorFor(analysisContext),
+                            ClassHierarchy.classHierarchyFor(analysisContext));
                 }
             };
 
@@ -88,7 +101,26 @@ public abstract class JavaFileAnalyzer extends AnalyzerAdapter {
         return analysisContext.getOrCreateCacheEntry(JAVA_PARSER_KEY, JAVA_PARSER_SUPPLIER);
     }
 
-    private static NonNullFunction<Qualifier<?>, Optional<String>> getTypeResolver(AnalysisContext analysisContext) {
+    /**
+     * Returns the files announced to each analyzer for the module of the given analysis context.
+     */
+    @Nonnull
+    @SuppressWarnings("unchecked")
+    private static ConcurrentMap<JavaFileAnalyzer, Set<File>> getAnnouncedFiles(AnalysisContext analysisContext) {
+        Object key = immutableEntry(JavaFileAnalyzer.class, analysisContext.getModule());
+        ConcurrentMap<Object, Object> projectCache = analysisContext.getProjectCache();
+        Object announcedFiles = projectCache.get(key);
+        if (announcedFiles == null) {
+            ConcurrentMap<JavaFileAnalyzer, Set<File>> newAnnouncedFiles = newConcurrentMap();
+            announcedFiles = projectCache.putIfAbsent(key, newAnnouncedFiles);
+            if (announcedFiles == null) {
+                announcedFiles = newAnnouncedFiles;
+            }
+        }
+        return (ConcurrentMap<JavaFileAnalyzer, Set<File>>) announcedFiles;
+    }
+
+    private static TypeResolver getTypeResolver(AnalysisContext analysisContext) {
         return analysisContext.getOrCreateCacheEntry(TYPE_RESOLVER_KEY, TYPE_RESOLVER_SUPPLIER);
     }
 
@@ -113,24 +145,168 @@ public abstract class JavaFileAnalyzer extends AnalyzerAdapter {
         return resolvedClass.replace('$', '.').endsWith(qualifier.getFullQualifier().replace('$', '.'));
     }
 
+    @Nonnull
+    @Override
+    public Iterable<String> getFileSuffixes() {
+        return singleton(".java");
+    }
+
+    /**
+     * Only the Java files {@link #selectFilesToAnalyze(AnalysisContext, List) selected} are parsed ahead &amp; analyzed.
+     *
+     * @since 2.2.0
+     */
+    @Override
+    public void prefetch(@Nonnull AnalysisContext analysisContext, @Nonnull List<File> files) {
+        final ConcurrentMap<JavaFileAnalyzer, Set<File>> announcedFiles = getAnnouncedFiles(analysisContext);
+        announcedFiles.put(this, newHashSet(selectFilesToAnalyze(analysisContext, files)));
+        List<File> javaFiles = newArrayList();
+        for (File file : files) {
+            if (file.getName().endsWith(".java")) {
+                javaFiles.add(file);
+            }
+        }
+        JavaSourcePipeline.start(analysisContext, javaFiles,
+                JAVA_PARSER_SUPPLIER.createFileParser(analysisContext.getModule().getEncoding()),
+                new Predicate<File>() {
+                    @Override
+                    public boolean apply(@Nullable File file) {
+                        for (Set<File> filesOfAnalyzer : announcedFiles.values()) {
+                            if (filesOfAnalyzer.contains(file)) {
+                                return true;
+                            }
+                        }
+                        return false;
+                    }
+                });
+    }
+
     @Override
     public final void doAnalysis(@Nonnull AnalysisContext analysisContext, @Nonnull File file) {
+        if (file.getName().endsWith(".class")) {
+            Optional<ClassFacts> classFacts = ByteCodeAnalyzer.getClassFacts(analysisContext, file);
+            if (classFacts.isPresent()) {
+                analyzeClass(analysisContext, classFacts.get());
+            } else {
+                logger.debug("Failed to examine class file [{}]; it is skipped.", file);
+            }
+            return;
+        }
+        Set<File> announcedFiles = getAnnouncedFiles(analysisContext).get(this);
+        if (announcedFiles != null && !announcedFiles.contains(file)) {
+            logger.debug("Skipping Java file [{}] as it is of no interest.", file);
+            return;
+        }
         if (file.getName().endsWith(".java")) {
             Optional<CompilationUnit> compilationUnit = getJavaFileParser(analysisContext).getUnchecked(file);
             if (compilationUnit.isPresent()) {
                 logger.debug("Analyzing Java file [{}]...", file);
-                analyzeCompilationUnit(analysisContext, compilationUnit.get());
+                if (!traverse(analysisContext, file, compilationUnit.get())) {
+                    analyzeCompilationUnit(analysisContext, compilationUnit.get());
+                }
             }
         }
     }
 
+    /**
+     * Stops parsing files ahead; subclasses overriding this method must call it.
+     *
+     * @since 2.2.0
+     */
+    @Override
+    public void finishAnalysis(@Nonnull AnalysisContext analysisContext) {
+        getAnnouncedFiles(analysisContext).remove(this);
+        JavaSourcePipeline.stop(analysisContext);
+    }
+
+    /**
+     * Selects the announced files that are worth analyzing; the others are neither parsed nor analyzed by this
+     * analyzer. This allows to examine the files in a cheaper way than parsing them, e.g. by scanning their text.<br/>
+     * Announced class files are analyzed regardless of the selection.
+     * The default implementation selects all files.
+     *
+     * @see #prefetch(AnalysisContext, List)
+     * @since 2.2.0
+     */
+    @Nonnull
+    protected List<File> selectFilesToAnalyze(@Nonnull AnalysisContext analysisContext, @Nonnull List<File> files) {
+        return files;
+    }
+
+    /**
+     * Perform an analysis for the specified class. This method is called for the class files passed to this analyzer,
+     * i.e. if its {@link #getFileSuffixes() suffixes} include <tt>.class</tt>; the {@link ClassFacts} are shared with
+     * the {@link ByteCodeAnalyzer}s. Results must be reported via the capabilities of the {@link AnalysisContext}.<br/>
+     * The default implementation does nothing.
+     *
+     * @since 2.2.0
+     */
+    protected void analyzeClass(@Nonnull AnalysisContext analysisContext, @Nonnull ClassFacts classFacts) {
+    }
+
     /**
      * Perform an analysis for the specified java file.
-     * Results must be reported via the capabilities of the {@link AnalysisContext}.
+     * Results must be reported via the capabilities of the {@link AnalysisContext}.<br/>
+     * This method is called only if the analyzer provides no
+     * {@link #createNodeCallbacks(AnalysisContext, CompilationUnit) node callbacks}; the default implementation does
+     * nothing.
      *
      * @since 2.0.0
      */
-    protected abstract void analyzeCompilationUnit(@Nonnull AnalysisContext analysisContext, @Nonnull CompilationUnit compilationUnit);
+    protected void analyzeCompilationUnit(@Nonnull AnalysisContext analysisContext, @Nonnull CompilationUnit compilationUnit) {
+    }
+
+    /**
+     * Creates the callbacks to be notified of the nodes of the specified java file.
+     * Results must be reported via the capabilities of the {@link AnalysisContext}.<br/>
+     * The callbacks may be called while another analyzer analyzes the file, so they must not rely on being called by
+     * this analyzer.
+     *
+     * @return the callbacks or <code>null</code> if the file is to be analyzed by
+     * {@link #analyzeCompilationUnit(AnalysisContext, CompilationUnit)}
+     * @since 2.2.0
+     */
+    @Nullable
+    protected NodeCallbacks createNodeCallbacks(@Nonnull AnalysisContext analysisContext,
+                                                @Nonnull CompilationUnit compilationUnit) {
+        return null;
+    }
+
+    /**
+     * Visits the compilation unit with the callbacks of this analyzer and of all other analyzers the file was
+     * announced to - unless this analyzer's callbacks were already called by such a traversal.
+     *
+     * @return <code>true</code> if the callbacks of this analyzer were called
+     */
+    private boolean traverse(@Nonnull AnalysisContext analysisContext,
+                             @Nonnull File file,
+                             @Nonnull CompilationUnit compilationUnit) {
+        CoveredAnalyses coveredAnalyses =
+                analysisContext.getOrCreateCacheEntry(COVERED_ANALYSES_KEY, COVERED_ANALYSES_SUPPLIER);
+        if (coveredAnalyses.remove(file, this)) {
+            return true;
+        }
+        NodeCallbacks nodeCallbacks = createNodeCallbacks(analysisContext, compilationUnit);
+        if (nodeCallbacks == null) {
+            return false;
+        }
+        List<NodeCallbacks> allCallbacks = newArrayList(nodeCallbacks);
+        List<JavaFileAnalyzer> otherAnalyzers = newArrayList();
+        for (Map.Entry<JavaFileAnalyzer, Set<File>> announcement : getAnnouncedFiles(analysisContext).entrySet()) {
+            JavaFileAnalyzer otherAnalyzer = announcement.getKey();
+            if (otherAnalyzer == this || !announcement.getValue().contains(file)) {
+                continue;
+            }
+            NodeCallbacks otherCallbacks = otherAnalyzer.createNodeCallbacks(analysisContext, compilationUnit);
+            if (otherCallbacks != null) {
+                allCallbacks.add(otherCallbacks);
+                otherAnalyzers.add(otherAnalyzer);
+            }
+        }
+        new CompilationUnitTraversal(compilationUnit, allCallbacks).run();
+        coveredAnalyses.set(file, otherAnalyzers);
+        return true;
+    }
 
     /**
      * Subclasses of {@code Qualifier} are used to resolve types by providing an environment to analyze.
@@ -250,7 +426,9 @@ public abstract class JavaFileAnalyzer extends AnalyzerAdapter {
         }
 
         /**
-         * This hook allows to further analyze an inherited type.
+         * This hook allows to further analyze an inherited type.<br/>
+         * As resolved types are memoized per referencing type, the result must depend on nothing but the given classes
+         * and the {@link #getName() name} of this qualifier.
          *
          * @return the name of the class this qualifier refers to
          * @since 2.0.0
@@ -263,6 +441,198 @@ public abstract class JavaFileAnalyzer extends AnalyzerAdapter {
 
     }
 
+    /**
+     * Subclasses of {@code NodeCallbacks} are notified of the nodes of a compilation unit. Each method indicates if
+     * the children of the given node are to be visited as well.
+     *
+     * @see #createNodeCallbacks(AnalysisContext, CompilationUnit)
+     * @since 2.2.0
+     */
+    protected static abstract class NodeCallbacks {
+
+        /**
+         * @since 2.2.0
+         */
+        protected boolean visit(@Nonnull ClassOrInterfaceType node, @Nonnull Scope scope) {
+            return true;
+        }
+
+        /**
+         * @since 2.2.0
+         */
+        protected boolean visit(@Nonnull FieldAccessExpr node, @Nonnull Scope scope) {
+            return true;
+        }
+
+        /**
+         * @since 2.2.0
+         */
+        protected boolean visit(@Nonnull MethodReferenceExpr node, @Nonnull Scope scope) {
+            return true;
+        }
+
+        /**
+         * @since 2.2.0
+         */
+        protected boolean visit(@Nonnull NameExpr node, @Nonnull Scope scope) {
+            return true;
+        }
+
+        /**
+         * @since 2.2.0
+         */
+        protected boolean visit(@Nonnull Parameter node, @Nonnull Scope scope) {
+            return true;
+        }
+
+    }
+
+    /**
+     * The {@code Scope} describes the names defined at the node being visited by {@link NodeCallbacks}.
+     *
+     * @since 2.2.0
+     */
+    protected static final class Scope {
+
+        @Nonnull
+        private final CompilationUnit compilationUnit;
+        @Nonnull
+        private final Deque<Set<String>> variables = newLinkedList();
+        @Nonnull
+        private final Deque<Set<String>> typeParameters = newLinkedList();
+        @Nullable
+        private Map<String, ImportDeclaration> staticImports;
+        @Nullable
+        private List<ImportDeclaration> staticAsteriskImports;
+
+        Scope(@Nonnull CompilationUnit compilationUnit) {
+            this.compilationUnit = compilationUnit;
+        }
+
+        void enter(@Nonnull Set<String> variables) {
+            enter(variables, Collections.<String>emptySet());
+        }
+
+        void enter(@Nonnull Set<String> variables, @Nonnull Set<String> typeParameters) {
+            this.variables.addLast(variables);
+            this.typeParameters.addLast(typeParameters);
+        }
+
+        void exit() {
+            this.variables.removeLast();
+            this.typeParameters.removeLast();
+        }
+
+        void addVariable(@Nonnull String name) {
+            this.variables.getLast().add(name);
+        }
+
+        /**
+         * Returns the compilation unit being visited.
+         *
+         * @since 2.2.0
+         */
+        @Nonnull
+        public CompilationUnit getCompilationUnit() {
+            return this.compilationUnit;
+        }
+
+        /**
+         * Indicates if a variable with the given name is defined, i.e. a local variable, a parameter or a field that
+         * is no constant.
+         *
+         * @since 2.2.0
+         */
+        public boolean hasVariable(@Nonnull String name) {
+            return contains(this.variables, name);
+        }
+
+        /**
+         * Indicates if a type parameter with the given name is defined.
+         *
+         * @since 2.2.0
+         */
+        public boolean hasTypeParameter(@Nonnull String name) {
+            return contains(this.typeParameters, name);
+        }
+
+        /**
+         * Returns the static import of the given member, e.g. <code>import static java.lang.Math.max;</code> for
+         * <code>max</code>.
+         *
+         * @return the import or <code>null</code> if there is none
+         * @since 2.2.0
+         */
+        @Nullable
+        public ImportDeclaration getStaticImport(@Nonnull String memberName) {
+            indexImports();
+            return this.staticImports.get(memberName);
+        }
+
+        /**
+         * Returns all static asterisk imports, e.g. <code>import static java.lang.Math.*;</code>.
+         *
+         * @since 2.2.0
+         */
+        @Nonnull
+        public List<ImportDeclaration> getStaticAsteriskImports() {
+            indexImports();
+            return this.staticAsteriskImports;
+        }
+
+        private static boolean contains(@Nonnull Deque<Set<String>> definedNames, @Nonnull String name) {
+            for (Set<String> names : definedNames) {
+                if (names.contains(name)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private void indexImports() {
+            if (this.staticImports != null) {
+                return;
+            }
+            this.staticImports = newHashMap();
+            this.staticAsteriskImports = newArrayList();
+            for (ImportDeclaration importDeclaration : emptyIfNull(this.compilationUnit.getImports())) {
+                if (!importDeclaration.isStatic()) {
+                    continue;
+                }
+                if (importDeclaration.isAsterisk()) {
+                    this.staticAsteriskImports.add(importDeclaration);
+                    continue;
+                }
+                String memberName = importDeclaration.getName().getName();
+                if (!this.staticImports.containsKey(memberName)) {
+                    this.staticImports.put(memberName, importDeclaration);
+                }
+            }
+        }
+
+    }
+
+    /**
+     * Keeps track of the analyzers whose callbacks were already called for the file being analyzed. As files are
+     * passed one by one to all analyzers per <code>AnalysisContext</code>, only the last file must be recorded.
+     */
+    private static final class CoveredAnalyses {
+        @Nullable
+        private File file;
+        @Nonnull
+        private final Set<JavaFileAnalyzer> analyzers = newHashSet();
+
+        public boolean remove(@Nonnull File file, @Nonnull JavaFileAnalyzer analyzer) {
+            return file.equals(this.file) && this.analyzers.remove(analyzer);
+        }
+
+        public void set(@Nonnull File file, @Nonnull Collection<JavaFileAnalyzer> analyzers) {
+            this.file = file;
+            this.analyzers.clear();
+            this.analyzers.addAll(analyzers);
+        }
+    }
+
     private static abstract class RequiresClassPoolAccessor {
         @Nonnull
         protected final ClassPoolAccessor classPoolAccessor;
@@ -394,8 +764,13 @@ public abstract class JavaFileAnalyzer extends AnalyzerAdapter {
     private static class InheritedTypeResolver extends RequiresClassPoolAccessor
             implements NonNullFunction<Qualifier<?>, Optional<String>> {
 
-        public InheritedTypeResolver(@Nonnull ClassPoolAccessor classPoolAccessor) {
+        @Nonnull
+        private final ClassHierarchy classHierarchy;
+
+        public InheritedTypeResolver(@Nonnull ClassPoolAccessor classPoolAccessor,
+                                     @Nonnull ClassHierarchy classHierarchy) {
             super(classPoolAccessor);
+            this.classHierarchy = classHierarchy;
         }
 
         @Nonnull
@@ -425,32 +800,23 @@ public abstract class JavaFileAnalyzer extends AnalyzerAdapter {
             if (result.isPresent()) {
                 return result;
             }
-            result = checkNestedClasses(referencingClazz, getSuperclassOf(clazz), firstQualifier);
-            if (result.isPresent()) {
-                return result;
-            }
-            for (CtClass interfaceClazz : getInterfacesOf(clazz)) {
-                result = checkNestedClasses(referencingClazz, interfaceClazz, firstQualifier);
-                if (result.isPresent()) {
-                    return result;
+            for (String supertype : this.classHierarchy.getSupertypesOf(clazz)) {
+                CtClass superClazz = getCtClass(classPoolAccessor.getClassPool(), supertype);
+                if (superClazz == null) {
+                    continue;
                 }
-            }
-            return absent();
-        }
-
-        @Nonnull
-        private Optional<String> checkNestedClasses(@Nonnull CtClass referencingClazz,
-                                                    @Nullable CtClass clazz,
-                                                    @Nonnull Qualifier firstQualifier) {
-            if (clazz == null || isJavaLangObject(clazz)) {
-                return absent();
-            }
-            for (CtClass nestedClass : getNestedClassesOf(clazz)) {
-                if (nestedClass.getName().substring(clazz.getName().length() + 1).equals(firstQualifier.getName())) {
-                    return resolveNestedType(firstQualifier, nestedClass);
+                for (CtClass nestedClass : getNestedClassesOf(superClazz)) {
+                    if (nestedClass.getName().substring(supertype.length() + 1).equals(firstQualifier.getName())) {
+                        return resolveNestedType(firstQualifier, nestedClass);
+                    }
+                }
+                @SuppressWarnings("unchecked")
+                Optional<String> inheritedType = firstQualifier.examineInheritedType(referencingClazz, superClazz);
+                if (inheritedType.isPresent()) {
+                    return inheritedType;
                 }
             }
-            return resolveInheritedType(referencingClazz, clazz, firstQualifier);
+            return absent();
         }
 
         private Optional<String> resolveNestedType(Qualifier qualifier, CtClass clazz) {
@@ -468,80 +834,142 @@ public abstract class JavaFileAnalyzer extends AnalyzerAdapter {
 
     }
 
-    private static class ImportedTypeResolver extends CandidatesResolver {
-
-        public ImportedTypeResolver(ClassPoolAccessor classPoolAccessor) {
-            super(classPoolAccessor);
-        }
+    /**
+     * Resolves type references, memoizing the results - including the failed ones - for the compilation unit being
+     * analyzed. As all references found within the same type are resolved the same way, resolving a recurring
+     * reference is a single lookup.
+     */
+    private static final class TypeResolver implements NonNullFunction<Qualifier<?>, Optional<String>> {
 
+        @Nonnull
+        private final ClassPoolAccessor classPoolAccessor;
+        @Nonnull
+        private final NonNullFunction<Qualifier<?>, Optional<String>> referencingTypeResolver;
         @Nullable
-        @Override
-        protected String calculatePrefix(@Nonnull Qualifier<?> topQualifier) {
-            String firstQualifier = topQualifier.getFirstQualifier().getName();
-            CompilationUnit compilationUnit = Nodes.getCompilationUnit(topQualifier.getNode());
-            ImportDeclaration importDeclaration = getOnlyElement(emptyIfNull(compilationUnit.getImports()).filter(
-                    and(not(isAsterisk()), refersTo(firstQualifier))), null);
-            if (importDeclaration == null) {
-                return null;
-            }
-            StringBuilder buffy = prepend(importDeclaration.getName(), new StringBuilder());
-            int beginIndex = buffy.length() - firstQualifier.length();
-            return beginIndex == 0 ? "" :
-                    buffy.replace(beginIndex - 1, buffy.length(), importDeclaration.isStatic() ? "$" : ".").toString();
-        }
-
-    }
+        private ResolutionScope resolutionScope;
 
-    private static class PackageTypeResolver extends CandidatesResolver {
+        @SuppressWarnings("unchecked")
+        public TypeResolver(@Nonnull ClassPoolAccessor classPoolAccessor, @Nonnull ClassHierarchy classHierarchy) {
+            this.classPoolAccessor = classPoolAccessor;
+            this.referencingTypeResolver = or(
+                    new FullyQualifiedTypeResolver(classPoolAccessor),
+                    new InnerTypeResolver(),
+                    new InheritedTypeResolver(classPoolAccessor, classHierarchy));
+        }
 
-        public PackageTypeResolver(@Nonnull ClassPoolAccessor classPoolAccessor) {
-            super(classPoolAccessor);
+        /**
+         * Returns the node defining the type the given node belongs to, i.e. a type declaration, an anonymous class
+         * or the compilation unit itself.
+         */
+        @Nonnull
+        private static Node getTypeDefiningNode(@Nonnull Node node) {
+            for (Node loopNode = node; ; loopNode = loopNode.getParentNode()) {
+                if (TypeDeclaration.class.isInstance(loopNode)
+                        || CompilationUnit.class.isInstance(loopNode)
+                        || (ObjectCreationExpr.class.isInstance(loopNode)
+                        && !isEmpty(ObjectCreationExpr.class.cast(loopNode).getAnonymousClassBody()))) {
+                    return loopNode;
+                }
+            }
         }
 
         @Nonnull
         @Override
-        protected String calculatePrefix(@Nonnull Qualifier<?> topQualifier) {
-            PackageDeclaration aPackage = Nodes.getCompilationUnit(topQualifier.getNode()).getPackage();
-            if (aPackage == null) {
-                return "";
+        public Optional<String> apply(@Nonnull Qualifier<?> input) {
+            Node typeDefiningNode = getTypeDefiningNode(input.getNode());
+            Map<String, Optional<String>> resolvedTypes =
+                    getResolutionScope(Nodes.getCompilationUnit(typeDefiningNode)).getResolvedTypes(typeDefiningNode);
+            String key = computeKey(input);
+            Optional<String> resolvedType = resolvedTypes.get(key);
+            if (resolvedType == null) {
+                resolvedType = this.referencingTypeResolver.apply(input);
+                if (!resolvedType.isPresent()) {
+                    resolvedType = this.resolutionScope.apply(input);
+                }
+                resolvedTypes.put(key, resolvedType);
             }
-            return prepend(aPackage.getName(), new StringBuilder("")).append(".").toString();
+            return resolvedType;
         }
 
-    }
-
-    private static class AsteriskImportedTypeResolver extends CandidatesResolver {
-
-        public AsteriskImportedTypeResolver(@Nonnull ClassPoolAccessor classPoolAccessor) {
-            super(classPoolAccessor);
+        /**
+         * Computes the key to memoize the resolved type with. As nested types are resolved along the parent
+         * qualifiers, those enclosing the given qualifier are part of the key as well.
+         */
+        @Nonnull
+        private static String computeKey(@Nonnull Qualifier<?> input) {
+            StringBuilder buffy = new StringBuilder(input.getFirstQualifier().getClass().getName())
+                    .append(input.allowsPartialResolving() ? '*' : ':').append(input.getFullQualifier());
+            for (Qualifier<?> parent = input.getParentQualifier(); parent != null; parent = parent.getParentQualifier()) {
+                buffy.append('>').append(parent.getName());
+            }
+            return buffy.toString();
         }
 
         @Nonnull
-        @Override
-        protected Iterable<String> calculatePrefixes(@Nonnull Qualifier<?> topQualifier) {
-            ArrayList<String> asteriskImports = newArrayList();
-            CompilationUnit compilationUnit = Nodes.getCompilationUnit(topQualifier.getNode());
-            for (ImportDeclaration importDeclaration :
-                    emptyIfNull(compilationUnit.getImports()).filter(isAsterisk())) {
-                StringBuilder buffy = prepend(importDeclaration.getName(), new StringBuilder());
-                buffy.append(importDeclaration.isStatic() ? '$' : '.');
-                asteriskImports.add(buffy.toString());
+        private ResolutionScope getResolutionScope(@Nonnull CompilationUnit compilationUnit) {
+            if (this.resolutionScope == null || this.resolutionScope.compilationUnit != compilationUnit) {
+                this.resolutionScope = new ResolutionScope(this.classPoolAccessor, compilationUnit);
             }
-            return asteriskImports;
+            return this.resolutionScope;
         }
 
     }
 
-    private static class JavaLangTypeResolver extends CandidatesResolver {
+    /**
+     * Resolves types by the names a compilation unit imports or shares: single type imports, the package, asterisk
+     * imports &amp; <code>java.lang</code> - in that order. The prefixes are computed once per compilation unit.
+     */
+    private static final class ResolutionScope extends CandidatesResolver {
+
+        @Nonnull
+        private final CompilationUnit compilationUnit;
+        @Nonnull
+        private final Map<String, String> importPrefixes = newHashMap();
+        @Nonnull
+        private final List<String> sharedPrefixes = newArrayList();
+        @Nonnull
+        private final Map<Node, Map<String, Optional<String>>> resolvedTypes = newIdentityHashMap();
 
-        public JavaLangTypeResolver(@Nonnull ClassPoolAccessor classPoolAccessor) {
+        public ResolutionScope(@Nonnull ClassPoolAccessor classPoolAccessor,
+                               @Nonnull CompilationUnit compilationUnit) {
             super(classPoolAccessor);
+            this.compilationUnit = compilationUnit;
+            PackageDeclaration aPackage = compilationUnit.getPackage();
+            this.sharedPrefixes.add(aPackage == null
+                    ? "" : prepend(aPackage.getName(), new StringBuilder()).append(".").toString());
+            for (ImportDeclaration importDeclaration : emptyIfNull(compilationUnit.getImports())) {
+                NameExpr importedName = importDeclaration.getName();
+                String separator = importDeclaration.isStatic() ? "$" : ".";
+                if (importDeclaration.isAsterisk()) {
+                    this.sharedPrefixes.add(prepend(importedName, new StringBuilder()).append(separator).toString());
+                } else if (!this.importPrefixes.containsKey(importedName.getName())) {
+                    this.importPrefixes.put(importedName.getName(), QualifiedNameExpr.class.isInstance(importedName)
+                            ? prepend(QualifiedNameExpr.class.cast(importedName).getQualifier(),
+                            new StringBuilder()).append(separator).toString()
+                            : "");
+                }
+            }
+            this.sharedPrefixes.add("java.lang.");
         }
 
         @Nonnull
         @Override
-        protected String calculatePrefix(@Nonnull Qualifier<?> topQualifier) {
-            return "java.lang.";
+        protected Iterable<String> calculatePrefixes(@Nonnull Qualifier<?> topQualifier) {
+            String importPrefix = this.importPrefixes.get(topQualifier.getFirstQualifier().getName());
+            return importPrefix == null ? this.sharedPrefixes : concat(singleton(importPrefix), this.sharedPrefixes);
+        }
+
+        /**
+         * Returns the types resolved for references found within the type defined by the given node.
+         */
+        @Nonnull
+        public Map<String, Optional<String>> getResolvedTypes(@Nonnull Node typeDefiningNode) {
+            Map<String, Optional<String>> resolvedTypes = this.resolvedTypes.get(typeDefiningNode);
+            if (resolvedTypes == null) {
+                resolvedTypes = newHashMap();
+                this.resolvedTypes.put(typeDefiningNode, resolvedTypes);
+            }
+            return resolvedTypes;
         }
 
     }
@@ -557,28 +985,60 @@ public abstract class JavaFileAnalyzer extends AnalyzerAdapter {
 
         @Nonnull
         @Override
-        @SuppressWarnings("PMD.AvoidCatchingThrowable") // unfortunately, JavaParser throws an Error when parsing fails
         public LoadingCache<File, Optional<CompilationUnit>> apply(@Nonnull final AnalysisContext analysisContext) {
             return SequentialLoadingCache.createSingleValueCache(toFunction(new NonNullFunction<File, Optional<CompilationUnit>>() {
                 @Nonnull
                 @Override
-                @SuppressFBWarnings(value = "DM_DEFAULT_ENCODING", justification = "The MavenProject does not provide the proper encoding")
                 public Optional<CompilationUnit> apply(@Nonnull File file) {
-                    Reader reader = null;
-                    try {
-                        reader = analysisContext.getModule().getEncoding() != null
-                                ? new InputStreamReader(new FileInputStream(file),
-                                analysisContext.getModule().getEncoding())
-                                : new FileReader(file);
-                        return of(JavaParser.parse(reader, false));
-                    } catch (Throwable t) {
-                        return handleThrowable(file, t);
-                    } finally {
-                        closeQuietly(reader);
+                    JavaSourcePipeline pipeline = JavaSourcePipeline.pipelineFor(analysisContext);
+                    if (pipeline != null) {
+                        Optional<CompilationUnit> compilationUnit = pipeline.take(file);
+                        if (compilationUnit != null) {
+                            return compilationUnit;
+                        }
                     }
+                    return parse(file, fileContentsFor(analysisContext).openStream(file),
+                            analysisContext.getModule().getEncoding());
                 }
             }));
         }
+
+        /**
+         * Creates a parser reading the files from disk, so it can be used by any thread.
+         */
+        @Nonnull
+        NonNullFunction<File, Optional<CompilationUnit>> createFileParser(@Nullable final String encoding) {
+            return new NonNullFunction<File, Optional<CompilationUnit>>() {
+                @Nonnull
+                @Override
+                public Optional<CompilationUnit> apply(@Nonnull File file) {
+                    InputStream in;
+                    try {
+                        in = new FileInputStream(file);
+                    } catch (FileNotFoundException e) {
+                        throw new RuntimeException("Failed to read [" + file + "]!", e);
+                    }
+                    return parse(file, in, encoding);
+                }
+            };
+        }
+
+        @Nonnull
+        @SuppressWarnings("PMD.AvoidCatchingThrowable") // unfortunately, JavaParser throws an Error when parsing fails
+        @SuppressFBWarnings(value = "DM_DEFAULT_ENCODING", justification = "The MavenProject does not provide the proper encoding")
+        private Optional<CompilationUnit> parse(@Nonnull File file, @Nonnull InputStream in, @Nullable String encoding) {
+            Reader reader = null;
+            try {
+                reader = encoding != null ? new InputStreamReader(in, encoding) : new InputStreamReader(in);
+                return of(JavaParser.parse(reader, false));
+            } catch (Throwable t) {
+                return handleThrowable(file, t);
+            } finally {
+                closeQuietly(reader);
+                closeQuietly(in);
+            }
+        }
+
         private Optional<CompilationUnit> handleThrowable(File file, Throwable t) {
             String message = "Failed to parse [" + file + "]!";
             if ((TokenMgrException.class.isInstance(t) || ParseException.class.isInstance(t))
@@ -0,0 +1,240 @@
+package de.is24.deadcode4j.analyzer;
+
+import com.github.javaparser.ast.CompilationUnit;
+import com.google.common.base.Optional;
+import com.google.common.base.Predicate;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import de.is24.deadcode4j.AnalysisContext;
+import de.is24.deadcode4j.DeadCodeFinder;
+import de.is24.guava.NonNullFunction;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+import java.io.Closeable;
+import java.io.File;
+import java.util.*;
+import java.util.concurrent.*;
+
+import static com.google.common.collect.Maps.immutableEntry;
+import static com.google.common.collect.Maps.newHashMapWithExpectedSize;
+
+/**
+ * The <code>JavaSourcePipeline</code> parses the Java files of a module ahead of their analysis. The files announced
+ * via {@link de.is24.deadcode4j.PrefetchingAnalyzer#prefetch(AnalysisContext, List)} are parsed by a pool of threads
+ * shared by all modules - as many as the analysis uses, see {@link DeadCodeFinder#NUMBER_OF_THREADS} - staying at most {@link #PARSED_UNITS_PER_THREAD} files per thread ahead of the file being
+ * analyzed - so the parsed <code>CompilationUnit</code>s waiting to be analyzed are bounded.<br/>
+ * Files requested out of order, skipped files and files that aren't announced at all are simply parsed by the
+ * requesting thread - as are the files that aren't to be parsed by the time a parser thread reaches them.
+ *
+ * @since 2.2.0
+ */
+@ThreadSafe
+final class JavaSourcePipeline implements Closeable {
+
+    /**
+     * The number of files each parser thread may parse ahead of the file being analyzed.
+     */
+    static final int PARSED_UNITS_PER_THREAD = 4;
+    @Nonnull
+    private final ParserPool parserPool;
+    @Nonnull
+    private final NonNullFunction<File, Optional<CompilationUnit>> parser;
+    @Nonnull
+    private final Predicate<File> filesToParse;
+    @Nonnull
+    private final List<File> files;
+    @Nonnull
+    private final Map<File, Integer> positions;
+    private final int capacity;
+    @Nonnull
+    @GuardedBy("this")
+    private final LinkedHashMap<File, Future<Optional<CompilationUnit>>> pendingUnits =
+            new LinkedHashMap<File, Future<Optional<CompilationUnit>>>();
+    @GuardedBy("this")
+    private int nextFile;
+    @GuardedBy("this")
+    private boolean closed;
+
+    private JavaSourcePipeline(@Nonnull ParserPool parserPool,
+                               @Nonnull NonNullFunction<File, Optional<CompilationUnit>> parser,
+                               @Nonnull Predicate<File> filesToParse,
+                               @Nonnull List<File> files) {
+        this.parserPool = parserPool;
+        this.parser = parser;
+        this.filesToParse = filesToParse;
+        this.files = files;
+        this.positions = newHashMapWithExpectedSize(files.size());
+        for (int i = 0; i < files.size(); i++) {
+            this.positions.put(files.get(i), i);
+        }
+        this.capacity = PARSED_UNITS_PER_THREAD * parserPool.numberOfThreads;
+    }
+
+    /**
+     * Starts parsing the given files for the module of the given analysis context, unless this already happens.
+     *
+     * @param filesToParse indicates if a file is still to be parsed once a parser thread reaches it
+     */
+    static void start(@Nonnull AnalysisContext analysisContext,
+                      @Nonnull List<File> files,
+                      @Nonnull NonNullFunction<File, Optional<CompilationUnit>> parser,
+                      @Nonnull Predicate<File> filesToParse) {
+        Object key = keyFor(analysisContext);
+        ConcurrentMap<Object, Object> projectCache = analysisContext.getProjectCache();
+        if (projectCache.containsKey(key)) {
+            return;
+        }
+        JavaSourcePipeline pipeline = new JavaSourcePipeline(parserPoolFor(projectCache), parser, filesToParse, files);
+        if (projectCache.putIfAbsent(key, pipeline) == null) {
+            pipeline.fillUpTo(pipeline.capacity);
+        }
+    }
+
+    /**
+     * Returns the pipeline of the module of the given analysis context.
+     *
+     * @return the pipeline or <code>null</code> if none was started
+     */
+    @Nullable
+    static JavaSourcePipeline pipelineFor(@Nonnull AnalysisContext analysisContext) {
+        return (JavaSourcePipeline) analysisContext.getProjectCache().get(keyFor(analysisContext));
+    }
+
+    /**
+     * Stops the pipeline of the module of the given analysis context, discarding all units parsed ahead.
+     */
+    static void stop(@Nonnull AnalysisContext analysisContext) {
+        JavaSourcePipeline pipeline =
+                (JavaSourcePipeline) analysisContext.getProjectCache().remove(keyFor(analysisContext));
+        if (pipeline != null) {
+            pipeline.close();
+        }
+    }
+
+    @Nonnull
+    private static Object keyFor(@Nonnull AnalysisContext analysisContext) {
+        return immutableEntry(JavaSourcePipeline.class, analysisContext.getModule());
+    }
+
+    @Nonnull
+    private static ParserPool parserPoolFor(@Nonnull ConcurrentMap<Object, Object> projectCache) {
+        Object parserPool = projectCache.get(ParserPool.class);
+        if (parserPool == null) {
+            Object numberOfThreads = projectCache.get(DeadCodeFinder.NUMBER_OF_THREADS);
+            ParserPool newPool = new ParserPool(numberOfThreads instanceof Integer ? (Integer) numberOfThreads : 1);
+            parserPool = projectCache.putIfAbsent(ParserPool.class, newPool);
+            if (parserPool == null) {
+                parserPool = newPool;
+            } else {
+                newPool.close();
+            }
+        }
+        return (ParserPool) parserPool;
+    }
+
+    /**
+     * Returns the parsed unit of the given file, waiting for it to be parsed if necessary.
+     *
+     * @return the parsed unit or <code>null</code> if the file wasn't parsed ahead and thus must be parsed by the
+     * caller
+     */
+    @Nullable
+    Optional<CompilationUnit> take(@Nonnull File file) {
+        Future<Optional<CompilationUnit>> pendingUnit;
+        synchronized (this) {
+            Integer position = this.positions.get(file);
+            if (position == null || this.closed) {
+                return null;
+            }
+            discardUnitsBefore(position - this.capacity);
+            this.nextFile = Math.max(this.nextFile, position);
+            fillUpTo(position + this.capacity);
+            pendingUnit = this.pendingUnits.remove(file);
+        }
+        return pendingUnit == null ? null : waitFor(pendingUnit);
+    }
+
+    @Override
+    public synchronized void close() {
+        this.closed = true;
+        for (Future<Optional<CompilationUnit>> pendingUnit : this.pendingUnits.values()) {
+            pendingUnit.cancel(false);
+        }
+        this.pendingUnits.clear();
+    }
+
+    private synchronized void fillUpTo(int endPosition) {
+        int end = Math.min(endPosition, this.files.size());
+        while (this.nextFile < end && !this.closed) {
+            final File file = this.files.get(this.nextFile++);
+            this.pendingUnits.put(file, this.parserPool.executor.submit(new Callable<Optional<CompilationUnit>>() {
+                @Override
+                public Optional<CompilationUnit> call() {
+                    return filesToParse.apply(file) ? parser.apply(file) : null;
+                }
+            }));
+        }
+    }
+
+    /**
+     * Discards the units of files that were skipped by the analysis; the pending units are ordered by position.
+     */
+    @GuardedBy("this")
+    private void discardUnitsBefore(int position) {
+        Iterator<Map.Entry<File, Future<Optional<CompilationUnit>>>> iterator =
+                this.pendingUnits.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<File, Future<Optional<CompilationUnit>>> pendingUnit = iterator.next();
+            if (this.positions.get(pendingUnit.getKey()) >= position) {
+                return;
+            }
+            pendingUnit.getValue().cancel(false);
+            iterator.remove();
+        }
+    }
+
+    @Nullable
+    private Optional<CompilationUnit> waitFor(@Nonnull Future<Optional<CompilationUnit>> pendingUnit) {
+        try {
+            return pendingUnit.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for Java file to be parsed!", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new RuntimeException("Failed to parse Java file!", cause);
+        }
+    }
+
+    /**
+     * The threads parsing Java files, shared by the pipelines of all modules. Being put into the project cache, the
+     * threads are stopped as soon as the analysis is finished.
+     */
+    private static final class ParserPool implements Closeable {
+
+        final int numberOfThreads;
+        @Nonnull
+        final ExecutorService executor;
+
+        ParserPool(int numberOfThreads) {
+            this.numberOfThreads = numberOfThreads;
+            this.executor = Executors.newFixedThreadPool(numberOfThreads,
+                    new ThreadFactoryBuilder().setDaemon(true).setNameFormat("deadcode4j-parser-%d").build());
+        }
+
+        @Override
+        public void close() {
+            this.executor.shutdownNow();
+        }
+
+    }
+
+}
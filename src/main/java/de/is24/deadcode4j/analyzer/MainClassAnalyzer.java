@@ -1,15 +1,10 @@
 package de.is24.deadcode4j.analyzer;
 
 import de.is24.deadcode4j.AnalysisContext;
-import javassist.CtClass;
-import javassist.Modifier;
-import javassist.bytecode.AccessFlag;
-import javassist.bytecode.MethodInfo;
+import de.is24.deadcode4j.analyzer.classfile.ClassFacts;
 
 import javax.annotation.Nonnull;
 
-import static com.google.common.collect.Iterables.filter;
-
 /**
  * Analyzes class files: marks a class as being in use if it defines a main method.
  *
@@ -17,27 +12,13 @@ import static com.google.common.collect.Iterables.filter;
  */
 public class MainClassAnalyzer extends ByteCodeAnalyzer {
 
-    private static boolean isPublicStatic(MethodInfo methodInfo) {
-        int modifier = AccessFlag.toModifier(methodInfo.getAccessFlags());
-        return Modifier.isPublic(modifier) && Modifier.isStatic(modifier);
-    }
-
-    private static boolean matchesSignature(MethodInfo methodInfo) {
-        return "([Ljava/lang/String;)V".equals(methodInfo.getDescriptor());
-    }
-
     @Override
-    protected void analyzeClass(@Nonnull AnalysisContext analysisContext, @Nonnull CtClass clazz) {
-        String clazzName = clazz.getName();
+    protected void analyzeClass(@Nonnull AnalysisContext analysisContext, @Nonnull ClassFacts classFacts) {
+        String clazzName = classFacts.getClassName();
         analysisContext.addAnalyzedClass(clazzName);
 
-        for (MethodInfo methodInfo : filter(clazz.getClassFile2().getMethods(), MethodInfo.class)) {
-            if (methodInfo.isMethod()
-                    && isPublicStatic(methodInfo)
-                    && "main".equals(methodInfo.getName())
-                    && matchesSignature(methodInfo)) {
-                analysisContext.addDependencies("_Main-Class_", clazz.getName());
-            }
+        if (classFacts.hasMainMethod()) {
+            analysisContext.addDependencies("_Main-Class_", clazzName);
         }
     }
 
@@ -0,0 +1,63 @@
+package de.is24.deadcode4j.analyzer;
+
+import de.is24.deadcode4j.AnalysisContext;
+import de.is24.deadcode4j.IntermediateResults.IntermediateResultSet;
+
+import javax.annotation.Nonnull;
+import java.util.Collections;
+import java.util.Set;
+
+import static com.google.common.collect.Sets.newHashSet;
+import static de.is24.deadcode4j.IntermediateResults.resultSetFor;
+import static java.util.Collections.synchronizedSet;
+
+/**
+ * Keeps track of the configured markers - annotations, interfaces or superclasses - that weren't found in the class
+ * path of any module. The markers found for a module are stored as an
+ * {@link de.is24.deadcode4j.IntermediateResult}, so they are cached along with the module's analysis and are known even
+ * if that analysis is reused.
+ *
+ * @since 2.2.0
+ */
+final class MarkersNotFoundInClassPath {
+
+    @Nonnull
+    private final String cacheKey;
+    @Nonnull
+    private final Set<String> markersNotFound;
+    private volatile boolean classPathsAreKnown = true;
+
+    MarkersNotFoundInClassPath(@Nonnull String cacheKey, @Nonnull Iterable<String> markers) {
+        this.cacheKey = cacheKey;
+        this.markersNotFound = synchronizedSet(newHashSet(markers));
+    }
+
+    /**
+     * Records the markers found in the class path of the given module.
+     */
+    void foundInClassPath(@Nonnull AnalysisContext analysisContext, @Nonnull Set<String> foundMarkers) {
+        analysisContext.getCache().put(this.cacheKey, resultSetFor(foundMarkers));
+        this.markersNotFound.removeAll(foundMarkers);
+    }
+
+    /**
+     * Records the markers found in the class path of a module whose analysis was reused.
+     */
+    void restoredFrom(@Nonnull AnalysisContext analysisContext) {
+        Object foundMarkers = analysisContext.getCache().get(this.cacheKey);
+        if (!IntermediateResultSet.class.isInstance(foundMarkers)) {
+            this.classPathsAreKnown = false;
+            return;
+        }
+        this.markersNotFound.removeAll(IntermediateResultSet.class.cast(foundMarkers).getResults());
+    }
+
+    /**
+     * Returns the markers that weren't found in any class path - or nothing, if the class path of a module is unknown.
+     */
+    @Nonnull
+    Set<String> get() {
+        return this.classPathsAreKnown ? this.markersNotFound : Collections.<String>emptySet();
+    }
+
+}
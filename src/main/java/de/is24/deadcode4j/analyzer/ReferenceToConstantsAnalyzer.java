@@ -2,39 +2,44 @@ package de.is24.deadcode4j.analyzer;
 
 import com.github.javaparser.ast.CompilationUnit;
 import com.github.javaparser.ast.ImportDeclaration;
-import com.github.javaparser.ast.body.*;
+import com.github.javaparser.ast.body.Parameter;
 import com.github.javaparser.ast.expr.*;
-import com.github.javaparser.ast.stmt.*;
+import com.github.javaparser.ast.stmt.CatchClause;
+import com.github.javaparser.ast.stmt.SwitchEntryStmt;
 import com.github.javaparser.ast.type.ClassOrInterfaceType;
-import com.github.javaparser.ast.visitor.VoidVisitorAdapter;
-import com.google.common.base.Function;
 import com.google.common.base.Optional;
-import com.google.common.base.Predicate;
-import com.google.common.collect.Sets;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.io.Files;
 import de.is24.deadcode4j.AnalysisContext;
+import de.is24.deadcode4j.FileContents;
+import de.is24.deadcode4j.Module;
+import de.is24.deadcode4j.Repository;
+import de.is24.deadcode4j.analyzer.classfile.ClassFacts;
 import de.is24.deadcode4j.analyzer.javassist.ClassPoolAccessor;
 import javassist.CtClass;
 import javassist.CtField;
 import javassist.Modifier;
+import org.apache.commons.io.FileUtils;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
-import java.util.Deque;
-import java.util.HashSet;
-import java.util.Map;
-import java.util.Set;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.*;
+import java.util.concurrent.ConcurrentMap;
 
 import static com.google.common.base.Optional.absent;
 import static com.google.common.base.Optional.of;
-import static com.google.common.base.Predicates.and;
-import static com.google.common.base.Predicates.not;
-import static com.google.common.collect.Iterables.*;
+import static com.google.common.collect.Lists.newArrayList;
 import static com.google.common.collect.Lists.newLinkedList;
+import static com.google.common.collect.Maps.immutableEntry;
 import static com.google.common.collect.Maps.newHashMap;
 import static com.google.common.collect.Sets.newHashSet;
-import static de.is24.deadcode4j.Utils.*;
+import static com.google.common.collect.Sets.newLinkedHashSet;
+import static de.is24.deadcode4j.FileContents.fileContentsFor;
+import static de.is24.deadcode4j.Utils.getOrAddMappedSet;
 import static de.is24.deadcode4j.analyzer.javassist.ClassPoolAccessor.classPoolAccessorFor;
-import static de.is24.javaparser.ImportDeclarations.*;
 import static de.is24.javaparser.Nodes.getTypeName;
 import static de.is24.javassist.CtClasses.*;
 
@@ -104,58 +109,197 @@ public class ReferenceToConstantsAnalyzer extends JavaFileAnalyzer {
                 && expression == AssignExpr.class.cast(expression.getParentNode()).getTarget();
     }
 
-    private static Function<? super ImportDeclaration, ? extends String> toImportedType() {
-        return new Function<ImportDeclaration, String>() {
-            @Nullable
-            @Override
-            public String apply(@Nullable ImportDeclaration input) {
-                if (input == null) {
-                    return null;
-                }
-                NameExpr name = input.getName();
-                if (input.isStatic() && !input.isAsterisk()) {
-                    name = QualifiedNameExpr.class.cast(name).getQualifier();
-                }
-                return name.toString();
-            }
-        };
+    @Nonnull
+    private static String getImportedType(@Nonnull ImportDeclaration importDeclaration) {
+        NameExpr name = importDeclaration.getName();
+        if (importDeclaration.isStatic() && !importDeclaration.isAsterisk()) {
+            name = QualifiedNameExpr.class.cast(name).getQualifier();
+        }
+        return name.toString();
     }
 
     private static boolean isConstant(CtField ctField) {
         return Modifier.isStatic(ctField.getModifiers()) && Modifier.isFinal(ctField.getModifiers());
     }
 
+    @Nonnull
+    private static Collection<Module> getModuleAndRequiredModules(@Nonnull Module module) {
+        Set<Module> modules = newLinkedHashSet();
+        Deque<Module> modulesToExamine = newLinkedList(Collections.singleton(module));
+        while (!modulesToExamine.isEmpty()) {
+            Module moduleToExamine = modulesToExamine.removeFirst();
+            if (modules.add(moduleToExamine)) {
+                modulesToExamine.addAll(moduleToExamine.getRequiredModules());
+            }
+        }
+        return modules;
+    }
+
+    /**
+     * Indicates if the given code contains one of the given identifiers. Comments &amp; literals are not skipped, so
+     * this may report false positives, but no false negatives.
+     */
+    private static boolean containsIdentifier(@Nonnull String code, @Nonnull Set<String> identifiers) {
+        if (code.contains("\\u")) {
+            return true; // unicode escapes may spell an identifier
+        }
+        for (int i = 0, length = code.length(); i < length; ) {
+            if (!Character.isJavaIdentifierStart(code.charAt(i))) {
+                i++;
+                continue;
+            }
+            int start = i;
+            do {
+                i++;
+            } while (i < length && Character.isJavaIdentifierPart(code.charAt(i)));
+            if (identifiers.contains(code.substring(start, i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Selects the files that may refer to a constant. As only constants are inlined by javac, any other reference this
+     * analyzer may find is part of the byte code anyway. So instead of parsing each file, its identifiers are matched
+     * against the names of the constants declared by the module and the modules it depends on.
+     *
+     * @since 2.2.0
+     */
+    @Nonnull
+    @Override
+    protected List<File> selectFilesToAnalyze(@Nonnull AnalysisContext analysisContext, @Nonnull List<File> files) {
+        Optional<Set<String>> constants = getConstantsAvailableTo(analysisContext);
+        if (!constants.isPresent()) {
+            return files;
+        }
+        String encoding = analysisContext.getModule().getEncoding();
+        Charset charset = encoding == null ? Charset.defaultCharset() : Charset.forName(encoding);
+        List<File> selectedFiles = newArrayList();
+        for (File file : files) {
+            if (mayReferToConstant(file, charset, constants.get())) {
+                selectedFiles.add(file);
+            }
+        }
+        logger.debug("{} of {} Java files of {} may refer to constants.",
+                selectedFiles.size(), files.size(), analysisContext.getModule());
+        return selectedFiles;
+    }
+
+    private boolean mayReferToConstant(@Nonnull File file, @Nonnull Charset charset, @Nonnull Set<String> constants) {
+        try {
+            return containsIdentifier(Files.toString(file, charset), constants);
+        } catch (IOException e) {
+            logger.debug("Failed to read [{}]; it will be analyzed anyway.", file, e);
+            return true;
+        }
+    }
+
+    /**
+     * Returns the names of the constants declared by the module of the given analysis context or the modules it
+     * depends on.
+     *
+     * @return the names or <code>absent</code> if a class file could not be examined
+     */
+    @Nonnull
+    private Optional<Set<String>> getConstantsAvailableTo(@Nonnull AnalysisContext analysisContext) {
+        Set<String> constants = newHashSet();
+        for (Module module : getModuleAndRequiredModules(analysisContext.getModule())) {
+            Repository outputRepository = module.getOutputRepository();
+            if (outputRepository == null) {
+                continue;
+            }
+            Optional<Set<String>> constantsOfModule =
+                    getConstantsDeclaredIn(analysisContext, outputRepository.getDirectory());
+            if (!constantsOfModule.isPresent()) {
+                return absent();
+            }
+            constants.addAll(constantsOfModule.get());
+        }
+        return of(constants);
+    }
+
+    /**
+     * Returns the names of the constants declared by the classes of the given directory. As a module's classes are
+     * examined by all modules depending on it, the names are stored in the project cache.
+     */
+    @Nonnull
+    @SuppressWarnings("unchecked")
+    private Optional<Set<String>> getConstantsDeclaredIn(@Nonnull AnalysisContext analysisContext,
+                                                         @Nonnull File directory) {
+        ConcurrentMap<Object, Object> projectCache = analysisContext.getProjectCache();
+        Object key = immutableEntry(ReferenceToConstantsAnalyzer.class, directory);
+        Object constants = projectCache.get(key);
+        if (constants == null) {
+            Optional<Set<String>> newConstants = readConstantsDeclaredIn(analysisContext, directory);
+            constants = projectCache.putIfAbsent(key, newConstants);
+            if (constants == null) {
+                constants = newConstants;
+            }
+        }
+        return (Optional<Set<String>>) constants;
+    }
+
+    @Nonnull
+    private Optional<Set<String>> readConstantsDeclaredIn(@Nonnull AnalysisContext analysisContext,
+                                                          @Nonnull File directory) {
+        if (!directory.isDirectory()) {
+            // e.g. a war module without classes
+            return Optional.<Set<String>>of(Collections.<String>emptySet());
+        }
+        FileContents fileContents = fileContentsFor(analysisContext);
+        ImmutableSet.Builder<String> constants = ImmutableSet.builder();
+        Iterator<File> classFiles = FileUtils.iterateFiles(directory, new String[]{"class"}, true);
+        while (classFiles.hasNext()) {
+            File classFile = classFiles.next();
+            try {
+                constants.addAll(ClassFacts.read(fileContents.getContentOf(classFile)).getNonPrivateConstants());
+            } catch (IllegalArgumentException e) {
+                logger.warn("Failed to examine [{}]; all Java files will be examined for references to constants.",
+                        classFile, e);
+                return absent();
+            } catch (RuntimeException e) {
+                logger.warn("Failed to read [{}]; all Java files will be examined for references to constants.",
+                        classFile, e);
+                return absent();
+            }
+        }
+        return Optional.<Set<String>>of(constants.build());
+    }
+
+    @Nonnull
     @Override
-    protected void analyzeCompilationUnit(@Nonnull final AnalysisContext analysisContext,
-                                          @Nonnull final CompilationUnit compilationUnit) {
-        compilationUnit.accept(new LocalVariableRecordingVisitor<Void>() {
+    protected NodeCallbacks createNodeCallbacks(@Nonnull final AnalysisContext analysisContext,
+                                                @Nonnull CompilationUnit compilationUnit) {
+        return new NodeCallbacks() {
             private final ClassPoolAccessor classPoolAccessor = classPoolAccessorFor(analysisContext);
             private final Map<String, Set<String>> processedReferences = newHashMap();
 
             @Override
-            public void visit(FieldAccessExpr n, Void arg) {
+            protected boolean visit(@Nonnull FieldAccessExpr n, @Nonnull Scope scope) {
                 if (isTargetOfAnAssignment(n)
                         || isScopeOfThisExpression(n)) {
-                    return;
+                    return false;
                 }
                 if (!isRegularFieldAccessExpr(n)) {
-                    super.visit(n, arg);
-                    return;
+                    return true;
                 }
-                if (aLocalVariableExists(getFirstElement(n))) {
-                    return;
+                if (scope.hasVariable(getFirstElement(n))) {
+                    return false;
                 }
                 resolveFieldReference(n);
+                return false;
             }
 
             @Override
-            public void visit(NameExpr n, Void arg) {
+            protected boolean visit(@Nonnull NameExpr n, @Nonnull Scope scope) {
                 if (isTargetOfAnAssignment(n)
                         || isScopeOfThisExpression(n)
-                        || aLocalVariableExists(n.getName())) {
-                    return;
+                        || scope.hasVariable(n.getName())) {
+                    return false;
                 }
-                resolveNameReference(n);
+                resolveNameReference(n, scope);
+                return false;
             }
 
             private Optional<String> resolveClass(String qualifier) {
@@ -198,7 +342,7 @@ public class ReferenceToConstantsAnalyzer extends JavaFileAnalyzer {
                         : new FieldAccessExprQualifier(FieldAccessExpr.class.cast(scope));
             }
 
-            private void resolveNameReference(NameExpr reference) {
+            private void resolveNameReference(NameExpr reference, Scope scope) {
                 if (!needsProcessing(reference)) {
                     return;
                 }
@@ -207,8 +351,8 @@ public class ReferenceToConstantsAnalyzer extends JavaFileAnalyzer {
                     return; // this is just a static method call
                 }
                 if (refersToInheritedField(reference)
-                        || refersToStaticImport(reference)
-                        || refersToAsteriskStaticImport(reference)) {
+                        || refersToStaticImport(reference, scope)
+                        || refersToAsteriskStaticImport(reference, scope)) {
                     return;
                 }
                 if (SwitchEntryStmt.class.isInstance(reference.getParentNode())) {
@@ -283,12 +427,13 @@ public class ReferenceToConstantsAnalyzer extends JavaFileAnalyzer {
                 return Modifier.isStatic(ctField.getModifiers());
             }
 
-            private boolean refersToStaticImport(NameExpr reference) {
+            private boolean refersToStaticImport(NameExpr reference, Scope scope) {
                 String referenceName = reference.getName();
-                String staticImport = getStaticImport(referenceName);
-                if (staticImport == null) {
+                ImportDeclaration importDeclaration = scope.getStaticImport(referenceName);
+                if (importDeclaration == null) {
                     return false;
                 }
+                String staticImport = getImportedType(importDeclaration);
                 String typeName = getTypeName(reference);
                 Optional<String> resolvedClass = resolveClass(staticImport);
                 if (resolvedClass.isPresent()) {
@@ -300,12 +445,13 @@ public class ReferenceToConstantsAnalyzer extends JavaFileAnalyzer {
                 return true;
             }
 
-            private boolean refersToAsteriskStaticImport(NameExpr reference) {
+            private boolean refersToAsteriskStaticImport(NameExpr reference, Scope scope) {
                 CtClass referencingClazz = getCtClass(classPoolAccessor.getClassPool(), getTypeName(reference));
                 if (referencingClazz == null) {
                     return false;
                 }
-                for (String asteriskImport : getStaticAsteriskImports()) {
+                for (ImportDeclaration importDeclaration : scope.getStaticAsteriskImports()) {
+                    String asteriskImport = getImportedType(importDeclaration);
                     Optional<String> resolvedClass = resolveClass(asteriskImport);
                     if (!resolvedClass.isPresent()) {
                         String typeName = getTypeName(reference);
@@ -322,276 +468,23 @@ public class ReferenceToConstantsAnalyzer extends JavaFileAnalyzer {
                 return false;
             }
 
-            @Nullable
-            @SuppressWarnings("unchecked")
-            private String getStaticImport(String referenceName) {
-                return getOnlyElement(transform(filter(emptyIfNull(compilationUnit.getImports()),
-                        and(refersTo(referenceName), not(isAsterisk()), isStatic())), toImportedType()), null);
-            }
-
-            @Nonnull
-            private Iterable<String> getStaticAsteriskImports() {
-                return transform(filter(emptyIfNull(compilationUnit.getImports()),
-                        and(isAsterisk(), isStatic())), toImportedType());
-            }
-
-            @Override
-            public void visit(ClassOrInterfaceType n, Void arg) {
-                // performance
-            }
-
             @Override
-            public void visit(CompilationUnit n, Void arg) {
-                // performance
-                for (final TypeDeclaration typeDeclaration : emptyIfNull(n.getTypes())) {
-                    typeDeclaration.accept(this, arg);
-                }
+            protected boolean visit(@Nonnull ClassOrInterfaceType n, @Nonnull Scope scope) {
+                return false; // performance
             }
 
             @Override
-            public void visit(MarkerAnnotationExpr n, Void arg) {
-                // performance
+            protected boolean visit(@Nonnull MethodReferenceExpr n, @Nonnull Scope scope) {
+                return false; // performance; only possible scope is TypeExpr - and types are irrelevant
             }
 
             @Override
-            public void visit(MethodReferenceExpr n, Void arg) {
-                // performance; only possible scope is TypeExpr - and types are irrelevant
-            }
-
-            @Override
-            public void visit(NormalAnnotationExpr n, Void arg) {
-                // performance
-                for (final MemberValuePair m : emptyIfNull(n.getPairs())) {
-                    m.accept(this, arg);
-                }
-            }
-
-            @Override
-            public void visit(Parameter n, Void arg) {
-                // performance
-            }
-
-            @Override
-            public void visit(SingleMemberAnnotationExpr n, Void arg) {
-                // performance
-                n.getMemberValue().accept(this, arg);
-            }
-
-        }, null);
-    }
-
-    private static class LocalVariableRecordingVisitor<A> extends VoidVisitorAdapter<A> {
-
-        @Nonnull
-        private final Deque<Set<String>> localVariables = newLinkedList();
-
-        private static Predicate<? super FieldDeclaration> constants() {
-            return new Predicate<FieldDeclaration>() {
-                @Override
-                @SuppressWarnings("ConstantConditions")
-                public boolean apply(@Nullable FieldDeclaration fieldDeclaration) {
-                    int modifiers = checkNotNull(fieldDeclaration).getModifiers();
-                    return ModifierSet.isStatic(modifiers) && ModifierSet.isFinal(modifiers);
-                }
-            };
-        }
-
-        @Override
-        public void visit(ClassOrInterfaceDeclaration n, A arg) {
-            HashSet<String> fields = newHashSet();
-            this.localVariables.addLast(fields);
-            try {
-                addFieldVariables(n, fields);
-                super.visit(n, arg);
-            } finally {
-                this.localVariables.removeLast();
+            protected boolean visit(@Nonnull Parameter n, @Nonnull Scope scope) {
+                // performance; yet the annotations of a caught exception are examined
+                return CatchClause.class.isInstance(n.getParentNode());
             }
-        }
-
-        @Override
-        public void visit(EnumDeclaration n, A arg) {
-            HashSet<String> fieldsAndEnums = newHashSet();
-            this.localVariables.addLast(fieldsAndEnums);
-            try {
-                for (EnumConstantDeclaration enumConstantDeclaration : emptyIfNull(n.getEntries())) {
-                    fieldsAndEnums.add(enumConstantDeclaration.getName());
-                }
-                addFieldVariables(n, fieldsAndEnums);
-                super.visit(n, arg);
-            } finally {
-                this.localVariables.removeLast();
-            }
-        }
-
-        @Override
-        public void visit(ObjectCreationExpr n, A arg) {
-            HashSet<String> fields = newHashSet();
-            this.localVariables.addLast(fields);
-            try {
-                addFieldVariables(n.getAnonymousClassBody(), fields);
-                super.visit(n, arg);
-            } finally {
-                this.localVariables.removeLast();
-            }
-        }
-
-        @Override
-        public void visit(ConstructorDeclaration n, A arg) {
-            HashSet<String> blockVariables = newHashSet();
-            this.localVariables.addLast(blockVariables);
-            try {
-                for (Parameter parameter : emptyIfNull(n.getParameters())) {
-                    blockVariables.add(parameter.getId().getName());
-                }
-                for (AnnotationExpr annotationExpr : emptyIfNull(n.getAnnotations())) {
-                    annotationExpr.accept(this, arg);
-                }
-                BlockStmt body = n.getBlock();
-                if (body != null) {
-                    visit(body, arg);
-                }
-            } finally {
-                this.localVariables.removeLast();
-            }
-        }
-
-        @Override
-        public void visit(MethodDeclaration n, A arg) {
-            HashSet<String> blockVariables = newHashSet();
-            this.localVariables.addLast(blockVariables);
-            try {
-                for (Parameter parameter : emptyIfNull(n.getParameters())) {
-                    blockVariables.add(parameter.getId().getName());
-                }
-                for (AnnotationExpr annotationExpr : emptyIfNull(n.getAnnotations())) {
-                    annotationExpr.accept(this, arg);
-                }
-                BlockStmt body = n.getBody();
-                if (body != null) {
-                    visit(body, arg);
-                }
-            } finally {
-                this.localVariables.removeLast();
-            }
-        }
-
-        @Override
-        public void visit(CatchClause n, A arg) {
-            Parameter multiTypeParameter = n.getParam();
-            HashSet<String> blockVariables = newHashSet();
-            this.localVariables.addLast(blockVariables);
-            try {
-                blockVariables.add(multiTypeParameter.getId().getName());
-                for (AnnotationExpr annotationExpr : emptyIfNull(multiTypeParameter.getAnnotations())) {
-                    annotationExpr.accept(this, arg);
-                }
-                BlockStmt body = n.getCatchBlock();
-                if (body != null) {
-                    visit(body, arg);
-                }
-            } finally {
-                this.localVariables.removeLast();
-            }
-        }
-
-        @Override
-        public void visit(BlockStmt n, A arg) {
-            this.localVariables.addLast(Sets.<String>newHashSet());
-            try {
-                super.visit(n, arg);
-            } finally {
-                this.localVariables.removeLast();
-            }
-        }
-
-        @Override
-        public void visit(ForeachStmt n, A arg) {
-            HashSet<String> blockVariables = newHashSet();
-            this.localVariables.addLast(blockVariables);
-            try {
-                for (VariableDeclarator variableDeclarator : emptyIfNull(n.getVariable().getVars())) {
-                    blockVariables.add(variableDeclarator.getId().getName());
-                }
-                n.getIterable().accept(this, arg);
-                n.getBody().accept(this, arg);
-            } finally {
-                this.localVariables.removeLast();
-            }
-        }
-
-        @Override
-        public void visit(ForStmt n, A arg) {
-            this.localVariables.addLast(Sets.<String>newHashSet());
-            try {
-                super.visit(n, arg);
-            } finally {
-                this.localVariables.removeLast();
-            }
-        }
-
-        @Override
-        public void visit(TryStmt n, A arg) {
-            HashSet<String> blockVariables = newHashSet();
-            this.localVariables.addLast(blockVariables);
-            try {
-                for (VariableDeclarationExpr variableDeclarationExpr : emptyIfNull(n.getResources())) {
-                    for (VariableDeclarator variableDeclarator : variableDeclarationExpr.getVars()) {
-                        blockVariables.add(variableDeclarator.getId().getName());
-                    }
-                }
-                super.visit(n, arg);
-            } finally {
-                this.localVariables.removeLast();
-            }
-        }
-
-        @Override
-        public void visit(LambdaExpr n, A arg) {
-            HashSet<String> blockVariables = newHashSet();
-            this.localVariables.addLast(blockVariables);
-            try {
-                for (Parameter parameter : emptyIfNull(n.getParameters())) {
-                    blockVariables.add(parameter.getId().getName());
-                }
-                super.visit(n, arg);
-            } finally {
-                this.localVariables.removeLast();
-            }
-        }
-
-        @Override
-        public void visit(VariableDeclarationExpr n, A arg) {
-            for (AnnotationExpr annotationExpr : emptyIfNull(n.getAnnotations())) {
-                annotationExpr.accept(this, arg);
-            }
-            n.getType().accept(this, arg);
-            Set<String> blockVariables = this.localVariables.getLast();
-            for (VariableDeclarator variableDeclarator : n.getVars()) {
-                Expression expr = variableDeclarator.getInit();
-                if (expr != null) {
-                    expr.accept(this, arg);
-                }
-                blockVariables.add(variableDeclarator.getId().getName());
-            }
-        }
-
-        protected final boolean aLocalVariableExists(@Nonnull String name) {
-            return contains(concat(this.localVariables), name);
-        }
-
-        private void addFieldVariables(@Nonnull TypeDeclaration typeDeclaration, @Nonnull Set<String> variables) {
-            addFieldVariables(typeDeclaration.getMembers(), variables);
-        }
-
-        private void addFieldVariables(@Nullable Iterable<? extends BodyDeclaration> declarations, @Nonnull Set<String> variables) {
-            for (FieldDeclaration fieldDeclaration : emptyIfNull(declarations).
-                    filter(FieldDeclaration.class).filter(not(constants()))) {
-                for (VariableDeclarator variableDeclarator : fieldDeclaration.getVariables()) {
-                    variables.add(variableDeclarator.getId().getName());
-                }
-            }
-        }
 
+        };
     }
 
     private static class NameExprQualifier extends Qualifier<NameExpr> {
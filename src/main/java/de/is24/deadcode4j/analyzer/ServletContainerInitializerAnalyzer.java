@@ -1,20 +1,28 @@
 package de.is24.deadcode4j.analyzer;
 
 import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
 import de.is24.deadcode4j.AnalysisContext;
-import de.is24.deadcode4j.Analyzer;
 import de.is24.deadcode4j.IntermediateResult;
 import de.is24.deadcode4j.Module;
+import de.is24.deadcode4j.SelectiveAnalyzer;
+import de.is24.guava.NonNullFunction;
 import org.xml.sax.Attributes;
 import org.xml.sax.helpers.DefaultHandler;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.io.File;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
+import static com.google.common.collect.Iterables.addAll;
 import static com.google.common.collect.Iterables.concat;
-import static com.google.common.collect.Iterables.isEmpty;
+import static com.google.common.collect.Lists.newArrayList;
+import static java.util.Collections.synchronizedSet;
 
 /**
  * Analyzes both <code>web.xml</code> and class files: looks for implementations of
@@ -23,10 +31,10 @@ import static com.google.common.collect.Iterables.isEmpty;
  *
  * @since 1.5
  */
-public class ServletContainerInitializerAnalyzer extends AnalyzerAdapter {
+public class ServletContainerInitializerAnalyzer extends AnalyzerAdapter implements SelectiveAnalyzer {
     private final String depender;
-    private final Analyzer classFinder;
-    private final Analyzer webXmlAnalyzer = new XmlAnalyzer("web.xml") {
+    private final SelectiveAnalyzer classFinder;
+    private final SelectiveAnalyzer webXmlAnalyzer = new XmlAnalyzer("web.xml") {
         @Nonnull
         @Override
         protected DefaultHandler createHandlerFor(@Nonnull final AnalysisContext analysisContext) {
@@ -42,7 +50,7 @@ public class ServletContainerInitializerAnalyzer extends AnalyzerAdapter {
             };
         }
     };
-    private ServletContainerInitializerAnalysisContext context;
+    private final ConcurrentMap<Module, ModuleAnalysis> moduleAnalyses = new ConcurrentHashMap<Module, ModuleAnalysis>();
 
     /**
      * Creates a new instance of <code>ServletContainerInitializerAnalyzer</code>.
@@ -62,41 +70,78 @@ public class ServletContainerInitializerAnalyzer extends AnalyzerAdapter {
         this("JEE-ServletContainerInitializer", "javax.servlet.ServletContainerInitializer");
     }
 
+    @Nonnull
+    @Override
+    public Iterable<String> getFileSuffixes() {
+        return concat(this.webXmlAnalyzer.getFileSuffixes(), this.classFinder.getFileSuffixes());
+    }
+
     @Override
     public void doAnalysis(@Nonnull AnalysisContext analysisContext, @Nonnull File fileName) {
-        if (this.context == null) {
-            this.context = new ServletContainerInitializerAnalysisContext(analysisContext.getModule());
-            this.context.setOriginalContext(analysisContext);
-        }
-        this.webXmlAnalyzer.doAnalysis(this.context, fileName);
-        this.classFinder.doAnalysis(this.context, fileName);
+        AnalysisContext localContext = analysisContext.getOrCreateCacheEntry(this,
+                new NonNullFunction<AnalysisContext, AnalysisContext>() {
+                    @Nonnull
+                    @Override
+                    public AnalysisContext apply(@Nonnull AnalysisContext input) {
+                        return new ServletContainerInitializerAnalysisContext(input, getModuleAnalysisFor(input));
+                    }
+                });
+        this.webXmlAnalyzer.doAnalysis(localContext, fileName);
+        this.classFinder.doAnalysis(localContext, fileName);
     }
 
     @Override
     public void finishAnalysis(@Nonnull AnalysisContext analysisContext) {
-        ServletContainerInitializerAnalysisContext localContext = this.context;
-        this.context = null;
-        if (localContext == null) {
+        ModuleAnalysis moduleAnalysis = this.moduleAnalyses.remove(analysisContext.getModule());
+        if (moduleAnalysis == null) {
             return;
         }
-        if (localContext.isMetadataComplete()) {
+        if (moduleAnalysis.metadataComplete) {
             logger.debug("Found web.xml with completed metadata; " +
                     "ServletContainerInitializer implementations are treated as dead code");
             return;
         }
-        Iterable<String> initializerClasses = concat(localContext.getAnalyzedCode().getCodeDependencies().values());
-        if (!isEmpty(initializerClasses)) {
+        List<String> initializerClasses = newArrayList(moduleAnalysis.initializerClasses);
+        if (!initializerClasses.isEmpty()) {
             analysisContext.addDependencies(depender, initializerClasses);
         }
     }
 
+    @Nonnull
+    private ModuleAnalysis getModuleAnalysisFor(@Nonnull AnalysisContext analysisContext) {
+        Module module = analysisContext.getModule();
+        ModuleAnalysis moduleAnalysis = this.moduleAnalyses.get(module);
+        if (moduleAnalysis == null) {
+            ModuleAnalysis newModuleAnalysis = new ModuleAnalysis();
+            moduleAnalysis = this.moduleAnalyses.putIfAbsent(module, newModuleAnalysis);
+            if (moduleAnalysis == null) {
+                moduleAnalysis = newModuleAnalysis;
+            }
+        }
+        return moduleAnalysis;
+    }
+
+    /**
+     * Collects the implementations and the <code>metadata-complete</code> flag found for one module.
+     */
+    private static final class ModuleAnalysis {
+        final Set<String> initializerClasses = synchronizedSet(Sets.<String>newHashSet());
+        volatile boolean metadataComplete = false;
+    }
+
+    /**
+     * Records the implementations found by the <code>classFinder</code> and the <code>metadata-complete</code> flag
+     * found by the <code>webXmlAnalyzer</code> for the module; everything else is delegated to the original context.
+     */
     private static class ServletContainerInitializerAnalysisContext extends AnalysisContext {
 
-        private AnalysisContext originalContext;
-        private boolean metadataComplete = false;
+        private final AnalysisContext originalContext;
+        private final ModuleAnalysis moduleAnalysis;
 
-        ServletContainerInitializerAnalysisContext(Module module) {
-            super(module, Maps.<Object, IntermediateResult>newHashMap());
+        ServletContainerInitializerAnalysisContext(AnalysisContext originalContext, ModuleAnalysis moduleAnalysis) {
+            super(originalContext.getModule(), Maps.<Object, IntermediateResult>newHashMap());
+            this.originalContext = originalContext;
+            this.moduleAnalysis = moduleAnalysis;
         }
 
         @Nonnull
@@ -116,16 +161,13 @@ public class ServletContainerInitializerAnalyzer extends AnalyzerAdapter {
             this.originalContext.addAnalyzedClass(clazz);
         }
 
-        public void setMetadataComplete() {
-            this.metadataComplete = true;
-        }
-
-        public boolean isMetadataComplete() {
-            return metadataComplete;
+        @Override
+        public void addDependencies(@Nonnull String depender, @Nonnull Iterable<String> dependees) {
+            addAll(this.moduleAnalysis.initializerClasses, dependees);
         }
 
-        public void setOriginalContext(AnalysisContext analysisContext) {
-            this.originalContext = analysisContext;
+        public void setMetadataComplete() {
+            this.moduleAnalysis.metadataComplete = true;
         }
 
     }
@@ -2,6 +2,7 @@ package de.is24.deadcode4j.analyzer;
 
 import com.google.common.base.Optional;
 import de.is24.deadcode4j.AnalysisContext;
+import de.is24.deadcode4j.CacheableAnalyzer;
 import org.xml.sax.Attributes;
 import org.xml.sax.helpers.DefaultHandler;
 
@@ -24,7 +25,7 @@ import static de.is24.deadcode4j.Utils.isNotBlank;
  *
  * @since 1.2.0
  */
-public abstract class SimpleXmlAnalyzer extends XmlAnalyzer {
+public abstract class SimpleXmlAnalyzer extends XmlAnalyzer implements CacheableAnalyzer {
     protected final String dependerId;
     private final String rootElement;
     private final Set<Element> registeredElements = newHashSet();
@@ -57,6 +58,12 @@ public abstract class SimpleXmlAnalyzer extends XmlAnalyzer {
         return description + " with root Element <" + this.rootElement + ">";
     }
 
+    @Nonnull
+    @Override
+    public String getCacheKey() {
+        return getClass().getName() + "|" + this.dependerId;
+    }
+
     @Override
     @Nonnull
     protected final DefaultHandler createHandlerFor(@Nonnull AnalysisContext analysisContext) {
@@ -1,16 +1,21 @@
 package de.is24.deadcode4j.analyzer;
 
 import de.is24.deadcode4j.AnalysisContext;
-import javassist.CtClass;
-import javassist.Modifier;
+import de.is24.deadcode4j.Module;
+import de.is24.deadcode4j.analyzer.classfile.ClassFacts;
 
 import javax.annotation.Nonnull;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
-import static com.google.common.collect.Lists.newArrayList;
+import static com.google.common.collect.Sets.newHashSet;
 import static de.is24.deadcode4j.IntermediateResults.*;
-import static de.is24.javassist.CtClasses.getAllImplementedInterfaces;
+import static de.is24.deadcode4j.analyzer.javassist.ClassHierarchy.classHierarchyFor;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.synchronizedList;
 
 /**
  * Analyzes class files: marks custom implementations of Spring Data repositories as being in use.<br/>
@@ -21,77 +26,89 @@ import static de.is24.javassist.CtClasses.getAllImplementedInterfaces;
  */
 public class SpringDataCustomRepositoriesAnalyzer extends ByteCodeAnalyzer {
 
-    private final List<String> customRepositoryNames = newArrayList();
+    private final ConcurrentMap<Module, List<String>> customRepositoryNames =
+            new ConcurrentHashMap<Module, List<String>>();
 
     @Override
-    protected void analyzeClass(@Nonnull AnalysisContext analysisContext, @Nonnull CtClass clazz) {
-        analysisContext.addAnalyzedClass(clazz.getName());
-        if (clazz.isInterface()) {
-            analyzeInterface(analysisContext, clazz);
-        } else if (isPublicOrPackageProtectedClass(clazz)) {
-            reportImplementationOfExistingCustomRepository(analysisContext, clazz);
+    protected void analyzeClass(@Nonnull AnalysisContext analysisContext, @Nonnull ClassFacts classFacts) {
+        analysisContext.addAnalyzedClass(classFacts.getClassName());
+        if (classFacts.isInterface()) {
+            analyzeInterface(analysisContext, classFacts);
+        } else if (isPublicOrPackageProtectedClass(classFacts)) {
+            reportImplementationOfExistingCustomRepository(analysisContext, classFacts);
         }
     }
 
     @Override
     public void finishAnalysis(@Nonnull AnalysisContext analysisContext) {
-        analysisContext.getCache().put(getClass(), resultSetFor(this.customRepositoryNames));
-        this.customRepositoryNames.clear();
+        List<String> customRepositoryNamesOfModule = this.customRepositoryNames.remove(analysisContext.getModule());
+        if (customRepositoryNamesOfModule == null) {
+            customRepositoryNamesOfModule = emptyList();
+        }
+        analysisContext.getCache().put(getClass(), resultSetFor(customRepositoryNamesOfModule));
+    }
+
+    @Nonnull
+    private List<String> getCustomRepositoryNamesOf(@Nonnull AnalysisContext analysisContext) {
+        Module module = analysisContext.getModule();
+        List<String> customRepositoryNamesOfModule = this.customRepositoryNames.get(module);
+        if (customRepositoryNamesOfModule == null) {
+            List<String> newList = synchronizedList(new ArrayList<String>());
+            customRepositoryNamesOfModule = this.customRepositoryNames.putIfAbsent(module, newList);
+            if (customRepositoryNamesOfModule == null) {
+                customRepositoryNamesOfModule = newList;
+            }
+        }
+        return customRepositoryNamesOfModule;
     }
 
-    private void analyzeInterface(@Nonnull AnalysisContext analysisContext, @Nonnull CtClass clazz) {
-        Set<String> implementedInterfaces = getAllImplementedInterfaces(clazz);
+    private void analyzeInterface(@Nonnull AnalysisContext analysisContext, @Nonnull ClassFacts classFacts) {
+        Set<String> implementedInterfaces = classHierarchyFor(analysisContext).getAllInterfacesOf(classFacts);
         if (!implementedInterfaces.contains("org.springframework.data.repository.Repository")) {
             return;
         }
 
-        final String nameOfCustomRepositoryInterface = clazz.getName() + "Custom";
+        final String nameOfCustomRepositoryInterface = classFacts.getClassName() + "Custom";
         if (!implementedInterfaces.contains(nameOfCustomRepositoryInterface)) {
             return;
         }
 
-        this.customRepositoryNames.add(nameOfCustomRepositoryInterface);
-        reportImplementationOfNewCustomRepository(analysisContext, clazz);
+        getCustomRepositoryNamesOf(analysisContext).add(nameOfCustomRepositoryInterface);
+        reportImplementationOfNewCustomRepository(analysisContext, classFacts);
     }
 
     private void reportImplementationOfNewCustomRepository(@Nonnull AnalysisContext analysisContext,
-                                                           @Nonnull CtClass clazz) {
-        final String clazzName = clazz.getName();
+                                                           @Nonnull ClassFacts classFacts) {
+        final String clazzName = classFacts.getClassName();
         final String nameOfCustomRepositoryImplementation = clazzName + "Impl";
-        CtClass customImpl = clazz.getClassPool().getOrNull(nameOfCustomRepositoryImplementation);
-        if (customImpl == null) {
-            return;
-        }
-
-        Set<String> implementedInterfaces = getAllImplementedInterfaces(customImpl);
+        Set<String> implementedInterfaces =
+                classHierarchyFor(analysisContext).getAllInterfacesOf(nameOfCustomRepositoryImplementation);
         if (implementedInterfaces.contains(clazzName + "Custom")) {
             analysisContext.addDependencies(clazzName, nameOfCustomRepositoryImplementation);
         }
     }
 
-    private boolean isPublicOrPackageProtectedClass(@Nonnull CtClass clazz) {
-        int modifiers = clazz.getModifiers();
-        return !Modifier.isAbstract(modifiers)
-                && !Modifier.isAnnotation(modifiers)
-                && !Modifier.isEnum(modifiers)
-                && !Modifier.isPrivate(modifiers)
-                && !Modifier.isProtected(modifiers);
+    private boolean isPublicOrPackageProtectedClass(@Nonnull ClassFacts classFacts) {
+        // the access flags of a class file never denote private or protected classes
+        return !classFacts.isAbstract()
+                && !classFacts.isAnnotation()
+                && !classFacts.isEnum();
     }
 
     private void reportImplementationOfExistingCustomRepository(@Nonnull AnalysisContext analysisContext,
-                                                                @Nonnull CtClass clazz) {
+                                                                @Nonnull ClassFacts classFacts) {
         IntermediateResultSet<String> intermediateResults = resultSetFrom(analysisContext, getClass());
         if (intermediateResults == null) {
             return;
         }
 
         Set<String> existingCustomRepositories = intermediateResults.getResults();
-        Set<String> implementedInterfaces = getAllImplementedInterfaces(clazz);
+        Set<String> implementedInterfaces = newHashSet(classHierarchyFor(analysisContext).getAllInterfacesOf(classFacts));
         implementedInterfaces.retainAll(existingCustomRepositories);
         for (String customRepositoryName : implementedInterfaces) {
             analysisContext.addDependencies(
                     customRepositoryName.substring(0, customRepositoryName.length() - "Custom".length()),
-                    clazz.getName());
+                    classFacts.getClassName());
         }
     }
 
@@ -1,41 +1,59 @@
 package de.is24.deadcode4j.analyzer;
 
 import de.is24.deadcode4j.AnalysisContext;
+import de.is24.deadcode4j.CacheableAnalyzer;
+import de.is24.deadcode4j.SelectiveAnalyzer;
 import org.apache.commons.io.IOUtils;
 
 import javax.annotation.Nonnull;
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.Properties;
 
 import static com.google.common.collect.Iterables.filter;
+import static de.is24.deadcode4j.FileContents.fileContentsFor;
+import static java.util.Collections.singleton;
 
 /**
  * Analyzes <a href="http://docs.spring.io/spring/docs/3.2.x/spring-framework-reference/html/extensible-xml.html">
  * <code>spring.handlers</code> property files</a> and lists the defined <i>namespace handlers</i> as classes being
  * referenced.
  */
-public class SpringNamespaceHandlerAnalyzer extends AnalyzerAdapter {
+public class SpringNamespaceHandlerAnalyzer extends AnalyzerAdapter implements CacheableAnalyzer, SelectiveAnalyzer {
+
+    private static final String SPRING_HANDLERS = "META-INF/spring.handlers";
+
+    @Nonnull
+    @Override
+    public Iterable<String> getFileSuffixes() {
+        return singleton(SPRING_HANDLERS);
+    }
+
+    @Nonnull
+    @Override
+    public String getCacheKey() {
+        return getClass().getName();
+    }
 
     @Override
     public void doAnalysis(@Nonnull AnalysisContext analysisContext, @Nonnull File file) {
-        if (file.getAbsolutePath().endsWith("META-INF/spring.handlers")) {
+        if (file.getAbsolutePath().endsWith(SPRING_HANDLERS)) {
             logger.debug("Analyzing property file [{}]...", file);
             registerSpringHandlersDefinedIn(analysisContext, file);
         }
     }
 
     private void registerSpringHandlersDefinedIn(AnalysisContext analysisContext, File file) {
-        Properties springNamespaceHandlers = readPropertyFile(file);
+        Properties springNamespaceHandlers = readPropertyFile(analysisContext, file);
         analysisContext.addDependencies("_Spring-NamespaceHandler_", filter(springNamespaceHandlers.values(), String.class));
     }
 
-    private Properties readPropertyFile(File file) {
+    private Properties readPropertyFile(AnalysisContext analysisContext, File file) {
         Properties properties = new Properties();
-        FileInputStream in = null;
+        InputStream in = null;
         try {
-            in = new FileInputStream(file);
+            in = fileContentsFor(analysisContext).openStream(file);
             properties.load(in);
         } catch (IOException e) {
             throw new RuntimeException("Failed to read [" + file + "]!", e);
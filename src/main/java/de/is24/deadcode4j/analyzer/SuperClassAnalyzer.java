@@ -2,19 +2,18 @@ package de.is24.deadcode4j.analyzer;
 
 import com.google.common.collect.Sets;
 import de.is24.deadcode4j.AnalysisContext;
+import de.is24.deadcode4j.analyzer.classfile.ClassFacts;
+import de.is24.deadcode4j.analyzer.classfile.ClassFileHeader;
 import de.is24.deadcode4j.analyzer.javassist.ClassPathFilter;
 import de.is24.guava.NonNullFunction;
-import javassist.CtClass;
 
 import javax.annotation.Nonnull;
 import java.util.Collections;
-import java.util.List;
 import java.util.Set;
+import java.util.TreeSet;
 
 import static com.google.common.base.Preconditions.checkArgument;
-import static com.google.common.collect.Lists.newArrayList;
-import static de.is24.javassist.CtClasses.getSuperclassOf;
-import static de.is24.javassist.CtClasses.isJavaLangObject;
+import static de.is24.deadcode4j.analyzer.javassist.ClassHierarchy.classHierarchyFor;
 
 /**
  * Serves as a base class with which to mark classes as being in use if they are a direct subclass of one of the
@@ -25,11 +24,13 @@ import static de.is24.javassist.CtClasses.isJavaLangObject;
 public abstract class SuperClassAnalyzer extends ByteCodeAnalyzer {
 
     private final String dependerId;
+    private final Set<String> classNames;
     private final NonNullFunction<AnalysisContext, Set<String>> supplySuperClassesFoundInClassPath;
 
     private SuperClassAnalyzer(@Nonnull String dependerId, @Nonnull Set<String> classNames) {
         checkArgument(!classNames.isEmpty(), "classNames cannot by empty!");
         this.dependerId = dependerId;
+        this.classNames = new TreeSet<String>(classNames);
         supplySuperClassesFoundInClassPath = new ClassPathFilter(classNames);
     }
 
@@ -58,31 +59,38 @@ public abstract class SuperClassAnalyzer extends ByteCodeAnalyzer {
     }
 
     @Override
-    protected final void analyzeClass(@Nonnull AnalysisContext analysisContext, @Nonnull CtClass clazz) {
+    public String toString() {
+        return super.toString() + " reporting [" + this.dependerId + "] for " + this.classNames;
+    }
+
+    @Override
+    protected final boolean preAnalyzeClass(@Nonnull AnalysisContext analysisContext,
+                                            @Nonnull ClassFileHeader header) {
+        if (getSuperClassesFoundInClassPath(analysisContext).isEmpty()) {
+            return false;
+        }
+        if (header.hasSuperclass()) {
+            return true;
+        }
+        analysisContext.addAnalyzedClass(header.getClassName());
+        return false;
+    }
+
+    @Override
+    protected final void analyzeClass(@Nonnull AnalysisContext analysisContext, @Nonnull ClassFacts classFacts) {
         Set<String> knownSuperClasses = getSuperClassesFoundInClassPath(analysisContext);
         if (knownSuperClasses.isEmpty()) {
             return;
         }
 
-        String clazzName = clazz.getName();
+        String clazzName = classFacts.getClassName();
         analysisContext.addAnalyzedClass(clazzName);
 
-        if (!Collections.disjoint(knownSuperClasses, getClassHierarchy(clazz))) {
+        if (!Collections.disjoint(knownSuperClasses, classHierarchyFor(analysisContext).getSuperclassesOf(classFacts))) {
             analysisContext.addDependencies(this.dependerId, clazzName);
         }
     }
 
-    @Nonnull
-    private List<String> getClassHierarchy(@Nonnull final CtClass clazz) {
-        List<String> classes = newArrayList();
-        CtClass loopClass = clazz;
-        do {
-            classes.add(loopClass.getClassFile2().getSuperclass());
-            loopClass = getSuperclassOf(loopClass);
-        } while (loopClass != null && !isJavaLangObject(loopClass));
-        return classes;
-    }
-
     @Nonnull
     protected final Set<String> getSuperClassesFoundInClassPath(@Nonnull AnalysisContext analysisContext) {
         return analysisContext.getOrCreateCacheEntry(getClass(), supplySuperClassesFoundInClassPath);
@@ -1,38 +1,49 @@
 package de.is24.deadcode4j.analyzer;
 
 import com.github.javaparser.ast.CompilationUnit;
-import com.github.javaparser.ast.TypeParameter;
-import com.github.javaparser.ast.body.ClassOrInterfaceDeclaration;
-import com.github.javaparser.ast.body.ConstructorDeclaration;
-import com.github.javaparser.ast.body.MethodDeclaration;
-import com.github.javaparser.ast.expr.MethodReferenceExpr;
 import com.github.javaparser.ast.type.*;
-import com.github.javaparser.ast.visitor.VoidVisitorAdapter;
 import com.google.common.base.Optional;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.io.Files;
 import de.is24.deadcode4j.AnalysisContext;
+import de.is24.deadcode4j.FileContents;
+import de.is24.deadcode4j.analyzer.classfile.ClassFacts;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
-import java.util.Deque;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
-import static com.google.common.collect.Lists.newLinkedList;
+import static com.google.common.collect.Iterables.concat;
+import static com.google.common.collect.Lists.newArrayList;
 import static com.google.common.collect.Maps.newHashMap;
 import static com.google.common.collect.Sets.newHashSet;
+import static de.is24.deadcode4j.FileContents.fileContentsFor;
 import static de.is24.deadcode4j.Utils.emptyIfNull;
 import static de.is24.deadcode4j.Utils.getOrAddMappedSet;
 import static de.is24.javaparser.Nodes.getTypeName;
-import static java.util.Collections.emptySet;
+import static java.util.Arrays.asList;
+import static java.util.Collections.singleton;
 
 /**
  * Analyzes Java files and reports dependencies to classes that are not part of the byte code due to type erasure.
+ * <p/>
+ * The type arguments recorded by the signatures of the class files passed to this analyzer are reported as well. If
+ * the files of a module are announced, only the Java files using type arguments the byte code doesn't account for are
+ * parsed.
  *
  * @since 2.0.0
  */
 public class TypeErasureAnalyzer extends JavaFileAnalyzer {
 
+    private static final Set<String> KEYWORDS_OF_TYPE_ARGUMENTS = ImmutableSet.of("extends", "super",
+            "boolean", "byte", "char", "short", "int", "long", "float", "double");
+    private static final Set<String> TOKENS_OF_TYPE_ARGUMENTS = ImmutableSet.of(",", "?", "&", "[", "]");
+
     @Nonnull
     private static String getFullQualifier(@Nonnull ClassOrInterfaceType classOrInterfaceType) {
         StringBuilder buffy = new StringBuilder(classOrInterfaceType.getName());
@@ -43,26 +54,258 @@ public class TypeErasureAnalyzer extends JavaFileAnalyzer {
         return buffy.toString();
     }
 
+    /**
+     * Indicates if the given tokens use type arguments the given names cannot be resolved for. A list of type
+     * arguments is recognized by the tokens it may consist of; comparisons like <code>a &lt; b</code> are thus ruled
+     * out by the tokens following them.
+     */
+    private static boolean usesUnknownTypeArguments(@Nonnull List<String> tokens, @Nonnull KnownNames knownNames) {
+        for (int i = 0, size = tokens.size(); i < size; i++) {
+            if (!"<".equals(tokens.get(i))) {
+                continue;
+            }
+            List<String> typeNames = newArrayList();
+            boolean qualifying = false;
+            int depth = 0;
+            for (int j = i; j < size; j++) {
+                String token = tokens.get(j);
+                if ("<".equals(token)) {
+                    depth++;
+                } else if (">".equals(token)) {
+                    if (--depth == 0) {
+                        for (String typeName : typeNames) {
+                            if (!knownNames.resolves(typeName)) {
+                                return true;
+                            }
+                        }
+                        break;
+                    }
+                } else if ("@".equals(token)) {
+                    return true; // type annotations may have arbitrary values
+                } else if (".".equals(token)) {
+                    qualifying = !typeNames.isEmpty();
+                    continue;
+                } else if (Character.isJavaIdentifierStart(token.charAt(0))) {
+                    if (qualifying) {
+                        int last = typeNames.size() - 1;
+                        typeNames.set(last, typeNames.get(last) + "." + token);
+                    } else if (!KEYWORDS_OF_TYPE_ARGUMENTS.contains(token)) {
+                        typeNames.add(token);
+                    }
+                } else if (!TOKENS_OF_TYPE_ARGUMENTS.contains(token)) {
+                    break; // no type arguments
+                }
+                qualifying = false;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the name of the package declared by the given tokens, e.g. <tt>de.is24.</tt>; an empty string for the
+     * default package.
+     */
+    @Nonnull
+    private static String getPackageName(@Nonnull List<String> tokens) {
+        StringBuilder buffy = new StringBuilder();
+        int i = tokens.indexOf("package");
+        if (i >= 0) {
+            for (String token; ++i < tokens.size() && !";".equals(token = tokens.get(i)); ) {
+                buffy.append(token);
+            }
+            buffy.append('.');
+        }
+        return buffy.toString();
+    }
+
+    /**
+     * Splits the given code into identifiers and single characters; literals are represented by a single
+     * <code>"</code>, comments and whitespace are dropped.
+     */
+    @Nonnull
+    private static List<String> tokenize(@Nonnull String code) {
+        List<String> tokens = newArrayList();
+        for (int i = 0, length = code.length(); i < length; ) {
+            char c = code.charAt(i);
+            int start = i++;
+            if (Character.isWhitespace(c)) {
+                continue;
+            }
+            if (c == '/' && i < length && code.charAt(i) == '/') {
+                while (i < length && code.charAt(i) != '\n') {
+                    i++;
+                }
+            } else if (c == '/' && i < length && code.charAt(i) == '*') {
+                int endOfComment = code.indexOf("*/", i + 1);
+                i = endOfComment < 0 ? length : endOfComment + 2;
+            } else if (c == '"' || c == '\'') {
+                while (i < length && code.charAt(i) != c) {
+                    i += code.charAt(i) == '\\' ? 2 : 1;
+                }
+                i++;
+                tokens.add("\"");
+            } else if (Character.isJavaIdentifierStart(c)) {
+                while (i < length && Character.isJavaIdentifierPart(code.charAt(i))) {
+                    i++;
+                }
+                tokens.add(code.substring(start, i));
+            } else if (Character.isDigit(c)) {
+                while (i < length && (Character.isJavaIdentifierPart(code.charAt(i)) || code.charAt(i) == '.')) {
+                    i++;
+                }
+                tokens.add("\"");
+            } else {
+                tokens.add(String.valueOf(c));
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * Selects the Java files using type arguments the announced class files don't refer to - neither by their
+     * signatures nor by the rest of the byte code. This applies to type arguments of expressions like
+     * <code>new ArrayList&lt;Foo&gt;()</code> and to those of local variables if the classes were compiled without
+     * <tt>-g</tt>. The type arguments recorded by the class files are reported when those are analyzed.
+     * <p/>
+     * A file is selected unless each name it uses within type arguments resolves to a class the classes compiled from
+     * the file refer to, or to a type variable they use; like javac does, the names are resolved by means of the
+     * classes declared by the file, its imports and its package. Names that may resolve to several classes select the
+     * file as well, as do files whose classes cannot be found. Member types inherited from classes declared by other
+     * files are not considered, and the classes of the package are expected to be part of the module.
+     *
+     * @since 2.2.0
+     */
+    @Nonnull
+    @Override
+    protected List<File> selectFilesToAnalyze(@Nonnull AnalysisContext analysisContext, @Nonnull List<File> files) {
+        List<File> javaFiles = newArrayList();
+        List<File> classFiles = newArrayList();
+        for (File file : files) {
+            if (file.getName().endsWith(".class")) {
+                classFiles.add(file);
+            } else {
+                javaFiles.add(file);
+            }
+        }
+        Optional<ClassesOfModule> classesOfModule = readClassFiles(analysisContext, classFiles);
+        if (!classesOfModule.isPresent()) {
+            return javaFiles;
+        }
+        String encoding = analysisContext.getModule().getEncoding();
+        Charset charset = encoding == null ? Charset.defaultCharset() : Charset.forName(encoding);
+        List<File> selectedFiles = newArrayList();
+        for (File file : javaFiles) {
+            if (needsToBeParsed(file, charset, classesOfModule.get())) {
+                selectedFiles.add(file);
+            }
+        }
+        logger.debug("{} of {} Java files of {} use type arguments not recorded by the byte code.",
+                selectedFiles.size(), javaFiles.size(), analysisContext.getModule());
+        return selectedFiles;
+    }
+
+    private boolean needsToBeParsed(@Nonnull File file,
+                                    @Nonnull Charset charset,
+                                    @Nonnull ClassesOfModule classesOfModule) {
+        String code;
+        try {
+            code = Files.toString(file, charset);
+        } catch (IOException e) {
+            logger.debug("Failed to read [{}]; it will be analyzed anyway.", file, e);
+            return true;
+        }
+        if (code.contains("\\u") || code.contains("\"\"\"")) {
+            return true; // unicode escapes & text blocks are beyond this simple tokenizer
+        }
+        List<String> tokens = tokenize(code);
+        String packageName = getPackageName(tokens);
+        ClassNames classNames = classesOfModule.classesOfSourceFiles.get(
+                packageName.replace('.', '/') + file.getName());
+        if (classNames == null) {
+            logger.debug("Found no class compiled from [{}]; it will be analyzed.", file);
+            return true;
+        }
+        return usesUnknownTypeArguments(tokens,
+                new KnownNames(packageName, tokens, classNames, classesOfModule.classNames));
+    }
+
+    /**
+     * Examines the given class files, which are read via the {@link FileContents}.
+     *
+     * @return the names of the classes or <code>absent</code> if a class file could not be examined
+     */
+    @Nonnull
+    private Optional<ClassesOfModule> readClassFiles(@Nonnull AnalysisContext analysisContext,
+                                                     @Nonnull List<File> classFiles) {
+        FileContents fileContents = fileContentsFor(analysisContext);
+        ClassesOfModule classesOfModule = new ClassesOfModule();
+        for (File classFile : classFiles) {
+            try {
+                // the facts shared with the ByteCodeAnalyzers aren't used, as those may be read only once per file
+                classesOfModule.add(ClassFacts.read(fileContents.getContentOf(classFile)));
+            } catch (IllegalArgumentException e) {
+                logger.warn("Failed to examine [{}]; all Java files will be examined for type arguments.",
+                        classFile, e);
+                return Optional.absent();
+            } catch (RuntimeException e) {
+                logger.warn("Failed to read [{}]; all Java files will be examined for type arguments.", classFile, e);
+                return Optional.absent();
+            }
+        }
+        return Optional.of(classesOfModule);
+    }
+
+    /**
+     * Reports the type arguments recorded by the signatures of the class.
+     *
+     * @since 2.2.0
+     */
+    @Override
+    protected void analyzeClass(@Nonnull AnalysisContext analysisContext, @Nonnull ClassFacts classFacts) {
+        if (!classFacts.getTypeArguments().isEmpty()) {
+            analysisContext.addDependencies(classFacts.getClassName(), classFacts.getTypeArguments());
+        }
+    }
+
+    @Nonnull
+    @Override
+    public Iterable<String> getFileSuffixes() {
+        return asList(".java", ".class");
+    }
+
+    @Nonnull
     @Override
-    protected void analyzeCompilationUnit(@Nonnull final AnalysisContext analysisContext, @Nonnull final CompilationUnit compilationUnit) {
-        compilationUnit.accept(new TypeParameterRecordingVisitor<Void>() {
+    protected NodeCallbacks createNodeCallbacks(@Nonnull final AnalysisContext analysisContext,
+                                                @Nonnull CompilationUnit compilationUnit) {
+        return new NodeCallbacks() {
             private final Map<String, Set<String>> processedReferences = newHashMap();
 
             @Override
-            public void visit(ClassOrInterfaceType n, Void arg) {
+            protected boolean visit(@Nonnull ClassOrInterfaceType n, @Nonnull Scope scope) {
+                resolveTypeArguments(n, scope);
+                return false; // nested type arguments are resolved recursively
+            }
+
+            private void resolveTypeArguments(@Nonnull ClassOrInterfaceType n, @Nonnull Scope scope) {
                 for (Type type : emptyIfNull(n.getTypeArgs())) {
                     ClassOrInterfaceType referencedType = getReferencedType(type);
                     if (referencedType == null) {
                         continue;
                     }
-                    if (typeParameterWithSameNameIsDefined(referencedType)) {
+                    if (typeParameterWithSameNameIsDefined(referencedType, scope)) {
                         continue;
                     }
                     resolveTypeReference(referencedType);
-                    this.visit(referencedType, arg); // resolve nested type arguments
+                    resolveTypeArguments(referencedType, scope);
                 }
             }
 
+            private boolean typeParameterWithSameNameIsDefined(@Nonnull ClassOrInterfaceType nestedClassOrInterface,
+                                                               @Nonnull Scope scope) {
+                return nestedClassOrInterface.getScope() == null
+                        && scope.hasTypeParameter(nestedClassOrInterface.getName());
+            }
+
             @Nullable
             private ClassOrInterfaceType getReferencedType(@Nonnull Type type) {
                 final Type nestedType;
@@ -114,66 +357,7 @@ public class TypeErasureAnalyzer extends JavaFileAnalyzer {
                 return references.add(getFullQualifier(referencedType));
             }
 
-        }, null);
-    }
-
-    private static class TypeParameterRecordingVisitor<A> extends VoidVisitorAdapter<A> {
-        private final Deque<Set<String>> definedTypeParameters = newLinkedList();
-
-        @Override
-        public void visit(ClassOrInterfaceDeclaration n, A arg) {
-            this.definedTypeParameters.addLast(getTypeParameterNames(n.getTypeParameters()));
-            try {
-                super.visit(n, arg);
-            } finally {
-                this.definedTypeParameters.removeLast();
-            }
-        }
-
-        @Override
-        public void visit(ConstructorDeclaration n, A arg) {
-            this.definedTypeParameters.addLast(getTypeParameterNames(n.getTypeParameters()));
-            try {
-                super.visit(n, arg);
-            } finally {
-                this.definedTypeParameters.removeLast();
-            }
-        }
-
-        @Override
-        public void visit(MethodDeclaration n, A arg) {
-            this.definedTypeParameters.addLast(getTypeParameterNames(n.getTypeParameters()));
-            try {
-                super.visit(n, arg);
-            } finally {
-                this.definedTypeParameters.removeLast();
-            }
-        }
-
-        protected boolean typeParameterWithSameNameIsDefined(@Nonnull ClassOrInterfaceType nestedClassOrInterface) {
-            if (nestedClassOrInterface.getScope() != null) {
-                return false;
-            }
-            for (Set<String> definedTypeNames : this.definedTypeParameters) {
-                if (definedTypeNames.contains(nestedClassOrInterface.getName())) {
-                    return true;
-                }
-            }
-            return false;
-        }
-
-        @Nonnull
-        private Set<String> getTypeParameterNames(@Nullable List<TypeParameter> typeParameters) {
-            if (typeParameters == null) {
-                return emptySet();
-            }
-            Set<String> parameters = newHashSet();
-            for (TypeParameter typeParameter : typeParameters) {
-                parameters.add(typeParameter.getName());
-            }
-            return parameters;
-        }
-
+        };
     }
 
     private static class ClassOrInterfaceTypeQualifier extends Qualifier<ClassOrInterfaceType> {
@@ -213,4 +397,164 @@ public class TypeErasureAnalyzer extends JavaFileAnalyzer {
 
     }
 
+    /**
+     * Converts a class name to the form used within Java code, i.e. nested classes are separated by a dot.
+     */
+    @Nonnull
+    private static String toSourceName(@Nonnull String className) {
+        return className.replace('$', '.');
+    }
+
+    /**
+     * The classes of a module, i.e. those found among the announced class files.
+     */
+    private static final class ClassesOfModule {
+
+        /**
+         * The names of all classes, as used within Java code.
+         */
+        final Set<String> classNames = newHashSet();
+        /**
+         * The classes compiled from each source file, mapped by the path of the source file within its source folder.
+         */
+        final Map<String, ClassNames> classesOfSourceFiles = newHashMap();
+
+        void add(@Nonnull ClassFacts classFacts) {
+            String className = classFacts.getClassName();
+            this.classNames.add(toSourceName(className));
+            String sourceFile = classFacts.getSourceFile();
+            if (sourceFile == null) {
+                return;
+            }
+            String sourcePath = className.substring(0, className.lastIndexOf('.') + 1).replace('.', '/') + sourceFile;
+            ClassNames classNamesOfSourceFile = this.classesOfSourceFiles.get(sourcePath);
+            if (classNamesOfSourceFile == null) {
+                classNamesOfSourceFile = new ClassNames();
+                this.classesOfSourceFiles.put(sourcePath, classNamesOfSourceFile);
+            }
+            classNamesOfSourceFile.add(classFacts);
+        }
+
+    }
+
+    /**
+     * The names known to the classes compiled from a source file, as used within Java code.
+     */
+    private static final class ClassNames {
+
+        /**
+         * The classes compiled from the source file.
+         */
+        final Set<String> declaredClasses = newHashSet();
+        /**
+         * The classes referred to by the byte code, including the type arguments recorded by the signatures.
+         */
+        final Set<String> referencedClasses = newHashSet();
+        final Set<String> typeVariables = newHashSet();
+
+        void add(@Nonnull ClassFacts classFacts) {
+            this.declaredClasses.add(toSourceName(classFacts.getClassName()));
+            for (String referencedClass : concat(classFacts.getReferencedClasses(), classFacts.getTypeArguments())) {
+                this.referencedClasses.add(toSourceName(referencedClass));
+            }
+            this.typeVariables.addAll(classFacts.getTypeVariables());
+        }
+
+    }
+
+    /**
+     * Resolves the names used by a Java file to the classes known to its byte code, by means of the classes it
+     * declares, its imports and its package.
+     */
+    private static final class KnownNames {
+
+        @Nonnull
+        private final String packageName;
+        @Nonnull
+        private final ClassNames classNames;
+        @Nonnull
+        private final Set<String> classesOfModule;
+        private final Map<String, String> singleTypeImports = newHashMap();
+        private final List<String> onDemandImports = newArrayList(singleton("java.lang."));
+
+        KnownNames(@Nonnull String packageName,
+                   @Nonnull List<String> tokens,
+                   @Nonnull ClassNames classNames,
+                   @Nonnull Set<String> classesOfModule) {
+            this.packageName = packageName;
+            this.classNames = classNames;
+            this.classesOfModule = classesOfModule;
+            for (int i = tokens.indexOf("import"); i >= 0 && i < tokens.size() && "import".equals(tokens.get(i)); ) {
+                StringBuilder buffy = new StringBuilder();
+                String token;
+                while (++i < tokens.size() && !";".equals(token = tokens.get(i))) {
+                    if (!"static".equals(token)) {
+                        buffy.append(token);
+                    }
+                }
+                i++;
+                String importedName = buffy.toString();
+                if (importedName.endsWith(".*")) {
+                    this.onDemandImports.add(importedName.substring(0, importedName.length() - 1));
+                } else {
+                    // static imports may refer to member types as well
+                    this.singleTypeImports.put(importedName.substring(importedName.lastIndexOf('.') + 1),
+                            importedName);
+                }
+            }
+        }
+
+        /**
+         * Indicates if the given name - as used within Java code - unambiguously refers to a type variable or to a
+         * class the byte code refers to.
+         */
+        boolean resolves(@Nonnull String name) {
+            int endOfFirstSegment = name.indexOf('.');
+            String firstSegment = endOfFirstSegment < 0 ? name : name.substring(0, endOfFirstSegment);
+            String remainder = endOfFirstSegment < 0 ? "" : name.substring(endOfFirstSegment);
+
+            List<String> declaredOrImportedClasses = newArrayList();
+            for (String declaredClass : this.classNames.declaredClasses) {
+                if (declaredClass.equals(firstSegment) || declaredClass.endsWith("." + firstSegment)) {
+                    declaredOrImportedClasses.add(declaredClass);
+                }
+            }
+            String importedClass = this.singleTypeImports.get(firstSegment);
+            if (importedClass != null) {
+                declaredOrImportedClasses.add(importedClass);
+            }
+            String classOfPackage = this.packageName + firstSegment;
+            boolean packageDeclaresClass = this.classesOfModule.contains(classOfPackage)
+                    || this.classNames.referencedClasses.contains(classOfPackage);
+            if (endOfFirstSegment < 0 && this.classNames.typeVariables.contains(name)) {
+                return declaredOrImportedClasses.isEmpty() && !packageDeclaresClass;
+            }
+
+            if (!declaredOrImportedClasses.isEmpty()) {
+                for (String declaredOrImportedClass : declaredOrImportedClasses) {
+                    if (!isReferenced(declaredOrImportedClass + remainder)) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+            if (packageDeclaresClass) {
+                return isReferenced(classOfPackage + remainder);
+            }
+            // the name is fully qualified or refers to a class imported on demand; javac rejects ambiguous names
+            int numberOfReferencedClasses = endOfFirstSegment >= 0 && isReferenced(name) ? 1 : 0;
+            for (String onDemandImport : this.onDemandImports) {
+                if (isReferenced(onDemandImport + name)) {
+                    numberOfReferencedClasses++;
+                }
+            }
+            return numberOfReferencedClasses == 1;
+        }
+
+        private boolean isReferenced(@Nonnull String className) {
+            return this.classNames.referencedClasses.contains(className);
+        }
+
+    }
+
 }
@@ -1,6 +1,7 @@
 package de.is24.deadcode4j.analyzer;
 
 import de.is24.deadcode4j.AnalysisContext;
+import de.is24.deadcode4j.SelectiveAnalyzer;
 import org.apache.commons.io.IOUtils;
 import org.xml.sax.SAXException;
 import org.xml.sax.helpers.DefaultHandler;
@@ -9,19 +10,20 @@ import javax.annotation.Nonnull;
 import javax.xml.parsers.SAXParser;
 import javax.xml.parsers.SAXParserFactory;
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.InputStream;
 
 import static com.google.common.base.Preconditions.checkArgument;
+import static de.is24.deadcode4j.FileContents.fileContentsFor;
 import static de.is24.deadcode4j.Utils.isNotBlank;
+import static java.util.Collections.singleton;
 
 /**
  * Serves as a base class with which to analyze XML files.
  *
  * @since 1.2.0
  */
-public abstract class XmlAnalyzer extends AnalyzerAdapter {
-    private final SAXParser parser;
+public abstract class XmlAnalyzer extends AnalyzerAdapter implements SelectiveAnalyzer {
+    private final ThreadLocal<SAXParser> parser;
     private final String endOfFileName;
 
     /**
@@ -32,14 +34,27 @@ public abstract class XmlAnalyzer extends AnalyzerAdapter {
      * @since 1.4
      */
     protected XmlAnalyzer(@Nonnull String endOfFileName) {
+        final SAXParserFactory factory = SAXParserFactory.newInstance();
         try {
-            SAXParserFactory factory = SAXParserFactory.newInstance();
             factory.setFeature("http://apache.org/xml/features/nonvalidating/load-external-dtd", false);
             factory.setFeature("http://xml.org/sax/features/namespaces", true);
-            this.parser = factory.newSAXParser();
         } catch (Exception e) {
             throw new RuntimeException("Failed to set up XML parser!", e);
         }
+        // a SAXParser must not be used concurrently, so each thread gets its own
+        this.parser = new ThreadLocal<SAXParser>() {
+            @Override
+            protected SAXParser initialValue() {
+                synchronized (factory) {
+                    try {
+                        return factory.newSAXParser();
+                    } catch (Exception e) {
+                        throw new RuntimeException("Failed to set up XML parser!", e);
+                    }
+                }
+            }
+        };
+        this.parser.get();
         checkArgument(isNotBlank(endOfFileName), "[endOfFileName] must be set!");
         this.endOfFileName = endOfFileName;
     }
@@ -49,6 +64,12 @@ public abstract class XmlAnalyzer extends AnalyzerAdapter {
         return super.toString() + " analyzing [" + endOfFileName + "] files";
     }
 
+    @Nonnull
+    @Override
+    public Iterable<String> getFileSuffixes() {
+        return singleton(this.endOfFileName);
+    }
+
     @Override
     public final void doAnalysis(@Nonnull AnalysisContext analysisContext, @Nonnull File file) {
         if (file.getName().endsWith(endOfFileName)) {
@@ -69,8 +90,8 @@ public abstract class XmlAnalyzer extends AnalyzerAdapter {
     private void analyzeXmlFile(@Nonnull AnalysisContext analysisContext, @Nonnull File file) {
         InputStream in = null;
         try {
-            in = new FileInputStream(file);
-            parser.parse(in, createHandlerFor(analysisContext));
+            in = fileContentsFor(analysisContext).openStream(file);
+            parser.get().parse(in, createHandlerFor(analysisContext));
         } catch (StopParsing command) {
             // just do nothing
         } catch (Exception e) {
@@ -0,0 +1,157 @@
+package de.is24.deadcode4j.analyzer.classfile;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The <code>AnnotationFacts</code> describe an annotation found in a class file: its type and its member values.<br/>
+ * A member value is represented by
+ * <ul>
+ * <li>the boxed primitive or the <code>String</code> for constants</li>
+ * <li>an {@link EnumConstant} for enum constants</li>
+ * <li>a {@link ClassLiteral} for class literals</li>
+ * <li><code>AnnotationFacts</code> for nested annotations</li>
+ * <li>a <code>List</code> of those for arrays</li>
+ * </ul>
+ * Default values are not recorded, as they are defined by the annotation type.
+ *
+ * @see ClassFacts
+ * @since 2.2.0
+ */
+@Immutable
+public final class AnnotationFacts implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+    @Nonnull
+    private final String typeName;
+    @Nonnull
+    private final Map<String, Object> memberValues;
+
+    AnnotationFacts(@Nonnull String typeName, @Nonnull Map<String, Object> memberValues) {
+        this.typeName = typeName;
+        this.memberValues = memberValues.isEmpty()
+                ? Collections.<String, Object>emptyMap() : Collections.unmodifiableMap(memberValues);
+    }
+
+    @Override
+    public String toString() {
+        return "@" + this.typeName + this.memberValues;
+    }
+
+    /**
+     * Returns the fully qualified name of the annotation type.
+     *
+     * @since 2.2.0
+     */
+    @Nonnull
+    public String getTypeName() {
+        return this.typeName;
+    }
+
+    /**
+     * Returns the names of the members for which a value is specified.
+     *
+     * @since 2.2.0
+     */
+    @Nonnull
+    public Set<String> getMemberNames() {
+        return this.memberValues.keySet();
+    }
+
+    /**
+     * Returns the value specified for the given member.
+     *
+     * @return the member value or <code>null</code> if no value is specified
+     * @since 2.2.0
+     */
+    @Nullable
+    public Object getMemberValue(@Nonnull String memberName) {
+        return this.memberValues.get(memberName);
+    }
+
+    /**
+     * Represents an enum constant used as annotation member value.
+     *
+     * @since 2.2.0
+     */
+    @Immutable
+    public static final class EnumConstant implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+        @Nonnull
+        private final String typeName;
+        @Nonnull
+        private final String constantName;
+
+        EnumConstant(@Nonnull String typeName, @Nonnull String constantName) {
+            this.typeName = typeName;
+            this.constantName = constantName;
+        }
+
+        @Override
+        public String toString() {
+            return this.typeName + "." + this.constantName;
+        }
+
+        /**
+         * Returns the fully qualified name of the enum type.
+         *
+         * @since 2.2.0
+         */
+        @Nonnull
+        public String getTypeName() {
+            return this.typeName;
+        }
+
+        /**
+         * Returns the name of the enum constant.
+         *
+         * @since 2.2.0
+         */
+        @Nonnull
+        public String getConstantName() {
+            return this.constantName;
+        }
+
+    }
+
+    /**
+     * Represents a class literal used as annotation member value.
+     *
+     * @since 2.2.0
+     */
+    @Immutable
+    public static final class ClassLiteral implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+        @Nonnull
+        private final String descriptor;
+
+        ClassLiteral(@Nonnull String descriptor) {
+            this.descriptor = descriptor;
+        }
+
+        @Override
+        public String toString() {
+            return this.descriptor + ".class";
+        }
+
+        /**
+         * Returns the descriptor of the class, e.g. <code>Ljava/lang/String;</code>, <code>[I</code> or
+         * <code>V</code>.
+         *
+         * @since 2.2.0
+         */
+        @Nonnull
+        public String getDescriptor() {
+            return this.descriptor;
+        }
+
+    }
+
+}
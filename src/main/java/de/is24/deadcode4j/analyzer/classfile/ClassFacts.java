@@ -0,0 +1,480 @@
+package de.is24.deadcode4j.analyzer.classfile;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+import java.io.Serializable;
+import java.lang.annotation.ElementType;
+import java.nio.ByteBuffer;
+import java.util.*;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static com.google.common.collect.Lists.newArrayListWithCapacity;
+import static com.google.common.collect.Maps.newLinkedHashMap;
+import static com.google.common.collect.Sets.newHashSet;
+import static java.util.Arrays.asList;
+
+/**
+ * The <code>ClassFacts</code> comprise everything the {@link de.is24.deadcode4j.analyzer.ByteCodeAnalyzer}s need to
+ * know about a class: its name, access flags, superclass & interfaces, its annotations and those of its members, the
+ * classes it refers to, the type arguments its signatures record, the constants it declares and whether it has a
+ * <code>main</code> method.<br/>
+ * The facts are extracted in one pass streaming over the class file's bytes - no object graph is created for the
+ * class: the {@link ClassFileHeader} provides name, access flags & supertypes, the walk of the {@link ClassReferences}
+ * provides the classes referred to and is extended to collect the annotations, signatures & constants along the way. Being immutable &
+ * serializable, the facts can be shared by threads and stored on disk.
+ *
+ * @since 2.2.0
+ */
+@Immutable
+public final class ClassFacts implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+    private static final int ACC_PUBLIC = 0x0001;
+    private static final int ACC_PRIVATE = 0x0002;
+    private static final int ACC_STATIC = 0x0008;
+    private static final int ACC_INTERFACE = 0x0200;
+    private static final int ACC_ABSTRACT = 0x0400;
+    private static final int ACC_ANNOTATION = 0x2000;
+    private static final int ACC_ENUM = 0x4000;
+    @Nonnull
+    private final String className;
+    private final int accessFlags;
+    @Nullable
+    private final String superclass;
+    @Nonnull
+    private final List<String> interfaces;
+    @Nonnull
+    private final List<AnnotationFacts> annotations;
+    @Nonnull
+    private final List<AnnotationFacts> fieldAnnotations;
+    @Nonnull
+    private final List<AnnotationFacts> methodAnnotations;
+    @Nonnull
+    private final Set<String> referencedClasses;
+    @Nonnull
+    private final Set<String> typeArguments;
+    @Nonnull
+    private final Set<String> typeVariables;
+    @Nullable
+    private final String sourceFile;
+    @Nonnull
+    private final List<String> nonPrivateConstants;
+    private final boolean mainMethod;
+
+    private ClassFacts(@Nonnull ClassFileHeader header, @Nonnull Reader reader) {
+        this.className = header.getClassName();
+        this.accessFlags = header.getAccessFlags();
+        this.superclass = header.getSuperclass();
+        this.interfaces = header.getInterfaces();
+        this.annotations = unmodifiable(reader.annotations);
+        this.fieldAnnotations = unmodifiable(reader.fieldAnnotations);
+        this.methodAnnotations = unmodifiable(reader.methodAnnotations);
+        this.referencedClasses = Collections.unmodifiableSet(reader.referencedClasses);
+        this.typeArguments = unmodifiable(reader.typeArguments);
+        this.typeVariables = unmodifiable(reader.typeVariables);
+        this.sourceFile = reader.sourceFile;
+        this.nonPrivateConstants = unmodifiable(reader.nonPrivateConstants);
+        this.mainMethod = reader.mainMethod;
+    }
+
+    /**
+     * Extracts the facts of the given class file. The buffer's position is not modified.
+     *
+     * @throws IllegalArgumentException if the buffer doesn't contain a (well-formed) class file
+     * @since 2.2.0
+     */
+    @Nonnull
+    public static ClassFacts read(@Nonnull ByteBuffer classFile) {
+        return of(ConstantPool.read(classFile));
+    }
+
+    /**
+     * Extracts the facts of the class file the given constant pool belongs to.
+     *
+     * @throws IllegalArgumentException if the class file is malformed
+     * @since 2.2.0
+     */
+    @Nonnull
+    public static ClassFacts of(@Nonnull ConstantPool constantPool) {
+        ClassFileHeader header = ClassFileHeader.of(constantPool);
+        Reader reader = new Reader(constantPool);
+        reader.read(header);
+        return new ClassFacts(header, reader);
+    }
+
+    @Nonnull
+    private static <T> List<T> unmodifiable(@Nonnull List<T> list) {
+        return list.isEmpty() ? Collections.<T>emptyList() : Collections.unmodifiableList(list);
+    }
+
+    @Nonnull
+    private static <T> Set<T> unmodifiable(@Nonnull Set<T> set) {
+        return set.isEmpty() ? Collections.<T>emptySet() : Collections.unmodifiableSet(set);
+    }
+
+    @Override
+    public String toString() {
+        return "ClassFacts of " + this.className;
+    }
+
+    /**
+     * Returns the fully qualified name of the class.
+     *
+     * @since 2.2.0
+     */
+    @Nonnull
+    public String getClassName() {
+        return this.className;
+    }
+
+    /**
+     * Indicates if the class represents a <code>package-info</code>.
+     *
+     * @since 2.2.0
+     */
+    public boolean isPackageInfo() {
+        return this.className.endsWith("package-info");
+    }
+
+    /**
+     * Returns the access flags of the class file, as defined by the JVM specification.
+     *
+     * @since 2.2.0
+     */
+    public int getAccessFlags() {
+        return this.accessFlags;
+    }
+
+    /**
+     * Indicates if the class is an interface (or an annotation).
+     *
+     * @since 2.2.0
+     */
+    public boolean isInterface() {
+        return (this.accessFlags & ACC_INTERFACE) != 0;
+    }
+
+    /**
+     * Indicates if the class is abstract (or an interface).
+     *
+     * @since 2.2.0
+     */
+    public boolean isAbstract() {
+        return (this.accessFlags & ACC_ABSTRACT) != 0;
+    }
+
+    /**
+     * Indicates if the class is an annotation.
+     *
+     * @since 2.2.0
+     */
+    public boolean isAnnotation() {
+        return (this.accessFlags & ACC_ANNOTATION) != 0;
+    }
+
+    /**
+     * Indicates if the class is an enum.
+     *
+     * @since 2.2.0
+     */
+    public boolean isEnum() {
+        return (this.accessFlags & ACC_ENUM) != 0;
+    }
+
+    /**
+     * Returns the fully qualified name of the superclass; <code>null</code> for <code>java.lang.Object</code>.
+     *
+     * @since 2.2.0
+     */
+    @Nullable
+    public String getSuperclass() {
+        return this.superclass;
+    }
+
+    /**
+     * Returns the fully qualified names of the interfaces the class directly implements (or extends, if it is an
+     * interface itself).
+     *
+     * @since 2.2.0
+     */
+    @Nonnull
+    public List<String> getInterfaces() {
+        return this.interfaces;
+    }
+
+    /**
+     * Returns the class-level annotations (or package-level annotations, if the class represents a
+     * <code>package-info</code>).
+     *
+     * @since 2.2.0
+     */
+    @Nonnull
+    public List<AnnotationFacts> getAnnotations() {
+        return this.annotations;
+    }
+
+    /**
+     * Returns the annotations of the declared fields.
+     *
+     * @since 2.2.0
+     */
+    @Nonnull
+    public List<AnnotationFacts> getFieldAnnotations() {
+        return this.fieldAnnotations;
+    }
+
+    /**
+     * Returns the annotations of the declared methods; those of constructors & static initializers are not included.
+     *
+     * @since 2.2.0
+     */
+    @Nonnull
+    public List<AnnotationFacts> getMethodAnnotations() {
+        return this.methodAnnotations;
+    }
+
+    /**
+     * Returns the annotations of the package/class and its members (if requested).
+     *
+     * @param elementTypes indicates which annotations to retrieve; {@link ElementType#PACKAGE} refers to the
+     *                     annotations of a <code>package-info</code>, {@link ElementType#TYPE} to those of any other
+     *                     class
+     * @since 2.2.0
+     */
+    @Nonnull
+    public List<AnnotationFacts> getAnnotations(@Nonnull ElementType... elementTypes) {
+        List<ElementType> types = asList(elementTypes);
+        List<AnnotationFacts> requestedAnnotations = newArrayList();
+        if (types.contains(isPackageInfo() ? ElementType.PACKAGE : ElementType.TYPE)) {
+            requestedAnnotations.addAll(this.annotations);
+        }
+        if (types.contains(ElementType.METHOD)) {
+            requestedAnnotations.addAll(this.methodAnnotations);
+        }
+        if (types.contains(ElementType.FIELD)) {
+            requestedAnnotations.addAll(this.fieldAnnotations);
+        }
+        return requestedAnnotations;
+    }
+
+    /**
+     * Returns the fully qualified names of all classes the class refers to - including the class itself.
+     *
+     * @see ClassReferences
+     * @since 2.2.0
+     */
+    @Nonnull
+    public Set<String> getReferencedClasses() {
+        return this.referencedClasses;
+    }
+
+    /**
+     * Returns the fully qualified names of the classes the generic signatures of the class, its members & local
+     * variables use as type arguments - at any nesting level, as bound of a wildcard or as component type of an array.
+     * Those classes are usually not referred to otherwise, due to type erasure.
+     *
+     * @see <a href="https://docs.oracle.com/javase/specs/jvms/se8/html/jvms-4.html#jvms-4.7.9.1">Signatures</a>
+     * @since 2.2.0
+     */
+    @Nonnull
+    public Set<String> getTypeArguments() {
+        return this.typeArguments;
+    }
+
+    /**
+     * Returns the names of the type variables the generic signatures declare or refer to.
+     *
+     * @since 2.2.0
+     */
+    @Nonnull
+    public Set<String> getTypeVariables() {
+        return this.typeVariables;
+    }
+
+    /**
+     * Returns the name of the source file the class was compiled from (without any path, like <tt>Foo.java</tt>);
+     * <code>null</code> if the class file doesn't record it.
+     *
+     * @since 2.2.0
+     */
+    @Nullable
+    public String getSourceFile() {
+        return this.sourceFile;
+    }
+
+    /**
+     * Returns the names of the compile-time constants the class declares, i.e. of the fields having a
+     * <code>ConstantValue</code> attribute. As javac inlines those constants, the byte code of the classes using them
+     * doesn't refer to them. Private constants are not included: those can only be used by the class itself and its
+     * nested classes, which refer to each other anyway.
+     *
+     * @see <a href="https://docs.oracle.com/javase/specs/jvms/se8/html/jvms-4.html#jvms-4.7.2">The ConstantValue
+     * Attribute</a>
+     * @since 2.2.0
+     */
+    @Nonnull
+    public List<String> getNonPrivateConstants() {
+        return this.nonPrivateConstants;
+    }
+
+    /**
+     * Indicates if the class declares a <code>public static void main(String[])</code> method.
+     *
+     * @since 2.2.0
+     */
+    public boolean hasMainMethod() {
+        return this.mainMethod;
+    }
+
+    /**
+     * Extends the walk of the {@link ClassReferences} to collect the annotations, signatures & constants and to look
+     * for a main method.
+     */
+    private static final class Reader extends ClassReferences {
+
+        final List<AnnotationFacts> annotations = newArrayList();
+        final List<AnnotationFacts> fieldAnnotations = newArrayList();
+        final List<AnnotationFacts> methodAnnotations = newArrayList();
+        final Set<String> typeArguments = newHashSet();
+        final Set<String> typeVariables = newHashSet();
+        final List<String> nonPrivateConstants = newArrayList();
+        String sourceFile;
+        boolean mainMethod;
+        @Nullable
+        private GenericSignatures genericSignatures;
+        @Nullable
+        private boolean[] examinedSignatures;
+        @Nullable
+        private List<AnnotationFacts> annotationsOfElement;
+        private int accessFlagsOfField;
+        private int nameIndexOfField;
+
+        Reader(@Nonnull ConstantPool constantPool) {
+            super(constantPool);
+        }
+
+        @Override
+        void examineMember(boolean isMethod, int accessFlags, int nameIndex, int descriptorIndex) {
+            if (!isMethod) {
+                this.annotationsOfElement = this.fieldAnnotations;
+                this.accessFlagsOfField = accessFlags;
+                this.nameIndexOfField = nameIndex;
+                return;
+            }
+            this.nameIndexOfField = 0;
+            if (this.constantPool.utf8Equals(nameIndex, "main")
+                    && this.constantPool.utf8Equals(descriptorIndex, "([Ljava/lang/String;)V")
+                    && (accessFlags & (ACC_PUBLIC | ACC_STATIC)) == (ACC_PUBLIC | ACC_STATIC)) {
+                this.mainMethod = true;
+            }
+            boolean initializer = this.constantPool.utf8Equals(nameIndex, "<init>")
+                    || this.constantPool.utf8Equals(nameIndex, "<clinit>");
+            this.annotationsOfElement = initializer ? null : this.methodAnnotations;
+        }
+
+        @Override
+        void examineConstantValue() {
+            // only fields may have a constant value
+            if (this.nameIndexOfField != 0 && (this.accessFlagsOfField & ACC_PRIVATE) == 0) {
+                this.nonPrivateConstants.add(this.constantPool.getUtf8(this.nameIndexOfField));
+            }
+        }
+
+        @Override
+        void examineSignature(int utf8Index) {
+            if (this.genericSignatures == null) {
+                this.genericSignatures = new GenericSignatures(this.typeArguments, this.typeVariables);
+                this.examinedSignatures = new boolean[this.constantPool.size()];
+            }
+            if (!this.examinedSignatures[utf8Index]) {
+                this.examinedSignatures[utf8Index] = true;
+                this.genericSignatures.parse(this.constantPool.getUtf8(utf8Index));
+            }
+        }
+
+        @Override
+        void examineSourceFile(int utf8Index) {
+            this.sourceFile = this.constantPool.getUtf8(utf8Index);
+        }
+
+        @Override
+        void examineClassAttributes() {
+            this.annotationsOfElement = this.annotations;
+            this.nameIndexOfField = 0;
+        }
+
+        @Override
+        void examineDeclaredAnnotation() {
+            AnnotationFacts annotation = readAnnotation();
+            if (this.annotationsOfElement != null) {
+                this.annotationsOfElement.add(annotation);
+            }
+        }
+
+        @Nonnull
+        private AnnotationFacts readAnnotation() {
+            int typeIndex = readU2();
+            addTypesOfDescriptor(typeIndex);
+            Map<String, Object> memberValues = newLinkedHashMap();
+            for (int i = readU2(); i > 0; i--) {
+                String memberName = this.constantPool.getUtf8(readU2());
+                memberValues.put(memberName, readElementValue());
+            }
+            return new AnnotationFacts(toClassName(this.constantPool.getUtf8(typeIndex)), memberValues);
+        }
+
+        @Nonnull
+        private Object readElementValue() {
+            int tag = readU1();
+            switch (tag) {
+                case 'B':
+                    return (byte) this.constantPool.getInteger(readU2());
+                case 'C':
+                    return (char) this.constantPool.getInteger(readU2());
+                case 'S':
+                    return (short) this.constantPool.getInteger(readU2());
+                case 'Z':
+                    return this.constantPool.getInteger(readU2()) != 0;
+                case 'I':
+                    return this.constantPool.getInteger(readU2());
+                case 'J':
+                    return this.constantPool.getLong(readU2());
+                case 'F':
+                    return this.constantPool.getFloat(readU2());
+                case 'D':
+                    return this.constantPool.getDouble(readU2());
+                case 's':
+                    return this.constantPool.getUtf8(readU2());
+                case 'e':
+                    int typeIndex = readU2();
+                    addTypesOfDescriptor(typeIndex);
+                    return new AnnotationFacts.EnumConstant(toClassName(this.constantPool.getUtf8(typeIndex)),
+                            this.constantPool.getUtf8(readU2()));
+                case 'c':
+                    int classIndex = readU2();
+                    addTypesOfDescriptor(classIndex);
+                    return new AnnotationFacts.ClassLiteral(this.constantPool.getUtf8(classIndex));
+                case '@':
+                    return readAnnotation();
+                case '[':
+                    int numberOfValues = readU2();
+                    List<Object> values = newArrayListWithCapacity(numberOfValues);
+                    for (int i = 0; i < numberOfValues; i++) {
+                        values.add(readElementValue());
+                    }
+                    return Collections.unmodifiableList(values);
+                default:
+                    throw new IllegalArgumentException("Unknown tag [" + (char) tag + "] of annotation member value!");
+            }
+        }
+
+        @Nonnull
+        private String toClassName(@Nonnull String descriptor) {
+            // L<class name>;
+            return descriptor.substring(1, descriptor.length() - 1).replace('/', '.');
+        }
+
+    }
+
+}
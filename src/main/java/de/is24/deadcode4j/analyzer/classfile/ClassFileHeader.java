@@ -0,0 +1,168 @@
+package de.is24.deadcode4j.analyzer.classfile;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+import java.nio.ByteBuffer;
+import java.util.Collections;
+import java.util.List;
+
+import static com.google.common.collect.Lists.newArrayListWithCapacity;
+
+/**
+ * The <code>ClassFileHeader</code> describes what can be learned from a class file by reading its constant pool and
+ * the few bytes following it: the class' name & access flags, its superclass, the interfaces it implements directly and whether it
+ * may carry annotations at all. No attributes are parsed, so reading the header is much cheaper than extracting the
+ * {@link ClassFacts}; it serves to reject classes that cannot be of interest for an analyzer.
+ *
+ * @see de.is24.deadcode4j.analyzer.ByteCodeAnalyzer#preAnalyzeClass
+ * @since 2.2.0
+ */
+@Immutable
+public final class ClassFileHeader {
+
+    private static final String JAVA_LANG_OBJECT = "java.lang.Object";
+    @Nonnull
+    private final String className;
+    private final int accessFlags;
+    @Nullable
+    private final String superclass;
+    @Nonnull
+    private final List<String> interfaces;
+    private final boolean annotationsPresent;
+
+    private ClassFileHeader(@Nonnull String className,
+                            int accessFlags,
+                            @Nullable String superclass,
+                            @Nonnull List<String> interfaces,
+                            boolean annotationsPresent) {
+        this.className = className;
+        this.accessFlags = accessFlags;
+        this.superclass = superclass;
+        this.interfaces = interfaces;
+        this.annotationsPresent = annotationsPresent;
+    }
+
+    /**
+     * Reads the header of the given class file. The buffer's position is not modified.
+     *
+     * @throws IllegalArgumentException if the buffer doesn't contain a class file
+     * @since 2.2.0
+     */
+    @Nonnull
+    public static ClassFileHeader read(@Nonnull ByteBuffer classFile) {
+        return of(ConstantPool.read(classFile));
+    }
+
+    /**
+     * Reads the header of the class file the given constant pool belongs to.
+     *
+     * @throws IllegalArgumentException if the class file is malformed
+     * @since 2.2.0
+     */
+    @Nonnull
+    public static ClassFileHeader of(@Nonnull ConstantPool constantPool) {
+        ByteBuffer buffer = constantPool.getClassFile();
+        try {
+            buffer.position(constantPool.getEndOfPool());
+            int accessFlags = buffer.getShort() & 0xFFFF;
+            String className = constantPool.getClassName(buffer.getShort() & 0xFFFF);
+            int superclassIndex = buffer.getShort() & 0xFFFF;
+            String superclass = superclassIndex == 0 ? null : constantPool.getClassName(superclassIndex);
+            int numberOfInterfaces = buffer.getShort() & 0xFFFF;
+            List<String> interfaces;
+            if (numberOfInterfaces == 0) {
+                interfaces = Collections.emptyList();
+            } else {
+                interfaces = newArrayListWithCapacity(numberOfInterfaces);
+                for (int i = 0; i < numberOfInterfaces; i++) {
+                    interfaces.add(constantPool.getClassName(buffer.getShort() & 0xFFFF));
+                }
+                interfaces = Collections.unmodifiableList(interfaces);
+            }
+            boolean annotationsPresent = constantPool.containsUtf8("RuntimeVisibleAnnotations")
+                    || constantPool.containsUtf8("RuntimeInvisibleAnnotations");
+            return new ClassFileHeader(className, accessFlags, superclass, interfaces, annotationsPresent);
+        } catch (RuntimeException e) {
+            if (e instanceof IllegalArgumentException) {
+                throw e;
+            }
+            throw new IllegalArgumentException("Malformed class file!", e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "ClassFileHeader of " + this.className;
+    }
+
+    /**
+     * Returns the fully qualified name of the class.
+     *
+     * @since 2.2.0
+     */
+    @Nonnull
+    public String getClassName() {
+        return this.className;
+    }
+
+    /**
+     * Returns the access flags of the class file, as defined by the JVM specification.
+     *
+     * @since 2.2.0
+     */
+    public int getAccessFlags() {
+        return this.accessFlags;
+    }
+
+    /**
+     * Returns the fully qualified name of the superclass; <code>null</code> for <code>java.lang.Object</code> and
+     * <code>module-info</code>.
+     *
+     * @since 2.2.0
+     */
+    @Nullable
+    public String getSuperclass() {
+        return this.superclass;
+    }
+
+    /**
+     * Returns the fully qualified names of the interfaces the class directly implements (or extends, if it is an
+     * interface itself).
+     *
+     * @since 2.2.0
+     */
+    @Nonnull
+    public List<String> getInterfaces() {
+        return this.interfaces;
+    }
+
+    /**
+     * Indicates if the class has a superclass besides <code>java.lang.Object</code>.
+     *
+     * @since 2.2.0
+     */
+    public boolean hasSuperclass() {
+        return this.superclass != null && !JAVA_LANG_OBJECT.equals(this.superclass);
+    }
+
+    /**
+     * Indicates if the class has any supertype besides <code>java.lang.Object</code>.
+     *
+     * @since 2.2.0
+     */
+    public boolean hasSupertypes() {
+        return hasSuperclass() || !this.interfaces.isEmpty();
+    }
+
+    /**
+     * Indicates if the class or any of its members may carry annotations (of retention <code>CLASS</code> or
+     * <code>RUNTIME</code>). If this returns <code>false</code>, there are no annotations for sure.
+     *
+     * @since 2.2.0
+     */
+    public boolean mayCarryAnnotations() {
+        return this.annotationsPresent;
+    }
+
+}
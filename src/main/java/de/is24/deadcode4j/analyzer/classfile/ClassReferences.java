@@ -0,0 +1,356 @@
+package de.is24.deadcode4j.analyzer.classfile;
+
+import javax.annotation.Nonnull;
+import java.nio.ByteBuffer;
+import java.util.Set;
+
+import static com.google.common.collect.Sets.newHashSet;
+import static de.is24.deadcode4j.analyzer.classfile.ConstantPool.*;
+
+/**
+ * Extracts the classes a class file refers to by streaming over the raw bytes - no object graph is created for the
+ * class. The references are the same {@link javassist.CtClass#getRefClasses()} reports:
+ * <ul>
+ * <li>the classes referred to by the constant pool, including the types of the referenced fields & methods</li>
+ * <li>the types of the declared fields & methods</li>
+ * <li>the types of annotations, of annotation values referring to enums & classes - for the class, its members,
+ * their parameters and type annotations</li>
+ * </ul>
+ * The walk over the class file is shared with {@link ClassFacts}, which hooks into it to collect further facts along
+ * the way.
+ *
+ * @since 2.2.0
+ */
+public class ClassReferences {
+
+    private static final byte UNKNOWN_ATTRIBUTE = 0;
+    private static final byte OTHER_ATTRIBUTE = 1;
+    private static final byte ANNOTATIONS = 2;
+    private static final byte PARAMETER_ANNOTATIONS = 3;
+    private static final byte TYPE_ANNOTATIONS = 4;
+    private static final byte CODE = 5;
+    private static final byte CONSTANT_VALUE = 6;
+    private static final byte SIGNATURE = 7;
+    private static final byte LOCAL_VARIABLE_TYPE_TABLE = 8;
+    private static final byte SOURCE_FILE = 9;
+
+    @Nonnull
+    final ConstantPool constantPool;
+    @Nonnull
+    final Set<String> referencedClasses = newHashSet();
+    @Nonnull
+    private final ByteBuffer buffer;
+    @Nonnull
+    private final boolean[] examinedEntries;
+    @Nonnull
+    private final byte[] attributeTypes;
+
+    ClassReferences(@Nonnull ConstantPool constantPool) {
+        this.constantPool = constantPool;
+        this.buffer = constantPool.getClassFile();
+        this.examinedEntries = new boolean[constantPool.size()];
+        this.attributeTypes = new byte[constantPool.size()];
+    }
+
+    /**
+     * Returns the fully qualified names of all classes the given class file refers to - including the class itself.
+     *
+     * @throws IllegalArgumentException if the buffer doesn't contain a class file
+     * @since 2.2.0
+     */
+    @Nonnull
+    public static Set<String> of(@Nonnull ByteBuffer classFile) {
+        return of(ConstantPool.read(classFile));
+    }
+
+    /**
+     * Returns the fully qualified names of all classes the class file of the given constant pool refers to -
+     * including the class itself.
+     *
+     * @throws IllegalArgumentException if the class file is malformed
+     * @since 2.2.0
+     */
+    @Nonnull
+    public static Set<String> of(@Nonnull ConstantPool constantPool) {
+        ClassReferences classReferences = new ClassReferences(constantPool);
+        classReferences.read(ClassFileHeader.of(constantPool));
+        return classReferences.referencedClasses;
+    }
+
+    /**
+     * Walks over the class file the given header was read from.
+     *
+     * @throws IllegalArgumentException if the class file is malformed
+     */
+    final void read(@Nonnull ClassFileHeader header) {
+        try {
+            examineConstantPool();
+            // access flags, this & super class, interfaces
+            this.buffer.position(this.constantPool.getEndOfPool() + 8 + 2 * header.getInterfaces().size());
+            examineMembers(false); // fields
+            examineMembers(true); // methods
+            examineClassAttributes();
+            examineAttributes();
+        } catch (RuntimeException e) {
+            if (e instanceof IllegalArgumentException) {
+                throw e;
+            }
+            throw new IllegalArgumentException("Malformed class file!", e);
+        }
+    }
+
+    /**
+     * Is called for each field & method before its attributes are examined. Does nothing by default.
+     */
+    void examineMember(boolean isMethod, int accessFlags, int nameIndex, int descriptorIndex) {
+    }
+
+    /**
+     * Is called before the attributes of the class are examined. Does nothing by default.
+     */
+    void examineClassAttributes() {
+    }
+
+    /**
+     * Is called for the <code>ConstantValue</code> attribute of the field examined last. Does nothing by default.
+     */
+    void examineConstantValue() {
+    }
+
+    /**
+     * Is called for each generic signature of the class, its members & local variables. Does nothing by default.
+     *
+     * @param utf8Index the index of the signature within the constant pool; signatures are shared by all elements
+     *                  having the same one
+     */
+    void examineSignature(int utf8Index) {
+    }
+
+    /**
+     * Is called for the <code>SourceFile</code> attribute of the class. Does nothing by default.
+     */
+    void examineSourceFile(int utf8Index) {
+    }
+
+    /**
+     * Examines an annotation of the class or of the member examined last; parameter & type annotations are not
+     * passed to this method. Must consume the annotation's bytes.
+     */
+    void examineDeclaredAnnotation() {
+        examineAnnotation();
+    }
+
+    private void examineConstantPool() {
+        for (int i = 1; i < this.constantPool.size(); i++) {
+            switch (this.constantPool.getTag(i)) {
+                case CONSTANT_CLASS:
+                    addTypesOf(this.constantPool.getIndex(i, 0), true);
+                    break;
+                case CONSTANT_NAME_AND_TYPE:
+                    addTypesOfDescriptor(this.constantPool.getIndex(i, 2));
+                    break;
+                case CONSTANT_METHOD_TYPE:
+                    addTypesOfDescriptor(this.constantPool.getIndex(i, 0));
+                    break;
+                default:
+            }
+        }
+    }
+
+    private void examineMembers(boolean isMethod) {
+        for (int i = readU2(); i > 0; i--) {
+            int accessFlags = readU2();
+            int nameIndex = readU2();
+            int descriptorIndex = readU2();
+            addTypesOfDescriptor(descriptorIndex);
+            examineMember(isMethod, accessFlags, nameIndex, descriptorIndex);
+            examineAttributes();
+        }
+    }
+
+    private void examineAttributes() {
+        for (int i = readU2(); i > 0; i--) {
+            int nameIndex = readU2();
+            int length = this.buffer.getInt();
+            int endOfAttribute = this.buffer.position() + length;
+            switch (getAttributeType(nameIndex)) {
+                case ANNOTATIONS:
+                    for (int annotations = readU2(); annotations > 0; annotations--) {
+                        examineDeclaredAnnotation();
+                    }
+                    break;
+                case PARAMETER_ANNOTATIONS:
+                    for (int parameters = readU1(); parameters > 0; parameters--) {
+                        examineAnnotations();
+                    }
+                    break;
+                case TYPE_ANNOTATIONS:
+                    examineTypeAnnotations();
+                    break;
+                case CODE:
+                    skip(4); // max stack & max locals
+                    skip(this.buffer.getInt()); // byte code
+                    skip(8 * readU2()); // exception table
+                    examineAttributes();
+                    break;
+                case CONSTANT_VALUE:
+                    examineConstantValue();
+                    break;
+                case SIGNATURE:
+                    examineSignature(readU2());
+                    break;
+                case LOCAL_VARIABLE_TYPE_TABLE:
+                    for (int entries = readU2(); entries > 0; entries--) {
+                        skip(6); // start, length & name
+                        examineSignature(readU2());
+                        skip(2); // index
+                    }
+                    break;
+                case SOURCE_FILE:
+                    examineSourceFile(readU2());
+                    break;
+                default:
+            }
+            this.buffer.position(endOfAttribute);
+        }
+    }
+
+    private byte getAttributeType(int nameIndex) {
+        byte attributeType = this.attributeTypes[nameIndex];
+        if (attributeType != UNKNOWN_ATTRIBUTE) {
+            return attributeType;
+        }
+        if (this.constantPool.utf8Equals(nameIndex, "Code")) {
+            attributeType = CODE;
+        } else if (this.constantPool.utf8Equals(nameIndex, "RuntimeVisibleAnnotations")
+                || this.constantPool.utf8Equals(nameIndex, "RuntimeInvisibleAnnotations")) {
+            attributeType = ANNOTATIONS;
+        } else if (this.constantPool.utf8Equals(nameIndex, "RuntimeVisibleParameterAnnotations")
+                || this.constantPool.utf8Equals(nameIndex, "RuntimeInvisibleParameterAnnotations")) {
+            attributeType = PARAMETER_ANNOTATIONS;
+        } else if (this.constantPool.utf8Equals(nameIndex, "RuntimeVisibleTypeAnnotations")
+                || this.constantPool.utf8Equals(nameIndex, "RuntimeInvisibleTypeAnnotations")) {
+            attributeType = TYPE_ANNOTATIONS;
+        } else if (this.constantPool.utf8Equals(nameIndex, "ConstantValue")) {
+            attributeType = CONSTANT_VALUE;
+        } else if (this.constantPool.utf8Equals(nameIndex, "Signature")) {
+            attributeType = SIGNATURE;
+        } else if (this.constantPool.utf8Equals(nameIndex, "LocalVariableTypeTable")) {
+            attributeType = LOCAL_VARIABLE_TYPE_TABLE;
+        } else if (this.constantPool.utf8Equals(nameIndex, "SourceFile")) {
+            attributeType = SOURCE_FILE;
+        } else {
+            attributeType = OTHER_ATTRIBUTE;
+        }
+        this.attributeTypes[nameIndex] = attributeType;
+        return attributeType;
+    }
+
+    private void examineAnnotations() {
+        for (int i = readU2(); i > 0; i--) {
+            examineAnnotation();
+        }
+    }
+
+    private void examineTypeAnnotations() {
+        for (int i = readU2(); i > 0; i--) {
+            skipTargetInfo(readU1());
+            skip(2 * readU1()); // type path
+            examineAnnotation();
+        }
+    }
+
+    private void skipTargetInfo(int targetType) {
+        switch (targetType) {
+            case 0x00: // type parameter of class or interface
+            case 0x01: // type parameter of method
+            case 0x16: // formal parameter
+                skip(1);
+                break;
+            case 0x10: // supertype
+            case 0x11: // type parameter bound of class or interface
+            case 0x12: // type parameter bound of method
+            case 0x17: // throws clause
+            case 0x42: // catch clause
+            case 0x43: // instanceof expression
+            case 0x44: // new expression
+            case 0x45: // constructor reference
+            case 0x46: // method reference
+                skip(2);
+                break;
+            case 0x13: // field
+            case 0x14: // return type
+            case 0x15: // receiver type
+                break;
+            case 0x40: // local variable
+            case 0x41: // resource variable
+                skip(6 * readU2());
+                break;
+            case 0x47: // cast expression
+            case 0x48: // argument of constructor invocation
+            case 0x49: // argument of method invocation
+            case 0x4A: // argument of constructor reference
+            case 0x4B: // argument of method reference
+                skip(3);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown target type [" + targetType + "] of type annotation!");
+        }
+    }
+
+    private void examineAnnotation() {
+        addTypesOfDescriptor(readU2());
+        for (int i = readU2(); i > 0; i--) {
+            skip(2); // element name
+            examineElementValue();
+        }
+    }
+
+    private void examineElementValue() {
+        int tag = readU1();
+        switch (tag) {
+            case 'e':
+                addTypesOfDescriptor(readU2());
+                skip(2); // constant name
+                break;
+            case 'c':
+                addTypesOfDescriptor(readU2());
+                break;
+            case '@':
+                examineAnnotation();
+                break;
+            case '[':
+                for (int i = readU2(); i > 0; i--) {
+                    examineElementValue();
+                }
+                break;
+            default:
+                skip(2); // constant value
+        }
+    }
+
+    final void addTypesOfDescriptor(int utf8Index) {
+        addTypesOf(utf8Index, false);
+    }
+
+    private void addTypesOf(int utf8Index, boolean isClassName) {
+        // descriptors are shared by the constant pool entries & the members referring to them
+        if (!this.examinedEntries[utf8Index]) {
+            this.examinedEntries[utf8Index] = true;
+            this.constantPool.addClassNamesOf(utf8Index, isClassName, this.referencedClasses);
+        }
+    }
+
+    final int readU1() {
+        return this.buffer.get() & 0xFF;
+    }
+
+    final int readU2() {
+        return this.buffer.getShort() & 0xFFFF;
+    }
+
+    private void skip(int numberOfBytes) {
+        this.buffer.position(this.buffer.position() + numberOfBytes);
+    }
+
+}
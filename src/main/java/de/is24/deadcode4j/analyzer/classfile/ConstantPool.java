@@ -0,0 +1,333 @@
+package de.is24.deadcode4j.analyzer.classfile;
+
+import javax.annotation.Nonnull;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Collection;
+
+/**
+ * The <code>ConstantPool</code> provides access to the constant pool of a class file without creating an object graph:
+ * reading the pool merely records the tag and position of each entry; an entry's content is decoded only when it is
+ * requested.<br/>
+ * The instance refers to the buffer it was read from, so it must not be used any more once that buffer is reused.
+ *
+ * @see <a href="https://docs.oracle.com/javase/specs/jvms/se8/html/jvms-4.html#jvms-4.4">The Constant Pool</a>
+ * @since 2.2.0
+ */
+public final class ConstantPool {
+
+    public static final byte CONSTANT_UTF8 = 1;
+    public static final byte CONSTANT_INTEGER = 3;
+    public static final byte CONSTANT_FLOAT = 4;
+    public static final byte CONSTANT_LONG = 5;
+    public static final byte CONSTANT_DOUBLE = 6;
+    public static final byte CONSTANT_CLASS = 7;
+    public static final byte CONSTANT_STRING = 8;
+    public static final byte CONSTANT_FIELD_REF = 9;
+    public static final byte CONSTANT_METHOD_REF = 10;
+    public static final byte CONSTANT_INTERFACE_METHOD_REF = 11;
+    public static final byte CONSTANT_NAME_AND_TYPE = 12;
+    public static final byte CONSTANT_METHOD_HANDLE = 15;
+    public static final byte CONSTANT_METHOD_TYPE = 16;
+    public static final byte CONSTANT_DYNAMIC = 17;
+    public static final byte CONSTANT_INVOKE_DYNAMIC = 18;
+    public static final byte CONSTANT_MODULE = 19;
+    public static final byte CONSTANT_PACKAGE = 20;
+    private static final int MAGIC = 0xCAFEBABE;
+    @Nonnull
+    private final ByteBuffer classFile;
+    @Nonnull
+    private final byte[] tags;
+    @Nonnull
+    private final int[] offsets;
+    private final int endOfPool;
+
+    private ConstantPool(@Nonnull ByteBuffer classFile, @Nonnull byte[] tags, @Nonnull int[] offsets, int endOfPool) {
+        this.classFile = classFile;
+        this.tags = tags;
+        this.offsets = offsets;
+        this.endOfPool = endOfPool;
+    }
+
+    /**
+     * Reads the constant pool of the given class file. The buffer's position is not modified.
+     *
+     * @throws IllegalArgumentException if the buffer doesn't contain a class file
+     * @since 2.2.0
+     */
+    @Nonnull
+    public static ConstantPool read(@Nonnull ByteBuffer classFile) {
+        ByteBuffer buffer = classFile.duplicate().order(ByteOrder.BIG_ENDIAN);
+        int start = buffer.position();
+        try {
+            if (buffer.getInt() != MAGIC) {
+                throw new IllegalArgumentException("Not a class file!");
+            }
+            buffer.position(buffer.position() + 4); // minor & major version
+            int poolSize = buffer.getShort() & 0xFFFF;
+            byte[] tags = new byte[poolSize];
+            int[] offsets = new int[poolSize];
+            for (int i = 1; i < poolSize; i++) {
+                byte tag = buffer.get();
+                tags[i] = tag;
+                offsets[i] = buffer.position() - start;
+                buffer.position(buffer.position() + getLengthOfEntry(tag, buffer));
+                if (tag == CONSTANT_LONG || tag == CONSTANT_DOUBLE) {
+                    i++; // those take two slots
+                }
+            }
+            return new ConstantPool(classFile.duplicate().order(ByteOrder.BIG_ENDIAN).slice(), tags, offsets,
+                    buffer.position() - start);
+        } catch (RuntimeException e) {
+            if (e instanceof IllegalArgumentException) {
+                throw e;
+            }
+            throw new IllegalArgumentException("Malformed class file!", e);
+        }
+    }
+
+    private static int getLengthOfEntry(byte tag, @Nonnull ByteBuffer buffer) {
+        switch (tag) {
+            case CONSTANT_UTF8:
+                return 2 + (buffer.getShort(buffer.position()) & 0xFFFF);
+            case CONSTANT_CLASS:
+            case CONSTANT_STRING:
+            case CONSTANT_METHOD_TYPE:
+            case CONSTANT_MODULE:
+            case CONSTANT_PACKAGE:
+                return 2;
+            case CONSTANT_METHOD_HANDLE:
+                return 3;
+            case CONSTANT_INTEGER:
+            case CONSTANT_FLOAT:
+            case CONSTANT_FIELD_REF:
+            case CONSTANT_METHOD_REF:
+            case CONSTANT_INTERFACE_METHOD_REF:
+            case CONSTANT_NAME_AND_TYPE:
+            case CONSTANT_DYNAMIC:
+            case CONSTANT_INVOKE_DYNAMIC:
+                return 4;
+            case CONSTANT_LONG:
+            case CONSTANT_DOUBLE:
+                return 8;
+            default:
+                throw new IllegalArgumentException("Unknown constant pool tag [" + tag + "]!");
+        }
+    }
+
+    /**
+     * Returns the number of slots of the constant pool; as slot <code>0</code> is unused, this is one more than the
+     * number of entries (not counting the second slot taken by <code>long</code> & <code>double</code> constants).
+     *
+     * @since 2.2.0
+     */
+    public int size() {
+        return this.tags.length;
+    }
+
+    /**
+     * Returns the tag of the given entry; <code>0</code> for unused slots.
+     *
+     * @since 2.2.0
+     */
+    public byte getTag(int index) {
+        return this.tags[index];
+    }
+
+    /**
+     * Returns the position of the first byte following the constant pool, relative to the start of the class file.
+     * This is where the access flags are stored.
+     *
+     * @since 2.2.0
+     */
+    public int getEndOfPool() {
+        return this.endOfPool;
+    }
+
+    /**
+     * Returns a buffer positioned at the start of the class file; it can be used to read beyond the constant pool.
+     *
+     * @since 2.2.0
+     */
+    @Nonnull
+    public ByteBuffer getClassFile() {
+        return this.classFile.duplicate().order(ByteOrder.BIG_ENDIAN);
+    }
+
+    /**
+     * Returns the index stored at the given offset of the given entry, e.g. the name index of a
+     * <code>CONSTANT_Class</code> entry (offset <code>0</code>) or the descriptor index of a
+     * <code>CONSTANT_NameAndType</code> entry (offset <code>2</code>).
+     *
+     * @since 2.2.0
+     */
+    public int getIndex(int index, int offset) {
+        return this.classFile.getShort(this.offsets[index] + offset) & 0xFFFF;
+    }
+
+    /**
+     * Returns the string stored by the given <code>CONSTANT_Utf8</code> entry.
+     *
+     * @since 2.2.0
+     */
+    @Nonnull
+    public String getUtf8(int index) {
+        checkTag(index, CONSTANT_UTF8);
+        int offset = this.offsets[index];
+        int length = this.classFile.getShort(offset) & 0xFFFF;
+        return decodeModifiedUtf8(offset + 2, length, false);
+    }
+
+    /**
+     * Returns the value of the given <code>CONSTANT_Integer</code> entry.
+     *
+     * @since 2.2.0
+     */
+    public int getInteger(int index) {
+        checkTag(index, CONSTANT_INTEGER);
+        return this.classFile.getInt(this.offsets[index]);
+    }
+
+    /**
+     * Returns the value of the given <code>CONSTANT_Float</code> entry.
+     *
+     * @since 2.2.0
+     */
+    public float getFloat(int index) {
+        checkTag(index, CONSTANT_FLOAT);
+        return this.classFile.getFloat(this.offsets[index]);
+    }
+
+    /**
+     * Returns the value of the given <code>CONSTANT_Long</code> entry.
+     *
+     * @since 2.2.0
+     */
+    public long getLong(int index) {
+        checkTag(index, CONSTANT_LONG);
+        return this.classFile.getLong(this.offsets[index]);
+    }
+
+    /**
+     * Returns the value of the given <code>CONSTANT_Double</code> entry.
+     *
+     * @since 2.2.0
+     */
+    public double getDouble(int index) {
+        checkTag(index, CONSTANT_DOUBLE);
+        return this.classFile.getDouble(this.offsets[index]);
+    }
+
+    /**
+     * Indicates if the given <code>CONSTANT_Utf8</code> entry stores exactly the given ASCII string. This comparison
+     * doesn't decode the entry.
+     *
+     * @since 2.2.0
+     */
+    public boolean utf8Equals(int index, @Nonnull String asciiString) {
+        if (this.tags[index] != CONSTANT_UTF8) {
+            return false;
+        }
+        int offset = this.offsets[index];
+        int length = this.classFile.getShort(offset) & 0xFFFF;
+        if (length != asciiString.length()) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (this.classFile.get(offset + 2 + i) != asciiString.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Indicates if the constant pool contains a <code>CONSTANT_Utf8</code> entry storing exactly the given ASCII
+     * string.
+     *
+     * @since 2.2.0
+     */
+    public boolean containsUtf8(@Nonnull String asciiString) {
+        for (int i = 1; i < this.tags.length; i++) {
+            if (utf8Equals(i, asciiString)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the fully qualified name of the class referenced by the given <code>CONSTANT_Class</code> entry, using
+     * dots as package separator. For array classes, the raw descriptor (like <code>[Ljava/lang/String;</code>) is
+     * returned.
+     *
+     * @since 2.2.0
+     */
+    @Nonnull
+    public String getClassName(int index) {
+        checkTag(index, CONSTANT_CLASS);
+        return getUtf8(getIndex(index, 0)).replace('/', '.');
+    }
+
+    /**
+     * Adds the class names referred to by the given <code>CONSTANT_Utf8</code> entry to the given collection, using
+     * dots as package separator. The entry is either a field or method descriptor, or - if <code>isClassName</code>
+     * - the name stored by a <code>CONSTANT_Class</code> entry, which may be an array descriptor.<br/>
+     * The entry is scanned without being decoded as a whole.
+     */
+    void addClassNamesOf(int index, boolean isClassName, @Nonnull Collection<String> classNames) {
+        checkTag(index, CONSTANT_UTF8);
+        int offset = this.offsets[index];
+        int start = offset + 2;
+        int end = start + (this.classFile.getShort(offset) & 0xFFFF);
+        if (isClassName && this.classFile.get(start) != '[') {
+            classNames.add(decodeModifiedUtf8(start, end - start, true));
+            return;
+        }
+        // 'L' & ';' never occur within a multi-byte character
+        int i = start;
+        while (i < end) {
+            if (this.classFile.get(i++) != 'L') {
+                continue;
+            }
+            int nameStart = i;
+            while (i < end && this.classFile.get(i) != ';') {
+                i++;
+            }
+            if (i == end) {
+                return;
+            }
+            classNames.add(decodeModifiedUtf8(nameStart, i - nameStart, true));
+            i++;
+        }
+    }
+
+    private void checkTag(int index, byte expectedTag) {
+        if (this.tags[index] != expectedTag) {
+            throw new IllegalArgumentException("Constant pool entry #" + index + " has tag [" + this.tags[index]
+                    + "] instead of [" + expectedTag + "]!");
+        }
+    }
+
+    @Nonnull
+    private String decodeModifiedUtf8(int offset, int length, boolean replaceSlashes) {
+        char[] chars = new char[length];
+        int numberOfChars = 0;
+        int end = offset + length;
+        int i = offset;
+        while (i < end) {
+            int b = this.classFile.get(i++) & 0xFF;
+            if (b < 0x80) {
+                chars[numberOfChars++] = replaceSlashes && b == '/' ? '.' : (char) b;
+            } else if ((b & 0xE0) == 0xC0) {
+                chars[numberOfChars++] = (char) (((b & 0x1F) << 6) | (this.classFile.get(i++) & 0x3F));
+            } else {
+                int b2 = this.classFile.get(i++) & 0x3F;
+                int b3 = this.classFile.get(i++) & 0x3F;
+                chars[numberOfChars++] = (char) (((b & 0x0F) << 12) | (b2 << 6) | b3);
+            }
+        }
+        return new String(chars, 0, numberOfChars);
+    }
+
+}
@@ -0,0 +1,125 @@
+package de.is24.deadcode4j.analyzer.classfile;
+
+import javax.annotation.Nonnull;
+import java.util.Set;
+
+/**
+ * Parses the generic signatures of a class file to collect the classes used as type arguments - the references type
+ * erasure removes from the constant pool & descriptors. Those are recorded by the <code>Signature</code> attributes of
+ * the class, its fields & methods and - if the class was compiled with <tt>-g</tt> - by the
+ * <code>LocalVariableTypeTable</code> attributes of its methods' code; the walk of the {@link ClassReferences} passes
+ * them on to this parser.<br/>
+ * Type arguments used within expressions only, like <code>new ArrayList&lt;Foo&gt;()</code> or casts, are not
+ * recorded by the class file at all.
+ *
+ * @see <a href="https://docs.oracle.com/javase/specs/jvms/se8/html/jvms-4.html#jvms-4.7.9.1">Signatures</a>
+ * @since 2.2.0
+ */
+final class GenericSignatures {
+
+    @Nonnull
+    private final Set<String> typeArguments;
+    @Nonnull
+    private final Set<String> typeVariables;
+    private String signature;
+    private int position;
+
+    /**
+     * Creates a parser adding the fully qualified names of the type arguments & the names of the type variables to
+     * the given sets.
+     */
+    GenericSignatures(@Nonnull Set<String> typeArguments, @Nonnull Set<String> typeVariables) {
+        this.typeArguments = typeArguments;
+        this.typeVariables = typeVariables;
+    }
+
+    /**
+     * Parses a class, field or method signature; its parts are examined regardless of their position, as the type
+     * parameters, parameters, return type & exceptions of a method signature simply follow each other.
+     *
+     * @throws IllegalArgumentException if the signature is malformed
+     */
+    void parse(@Nonnull String signature) {
+        this.signature = signature;
+        this.position = 0;
+        try {
+            if (peek() == '<') {
+                examineTypeParameters();
+            }
+            while (this.position < this.signature.length()) {
+                char c = peek();
+                if (c == '(' || c == ')' || c == '^') {
+                    this.position++;
+                } else {
+                    examineType(false);
+                }
+            }
+        } catch (IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Malformed signature [" + signature + "]!", e);
+        }
+    }
+
+    private void examineTypeParameters() {
+        this.position++;
+        while (peek() != '>') {
+            int endOfName = this.signature.indexOf(':', this.position);
+            this.typeVariables.add(this.signature.substring(this.position, endOfName));
+            this.position = endOfName;
+            while (peek() == ':') {
+                this.position++;
+                if (peek() != ':' && peek() != '>') {
+                    examineType(false); // the class bound may be omitted
+                }
+            }
+        }
+        this.position++;
+    }
+
+    private void examineType(boolean isTypeArgument) {
+        char c = this.signature.charAt(this.position++);
+        switch (c) {
+            case 'L':
+                examineClassType(isTypeArgument);
+                break;
+            case 'T':
+                int endOfName = this.signature.indexOf(';', this.position);
+                this.typeVariables.add(this.signature.substring(this.position, endOfName));
+                this.position = endOfName + 1;
+                break;
+            case '[':
+            case '+':
+            case '-':
+                examineType(isTypeArgument);
+                break;
+            default:
+                // base type or unbounded wildcard
+        }
+    }
+
+    private void examineClassType(boolean isTypeArgument) {
+        StringBuilder buffy = new StringBuilder();
+        for (; ; ) {
+            char c = this.signature.charAt(this.position++);
+            if (c == ';') {
+                break;
+            } else if (c == '<') {
+                while (peek() != '>') {
+                    examineType(true);
+                }
+                this.position++;
+            } else if (c == '.') {
+                buffy.append('$'); // the simple name of a nested class follows
+            } else {
+                buffy.append(c == '/' ? '.' : c);
+            }
+        }
+        if (isTypeArgument) {
+            this.typeArguments.add(buffy.toString());
+        }
+    }
+
+    private char peek() {
+        return this.position < this.signature.length() ? this.signature.charAt(this.position) : 0;
+    }
+
+}
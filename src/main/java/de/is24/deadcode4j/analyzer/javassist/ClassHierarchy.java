@@ -0,0 +1,339 @@
+package de.is24.deadcode4j.analyzer.javassist;
+
+import com.google.common.base.Optional;
+import de.is24.deadcode4j.AnalysisContext;
+import de.is24.deadcode4j.analyzer.classfile.ClassFacts;
+import de.is24.guava.NonNullFunction;
+import javassist.CtClass;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.*;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static com.google.common.collect.Maps.newHashMap;
+import static com.google.common.collect.Sets.newHashSet;
+import static com.google.common.collect.Sets.newLinkedHashSet;
+import static de.is24.deadcode4j.analyzer.javassist.ClassPoolAccessor.classPoolAccessorFor;
+import static java.util.Collections.unmodifiableList;
+import static java.util.Collections.unmodifiableSet;
+
+/**
+ * The <code>ClassHierarchy</code> provides the superclasses, the implemented interfaces and all supertypes of a class,
+ * based on the {@link ClassMetadata} provided by the {@link ClassPoolAccessor}.<br/>
+ * Each type is examined only once: the results are memoized and computed from the memoized results of the direct
+ * supertypes, so examining a class costs a few lookups instead of a walk up the whole class hierarchy. The same holds
+ * for the meta-annotations of an annotation.<br/>
+ * Like the <code>ClassPoolAccessor</code>, an instance is meant to be used by one thread only.
+ *
+ * @since 2.2.0
+ */
+public final class ClassHierarchy {
+    @Nonnull
+    private static final NonNullFunction<AnalysisContext, ClassHierarchy> SUPPLIER = new NonNullFunction<AnalysisContext, ClassHierarchy>() {
+        @Nonnull
+        @Override
+        public ClassHierarchy apply(@Nonnull AnalysisContext input) {
+            return new ClassHierarchy(classPoolAccessorFor(input));
+        }
+    };
+    private static final String JAVA_LANG_OBJECT = "java.lang.Object";
+    private static final Set<String> DEAD_ENDS = newHashSet(
+            "java.lang.annotation.Documented",
+            "java.lang.annotation.Inherited",
+            "java.lang.annotation.Retention",
+            "java.lang.annotation.Target");
+    @Nonnull
+    private final ClassPoolAccessor classPoolAccessor;
+    @Nonnull
+    private final Map<String, Optional<ClassMetadata>> classMetadata = newHashMap();
+    @Nonnull
+    private final Map<String, List<String>> superclasses = newHashMap();
+    @Nonnull
+    private final Map<String, Set<String>> interfaces = newHashMap();
+    @Nonnull
+    private final Map<String, List<String>> supertypes = newHashMap();
+    @Nonnull
+    private final Map<String, Set<String>> annotationClosures = newHashMap();
+    @Nonnull
+    private final Set<String> typesInProgress = newHashSet();
+
+    public ClassHierarchy(@Nonnull ClassPoolAccessor classPoolAccessor) {
+        this.classPoolAccessor = classPoolAccessor;
+    }
+
+    /**
+     * Creates or retrieves the <code>ClassHierarchy</code> for the given analysis context.<br/>
+     * A new instance will be put in the analysis context's cache and subsequently retrieved from there.
+     *
+     * @since 2.2.0
+     */
+    @Nonnull
+    public static ClassHierarchy classHierarchyFor(@Nonnull AnalysisContext analysisContext) {
+        return analysisContext.getOrCreateCacheEntry(ClassHierarchy.class, SUPPLIER);
+    }
+
+    /**
+     * Returns the metadata of the given class.
+     *
+     * @return the metadata or <code>null</code> if the class cannot be found
+     * @see ClassPoolAccessor#getClassMetadata(String)
+     * @since 2.2.0
+     */
+    @Nullable
+    public ClassMetadata getClassMetadata(@Nonnull String className) {
+        Optional<ClassMetadata> metadata = this.classMetadata.get(className);
+        if (metadata == null) {
+            metadata = Optional.fromNullable(this.classPoolAccessor.getClassMetadata(className));
+            this.classMetadata.put(className, metadata);
+        }
+        return metadata.orNull();
+    }
+
+    /**
+     * Returns the superclasses of the given class, starting with the direct superclass. The list ends with
+     * <code>java.lang.Object</code> - or with the first superclass that cannot be found.
+     *
+     * @since 2.2.0
+     */
+    @Nonnull
+    public List<String> getSuperclassesOf(@Nonnull CtClass clazz) {
+        return getSuperclassesOf(register(clazz));
+    }
+
+    /**
+     * Returns the superclasses of the given class, starting with the direct superclass. The list ends with
+     * <code>java.lang.Object</code> - or with the first superclass that cannot be found.
+     *
+     * @since 2.2.0
+     */
+    @Nonnull
+    public List<String> getSuperclassesOf(@Nonnull ClassFacts classFacts) {
+        return getSuperclassesOf(register(classFacts));
+    }
+
+    /**
+     * Returns the superclasses of the given class, starting with the direct superclass. The list ends with
+     * <code>java.lang.Object</code> - or with the first superclass that cannot be found.
+     *
+     * @since 2.2.0
+     */
+    @Nonnull
+    public List<String> getSuperclassesOf(@Nonnull String className) {
+        List<String> superclassesOfClass = this.superclasses.get(className);
+        if (superclassesOfClass != null) {
+            return superclassesOfClass;
+        }
+        ClassMetadata metadata = getClassMetadata(className);
+        if (metadata == null || metadata.getSuperclass() == null || !this.typesInProgress.add(className)) {
+            return Collections.emptyList();
+        }
+        try {
+            String superclass = metadata.getSuperclass();
+            List<String> superclassesOfSuperclass = JAVA_LANG_OBJECT.equals(superclass)
+                    ? Collections.<String>emptyList() : getSuperclassesOf(superclass);
+            superclassesOfClass = newArrayList();
+            superclassesOfClass.add(superclass);
+            superclassesOfClass.addAll(superclassesOfSuperclass);
+            superclassesOfClass = unmodifiableList(superclassesOfClass);
+            this.superclasses.put(className, superclassesOfClass);
+            return superclassesOfClass;
+        } finally {
+            this.typesInProgress.remove(className);
+        }
+    }
+
+    /**
+     * Returns all interfaces the given class implements - either directly, via superclass or via interface
+     * inheritance.
+     *
+     * @since 2.2.0
+     */
+    @Nonnull
+    public Set<String> getAllInterfacesOf(@Nonnull CtClass clazz) {
+        return getAllInterfacesOf(register(clazz));
+    }
+
+    /**
+     * Returns all interfaces the given class implements - either directly, via superclass or via interface
+     * inheritance.
+     *
+     * @since 2.2.0
+     */
+    @Nonnull
+    public Set<String> getAllInterfacesOf(@Nonnull ClassFacts classFacts) {
+        return getAllInterfacesOf(register(classFacts));
+    }
+
+    /**
+     * Returns all interfaces the given class implements - either directly, via superclass or via interface
+     * inheritance.
+     *
+     * @since 2.2.0
+     */
+    @Nonnull
+    public Set<String> getAllInterfacesOf(@Nonnull String className) {
+        Set<String> interfacesOfClass = this.interfaces.get(className);
+        if (interfacesOfClass != null) {
+            return interfacesOfClass;
+        }
+        ClassMetadata metadata = getClassMetadata(className);
+        if (metadata == null || !this.typesInProgress.add(className)) {
+            return Collections.emptySet();
+        }
+        try {
+            interfacesOfClass = newHashSet();
+            for (String anInterface : metadata.getInterfaces()) {
+                interfacesOfClass.add(anInterface);
+                interfacesOfClass.addAll(getAllInterfacesOf(anInterface));
+            }
+            String superclass = metadata.getSuperclass();
+            if (superclass != null && !JAVA_LANG_OBJECT.equals(superclass)) {
+                interfacesOfClass.addAll(getAllInterfacesOf(superclass));
+            }
+            interfacesOfClass = interfacesOfClass.isEmpty()
+                    ? Collections.<String>emptySet() : unmodifiableSet(interfacesOfClass);
+            this.interfaces.put(className, interfacesOfClass);
+            return interfacesOfClass;
+        } finally {
+            this.typesInProgress.remove(className);
+        }
+    }
+
+    /**
+     * Returns all supertypes of the given class that can be found, except for <code>java.lang.Object</code>. The
+     * supertypes are listed in depth-first order, examining the superclass before the interfaces.
+     *
+     * @since 2.2.0
+     */
+    @Nonnull
+    public List<String> getSupertypesOf(@Nonnull CtClass clazz) {
+        return getSupertypesOf(register(clazz));
+    }
+
+    /**
+     * Returns all supertypes of the given class that can be found, except for <code>java.lang.Object</code>. The
+     * supertypes are listed in depth-first order, examining the superclass before the interfaces.
+     *
+     * @since 2.2.0
+     */
+    @Nonnull
+    public List<String> getSupertypesOf(@Nonnull String className) {
+        List<String> supertypesOfClass = this.supertypes.get(className);
+        if (supertypesOfClass != null) {
+            return supertypesOfClass;
+        }
+        ClassMetadata metadata = getClassMetadata(className);
+        if (metadata == null || !this.typesInProgress.add(className)) {
+            return Collections.emptyList();
+        }
+        try {
+            List<String> directSupertypes = newArrayList();
+            if (metadata.getSuperclass() != null) {
+                directSupertypes.add(metadata.getSuperclass());
+            }
+            directSupertypes.addAll(metadata.getInterfaces());
+            Set<String> allSupertypes = newLinkedHashSet();
+            for (String supertype : directSupertypes) {
+                if (JAVA_LANG_OBJECT.equals(supertype) || getClassMetadata(supertype) == null) {
+                    continue;
+                }
+                allSupertypes.add(supertype);
+                allSupertypes.addAll(getSupertypesOf(supertype));
+            }
+            supertypesOfClass = allSupertypes.isEmpty()
+                    ? Collections.<String>emptyList() : unmodifiableList(newArrayList(allSupertypes));
+            this.supertypes.put(className, supertypesOfClass);
+            return supertypesOfClass;
+        } finally {
+            this.typesInProgress.remove(className);
+        }
+    }
+
+    /**
+     * Indicates if the given class extends or implements any of the given types.
+     *
+     * @since 2.2.0
+     */
+    public boolean isSubtypeOfAny(@Nonnull CtClass clazz, @Nonnull Collection<String> types) {
+        return isSubtypeOfAny(register(clazz), types);
+    }
+
+    /**
+     * Indicates if the given class extends or implements any of the given types.
+     *
+     * @since 2.2.0
+     */
+    public boolean isSubtypeOfAny(@Nonnull String className, @Nonnull Collection<String> types) {
+        Set<String> interfacesOfClass = getAllInterfacesOf(className);
+        List<String> superclassesOfClass = getSuperclassesOf(className);
+        for (String type : types) {
+            if (interfacesOfClass.contains(type) || superclassesOfClass.contains(type)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the given annotation along with all annotations it is annotated with - directly or via other
+     * annotations. The annotations of the <code>java.lang.annotation</code> package used to define annotations (like
+     * <code>@Retention</code>) are included, but not examined any further.
+     *
+     * @since 2.2.0
+     */
+    @Nonnull
+    public Set<String> getAnnotationClosureOf(@Nonnull String annotation) {
+        Set<String> closure = this.annotationClosures.get(annotation);
+        if (closure != null) {
+            return closure;
+        }
+        // annotations may be cyclic (think of @Documented), so only completed closures are memoized & reused
+        closure = newHashSet();
+        Deque<String> annotationsToExamine = new ArrayDeque<String>();
+        annotationsToExamine.add(annotation);
+        while (!annotationsToExamine.isEmpty()) {
+            String annotationToExamine = annotationsToExamine.poll();
+            if (!closure.add(annotationToExamine) || DEAD_ENDS.contains(annotationToExamine)) {
+                continue;
+            }
+            Set<String> knownClosure = this.annotationClosures.get(annotationToExamine);
+            if (knownClosure != null) {
+                closure.addAll(knownClosure);
+                continue;
+            }
+            ClassMetadata metadata = getClassMetadata(annotationToExamine);
+            if (metadata != null) {
+                annotationsToExamine.addAll(metadata.getAnnotations());
+            }
+        }
+        closure = unmodifiableSet(closure);
+        this.annotationClosures.put(annotation, closure);
+        return closure;
+    }
+
+    /**
+     * Registers the metadata of a class that is already loaded, so it needn't be looked up again.
+     */
+    @Nonnull
+    private String register(@Nonnull CtClass clazz) {
+        String className = clazz.getName();
+        if (!this.classMetadata.containsKey(className)) {
+            this.classMetadata.put(className, Optional.of(ClassMetadata.of(clazz.getClassFile2())));
+        }
+        return className;
+    }
+
+    /**
+     * Registers the metadata of a class that has already been examined, so it needn't be looked up again.
+     */
+    @Nonnull
+    private String register(@Nonnull ClassFacts classFacts) {
+        String className = classFacts.getClassName();
+        if (!this.classMetadata.containsKey(className)) {
+            this.classMetadata.put(className, Optional.of(ClassMetadata.of(classFacts)));
+        }
+        return className;
+    }
+
+}
@@ -0,0 +1,150 @@
+package de.is24.deadcode4j.analyzer.javassist;
+
+import de.is24.deadcode4j.analyzer.classfile.AnnotationFacts;
+import de.is24.deadcode4j.analyzer.classfile.ClassFacts;
+import javassist.bytecode.AnnotationsAttribute;
+import javassist.bytecode.AttributeInfo;
+import javassist.bytecode.ClassFile;
+import javassist.bytecode.annotation.Annotation;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+import java.util.Collections;
+import java.util.List;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static java.util.Arrays.asList;
+
+/**
+ * The <code>ClassMetadata</code> describe the type hierarchy of a class: its superclass, the interfaces it implements
+ * directly and its class-level annotations. This is everything needed to examine the hierarchy of a class without
+ * loading it as a {@link javassist.CtClass}.
+ *
+ * @see JarIndex
+ * @since 2.2.0
+ */
+@Immutable
+public final class ClassMetadata {
+
+    private static final String INHERITED = "java.lang.annotation.Inherited";
+    @Nonnull
+    private final String className;
+    @Nullable
+    private final String superclass;
+    @Nonnull
+    private final List<String> interfaces;
+    @Nonnull
+    private final List<String> annotations;
+    private final boolean inheritedAnnotation;
+
+    ClassMetadata(@Nonnull String className,
+                  @Nullable String superclass,
+                  @Nonnull List<String> interfaces,
+                  @Nonnull List<String> annotations,
+                  boolean inheritedAnnotation) {
+        this.className = className;
+        this.superclass = superclass;
+        this.interfaces = Collections.unmodifiableList(interfaces);
+        this.annotations = Collections.unmodifiableList(annotations);
+        this.inheritedAnnotation = inheritedAnnotation;
+    }
+
+    /**
+     * Extracts the metadata of the given class file.
+     *
+     * @since 2.2.0
+     */
+    @Nonnull
+    public static ClassMetadata of(@Nonnull ClassFile classFile) {
+        List<String> annotations = newArrayList();
+        for (Object attribute : classFile.getAttributes()) {
+            if (AnnotationsAttribute.class.isInstance(attribute)) {
+                for (Annotation annotation : AnnotationsAttribute.class.cast(attribute).getAnnotations()) {
+                    annotations.add(annotation.getTypeName());
+                }
+            }
+        }
+        String className = classFile.getName();
+        return new ClassMetadata(className,
+                "java.lang.Object".equals(className) ? null : classFile.getSuperclass(),
+                asList(classFile.getInterfaces()),
+                annotations,
+                annotations.contains(INHERITED));
+    }
+
+    /**
+     * Extracts the metadata of the given class facts.
+     *
+     * @since 2.2.0
+     */
+    @Nonnull
+    public static ClassMetadata of(@Nonnull ClassFacts classFacts) {
+        List<String> annotations = newArrayList();
+        for (AnnotationFacts annotation : classFacts.getAnnotations()) {
+            annotations.add(annotation.getTypeName());
+        }
+        return new ClassMetadata(classFacts.getClassName(),
+                classFacts.getSuperclass(),
+                classFacts.getInterfaces(),
+                annotations,
+                annotations.contains(INHERITED));
+    }
+
+    @Override
+    public String toString() {
+        return "ClassMetadata of " + this.className;
+    }
+
+    /**
+     * Returns the fully qualified name of the class.
+     *
+     * @since 2.2.0
+     */
+    @Nonnull
+    public String getClassName() {
+        return this.className;
+    }
+
+    /**
+     * Returns the fully qualified name of the superclass; <code>null</code> for <code>java.lang.Object</code>.
+     *
+     * @since 2.2.0
+     */
+    @Nullable
+    public String getSuperclass() {
+        return this.superclass;
+    }
+
+    /**
+     * Returns the fully qualified names of the interfaces the class directly implements (or extends, if it is an
+     * interface itself).
+     *
+     * @since 2.2.0
+     */
+    @Nonnull
+    public List<String> getInterfaces() {
+        return this.interfaces;
+    }
+
+    /**
+     * Returns the fully qualified names of the class-level annotations (or package-level annotations, if the class
+     * represents a <code>package-info</code>).
+     *
+     * @since 2.2.0
+     */
+    @Nonnull
+    public List<String> getAnnotations() {
+        return this.annotations;
+    }
+
+    /**
+     * Indicates if the class is an annotation marked as {@link java.lang.annotation.Inherited}.
+     *
+     * @since 2.2.0
+     */
+    public boolean isInheritedAnnotation() {
+        return this.inheritedAnnotation;
+    }
+
+}
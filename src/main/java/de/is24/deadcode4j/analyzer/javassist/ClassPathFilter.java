@@ -2,7 +2,6 @@ package de.is24.deadcode4j.analyzer.javassist;
 
 import de.is24.deadcode4j.AnalysisContext;
 import de.is24.guava.NonNullFunction;
-import javassist.ClassPool;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -37,10 +36,10 @@ public class ClassPathFilter implements NonNullFunction<AnalysisContext, Set<Str
     @Nonnull
     @Override
     public Set<String> apply(@Nonnull AnalysisContext input) {
-        ClassPool classPool = classPoolAccessorFor(input).getClassPool();
+        ClassPoolAccessor classPoolAccessor = classPoolAccessorFor(input);
         Set<String> knownClasses = newHashSet();
         for (String className : this.classes) {
-            if (classPool.find(className) != null) {
+            if (classPoolAccessor.containsClass(className)) {
                 knownClasses.add(className);
             }
         }
@@ -0,0 +1,386 @@
+package de.is24.deadcode4j.analyzer.javassist;
+
+import de.is24.deadcode4j.AnalysisContext;
+import javassist.ClassPath;
+import org.apache.commons.io.IOUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+import java.io.*;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+
+import static com.google.common.collect.Sets.newHashSet;
+
+/**
+ * The <code>ClassPathRegistry</code> provides one Javassist {@link javassist.ClassPath} for each jar file or directory
+ * of the whole project. Each {@link javassist.ClassPool} set up by the {@link ClassPoolAccessor} of a module uses those
+ * shared instances, so a jar referenced by several modules is opened &amp; indexed only once.<br/>
+ * The entries of a jar file are indexed upon its first access - using the {@link JarIndexStore} if there is one, in
+ * which case a jar file is only opened if a class is actually loaded from it. At most
+ * {@link #DEFAULT_MAX_OPEN_JAR_FILES} jar files are kept open at any time, the least recently used one is closed if
+ * another one needs to be opened.
+ *
+ * @since 2.2.0
+ */
+@ThreadSafe
+public final class ClassPathRegistry implements Closeable {
+
+    /**
+     * The default number of jar files kept open at the same time.
+     *
+     * @since 2.2.0
+     */
+    public static final int DEFAULT_MAX_OPEN_JAR_FILES = 16;
+    @Nonnull
+    private final Logger logger = LoggerFactory.getLogger(getClass());
+    @Nonnull
+    private final ConcurrentMap<File, ClassPath> classPaths = new ConcurrentHashMap<File, ClassPath>();
+    @Nonnull
+    @GuardedBy("itself")
+    private final Map<JarClassPath, Boolean> openJarFiles = new LinkedHashMap<JarClassPath, Boolean>(16, 0.75f, true);
+    private final int maxOpenJarFiles;
+    @Nullable
+    private final JarIndexStore jarIndexStore;
+
+    ClassPathRegistry(int maxOpenJarFiles, @Nullable JarIndexStore jarIndexStore) {
+        this.maxOpenJarFiles = maxOpenJarFiles;
+        this.jarIndexStore = jarIndexStore;
+    }
+
+    /**
+     * Creates or retrieves the <code>ClassPathRegistry</code> for the given analysis context.<br/>
+     * A new instance will be put in the analysis context's {@link AnalysisContext#getProjectCache() project cache} and
+     * thus be shared by all modules. If the project cache provides a {@link JarIndexStore} (using its class as key), it
+     * is used to index the jar files.
+     *
+     * @since 2.2.0
+     */
+    @Nonnull
+    public static ClassPathRegistry classPathRegistryFor(@Nonnull AnalysisContext analysisContext) {
+        ConcurrentMap<Object, Object> projectCache = analysisContext.getProjectCache();
+        Object classPathRegistry = projectCache.get(ClassPathRegistry.class);
+        if (classPathRegistry == null) {
+            ClassPathRegistry newRegistry = new ClassPathRegistry(DEFAULT_MAX_OPEN_JAR_FILES,
+                    (JarIndexStore) projectCache.get(JarIndexStore.class));
+            classPathRegistry = projectCache.putIfAbsent(ClassPathRegistry.class, newRegistry);
+            if (classPathRegistry == null) {
+                classPathRegistry = newRegistry;
+            }
+        }
+        return (ClassPathRegistry) classPathRegistry;
+    }
+
+    /**
+     * Returns the shared <code>ClassPath</code> for the given jar file or directory.
+     *
+     * @since 2.2.0
+     */
+    @Nonnull
+    public ClassPath getClassPathFor(@Nonnull File file) {
+        File absoluteFile = file.getAbsoluteFile();
+        ClassPath classPath = this.classPaths.get(absoluteFile);
+        if (classPath == null) {
+            ClassPath newClassPath = absoluteFile.isDirectory()
+                    ? new DirectoryClassPath(absoluteFile) : new JarClassPath(absoluteFile);
+            classPath = this.classPaths.putIfAbsent(absoluteFile, newClassPath);
+            if (classPath == null) {
+                classPath = newClassPath;
+            }
+        }
+        return classPath;
+    }
+
+    /**
+     * Returns the persistent index of the given jar file.
+     *
+     * @return the index or <code>null</code> if the file is a directory, cannot be indexed or there is no
+     * {@link JarIndexStore}
+     * @since 2.2.0
+     */
+    @Nullable
+    public JarIndex getJarIndexFor(@Nonnull File file) {
+        ClassPath classPath = getClassPathFor(file);
+        return classPath instanceof JarClassPath ? ((JarClassPath) classPath).getJarIndex() : null;
+    }
+
+    /**
+     * Closes all open jar files. The registry may still be used afterwards; jar files are reopened if necessary.
+     *
+     * @since 2.2.0
+     */
+    @Override
+    public void close() {
+        List<JarClassPath> jarFilesToClose;
+        synchronized (this.openJarFiles) {
+            jarFilesToClose = new ArrayList<JarClassPath>(this.openJarFiles.keySet());
+            this.openJarFiles.clear();
+        }
+        for (JarClassPath jarClassPath : jarFilesToClose) {
+            jarClassPath.closeJarFile();
+        }
+    }
+
+    /**
+     * Returns the number of jar files currently being open.
+     */
+    int getNumberOfOpenJarFiles() {
+        int openJarFiles = 0;
+        for (ClassPath classPath : this.classPaths.values()) {
+            if (classPath instanceof JarClassPath && ((JarClassPath) classPath).isJarFileOpen()) {
+                openJarFiles++;
+            }
+        }
+        return openJarFiles;
+    }
+
+    @Override
+    public String toString() {
+        return "ClassPathRegistry for " + this.classPaths.size() + " class path entries";
+    }
+
+    /**
+     * Marks the given jar file as being used most recently, closing the least recently used one if necessary. Must not
+     * be called while holding the lock of a <code>JarClassPath</code>.
+     */
+    private void jarFileWasUsed(@Nonnull JarClassPath jarClassPath) {
+        JarClassPath jarFileToClose = null;
+        synchronized (this.openJarFiles) {
+            this.openJarFiles.put(jarClassPath, Boolean.TRUE);
+            if (this.openJarFiles.size() > this.maxOpenJarFiles) {
+                Iterator<JarClassPath> leastRecentlyUsed = this.openJarFiles.keySet().iterator();
+                jarFileToClose = leastRecentlyUsed.next();
+                leastRecentlyUsed.remove();
+            }
+        }
+        if (jarFileToClose != null) {
+            jarFileToClose.closeJarFile();
+        }
+    }
+
+    @Nonnull
+    private static String toResourceName(@Nonnull String className) {
+        return className.replace('.', '/') + ".class";
+    }
+
+    private static final class DirectoryClassPath implements ClassPath {
+        @Nonnull
+        private final File directory;
+
+        DirectoryClassPath(@Nonnull File directory) {
+            this.directory = directory;
+        }
+
+        @Nullable
+        @Override
+        public InputStream openClassfile(@Nonnull String className) {
+            File classFile = new File(this.directory, toResourceName(className));
+            try {
+                return new BufferedInputStream(new FileInputStream(classFile));
+            } catch (FileNotFoundException ignored) {
+                return null;
+            }
+        }
+
+        @Nullable
+        @Override
+        public URL find(@Nonnull String className) {
+            File classFile = new File(this.directory, toResourceName(className));
+            if (!classFile.isFile()) {
+                return null;
+            }
+            try {
+                return classFile.toURI().toURL();
+            } catch (MalformedURLException ignored) {
+                return null;
+            }
+        }
+
+        @Override
+        public void close() {
+            // the instance is shared
+        }
+
+        @Override
+        public String toString() {
+            return this.directory.toString();
+        }
+
+    }
+
+    private final class JarClassPath implements ClassPath {
+        @Nonnull
+        private final File file;
+        @Nullable
+        private volatile Set<String> entries;
+        @Nullable
+        private volatile JarIndex jarIndex;
+        @Nullable
+        @GuardedBy("this")
+        private JarFile jarFile;
+
+        JarClassPath(@Nonnull File file) {
+            this.file = file;
+        }
+
+        @Nullable
+        @Override
+        public InputStream openClassfile(@Nonnull String className) {
+            if (!containsClass(className)) {
+                return null;
+            }
+            String resourceName = toResourceName(className);
+            byte[] bytes;
+            synchronized (this) {
+                bytes = readEntry(resourceName);
+            }
+            jarFileWasUsed(this);
+            return bytes == null ? null : new ByteArrayInputStream(bytes);
+        }
+
+        @Nullable
+        @Override
+        public URL find(@Nonnull String className) {
+            if (!containsClass(className)) {
+                return null;
+            }
+            String resourceName = toResourceName(className);
+            try {
+                return new URL("jar:" + this.file.toURI() + "!/" + resourceName);
+            } catch (MalformedURLException ignored) {
+                return null;
+            }
+        }
+
+        @Override
+        public void close() {
+            // the instance is shared; the jar file is closed by the registry
+        }
+
+        @Override
+        public String toString() {
+            return this.file.toString();
+        }
+
+        synchronized boolean isJarFileOpen() {
+            return this.jarFile != null;
+        }
+
+        synchronized void closeJarFile() {
+            if (this.jarFile == null) {
+                return;
+            }
+            try {
+                this.jarFile.close();
+            } catch (IOException e) {
+                logger.debug("Failed to close [{}]!", this.file, e);
+            }
+            this.jarFile = null;
+        }
+
+        @Nullable
+        JarIndex getJarIndex() {
+            getEntries();
+            return this.jarIndex;
+        }
+
+        private boolean containsClass(@Nonnull String className) {
+            Set<String> entries = getEntries();
+            JarIndex jarIndex = this.jarIndex;
+            return jarIndex != null ? jarIndex.containsClass(className) : entries.contains(toResourceName(className));
+        }
+
+        /**
+         * Returns the resource names of all classes; if the jar file was indexed by the {@link JarIndexStore}, an
+         * empty set is returned and the <code>jarIndex</code> is set instead.
+         */
+        @Nonnull
+        private Set<String> getEntries() {
+            Set<String> entries = this.entries;
+            if (entries != null) {
+                return entries;
+            }
+            synchronized (this) {
+                entries = this.entries;
+                if (entries == null) {
+                    this.jarIndex = jarIndexStore == null ? null : jarIndexStore.getIndexFor(this.file);
+                    entries = this.jarIndex == null ? indexEntries() : Collections.<String>emptySet();
+                    this.entries = entries;
+                }
+            }
+            if (!entries.isEmpty()) {
+                jarFileWasUsed(this);
+            }
+            return entries;
+        }
+
+        @GuardedBy("this")
+        @Nonnull
+        private Set<String> indexEntries() {
+            JarFile jarFile = getJarFile();
+            if (jarFile == null) {
+                return Collections.emptySet();
+            }
+            Set<String> entries = newHashSet();
+            for (Enumeration<JarEntry> jarEntries = jarFile.entries(); jarEntries.hasMoreElements(); ) {
+                String name = jarEntries.nextElement().getName();
+                if (name.endsWith(".class")) {
+                    entries.add(name);
+                }
+            }
+            logger.debug("Indexed {} classes of [{}].", entries.size(), this.file);
+            if (entries.isEmpty()) {
+                // no class will ever be read, so the jar file isn't registered as being open
+                closeJarFile();
+            }
+            return entries;
+        }
+
+        @GuardedBy("this")
+        @Nullable
+        private byte[] readEntry(@Nonnull String resourceName) {
+            JarFile jarFile = getJarFile();
+            if (jarFile == null) {
+                return null;
+            }
+            JarEntry entry = jarFile.getJarEntry(resourceName);
+            if (entry == null) {
+                return null;
+            }
+            InputStream in = null;
+            try {
+                in = jarFile.getInputStream(entry);
+                return IOUtils.toByteArray(in);
+            } catch (IOException e) {
+                logger.warn("Failed to read [{}] from [{}]!", resourceName, this.file, e);
+                return null;
+            } finally {
+                IOUtils.closeQuietly(in);
+            }
+        }
+
+        @GuardedBy("this")
+        @Nullable
+        private JarFile getJarFile() {
+            if (this.jarFile == null) {
+                try {
+                    this.jarFile = new JarFile(this.file);
+                } catch (IOException e) {
+                    logger.debug("Failed to open [{}]; ignoring it.", this.file, e);
+                }
+            }
+            return this.jarFile;
+        }
+
+    }
+
+}
@@ -1,27 +1,34 @@
 package de.is24.deadcode4j.analyzer.javassist;
 
-import com.google.common.base.Function;
 import com.google.common.base.Optional;
-import com.google.common.cache.LoadingCache;
+import com.google.common.collect.Iterables;
 import de.is24.deadcode4j.AnalysisContext;
 import de.is24.deadcode4j.Repository;
 import de.is24.guava.NonNullFunction;
-import de.is24.guava.SequentialLoadingCache;
 import javassist.ClassPool;
-import javassist.NotFoundException;
+import javassist.CtClass;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.io.File;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
 
 import static com.google.common.base.Optional.absent;
 import static com.google.common.base.Optional.of;
-import static com.google.common.collect.Sets.newHashSet;
+import static com.google.common.collect.Lists.newArrayList;
+import static com.google.common.collect.Maps.immutableEntry;
+import static com.google.common.collect.Maps.newConcurrentMap;
+import static com.google.common.collect.Sets.newConcurrentHashSet;
+import static de.is24.deadcode4j.analyzer.javassist.ClassPathRegistry.classPathRegistryFor;
+import static de.is24.javassist.CtClasses.getCtClass;
 
 /**
  * The <code>ClassPoolAccessor</code> provides access to a Javassist {@link javassist.ClassPool} with fully configured
- * class path. It also provides some convenience methods to deal with loading & resolving classes.
+ * class path. It also provides some convenience methods to deal with loading & resolving classes.<br/>
+ * The classes resolved by {@link #resolveClass(CharSequence)} are shared by all instances using the same class path,
+ * i.e. by all threads analyzing the same module; the shared results may be read &amp; written concurrently.
  *
  * @since 2.0.0
  */
@@ -35,13 +42,19 @@ public final class ClassPoolAccessor {
         }
     };
     @Nonnull
+    private final ClassPathRegistry classPathRegistry;
+    @Nonnull
+    private final List<File> classPath;
+    @Nonnull
     private final ClassPool classPool;
     @Nonnull
-    private final LoadingCache<String, Optional<String>> classResolver;
+    private final ResolvedClasses resolvedClasses;
 
     public ClassPoolAccessor(@Nonnull AnalysisContext analysisContext) {
-        this.classPool = createClassPool(analysisContext);
-        this.classResolver = createResolverCache();
+        this.classPathRegistry = classPathRegistryFor(analysisContext);
+        this.classPath = getClassPathOf(analysisContext);
+        this.classPool = createClassPool(this.classPathRegistry, this.classPath);
+        this.resolvedClasses = resolvedClassesFor(analysisContext, this.classPath);
     }
 
     /**
@@ -56,22 +69,49 @@ public final class ClassPoolAccessor {
     }
 
     @Nonnull
-    private static ClassPool createClassPool(AnalysisContext analysisContext) {
+    private static List<File> getClassPathOf(@Nonnull AnalysisContext analysisContext) {
+        List<File> classPath = newArrayList();
+        Repository outputRepository = analysisContext.getModule().getOutputRepository();
+        if (outputRepository != null) {
+            classPath.add(outputRepository.getDirectory());
+        }
+        Iterables.addAll(classPath, analysisContext.getModule().getClassPath());
+        return classPath;
+    }
+
+    /**
+     * Sets up a <code>ClassPool</code> using the {@link ClassPathRegistry} shared by all modules, so each jar file is
+     * opened &amp; indexed only once for the whole project.
+     */
+    @Nonnull
+    private static ClassPool createClassPool(@Nonnull ClassPathRegistry classPathRegistry,
+                                             @Nonnull List<File> classPath) {
         ClassPool classPool = new ClassPool(true);
-        try {
-            Repository outputRepository = analysisContext.getModule().getOutputRepository();
-            if (outputRepository != null) {
-                classPool.appendClassPath(outputRepository.getDirectory().getAbsolutePath());
-            }
-            for (File file : analysisContext.getModule().getClassPath()) {
-                classPool.appendClassPath(file.getAbsolutePath());
-            }
-        } catch (NotFoundException e) {
-            throw new RuntimeException("Failed to set up ClassPool!", e);
+        for (File file : classPath) {
+            classPool.appendClassPath(classPathRegistry.getClassPathFor(file));
         }
         return classPool;
     }
 
+    /**
+     * Retrieves the resolved classes shared by all instances using the given class path from the project cache.
+     */
+    @Nonnull
+    private static ResolvedClasses resolvedClassesFor(@Nonnull AnalysisContext analysisContext,
+                                                      @Nonnull List<File> classPath) {
+        Object key = immutableEntry(ClassPoolAccessor.class, classPath);
+        ConcurrentMap<Object, Object> projectCache = analysisContext.getProjectCache();
+        Object resolvedClasses = projectCache.get(key);
+        if (resolvedClasses == null) {
+            ResolvedClasses newResolvedClasses = new ResolvedClasses();
+            resolvedClasses = projectCache.putIfAbsent(key, newResolvedClasses);
+            if (resolvedClasses == null) {
+                resolvedClasses = newResolvedClasses;
+            }
+        }
+        return (ResolvedClasses) resolvedClasses;
+    }
+
     private static String prepareQualifier(CharSequence qualifier) {
         String preparedQualifier = qualifier.toString();
         for (; ; ) {
@@ -95,6 +135,59 @@ public final class ClassPoolAccessor {
         return this.classPool;
     }
 
+    /**
+     * Indicates if the given class exists within the class path.
+     *
+     * @since 2.2.0
+     */
+    public boolean containsClass(@Nonnull String className) {
+        return getIndexedClassMetadata(className) != null || this.classPool.find(className) != null;
+    }
+
+    /**
+     * Returns the metadata of the given class. If the class is provided by a jar file indexed by the
+     * {@link JarIndexStore}, the metadata are taken from the index; otherwise, the class is loaded.
+     *
+     * @return the metadata or <code>null</code> if the class cannot be found
+     * @since 2.2.0
+     */
+    @Nullable
+    public ClassMetadata getClassMetadata(@Nonnull String className) {
+        ClassMetadata classMetadata = getIndexedClassMetadata(className);
+        if (classMetadata != null) {
+            return classMetadata;
+        }
+        CtClass clazz = getCtClass(this.classPool, className);
+        return clazz == null ? null : ClassMetadata.of(clazz.getClassFile2());
+    }
+
+    /**
+     * Looks up the given class in the class path entries in the same order the <code>ClassPool</code> does. The JRE
+     * classes, which the <code>ClassPool</code> looks up first, are never indexed.
+     *
+     * @return the indexed metadata; <code>null</code> if the class is not found in an indexed jar file first
+     */
+    @Nullable
+    private ClassMetadata getIndexedClassMetadata(@Nonnull String className) {
+        if (className.startsWith("java.")) {
+            return null;
+        }
+        for (File file : this.classPath) {
+            JarIndex jarIndex = this.classPathRegistry.getJarIndexFor(file);
+            if (jarIndex == null) {
+                if (this.classPathRegistry.getClassPathFor(file).find(className) != null) {
+                    return null;
+                }
+                continue;
+            }
+            ClassMetadata classMetadata = jarIndex.getClassMetadata(className);
+            if (classMetadata != null) {
+                return classMetadata;
+            }
+        }
+        return null;
+    }
+
     /**
      * Returns the "resolved" class name for the given qualifier.
      * "Resolved" in this case means that if the qualifier refers to an existing class, the class'
@@ -104,54 +197,61 @@ public final class ClassPoolAccessor {
      */
     @Nonnull
     public Optional<String> resolveClass(@Nonnull CharSequence qualifier) {
-        return classResolver.getUnchecked(prepareQualifier(qualifier));
+        String preparedQualifier = prepareQualifier(qualifier);
+        Optional<String> resolvedClass = this.resolvedClasses.classes.get(preparedQualifier);
+        if (resolvedClass == null) {
+            resolvedClass = computeResolvedClass(preparedQualifier);
+            Optional<String> concurrentlyResolvedClass =
+                    this.resolvedClasses.classes.putIfAbsent(preparedQualifier, resolvedClass);
+            if (concurrentlyResolvedClass != null) {
+                resolvedClass = concurrentlyResolvedClass;
+            }
+        }
+        return resolvedClass;
     }
 
     @Nonnull
-    private LoadingCache<String, Optional<String>> createResolverCache() {
-        return new SequentialLoadingCache<String, String>(new Function<String, Optional<String>>() {
-            @Nonnull
-            private final Set<String> knownPackages = newHashSet();
-
-            @Nullable
-            @Override
-            public Optional<String> apply(@Nullable String input) {
-                if (input == null) {
-                    return absent();
-                }
-                for (; ; ) {
-                    if (classPool.getOrNull(input) != null) {
-                        addToKnownPackages(input);
-                        return of(input);
-                    }
-                    int dotIndex = input.lastIndexOf('.');
-                    if (dotIndex < 0) {
-                        return absent();
-                    }
-                    String potentialPackage = input.substring(0, dotIndex);
-                    if (knownPackages.contains(potentialPackage)) {
-                        // no need to look for inner classes
-                        return absent();
-                    }
-                    input = potentialPackage + "$" + input.substring(dotIndex + 1);
-                }
+    private Optional<String> computeResolvedClass(@Nonnull String qualifier) {
+        String input = qualifier;
+        for (; ; ) {
+            if (getIndexedClassMetadata(input) != null || this.classPool.getOrNull(input) != null) {
+                addToKnownPackages(input);
+                return of(input);
             }
+            int dotIndex = input.lastIndexOf('.');
+            if (dotIndex < 0) {
+                return absent();
+            }
+            String potentialPackage = input.substring(0, dotIndex);
+            if (this.resolvedClasses.knownPackages.contains(potentialPackage)) {
+                // no need to look for inner classes
+                return absent();
+            }
+            input = potentialPackage + "$" + input.substring(dotIndex + 1);
+        }
+    }
 
-            private void addToKnownPackages(@Nonnull String className) {
-                for (; ; ) {
-                    int dotIndex = className.lastIndexOf('.');
-                    if (dotIndex < 0) {
-                        return;
-                    }
-                    className = className.substring(0, dotIndex);
-                    if (!knownPackages.add(className)) {
-                        return;
-                    }
-                }
-
+    private void addToKnownPackages(@Nonnull String className) {
+        for (; ; ) {
+            int dotIndex = className.lastIndexOf('.');
+            if (dotIndex < 0) {
+                return;
             }
+            className = className.substring(0, dotIndex);
+            if (!this.resolvedClasses.knownPackages.add(className)) {
+                return;
+            }
+        }
+    }
 
-        });
+    /**
+     * The results of {@link #resolveClass(CharSequence)} for one class path.
+     */
+    private static final class ResolvedClasses {
+        @Nonnull
+        final ConcurrentMap<String, Optional<String>> classes = newConcurrentMap();
+        @Nonnull
+        final Set<String> knownPackages = newConcurrentHashSet();
     }
 
 }
@@ -0,0 +1,265 @@
+package de.is24.deadcode4j.analyzer.javassist;
+
+import javassist.bytecode.ClassFile;
+import org.apache.commons.io.IOUtils;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+import java.io.*;
+import java.util.*;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static com.google.common.collect.Lists.newArrayListWithCapacity;
+import static com.google.common.collect.Maps.newHashMap;
+import static com.google.common.collect.Maps.newHashMapWithExpectedSize;
+import static com.google.common.collect.Sets.newHashSet;
+
+/**
+ * The <code>JarIndex</code> provides the {@link ClassMetadata} of all classes of a jar file, along with the set of
+ * packages it contains.<br/>
+ * It is {@link #writeTo(OutputStream) stored} in a compact binary format: all strings are written once into a string
+ * table and referred to by their index, encoded as variable-length integers.
+ *
+ * @see JarIndexStore
+ * @since 2.2.0
+ */
+@Immutable
+public final class JarIndex {
+
+    private static final int MAGIC = 0xDC41DE55;
+    private static final int FORMAT_VERSION = 1;
+    @Nonnull
+    private final Map<String, ClassMetadata> classes;
+    @Nonnull
+    private final Set<String> packages;
+
+    private JarIndex(@Nonnull Map<String, ClassMetadata> classes, @Nonnull Set<String> packages) {
+        this.classes = classes;
+        this.packages = packages;
+    }
+
+    /**
+     * Indexes all classes of the given jar file; version-specific classes of multi-release jars are ignored.
+     *
+     * @throws IOException if reading the jar file fails
+     * @since 2.2.0
+     */
+    @Nonnull
+    public static JarIndex of(@Nonnull JarFile jarFile) throws IOException {
+        Map<String, ClassMetadata> classes = newHashMap();
+        for (Enumeration<JarEntry> entries = jarFile.entries(); entries.hasMoreElements(); ) {
+            JarEntry entry = entries.nextElement();
+            if (!entry.getName().endsWith(".class") || entry.getName().startsWith("META-INF/")) {
+                continue;
+            }
+            DataInputStream in = new DataInputStream(new BufferedInputStream(jarFile.getInputStream(entry)));
+            try {
+                ClassMetadata classMetadata = ClassMetadata.of(new ClassFile(in));
+                classes.put(classMetadata.getClassName(), classMetadata);
+            } finally {
+                IOUtils.closeQuietly(in);
+            }
+        }
+        Set<String> packages = newHashSet();
+        for (String className : classes.keySet()) {
+            packages.add(packageOf(className));
+        }
+        return new JarIndex(classes, packages);
+    }
+
+    /**
+     * Reads an index written by {@link #writeTo(OutputStream)}.
+     *
+     * @throws IOException if reading fails or the data is not a valid index
+     * @since 2.2.0
+     */
+    @Nonnull
+    public static JarIndex readFrom(@Nonnull InputStream inputStream) throws IOException {
+        DataInputStream in = new DataInputStream(inputStream);
+        if (in.readInt() != MAGIC || in.readUnsignedByte() != FORMAT_VERSION) {
+            throw new IOException("Not a JarIndex of version " + FORMAT_VERSION + "!");
+        }
+        String[] strings = new String[readInt(in)];
+        for (int i = 0; i < strings.length; i++) {
+            strings[i] = in.readUTF();
+        }
+        int numberOfPackages = readInt(in);
+        Set<String> packages = newHashSet();
+        for (int i = 0; i < numberOfPackages; i++) {
+            packages.add(readString(in, strings));
+        }
+        int numberOfClasses = readInt(in);
+        Map<String, ClassMetadata> classes = newHashMapWithExpectedSize(numberOfClasses);
+        for (int i = 0; i < numberOfClasses; i++) {
+            String className = readString(in, strings);
+            int superclassIndex = readInt(in);
+            String superclass = superclassIndex == 0 ? null : strings[superclassIndex - 1];
+            List<String> interfaces = readStrings(in, strings);
+            List<String> annotations = readStrings(in, strings);
+            boolean inheritedAnnotation = in.readBoolean();
+            classes.put(className,
+                    new ClassMetadata(className, superclass, interfaces, annotations, inheritedAnnotation));
+        }
+        return new JarIndex(classes, packages);
+    }
+
+    @Nonnull
+    private static String packageOf(@Nonnull String className) {
+        int lastDot = className.lastIndexOf('.');
+        return lastDot < 0 ? "" : className.substring(0, lastDot);
+    }
+
+    private static int readInt(@Nonnull DataInputStream in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (b & 0x7f) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed variable-length integer!");
+    }
+
+    @Nonnull
+    private static String readString(@Nonnull DataInputStream in, @Nonnull String[] strings) throws IOException {
+        int index = readInt(in);
+        if (index >= strings.length) {
+            throw new IOException("Invalid string reference " + index + "!");
+        }
+        return strings[index];
+    }
+
+    @Nonnull
+    private static List<String> readStrings(@Nonnull DataInputStream in, @Nonnull String[] strings)
+            throws IOException {
+        int size = readInt(in);
+        if (size == 0) {
+            return Collections.emptyList();
+        }
+        List<String> list = newArrayListWithCapacity(size);
+        for (int i = 0; i < size; i++) {
+            list.add(readString(in, strings));
+        }
+        return list;
+    }
+
+    private static void writeInt(@Nonnull DataOutputStream out, int value) throws IOException {
+        while ((value & ~0x7f) != 0) {
+            out.writeByte((value & 0x7f) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    @Override
+    public String toString() {
+        return "JarIndex of " + this.classes.size() + " classes";
+    }
+
+    /**
+     * Returns the metadata of the given class; <code>null</code> if the jar file doesn't contain it.
+     *
+     * @since 2.2.0
+     */
+    @Nullable
+    public ClassMetadata getClassMetadata(@Nonnull String className) {
+        return this.classes.get(className);
+    }
+
+    /**
+     * Indicates if the jar file contains the given class.
+     *
+     * @since 2.2.0
+     */
+    public boolean containsClass(@Nonnull String className) {
+        return this.classes.containsKey(className);
+    }
+
+    /**
+     * Returns the names of all classes of the jar file.
+     *
+     * @since 2.2.0
+     */
+    @Nonnull
+    public Set<String> getClassNames() {
+        return Collections.unmodifiableSet(this.classes.keySet());
+    }
+
+    /**
+     * Returns the names of all packages of the jar file; the default package is represented by an empty string.
+     *
+     * @since 2.2.0
+     */
+    @Nonnull
+    public Set<String> getPackages() {
+        return Collections.unmodifiableSet(this.packages);
+    }
+
+    /**
+     * Writes the index to the given stream.
+     *
+     * @since 2.2.0
+     */
+    public void writeTo(@Nonnull OutputStream outputStream) throws IOException {
+        Map<String, Integer> indexOfString = newHashMap();
+        List<String> strings = newArrayList();
+        for (String aPackage : this.packages) {
+            addString(aPackage, indexOfString, strings);
+        }
+        for (ClassMetadata classMetadata : this.classes.values()) {
+            addString(classMetadata.getClassName(), indexOfString, strings);
+            if (classMetadata.getSuperclass() != null) {
+                addString(classMetadata.getSuperclass(), indexOfString, strings);
+            }
+            for (String anInterface : classMetadata.getInterfaces()) {
+                addString(anInterface, indexOfString, strings);
+            }
+            for (String annotation : classMetadata.getAnnotations()) {
+                addString(annotation, indexOfString, strings);
+            }
+        }
+
+        DataOutputStream out = new DataOutputStream(outputStream);
+        out.writeInt(MAGIC);
+        out.writeByte(FORMAT_VERSION);
+        writeInt(out, strings.size());
+        for (String string : strings) {
+            out.writeUTF(string);
+        }
+        writeInt(out, this.packages.size());
+        for (String aPackage : this.packages) {
+            writeInt(out, indexOfString.get(aPackage));
+        }
+        writeInt(out, this.classes.size());
+        for (ClassMetadata classMetadata : this.classes.values()) {
+            writeInt(out, indexOfString.get(classMetadata.getClassName()));
+            String superclass = classMetadata.getSuperclass();
+            writeInt(out, superclass == null ? 0 : indexOfString.get(superclass) + 1);
+            writeStrings(out, classMetadata.getInterfaces(), indexOfString);
+            writeStrings(out, classMetadata.getAnnotations(), indexOfString);
+            out.writeBoolean(classMetadata.isInheritedAnnotation());
+        }
+        out.flush();
+    }
+
+    private void addString(@Nonnull String string, @Nonnull Map<String, Integer> indexOfString,
+                           @Nonnull List<String> strings) {
+        if (!indexOfString.containsKey(string)) {
+            indexOfString.put(string, strings.size());
+            strings.add(string);
+        }
+    }
+
+    private void writeStrings(@Nonnull DataOutputStream out, @Nonnull List<String> list,
+                              @Nonnull Map<String, Integer> indexOfString) throws IOException {
+        writeInt(out, list.size());
+        for (String string : list) {
+            writeInt(out, indexOfString.get(string));
+        }
+    }
+
+}
@@ -0,0 +1,139 @@
+package de.is24.deadcode4j.analyzer.javassist;
+
+import com.google.common.hash.Hashing;
+import com.google.common.io.Files;
+import org.apache.commons.io.IOUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+import java.io.*;
+import java.util.jar.JarFile;
+
+/**
+ * The <code>JarIndexStore</code> persists a {@link JarIndex} for each jar file, keyed by a checksum of the jar's
+ * content. As a released artifact never changes, each jar file of the local Maven repository needs to be indexed only
+ * once; subsequent runs - of any project - simply read the stored index.<br/>
+ * Index files are written to a temporary file first and then renamed, so concurrent builds sharing the store never
+ * see a partially written index.
+ *
+ * @since 2.2.0
+ */
+@ThreadSafe
+public final class JarIndexStore {
+
+    @Nonnull
+    private final Logger logger = LoggerFactory.getLogger(getClass());
+    @Nonnull
+    private final File directory;
+
+    /**
+     * Creates a new <code>JarIndexStore</code>.
+     *
+     * @param directory the directory to store the index files in; it is created if necessary
+     * @since 2.2.0
+     */
+    public JarIndexStore(@Nonnull File directory) {
+        this.directory = directory;
+    }
+
+    @Override
+    public String toString() {
+        return "JarIndexStore at [" + this.directory + "]";
+    }
+
+    /**
+     * Returns the index for the given jar file, reading it from the store or creating &amp; storing it if necessary.
+     *
+     * @return the index or <code>null</code> if the jar file cannot be read
+     * @since 2.2.0
+     */
+    @Nullable
+    public JarIndex getIndexFor(@Nonnull File jarFile) {
+        File indexFile;
+        try {
+            indexFile = new File(this.directory, Files.hash(jarFile, Hashing.murmur3_128()) + ".index");
+        } catch (IOException e) {
+            logger.debug("Failed to calculate checksum of [{}]!", jarFile, e);
+            return null;
+        }
+        if (indexFile.isFile()) {
+            JarIndex jarIndex = read(indexFile);
+            if (jarIndex != null) {
+                return jarIndex;
+            }
+        }
+        JarIndex jarIndex = createIndexFor(jarFile);
+        if (jarIndex != null) {
+            write(jarIndex, indexFile);
+        }
+        return jarIndex;
+    }
+
+    @Nullable
+    private JarIndex read(@Nonnull File indexFile) {
+        InputStream in = null;
+        try {
+            in = new BufferedInputStream(new FileInputStream(indexFile));
+            return JarIndex.readFrom(in);
+        } catch (IOException e) {
+            logger.debug("Failed to read [{}]; recreating index.", indexFile, e);
+            return null;
+        } finally {
+            IOUtils.closeQuietly(in);
+        }
+    }
+
+    @Nullable
+    private JarIndex createIndexFor(@Nonnull File file) {
+        JarFile jarFile = null;
+        try {
+            jarFile = new JarFile(file);
+            JarIndex jarIndex = JarIndex.of(jarFile);
+            logger.debug("Indexed {} classes of [{}].", jarIndex.getClassNames().size(), file);
+            return jarIndex;
+        } catch (IOException e) {
+            logger.debug("Failed to index [{}]!", file, e);
+            return null;
+        } catch (RuntimeException e) {
+            logger.debug("Failed to index [{}]!", file, e);
+            return null;
+        } finally {
+            if (jarFile != null) {
+                try {
+                    jarFile.close();
+                } catch (IOException ignored) {
+                    // we're done anyway
+                }
+            }
+        }
+    }
+
+    private void write(@Nonnull JarIndex jarIndex, @Nonnull File indexFile) {
+        File temporaryFile = null;
+        OutputStream out = null;
+        try {
+            if (!this.directory.isDirectory() && !this.directory.mkdirs() && !this.directory.isDirectory()) {
+                throw new IOException("Cannot create directory [" + this.directory + "]!");
+            }
+            temporaryFile = File.createTempFile("index", ".tmp", this.directory);
+            out = new BufferedOutputStream(new FileOutputStream(temporaryFile));
+            jarIndex.writeTo(out);
+            out.close();
+            out = null;
+            if (!temporaryFile.renameTo(indexFile) && !indexFile.isFile()) {
+                throw new IOException("Cannot rename [" + temporaryFile + "] to [" + indexFile + "]!");
+            }
+        } catch (IOException e) {
+            logger.warn("Failed to store index at [{}]: {}", indexFile, e.getMessage());
+        } finally {
+            IOUtils.closeQuietly(out);
+            if (temporaryFile != null && temporaryFile.exists() && !temporaryFile.delete()) {
+                temporaryFile.deleteOnExit();
+            }
+        }
+    }
+
+}
@@ -1,5 +1,6 @@
 package de.is24.deadcode4j.plugin;
 
+import com.google.common.base.Joiner;
 import com.google.common.collect.Ordering;
 import de.is24.deadcode4j.AnalysisStage;
 import de.is24.deadcode4j.DeadCode;
@@ -26,6 +27,7 @@ class DeadCodeLogger {
         logExceptions(deadCode.getStagesWithExceptions());
         logAnalyzedClasses(deadCode.getAnalyzedClasses());
         logDeadClasses(deadCode.getDeadClasses());
+        logDeadIslands(deadCode.getDeadIslands());
     }
 
     private void logExceptions(EnumSet<AnalysisStage> stagesWithExceptions) {
@@ -66,4 +68,14 @@ class DeadCodeLogger {
         }
     }
 
+    private void logDeadIslands(@Nonnull Collection<Collection<String>> deadIslands) {
+        if (deadIslands.isEmpty()) {
+            return;
+        }
+        log.warn("Found " + deadIslands.size() + " group(s) of classes only used by each other:");
+        for (Collection<String> deadIsland : deadIslands) {
+            log.warn("  " + Joiner.on(", ").join(Ordering.natural().sortedCopy(deadIsland)));
+        }
+    }
+
 }
@@ -4,9 +4,11 @@ import com.google.common.base.Optional;
 import com.google.common.collect.Sets;
 import de.is24.deadcode4j.*;
 import de.is24.deadcode4j.analyzer.*;
+import de.is24.deadcode4j.analyzer.javassist.JarIndexStore;
 import de.is24.maven.UpdateChecker;
 import de.is24.maven.slf4j.AbstractSlf4jMojo;
 import org.apache.maven.artifact.versioning.ArtifactVersion;
+import org.apache.maven.execution.MavenSession;
 import org.apache.maven.plugin.MojoExecution;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugins.annotations.Component;
@@ -15,14 +17,18 @@ import org.apache.maven.plugins.annotations.Parameter;
 import org.apache.maven.project.MavenProject;
 import org.apache.maven.repository.RepositorySystem;
 
+import java.io.File;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.collect.Lists.newArrayList;
 import static com.google.common.collect.Lists.transform;
+import static com.google.common.collect.Maps.newHashMap;
+import static com.google.common.collect.Sets.newTreeSet;
 import static de.is24.deadcode4j.Utils.getKeyFor;
 import static de.is24.deadcode4j.Utils.toKey;
 import static java.util.Collections.emptyList;
@@ -97,9 +103,30 @@ public class FindDeadCodeOnlyMojo extends AbstractSlf4jMojo {
     private List<String> modulesToSkip = emptyList();
     @Component
     private MojoExecution mojoExecution;
+    /**
+     * The number of threads used to analyze modules and their files. Modules not depending on each other are analyzed
+     * concurrently. By default, everything is analyzed sequentially.
+     *
+     * @since 2.2.0
+     */
+    @Parameter(property = "deadcode4j.threads")
+    @SuppressWarnings("PMD.ImmutableField")
+    private int numberOfThreads = 1;
     @Parameter(property = "reactorProjects", readonly = true)
     @SuppressWarnings("MismatchedQueryAndUpdateOfCollection")
     private List<MavenProject> reactorProjects;
+    /**
+     * Report the classes that are only used by dead classes as well.<br/>
+     * By default, only classes no other class (or configuration file etc.) depends upon are reported, so removing the
+     * dead code may reveal more dead code. If set to {@code true}, every class that cannot be reached from a
+     * configuration file, a marker like an annotation or the like is reported - including whole clusters of classes
+     * depending on each other.
+     *
+     * @since 2.2.0
+     */
+    @Parameter(property = "deadcode4j.transitive")
+    @SuppressWarnings("PMD.ImmutableField")
+    private boolean reportTransitivelyDeadCode = false;
     @Component
     private RepositorySystem repositorySystem;
     /**
@@ -142,6 +169,28 @@ public class FindDeadCodeOnlyMojo extends AbstractSlf4jMojo {
     private String usageStatisticsComment;
     @Component
     private UsageStatisticsManager usageStatisticsManager;
+    /**
+     * Cache the findings for each analyzed file in <code>target/deadcode4j-cache</code>; files that didn't change
+     * since the last run are not analyzed again. By default, no cache is used.
+     *
+     * @since 2.2.0
+     */
+    @Parameter(property = "deadcode4j.cache")
+    @SuppressWarnings("PMD.ImmutableField")
+    private boolean useAnalysisCache = false;
+    /**
+     * Store an index of the classes of each dependency - including their superclass, interfaces and annotations - in
+     * <code>deadcode4j-index</code> next to the local repository, e.g. <code>~/.m2/deadcode4j-index</code>. The index
+     * of a jar file is created once and then reused by all subsequent runs, so the classes of the dependencies needn't
+     * be examined again. By default, no index is used.
+     *
+     * @since 2.2.0
+     */
+    @Parameter(property = "deadcode4j.jarIndex")
+    @SuppressWarnings("PMD.ImmutableField")
+    private boolean useJarIndex = false;
+    @Component
+    private MavenSession session;
 
     public void doExecute() throws MojoExecutionException {
         try {
@@ -220,17 +269,43 @@ public class FindDeadCodeOnlyMojo extends AbstractSlf4jMojo {
                 new TypeErasureAnalyzer(),
                 new WebXmlAnalyzer(),
                 new WsddAnalyzer());
-        DeadCodeComputer deadCodeComputer = new DeadCodeComputer();
+        DeadCodeComputer deadCodeComputer = new DeadCodeComputer(reportTransitivelyDeadCode);
         addCustomAnnotationsAnalyzerIfConfigured(analyzers);
         addCustomInterfacesAnalyzerIfConfigured(analyzers);
         addCustomSuperClassesAnalyzerIfConfigured(analyzers);
         addCustomXmlAnalyzerIfConfigured(analyzers);
         addIgnoreClassesAnalyzerIfConfigured(deadCodeComputer, analyzers);
         addMainClassAnalyzerIfConfigured(analyzers);
-        DeadCodeFinder deadCodeFinder = new DeadCodeFinder(deadCodeComputer, analyzers);
+        DeadCodeFinder deadCodeFinder = new DeadCodeFinder(deadCodeComputer, analyzers, numberOfThreads,
+                createAnalysisCacheIfConfigured(), createProjectSettings());
         return deadCodeFinder.findDeadCode(gatherModules());
     }
 
+    private AnalysisCache createAnalysisCacheIfConfigured() {
+        if (!useAnalysisCache) {
+            return null;
+        }
+        File cacheDirectory = new File(project.getBuild().getDirectory(), "deadcode4j-cache");
+        // the custom analyzers' configuration affects the cached analysis of modules
+        String version = mojoExecution.getMojoDescriptor().getPluginDescriptor().getVersion()
+                + newTreeSet(annotationsMarkingLiveCode)
+                + newTreeSet(interfacesMarkingLiveCode)
+                + newTreeSet(superClassesMarkingLiveCode);
+        getLog().debug("Using analysis cache at [" + cacheDirectory + "].");
+        return new AnalysisCache(cacheDirectory, version);
+    }
+
+    private Map<Object, Object> createProjectSettings() {
+        Map<Object, Object> projectSettings = newHashMap();
+        if (useJarIndex) {
+            File localRepository = new File(session.getLocalRepository().getBasedir());
+            File indexDirectory = new File(localRepository.getAbsoluteFile().getParentFile(), "deadcode4j-index");
+            getLog().debug("Using jar index at [" + indexDirectory + "].");
+            projectSettings.put(JarIndexStore.class, new JarIndexStore(indexDirectory));
+        }
+        return projectSettings;
+    }
+
     private void addCustomAnnotationsAnalyzerIfConfigured(Set<Analyzer> analyzers) {
         if (annotationsMarkingLiveCode.isEmpty()) {
             return;
@@ -0,0 +1,85 @@
+package de.is24.deadcode4j;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.*;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static com.google.common.collect.Sets.newHashSet;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+public final class A_ClassNameTable {
+
+    private static final int NUMBER_OF_THREADS = 8;
+    private static final int NAMES_PER_THREAD = 5000;
+
+    private final ClassNameTable objectUnderTest = new ClassNameTable();
+    private final ExecutorService executorService = Executors.newFixedThreadPool(NUMBER_OF_THREADS);
+
+    @After
+    public void shutDownThreads() {
+        executorService.shutdownNow();
+    }
+
+    @Test
+    public void assignsDenseIdsInOrderOfAppearance() {
+        assertThat(objectUnderTest.getId("A"), is(0));
+        assertThat(objectUnderTest.getId("B"), is(1));
+        assertThat(objectUnderTest.getId("A"), is(0));
+
+        assertThat(objectUnderTest.size(), is(2));
+        assertThat(objectUnderTest.getName(0), is("A"));
+        assertThat(objectUnderTest.getName(1), is("B"));
+    }
+
+    @Test
+    public void findsIdWithoutAssigningOne() {
+        objectUnderTest.getId("A");
+
+        assertThat(objectUnderTest.findId("A"), is(0));
+        assertThat(objectUnderTest.findId("B"), is(-1));
+        assertThat(objectUnderTest.size(), is(1));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void rejectsUnassignedId() {
+        objectUnderTest.getId("A");
+
+        objectUnderTest.getName(1);
+    }
+
+    @Test
+    public void assignsUniqueIdsToConcurrentlyReportedNames() throws Exception {
+        final CountDownLatch startSignal = new CountDownLatch(1);
+        List<Future<?>> futures = newArrayList();
+        for (int i = 0; i < NUMBER_OF_THREADS; i++) {
+            futures.add(executorService.submit(new Callable<Void>() {
+                @Override
+                public Void call() throws Exception {
+                    startSignal.await();
+                    for (int i = 0; i < NAMES_PER_THREAD; i++) {
+                        String name = "Class" + i;
+                        assertThat(objectUnderTest.getName(objectUnderTest.getId(name)), is(name));
+                    }
+                    return null;
+                }
+            }));
+        }
+        startSignal.countDown();
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+
+        assertThat(objectUnderTest.size(), is(NAMES_PER_THREAD));
+        Set<String> names = newHashSet();
+        for (int id = 0; id < objectUnderTest.size(); id++) {
+            names.add(objectUnderTest.getName(id));
+        }
+        assertThat(names.size(), is(NAMES_PER_THREAD));
+    }
+
+}
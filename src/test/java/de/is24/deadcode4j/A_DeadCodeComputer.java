@@ -12,12 +12,14 @@ import static com.google.common.collect.Maps.newHashMap;
 import static com.google.common.collect.Sets.newHashSet;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
 import static org.hamcrest.Matchers.hasSize;
 
 public class A_DeadCodeComputer {
 
     private DeadCodeComputer objectUnderTest;
     private Map<String, Set<String>> codeDependencies = newHashMap();
+    private Map<String, Set<String>> rootDependencies = newHashMap();
 
     @Before
     public void setUpObjectUnderTest() {
@@ -55,15 +57,74 @@ public class A_DeadCodeComputer {
         assertThat("Should recognize one class as dead", deadClasses, contains("DependingClass"));
     }
 
+    @Test
+    public void recognizesClassesOnlyUsedByDeadClassesAsDeadCodeIfComputingTransitively() {
+        this.objectUnderTest = new DeadCodeComputer(true);
+        setUpDependency("DeadClass", "ClassUsedByDeadClass");
+        setUpDependency("ClassUsedByDeadClass");
+        setUpDependency("A", "B");
+        setUpDependency("B", "A");
+        setUpDependency("LiveClass", "ClassUsedByLiveClass");
+        setUpDependency("ClassUsedByLiveClass");
+
+        setUpRootDependency("_Spring-XML_", "LiveClass");
+        setUpRootDependency("_web.xml_", "UnknownClass");
+
+        Collection<String> deadClasses = computeDeadClasses();
+
+        assertThat(deadClasses, containsInAnyOrder("DeadClass", "ClassUsedByDeadClass", "A", "B"));
+    }
+
+    @Test
+    public void recognizesClassesOnlyDependingOnEachOtherAsDeadIsland() {
+        setUpDependency("A", "B");
+        setUpDependency("B", "C");
+        setUpDependency("C", "A", "D");
+        setUpDependency("D");
+        setUpDependency("E", "F");
+        setUpDependency("F", "E");
+        setUpDependency("LiveClass", "E");
+        setUpDependency("G", "H");
+        setUpDependency("H", "G");
+        setUpRootDependency("_Spring-XML_", "LiveClass", "G");
+
+        Collection<Collection<String>> deadIslands = computeDeadCode().getDeadIslands();
+
+        assertThat(deadIslands, hasSize(1));
+        assertThat(deadIslands.iterator().next(), containsInAnyOrder("A", "B", "C"));
+    }
+
+    @Test
+    public void handlesLongDependencyCycles() {
+        int numberOfClasses = 100000;
+        for (int i = 0; i < numberOfClasses; i++) {
+            setUpDependency("Class" + i, "Class" + ((i + 1) % numberOfClasses));
+        }
+
+        Collection<Collection<String>> deadIslands = computeDeadCode().getDeadIslands();
+
+        assertThat(deadIslands, hasSize(1));
+        assertThat(deadIslands.iterator().next(), hasSize(numberOfClasses));
+    }
+
     private void setUpDependency(String depender, String... dependees) {
         codeDependencies.put(depender, newHashSet(dependees));
     }
 
+    private void setUpRootDependency(String depender, String... dependees) {
+        rootDependencies.put(depender, newHashSet(dependees));
+    }
+
     private Collection<String> computeDeadClasses() {
+        return computeDeadCode().getDeadClasses();
+    }
+
+    private DeadCode computeDeadCode() {
+        Set<String> analyzedClasses = newHashSet(codeDependencies.keySet());
+        codeDependencies.putAll(rootDependencies);
         AnalyzedCode analyzedCode = new AnalyzedCode(
-                EnumSet.noneOf(AnalysisStage.class), codeDependencies.keySet(), codeDependencies);
-        DeadCode deadCode = objectUnderTest.computeDeadCode(analyzedCode);
-        return deadCode.getDeadClasses();
+                EnumSet.noneOf(AnalysisStage.class), analyzedClasses, codeDependencies);
+        return objectUnderTest.computeDeadCode(analyzedCode);
     }
 
 }
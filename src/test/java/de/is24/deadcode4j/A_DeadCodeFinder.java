@@ -9,11 +9,13 @@ import org.junit.Test;
 
 import javax.annotation.Nonnull;
 import java.io.File;
+import java.util.ArrayList;
 import java.util.List;
 
 import static com.google.common.collect.Lists.newArrayList;
 import static com.google.common.collect.Sets.newHashSet;
 import static de.is24.deadcode4j.ModuleBuilder.givenModule;
+import static java.util.Collections.synchronizedList;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
 
@@ -86,6 +88,61 @@ public final class A_DeadCodeFinder {
         assertThat("As no valid analyzer is set up, everything should be dead!", deadCode.getDeadClasses(), hasSize(greaterThan(0)));
     }
 
+    @Test
+    public void computesSameDeadCodeWhenAnalyzingInParallel() {
+        Analyzer analyzer = new AnalyzerAdapter() {
+            @Override
+            public void doAnalysis(@Nonnull AnalysisContext analysisContext, @Nonnull File fileName) {
+                analysisContext.addAnalyzedClass(fileName.getName());
+                analysisContext.addDependencies(fileName.getParentFile().getName(), fileName.getName());
+            }
+        };
+        Module module = givenModule("A", FileLoader.getFile("."));
+        DeadCode sequentialDeadCode = new DeadCodeFinder(new DeadCodeComputer(), newHashSet(analyzer))
+                .findDeadCode(newArrayList(module));
+
+        DeadCode deadCode = new DeadCodeFinder(new DeadCodeComputer(), newHashSet(analyzer), 4)
+                .findDeadCode(newArrayList(module));
+
+        assertThat(deadCode.getAnalyzedClasses(), hasSize(greaterThan(0)));
+        assertThat(newHashSet(deadCode.getAnalyzedClasses()), is(equalTo(newHashSet(sequentialDeadCode.getAnalyzedClasses()))));
+        assertThat(newHashSet(deadCode.getDeadClasses()), is(equalTo(newHashSet(sequentialDeadCode.getDeadClasses()))));
+    }
+
+    @Test
+    public void finishesRequiredModulesFirstWhenAnalyzingInParallel() {
+        final List<Module> finishedModules = synchronizedList(new ArrayList<Module>());
+        final List<String> violations = synchronizedList(new ArrayList<String>());
+        Analyzer analyzer = new AnalyzerAdapter() {
+            @Override
+            public void doAnalysis(@Nonnull AnalysisContext analysisContext, @Nonnull File fileName) {
+            }
+
+            @Override
+            public void finishAnalysis(@Nonnull AnalysisContext analysisContext) {
+                Module module = analysisContext.getModule();
+                for (Module requiredModule : module.getRequiredModules()) {
+                    if (!finishedModules.contains(requiredModule)) {
+                        violations.add(module + " was finished before " + requiredModule);
+                    }
+                }
+                finishedModules.add(module);
+            }
+        };
+        Module z = givenModule("Z");
+        Module y = givenModule("Y", z);
+        Module c = givenModule("C", z);
+        Module b = givenModule("B", c, y);
+        Module a = givenModule("A", b);
+        Module x = givenModule("X", c);
+
+        new DeadCodeFinder(new DeadCodeComputer(), newHashSet(analyzer), 4)
+                .findDeadCode(newArrayList(a, b, c, x, y, z));
+
+        assertThat(finishedModules, containsInAnyOrder(a, b, c, x, y, z));
+        assertThat(violations, is(empty()));
+    }
+
     private void createObjectUnderTest(Analyzer... analyzers) {
         this.objectUnderTest = new DeadCodeFinder(new DeadCodeComputer(), newHashSet(analyzers));
     }
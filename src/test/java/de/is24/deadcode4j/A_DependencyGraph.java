@@ -0,0 +1,87 @@
+package de.is24.deadcode4j;
+
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static com.google.common.collect.Maps.newHashMap;
+import static java.util.Arrays.asList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public final class A_DependencyGraph {
+
+    @Test
+    public void storesDependeesSortedByDepender() {
+        DependencyGraph objectUnderTest = graphOf(3, 7, 0, 2, 3, 1);
+
+        assertThat(objectUnderTest.getDependerIdBound(), is(4));
+        assertThat(objectUnderTest.getNumberOfDependencies(), is(3));
+        assertThat(dependeesOf(objectUnderTest, 0), contains(2));
+        assertThat(dependeesOf(objectUnderTest, 1), is(empty()));
+        assertThat(dependeesOf(objectUnderTest, 3), contains(1, 7));
+        assertThat(dependeesOf(objectUnderTest, 5), is(empty()));
+        assertThat(objectUnderTest.isDepender(0), is(true));
+        assertThat(objectUnderTest.isDepender(1), is(false));
+    }
+
+    @Test
+    public void keepsDependersWithoutDependees() {
+        DependencyGraph objectUnderTest = graphOf(4, -1, 1, 0);
+
+        assertThat(objectUnderTest.isDepender(4), is(true));
+        assertThat(objectUnderTest.getNumberOfDependeesOf(4), is(0));
+        assertThat(objectUnderTest.isDepender(2), is(false));
+    }
+
+    @Test
+    public void unitesGraphs() {
+        DependencyGraph first = graphOf(0, 5, 0, 1, 2, 3);
+        DependencyGraph second = graphOf(0, 1, 0, 4, 4, 2);
+
+        DependencyGraph objectUnderTest = DependencyGraph.union(asList(first, second, DependencyGraph.empty()));
+
+        assertThat(dependeesOf(objectUnderTest, 0), contains(1, 4, 5));
+        assertThat(dependeesOf(objectUnderTest, 2), contains(3));
+        assertThat(dependeesOf(objectUnderTest, 4), contains(2));
+        assertThat(objectUnderTest.getNumberOfDependencies(), is(5));
+        assertThat(objectUnderTest.isDepender(1), is(false));
+    }
+
+    @Test
+    public void unitesEmptyGraphs() {
+        DependencyGraph objectUnderTest = DependencyGraph.union(asList(DependencyGraph.empty()));
+
+        assertThat(objectUnderTest.getDependerIdBound(), is(0));
+        assertThat(objectUnderTest.getNumberOfDependeesOf(3), is(0));
+    }
+
+    /**
+     * Creates a graph from pairs of depender &amp; dependee; a negative dependee only registers the depender.
+     */
+    private DependencyGraph graphOf(int... dependencyPairs) {
+        Map<Integer, IntHashSet> dependencies = newHashMap();
+        for (int i = 0; i < dependencyPairs.length; i += 2) {
+            IntHashSet dependees = dependencies.get(dependencyPairs[i]);
+            if (dependees == null) {
+                dependees = new IntHashSet();
+                dependencies.put(dependencyPairs[i], dependees);
+            }
+            if (dependencyPairs[i + 1] >= 0) {
+                dependees.add(dependencyPairs[i + 1]);
+            }
+        }
+        return DependencyGraph.of(dependencies);
+    }
+
+    private List<Integer> dependeesOf(DependencyGraph graph, int dependerId) {
+        List<Integer> dependees = newArrayList();
+        for (int i = graph.getOffsetOf(dependerId), end = graph.getEndOffsetOf(dependerId); i < end; i++) {
+            dependees.add(graph.getDependee(i));
+        }
+        return dependees;
+    }
+
+}
@@ -0,0 +1,83 @@
+package de.is24.deadcode4j;
+
+import de.is24.deadcode4j.junit.TempFileRule;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.util.Arrays;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public final class A_FileContents {
+
+    @Rule
+    public final TempFileRule tempFileRule = new TempFileRule();
+
+    private final FileContents objectUnderTest = new FileContents();
+
+    @Test
+    public void providesContentOfFile() throws IOException {
+        File file = givenFileWithContent("deadcode4j".getBytes("UTF-8"));
+
+        ByteBuffer content = objectUnderTest.getContentOf(file);
+
+        assertThat(content.isReadOnly(), is(true));
+        assertThat(toBytes(content), is(equalTo("deadcode4j".getBytes("UTF-8"))));
+    }
+
+    @Test
+    public void providesIndependentViewsOfTheSameFile() throws IOException {
+        File file = givenFileWithContent("deadcode4j".getBytes("UTF-8"));
+
+        InputStream firstStream = objectUnderTest.openStream(file);
+        InputStream secondStream = objectUnderTest.openStream(file);
+
+        assertThat(IOUtils.toString(firstStream, "UTF-8"), is("deadcode4j"));
+        assertThat(IOUtils.toString(secondStream, "UTF-8"), is("deadcode4j"));
+    }
+
+    @Test
+    public void readsFileAgainAfterRelease() throws IOException {
+        File file = givenFileWithContent("foo".getBytes("UTF-8"));
+        objectUnderTest.getContentOf(file);
+        FileUtils.writeByteArrayToFile(file, "bar".getBytes("UTF-8"));
+
+        objectUnderTest.release();
+        ByteBuffer content = objectUnderTest.getContentOf(file);
+
+        assertThat(toBytes(content), is(equalTo("bar".getBytes("UTF-8"))));
+    }
+
+    @Test
+    public void mapsLargeFiles() throws IOException {
+        byte[] bytes = new byte[FileContents.MAPPING_THRESHOLD + 1];
+        Arrays.fill(bytes, (byte) 42);
+        File file = givenFileWithContent(bytes);
+
+        ByteBuffer content = objectUnderTest.getContentOf(file);
+
+        assertThat(content, is(instanceOf(MappedByteBuffer.class)));
+        assertThat(toBytes(content), is(equalTo(bytes)));
+    }
+
+    private File givenFileWithContent(byte[] content) throws IOException {
+        File file = tempFileRule.getTempFile();
+        FileUtils.writeByteArrayToFile(file, content);
+        return file;
+    }
+
+    private byte[] toBytes(ByteBuffer content) {
+        byte[] bytes = new byte[content.remaining()];
+        content.get(bytes);
+        return bytes;
+    }
+
+}
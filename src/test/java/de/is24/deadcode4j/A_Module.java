@@ -51,6 +51,23 @@ public final class A_Module {
         assertThat(modules, contains(z, c, y, b, x, a));
     }
 
+    @Test
+    public void sortsLargeDependencyChain() {
+        List<Module> modulesInOrder = new ArrayList<Module>();
+        Module previousModule = givenModule("M0000");
+        modulesInOrder.add(previousModule);
+        for (int i = 1; i < 2000; i++) {
+            previousModule = givenModule(String.format("M%04d", 2000 - i), previousModule);
+            modulesInOrder.add(previousModule);
+        }
+        List<Module> unsortedModules = new ArrayList<Module>(modulesInOrder);
+        Collections.shuffle(unsortedModules);
+
+        Iterable<Module> modules = Module.sort(unsortedModules);
+
+        assertThat(modules, contains(modulesInOrder.toArray(new Module[modulesInOrder.size()])));
+    }
+
     @Test(expected = RuntimeException.class)
     public void throwsExceptionIfSortingFails() {
         ArrayList<Resource> dependencies = new ArrayList<Resource>();
@@ -0,0 +1,87 @@
+package de.is24.deadcode4j;
+
+import org.junit.Test;
+
+import java.io.*;
+import java.util.Map;
+
+import static com.google.common.collect.Maps.newHashMap;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public final class A_PersistentHashMap {
+
+    @Test
+    public void behavesLikeAHashMap() {
+        Map<Object, Integer> expectedMap = newHashMap();
+        PersistentHashMap<Object, Integer> objectUnderTest = PersistentHashMap.empty();
+
+        for (int i = 0; i < 10000; i++) {
+            Object key = i % 3 == 0 ? new CollidingKey(i) : "key" + i;
+            expectedMap.put(key, i);
+            objectUnderTest = objectUnderTest.plus(key, i);
+        }
+        objectUnderTest = objectUnderTest.plus("key1", -1);
+        expectedMap.put("key1", -1);
+
+        assertThat(objectUnderTest.size(), is(expectedMap.size()));
+        assertThat(objectUnderTest, is(equalTo(expectedMap)));
+        assertThat(objectUnderTest.get(new CollidingKey(3)), is(3));
+        assertThat(objectUnderTest.containsKey("key3"), is(false));
+    }
+
+    @Test
+    public void leavesOriginalUntouched() {
+        PersistentHashMap<String, String> original = PersistentHashMap.<String, String>empty().plus("foo", "bar");
+
+        PersistentHashMap<String, String> modified = original.plus("foo", "baz").plus("bar", "foo");
+
+        assertThat(original.size(), is(1));
+        assertThat(original, hasEntry("foo", "bar"));
+        assertThat(modified.size(), is(2));
+        assertThat(modified, hasEntry("foo", "baz"));
+    }
+
+    @Test
+    public void returnsSameInstanceIfNothingChanges() {
+        PersistentHashMap<String, String> objectUnderTest = PersistentHashMap.<String, String>empty().plus("foo", "bar");
+
+        assertThat(objectUnderTest.plus("foo", "bar"), is(sameInstance(objectUnderTest)));
+    }
+
+    @Test
+    public void isSerializable() throws Exception {
+        PersistentHashMap<String, Integer> objectUnderTest = PersistentHashMap.empty();
+        for (int i = 0; i < 100; i++) {
+            objectUnderTest = objectUnderTest.plus("key" + i, i);
+        }
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ObjectOutputStream out = new ObjectOutputStream(bytes);
+        out.writeObject(objectUnderTest);
+        out.close();
+        Object copy = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray())).readObject();
+
+        assertThat(copy, is(instanceOf(PersistentHashMap.class)));
+        assertThat(copy, is(equalTo((Object) objectUnderTest)));
+    }
+
+    private static final class CollidingKey implements Serializable {
+        private final int id;
+
+        CollidingKey(int id) {
+            this.id = id;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof CollidingKey && ((CollidingKey) obj).id == this.id;
+        }
+
+        @Override
+        public int hashCode() {
+            return this.id % 7;
+        }
+    }
+
+}
@@ -0,0 +1,285 @@
+package de.is24.deadcode4j;
+
+import de.is24.deadcode4j.IntermediateResults.IntermediateResultSet;
+import de.is24.deadcode4j.analyzer.AnalyzerAdapter;
+import de.is24.deadcode4j.analyzer.IgnoreClassesAnalyzer;
+import de.is24.deadcode4j.junit.FileLoader;
+import org.apache.commons.io.FileUtils;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import javax.annotation.Nonnull;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static com.google.common.collect.Sets.newHashSet;
+import static de.is24.deadcode4j.IntermediateResults.resultSetFor;
+import static de.is24.deadcode4j.IntermediateResults.resultSetFrom;
+import static de.is24.deadcode4j.ModuleBuilder.givenModule;
+import static java.util.Arrays.asList;
+import static java.util.Collections.singleton;
+import static java.util.Collections.singletonList;
+import static java.util.Collections.synchronizedList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public final class An_AnalysisCache {
+
+    private static final String FAILURE = "!";
+
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private final List<String> analyzedFiles = synchronizedList(new ArrayList<String>());
+    private final List<String> finishedModules = synchronizedList(new ArrayList<String>());
+    private final List<String> restoredModules = synchronizedList(new ArrayList<String>());
+    private final CacheableAnalyzer analyzer = new CacheableAnalyzerStub();
+    private File cacheDirectory;
+    private File sourceDirectory;
+
+    @Before
+    public void setUpDirectories() throws IOException {
+        this.cacheDirectory = temporaryFolder.newFolder("cache");
+        this.sourceDirectory = temporaryFolder.newFolder("sources");
+    }
+
+    @Test
+    public void replaysFindingsOfUnchangedFiles() throws IOException {
+        givenFile("A.txt", "B");
+        givenFile("B.txt", "");
+        DeadCode firstRun = analyze("1.0");
+
+        DeadCode secondRun = analyze("1.0");
+
+        assertThat(analyzedFiles, containsInAnyOrder("A.txt", "B.txt"));
+        assertThat(secondRun.getAnalyzedClasses(), containsInAnyOrder("A", "B"));
+        assertThat(secondRun.getDeadClasses(), is(equalTo(firstRun.getDeadClasses())));
+        assertThat(secondRun.getDeadClasses(), contains("A"));
+    }
+
+    @Test
+    public void analyzesChangedFilesAgain() throws IOException {
+        givenFile("A.txt", "B");
+        givenFile("B.txt", "");
+        analyze("1.0");
+
+        givenFile("B.txt", "A");
+        DeadCode secondRun = analyze("1.0");
+
+        assertThat(analyzedFiles, containsInAnyOrder("A.txt", "B.txt", "B.txt"));
+        assertThat(secondRun.getDeadClasses(), is(empty()));
+    }
+
+    @Test
+    public void doesNotCacheFindingsOfFailedAnalysis() throws IOException {
+        givenFile("A.txt", FAILURE);
+        DeadCode firstRun = analyze("1.0");
+
+        analyze("1.0");
+
+        assertThat(analyzedFiles, contains("A.txt", "A.txt"));
+        assertThat(firstRun.getStagesWithExceptions(), contains(AnalysisStage.FILE_ANALYSIS));
+    }
+
+    @Test
+    public void discardsCacheCreatedByAnotherVersion() throws IOException {
+        givenFile("A.txt", "");
+        analyze("1.0");
+
+        analyze("2.0");
+
+        assertThat(analyzedFiles, contains("A.txt", "A.txt"));
+    }
+
+    @Test
+    public void analyzesFilesIfCacheIsCorrupt() throws IOException {
+        givenFile("A.txt", "");
+        analyze("1.0");
+        for (File cacheFile : FileUtils.listFiles(cacheDirectory, null, false)) {
+            FileUtils.write(cacheFile, "corrupt", "UTF-8");
+        }
+
+        DeadCode secondRun = analyze("1.0");
+
+        assertThat(analyzedFiles, contains("A.txt", "A.txt"));
+        assertThat(secondRun.getAnalyzedClasses(), contains("A"));
+    }
+
+    @Test
+    public void reusesAnalysisOfUnchangedModules() throws IOException {
+        File directoryOfA = temporaryFolder.newFolder("A");
+        FileUtils.write(new File(directoryOfA, "A.txt"), "A", "UTF-8");
+        Module a = givenModule("de.is24:A", directoryOfA);
+        Module b = givenModule("de.is24:B", temporaryFolder.newFolder("B"), a);
+        DeadCode firstRun = analyzeModules("1.0", a, b);
+
+        DeadCode secondRun = analyzeModules("1.0", a, b);
+
+        assertThat(finishedModules, contains("de.is24:A", "de.is24:B"));
+        assertThat(secondRun.getAnalyzedClasses(), containsInAnyOrder("de.is24:A", "de.is24:B"));
+        assertThat(secondRun.getDeadClasses(), is(equalTo(firstRun.getDeadClasses())));
+        assertThat(secondRun.getDeadClasses(), contains("de.is24:B"));
+    }
+
+    @Test
+    public void analyzesDependentModulesIfRequiredModuleChanged() throws IOException {
+        File directoryOfA = temporaryFolder.newFolder("A");
+        FileUtils.write(new File(directoryOfA, "A.txt"), "A", "UTF-8");
+        Module a = givenModule("de.is24:A", directoryOfA);
+        Module b = givenModule("de.is24:B", temporaryFolder.newFolder("B"), a);
+        Module c = givenModule("de.is24:C", temporaryFolder.newFolder("C"));
+        analyzeModules("1.0", a, b, c);
+
+        FileUtils.write(new File(directoryOfA, "A.txt"), "changed", "UTF-8");
+        analyzeModules("1.0", a, b, c);
+
+        assertThat(finishedModules, contains("de.is24:A", "de.is24:C", "de.is24:B", "de.is24:A", "de.is24:B"));
+    }
+
+    @Test
+    public void keepsIgnoredClassesOfReusedModules() throws IOException {
+        File directory = temporaryFolder.newFolder("ignoring");
+        FileUtils.copyFileToDirectory(FileLoader.getFile("A.class"), directory);
+        Module module = givenModule("de.is24:A", directory);
+        DeadCode firstRun = analyzeIgnoringClasses(module);
+
+        DeadCode secondRun = analyzeIgnoringClasses(module);
+
+        assertThat(firstRun.getDeadClasses(), is(empty()));
+        assertThat(secondRun.getAnalyzedClasses(), contains("A"));
+        assertThat(secondRun.getDeadClasses(), is(empty()));
+    }
+
+    @Test
+    public void analyzesModuleAgainIfConfigurationOfAnalyzerChanged() throws IOException {
+        Module module = givenModule("de.is24:A", temporaryFolder.newFolder("A"));
+        analyzeModuleIgnoring(module, "A");
+
+        analyzeModuleIgnoring(module, "A");
+        analyzeModuleIgnoring(module, "B");
+
+        assertThat(finishedModules, contains("de.is24:A", "de.is24:A"));
+    }
+
+    @Test
+    public void restoresStateOfReusedModules() throws IOException {
+        Module a = givenModule("de.is24:A", temporaryFolder.newFolder("A"));
+        File directoryOfB = temporaryFolder.newFolder("B");
+        Module b = givenModule("de.is24:B", directoryOfB);
+        analyzeStatefully(a, b);
+
+        FileUtils.write(new File(directoryOfB, "B.txt"), "", "UTF-8");
+        analyzeStatefully(a, b);
+
+        assertThat(finishedModules, contains("de.is24:A", "de.is24:B", "de.is24:B"));
+        assertThat(restoredModules, contains("de.is24:A"));
+    }
+
+    private void givenFile(String fileName, String content) throws IOException {
+        FileUtils.write(new File(sourceDirectory, fileName), content, "UTF-8");
+    }
+
+    private DeadCode analyzeModules(String version, Module... modules) {
+        return new DeadCodeFinder(new DeadCodeComputer(), newHashSet(new ModuleAnalyzerStub()), 1,
+                new AnalysisCache(cacheDirectory, version))
+                .findDeadCode(asList(modules));
+    }
+
+    private DeadCode analyzeIgnoringClasses(Module module) {
+        DeadCodeComputer deadCodeComputer = new DeadCodeComputer();
+        return new DeadCodeFinder(deadCodeComputer,
+                newHashSet(new IgnoreClassesAnalyzer(deadCodeComputer, newHashSet("A", "C"))), 1,
+                new AnalysisCache(cacheDirectory, "1.0"))
+                .findDeadCode(singletonList(module));
+    }
+
+    private void analyzeModuleIgnoring(Module module, String ignoredClass) {
+        DeadCodeComputer deadCodeComputer = new DeadCodeComputer();
+        new DeadCodeFinder(deadCodeComputer,
+                newHashSet(new ModuleAnalyzerStub(), new IgnoreClassesAnalyzer(deadCodeComputer, singleton(ignoredClass))),
+                1, new AnalysisCache(cacheDirectory, "1.0"))
+                .findDeadCode(singletonList(module));
+    }
+
+    private void analyzeStatefully(Module... modules) {
+        new DeadCodeFinder(new DeadCodeComputer(), newHashSet(new StatefulAnalyzerStub()), 1,
+                new AnalysisCache(cacheDirectory, "1.0"))
+                .findDeadCode(asList(modules));
+    }
+
+    private DeadCode analyze(String version) {
+        return new DeadCodeFinder(new DeadCodeComputer(), newHashSet(analyzer), 1,
+                new AnalysisCache(cacheDirectory, version))
+                .findDeadCode(newArrayList(givenModule("de.is24:A", sourceDirectory)));
+    }
+
+    private class ModuleAnalyzerStub extends AnalyzerAdapter {
+        @Override
+        public void doAnalysis(@Nonnull AnalysisContext analysisContext, @Nonnull File file) {
+        }
+
+        @Override
+        public void finishAnalysis(@Nonnull AnalysisContext analysisContext) {
+            String moduleId = analysisContext.getModule().getModuleId();
+            finishedModules.add(moduleId);
+            analysisContext.addAnalyzedClass(moduleId);
+            IntermediateResultSet<String> requiredModules = resultSetFrom(analysisContext, "modules");
+            if (requiredModules != null) {
+                analysisContext.addDependencies(moduleId, requiredModules.getResults());
+            }
+            analysisContext.getCache().put("modules", resultSetFor(singleton(moduleId)));
+        }
+    }
+
+    private class StatefulAnalyzerStub extends AnalyzerAdapter implements StatefulAnalyzer {
+        @Override
+        public void doAnalysis(@Nonnull AnalysisContext analysisContext, @Nonnull File file) {
+        }
+
+        @Override
+        public void finishAnalysis(@Nonnull AnalysisContext analysisContext) {
+            String moduleId = analysisContext.getModule().getModuleId();
+            finishedModules.add(moduleId);
+            analysisContext.getCache().put("module", resultSetFor(singleton(moduleId)));
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public void restoreAnalysis(@Nonnull AnalysisContext analysisContext) {
+            IntermediateResultSet<String> storedModule =
+                    (IntermediateResultSet<String>) analysisContext.getCache().get("module");
+            restoredModules.addAll(storedModule.getResults());
+        }
+    }
+
+    private class CacheableAnalyzerStub extends AnalyzerAdapter implements CacheableAnalyzer {
+        @Nonnull
+        @Override
+        public String getCacheKey() {
+            return getClass().getName();
+        }
+
+        @Override
+        public void doAnalysis(@Nonnull AnalysisContext analysisContext, @Nonnull File file) {
+            analyzedFiles.add(file.getName());
+            String className = file.getName().replace(".txt", "");
+            analysisContext.addAnalyzedClass(className);
+            try {
+                String dependee = FileUtils.readFileToString(file, "UTF-8");
+                if (FAILURE.equals(dependee)) {
+                    analysisContext.addException(AnalysisStage.FILE_ANALYSIS);
+                } else if (!dependee.isEmpty()) {
+                    analysisContext.addDependencies(className, dependee);
+                }
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,139 @@
+package de.is24.deadcode4j;
+
+import de.is24.guava.NonNullFunction;
+import org.junit.After;
+import org.junit.Test;
+
+import javax.annotation.Nonnull;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static de.is24.deadcode4j.AnalysisContextBuilder.givenAnalysisContext;
+import static de.is24.deadcode4j.ModuleBuilder.givenModule;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public final class An_AnalysisContext {
+
+    private static final int NUMBER_OF_THREADS = 16;
+    private static final int REPORTS_PER_THREAD = 5000;
+
+    private final AnalysisContext objectUnderTest = givenAnalysisContext(givenModule("A"));
+    private final ExecutorService executorService = Executors.newFixedThreadPool(NUMBER_OF_THREADS);
+
+    @After
+    public void shutDownThreads() {
+        executorService.shutdownNow();
+    }
+
+    @Test
+    public void collectsAllReportsOfConcurrentWriters() throws Exception {
+        runConcurrently(new Task() {
+            @Override
+            public void run(int threadNumber) {
+                AnalysisContext view = objectUnderTest.createView();
+                for (int i = 0; i < REPORTS_PER_THREAD; i++) {
+                    view.addAnalyzedClass("Class" + i);
+                    view.addDependencies("Depender" + (i % 100), "Thread" + threadNumber + "Class" + i);
+                }
+                view.addException(AnalysisStage.FILE_ANALYSIS);
+            }
+        });
+
+        AnalyzedCode analyzedCode = objectUnderTest.getAnalyzedCode();
+        assertThat(analyzedCode.getAnalyzedClasses(), hasSize(REPORTS_PER_THREAD));
+        Map<String, Set<String>> dependencies = analyzedCode.getCodeDependencies();
+        assertThat(dependencies.size(), is(100));
+        int numberOfDependees = 0;
+        for (Set<String> dependees : dependencies.values()) {
+            numberOfDependees += dependees.size();
+        }
+        assertThat(numberOfDependees, is(NUMBER_OF_THREADS * REPORTS_PER_THREAD));
+        assertThat(analyzedCode.getStagesWithExceptions(), contains(AnalysisStage.FILE_ANALYSIS));
+    }
+
+    @Test
+    public void createsCacheEntryOnlyOnceForConcurrentRequests() throws Exception {
+        final AtomicInteger numberOfCreations = new AtomicInteger();
+        final List<Object> entries = new CopyOnWriteArrayList<Object>();
+        final NonNullFunction<AnalysisContext, Object> supplier = new NonNullFunction<AnalysisContext, Object>() {
+            @Nonnull
+            @Override
+            public Object apply(@Nonnull AnalysisContext input) {
+                numberOfCreations.incrementAndGet();
+                try {
+                    Thread.sleep(50);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return new Object();
+            }
+        };
+
+        runConcurrently(new Task() {
+            @Override
+            public void run(int threadNumber) {
+                entries.add(objectUnderTest.getOrCreateCacheEntry("key", supplier));
+            }
+        });
+
+        assertThat(numberOfCreations.get(), is(1));
+        assertThat(entries, hasSize(NUMBER_OF_THREADS));
+        assertThat(entries, everyItem(sameInstance(entries.get(0))));
+    }
+
+    @Test
+    public void retriesCreatingCacheEntryIfSupplierFailed() {
+        NonNullFunction<AnalysisContext, Object> failingSupplier = new NonNullFunction<AnalysisContext, Object>() {
+            @Nonnull
+            @Override
+            public Object apply(@Nonnull AnalysisContext input) {
+                throw new IllegalStateException("expected");
+            }
+        };
+        try {
+            objectUnderTest.getOrCreateCacheEntry("key", failingSupplier);
+        } catch (IllegalStateException expected) {
+            // expected
+        }
+
+        Object entry = objectUnderTest.getOrCreateCacheEntry("key", new NonNullFunction<AnalysisContext, Object>() {
+            @Nonnull
+            @Override
+            public Object apply(@Nonnull AnalysisContext input) {
+                return "entry";
+            }
+        });
+
+        assertThat(entry, is((Object) "entry"));
+    }
+
+    private void runConcurrently(final Task task) throws Exception {
+        final CountDownLatch startSignal = new CountDownLatch(1);
+        List<Future<?>> futures = newArrayList();
+        for (int i = 0; i < NUMBER_OF_THREADS; i++) {
+            final int threadNumber = i;
+            futures.add(executorService.submit(new Callable<Void>() {
+                @Override
+                public Void call() throws Exception {
+                    startSignal.await();
+                    task.run(threadNumber);
+                    return null;
+                }
+            }));
+        }
+        startSignal.countDown();
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+    }
+
+    private interface Task {
+        void run(int threadNumber);
+    }
+
+}
@@ -0,0 +1,82 @@
+package de.is24.deadcode4j;
+
+import org.junit.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public final class An_AnalyzedCodeBuilder {
+
+    private final ClassNameTable classNames = new ClassNameTable();
+    private final AnalyzedCodeBuilder objectUnderTest = new AnalyzedCodeBuilder(classNames);
+
+    @Test
+    public void combinesAddedCode() {
+        AnalysisSink first = new AnalysisSink(classNames);
+        first.addAnalyzedClass("A");
+        first.addDependencies("A", "B");
+        AnalysisSink second = new AnalysisSink(classNames);
+        second.addAnalyzedClass("B");
+        second.addDependencies("A", "C");
+        second.addException(AnalysisStage.FILE_ANALYSIS);
+
+        AnalyzedCode analyzedCode = objectUnderTest.add(first.getAnalyzedCode()).add(second.getAnalyzedCode()).build();
+
+        assertThat(analyzedCode.getAnalyzedClasses(), containsInAnyOrder("A", "B"));
+        assertThat(analyzedCode.getCodeDependencies().get("A"), containsInAnyOrder("B", "C"));
+        assertThat(analyzedCode.getStagesWithExceptions(), contains(AnalysisStage.FILE_ANALYSIS));
+    }
+
+    @Test
+    public void doesNotAlterCodeThatWasAlreadyBuilt() {
+        AnalysisSink first = new AnalysisSink(classNames);
+        first.addAnalyzedClass("A");
+        first.addDependencies("A", "B");
+        AnalyzedCode firstCode = objectUnderTest.add(first.getAnalyzedCode()).build();
+        firstCode.getDependencyGraph();
+        AnalysisSink second = new AnalysisSink(classNames);
+        second.addAnalyzedClass("C");
+        second.addDependencies("A", "C");
+
+        AnalyzedCode secondCode = objectUnderTest.add(second.getAnalyzedCode()).build();
+
+        assertThat(firstCode.getAnalyzedClasses(), contains("A"));
+        assertThat(firstCode.getCodeDependencies().get("A"), contains("B"));
+        assertThat(secondCode.getAnalyzedClasses(), containsInAnyOrder("A", "C"));
+        assertThat(secondCode.getCodeDependencies().get("A"), containsInAnyOrder("B", "C"));
+    }
+
+    @Test
+    public void answersQueriesWithoutUnitingTheGraphs() {
+        AnalysisSink first = new AnalysisSink(classNames);
+        first.addAnalyzedClass("A");
+        first.addDependencies("A", "B");
+        AnalysisSink second = new AnalysisSink(classNames);
+        second.addAnalyzedClass("B");
+        second.addDependencies("A", "B", "C");
+
+        AnalyzedCode analyzedCode = objectUnderTest.add(first.getAnalyzedCode()).add(second.getAnalyzedCode()).build();
+
+        assertThat(analyzedCode.getNumberOfDependeesOf(classNames.getId("A")), is(2));
+        assertThat(analyzedCode.getNumberOfDependeesOf(classNames.getId("B")), is(0));
+        assertThat(analyzedCode.isAnalyzedClass("B"), is(true));
+        assertThat(analyzedCode.isAnalyzedClass("C"), is(false));
+        assertThat(analyzedCode.isAnalyzedClass("D"), is(false));
+        assertThat(analyzedCode.getDependencyGraphs(), hasSize(2));
+    }
+
+    @Test
+    public void translatesCodeBasedOnAnotherClassNameTable() {
+        classNames.getId("C");
+        AnalysisSink sink = new AnalysisSink();
+        sink.addAnalyzedClass("A");
+        sink.addDependencies("A", "B", "C");
+
+        AnalyzedCode analyzedCode = objectUnderTest.add(sink.getAnalyzedCode()).build();
+
+        assertThat(analyzedCode.getClassNames(), is(sameInstance(classNames)));
+        assertThat(analyzedCode.getAnalyzedClasses(), contains("A"));
+        assertThat(analyzedCode.getCodeDependencies().get("A"), containsInAnyOrder("B", "C"));
+    }
+
+}
@@ -0,0 +1,102 @@
+package de.is24.deadcode4j;
+
+import de.is24.deadcode4j.analyzer.AnalyzerAdapter;
+import org.junit.Test;
+
+import javax.annotation.Nonnull;
+import java.io.File;
+
+import static java.util.Arrays.asList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public final class An_AnalyzerIndex {
+
+    private final Analyzer classAnalyzer = new SelectiveAnalyzerStub(".class");
+    private final Analyzer webXmlAnalyzer = new SelectiveAnalyzerStub("web.xml");
+    private final Analyzer xmlAnalyzer = new SelectiveAnalyzerStub(".xml");
+    private final Analyzer handlersAnalyzer = new SelectiveAnalyzerStub("META-INF/spring.handlers");
+    private final Analyzer makefileAnalyzer = new SelectiveAnalyzerStub("Makefile");
+    private final Analyzer unselectiveAnalyzer = new AnalyzerStub();
+
+    private final AnalyzerIndex objectUnderTest = new AnalyzerIndex(asList(classAnalyzer, webXmlAnalyzer,
+            unselectiveAnalyzer, xmlAnalyzer, handlersAnalyzer, makefileAnalyzer));
+
+    @Test
+    public void offersFileToAnalyzersDeclaringItsExtension() {
+        assertThat(objectUnderTest.getAnalyzersFor(new File("target/Foo.class")),
+                contains(classAnalyzer, unselectiveAnalyzer));
+    }
+
+    @Test
+    public void offersFileToAnalyzersDeclaringItsNameAndRetainsOrder() {
+        assertThat(objectUnderTest.getAnalyzersFor(new File("WEB-INF/web.xml")),
+                contains(webXmlAnalyzer, unselectiveAnalyzer, xmlAnalyzer));
+        assertThat(objectUnderTest.getAnalyzersFor(new File("WEB-INF/beans.xml")),
+                contains(unselectiveAnalyzer, xmlAnalyzer));
+    }
+
+    @Test
+    public void offersFileToAnalyzersDeclaringPartOfItsPath() {
+        assertThat(objectUnderTest.getAnalyzersFor(new File("META-INF/spring.handlers")),
+                contains(unselectiveAnalyzer, handlersAnalyzer));
+        assertThat(objectUnderTest.getAnalyzersFor(new File("spring.handlers")),
+                contains(unselectiveAnalyzer));
+    }
+
+    @Test
+    public void offersFileWithoutKnownExtensionToAnalyzersDeclaringSuffixWithoutExtension() {
+        assertThat(objectUnderTest.getAnalyzersFor(new File("Makefile")),
+                contains(unselectiveAnalyzer, makefileAnalyzer));
+        assertThat(objectUnderTest.getAnalyzersFor(new File("README.md")),
+                contains(unselectiveAnalyzer));
+    }
+
+    @Test
+    public void countsFilesPerExtension() {
+        objectUnderTest.getAnalyzersFor(new File("A.class"));
+        objectUnderTest.getAnalyzersFor(new File("B.class"));
+        objectUnderTest.getAnalyzersFor(new File("web.xml"));
+        objectUnderTest.getAnalyzersFor(new File("Makefile"));
+
+        assertThat(objectUnderTest.getFileCounts(), allOf(
+                hasEntry(".class", 2),
+                hasEntry(".xml", 1),
+                hasEntry("", 1)));
+    }
+
+    @Test
+    public void selectsFilesOfferedToAnalyzerAndRetainsOrder() {
+        File makefile = new File("Makefile");
+        File webXml = new File("WEB-INF/web.xml");
+        File beansXml = new File("WEB-INF/beans.xml");
+        File clazz = new File("A.class");
+
+        assertThat(objectUnderTest.selectFilesFor(xmlAnalyzer, asList(makefile, webXml, clazz, beansXml)),
+                contains(webXml, beansXml));
+        assertThat(objectUnderTest.selectFilesFor(makefileAnalyzer, asList(makefile, webXml, clazz, beansXml)),
+                contains(makefile));
+        assertThat(objectUnderTest.getFileCounts().isEmpty(), is(true));
+    }
+
+    private static class AnalyzerStub extends AnalyzerAdapter {
+        @Override
+        public void doAnalysis(@Nonnull AnalysisContext analysisContext, @Nonnull File fileName) {
+        }
+    }
+
+    private static class SelectiveAnalyzerStub extends AnalyzerStub implements SelectiveAnalyzer {
+        private final String suffix;
+
+        public SelectiveAnalyzerStub(String suffix) {
+            this.suffix = suffix;
+        }
+
+        @Nonnull
+        @Override
+        public Iterable<String> getFileSuffixes() {
+            return asList(this.suffix);
+        }
+    }
+
+}
@@ -106,4 +106,16 @@ public final class An_IntermediateResultMap {
         assertThat(mergedResult.getResults(), hasEntry(is("foo"), containsInAnyOrder("bar", "foo")));
     }
 
-}
\ No newline at end of file
+    @Test
+    public void doesNotModifyCollectionsOfMergedResults() {
+        IntermediateResultMap<String, HashSet<String>> parent = givenIntermediateResultMap("foo", newHashSet("foo"));
+        IntermediateResultMap<String, HashSet<String>> objectUnderTest =
+                givenIntermediateResultMap("foo", newHashSet("bar"));
+
+        mergeParent(objectUnderTest, parent);
+
+        assertThat(objectUnderTest.getResults(), hasEntry(is("foo"), contains("bar")));
+        assertThat(parent.getResults(), hasEntry(is("foo"), contains("foo")));
+    }
+
+}
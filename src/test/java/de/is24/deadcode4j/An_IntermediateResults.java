@@ -6,9 +6,16 @@ import org.junit.Rule;
 import org.junit.Test;
 
 import javax.annotation.Nonnull;
+import java.util.List;
 import java.util.Map;
 
+import static com.google.common.collect.Lists.newArrayList;
+import static de.is24.deadcode4j.IntermediateResults.IntermediateResultSet;
+import static de.is24.deadcode4j.IntermediateResults.resultSetFor;
 import static de.is24.deadcode4j.ModuleBuilder.givenModule;
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singleton;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
 
@@ -117,6 +124,30 @@ public final class An_IntermediateResults {
         assertThat(intermediateResults, hasEntry(is(key), hasToString("ForB->(ForA)+ForC->(ForA+ForZ)+ForD+ForX->(ForY->(ForZ))")));
     }
 
+    @Test(timeout = 10000)
+    public void calculatesResultsOfSharedAncestorsOnlyOnce() {
+        Object key = getClass();
+        List<Module> previousLevel = emptyList();
+        for (int level = 0; level < 40; level++) {
+            List<Module> currentLevel = newArrayList();
+            for (String name : asList("Left", "Right")) {
+                Module module = givenModule(name + level, previousLevel.toArray(new Module[previousLevel.size()]));
+                AnalysisContext analysisContext = AnalysisContextBuilder.givenAnalysisContext(module);
+                analysisContext.getCache().put(key, resultSetFor(singleton(module.getModuleId())));
+                objectUnderTest.calculateIntermediateResultsFor(module);
+                objectUnderTest.add(analysisContext);
+                currentLevel.add(module);
+            }
+            previousLevel = currentLevel;
+        }
+
+        Map<Object, IntermediateResult> intermediateResults = objectUnderTest.calculateIntermediateResultsFor(
+                givenModule("Bottom", previousLevel.toArray(new Module[previousLevel.size()])));
+
+        IntermediateResultSet<String> resultSet = IntermediateResultSet.class.cast(intermediateResults.get(key));
+        assertThat(resultSet.getResults(), hasSize(80));
+    }
+
     private static class AnIntermediateResult implements IntermediateResult {
         private final String string;
 
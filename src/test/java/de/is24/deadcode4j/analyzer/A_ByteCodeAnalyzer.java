@@ -1,7 +1,8 @@
 package de.is24.deadcode4j.analyzer;
 
 import de.is24.deadcode4j.AnalysisContext;
-import javassist.CtClass;
+import de.is24.deadcode4j.analyzer.classfile.ClassFacts;
+import de.is24.deadcode4j.analyzer.classfile.ClassFileHeader;
 import org.junit.Test;
 
 import javax.annotation.Nonnull;
@@ -15,8 +16,8 @@ public final class A_ByteCodeAnalyzer extends AnAnalyzer<ByteCodeAnalyzer> {
     protected ByteCodeAnalyzer createAnalyzer() {
         return new ByteCodeAnalyzer() {
             @Override
-            protected void analyzeClass(@Nonnull AnalysisContext analysisContext, @Nonnull CtClass clazz) {
-                analysisContext.addAnalyzedClass(clazz.getName());
+            protected void analyzeClass(@Nonnull AnalysisContext analysisContext, @Nonnull ClassFacts classFacts) {
+                analysisContext.addAnalyzedClass(classFacts.getClassName());
             }
         };
     }
@@ -36,4 +37,25 @@ public final class A_ByteCodeAnalyzer extends AnAnalyzer<ByteCodeAnalyzer> {
         assertThat("Should analyze no class", analysisContext.getAnalyzedCode().getAnalyzedClasses(), hasSize(0));
         assertThatNoDependenciesAreReported();
     }
+
+    @Test
+    public void doesNotAnalyzeClassRejectedByItsHeader() {
+        objectUnderTest = new ByteCodeAnalyzer() {
+            @Override
+            protected boolean preAnalyzeClass(@Nonnull AnalysisContext analysisContext,
+                                              @Nonnull ClassFileHeader header) {
+                return !"SingleClass".equals(header.getClassName());
+            }
+
+            @Override
+            protected void analyzeClass(@Nonnull AnalysisContext analysisContext, @Nonnull ClassFacts classFacts) {
+                analysisContext.addAnalyzedClass(classFacts.getClassName());
+            }
+        };
+
+        analyzeFile("SingleClass.class");
+        analyzeFile("DependingClass.class");
+
+        assertThatClassesAreReported("DependingClass");
+    }
 }
@@ -3,7 +3,8 @@ package de.is24.deadcode4j.analyzer;
 import org.junit.Test;
 
 import static com.google.common.collect.Iterables.concat;
-import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
 import static org.junit.Assume.assumeThat;
 
 public final class A_ClassDependencyAnalyzer extends AByteCodeAnalyzer<ClassDependencyAnalyzer> {
@@ -29,6 +30,24 @@ public final class A_ClassDependencyAnalyzer extends AByteCodeAnalyzer<ClassDepe
                 "java.lang.Object");
     }
 
+    @Test
+    public void reportsTheSameDependenciesUsingJavassist() {
+        objectUnderTest = new ClassDependencyAnalyzer(ClassDependencyAnalyzer.Engine.JAVASSIST);
+
+        analyzeFile("DependingClass.class");
+
+        assertThatClassesAreReported("DependingClass");
+        assertThatDependenciesAreReportedFor("DependingClass",
+                "IndependentClass",
+                "java.lang.Object");
+    }
+
+    @Test
+    public void usesDifferentCacheKeysForDifferentEngines() {
+        assertThat(new ClassDependencyAnalyzer(ClassDependencyAnalyzer.Engine.JAVASSIST).getCacheKey(),
+                is(not(equalTo(objectUnderTest.getCacheKey()))));
+    }
+
     @Test
     public void recognizesDependenciesToInnerClass() {
         analyzeFile("de/is24/deadcode4j/analyzer/classdependency/ClassWithInnerClasses.class");
@@ -1,18 +1,39 @@
 package de.is24.deadcode4j.analyzer;
 
+import com.google.common.base.Optional;
 import de.is24.deadcode4j.AnalysisContext;
+import de.is24.deadcode4j.Resource;
 import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.expr.Expression;
+import com.github.javaparser.ast.expr.NameExpr;
+import com.github.javaparser.ast.type.ClassOrInterfaceType;
+import javassist.CtClass;
 import org.junit.Before;
 import org.junit.Test;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.File;
+import java.util.Collections;
+import java.util.List;
 import java.util.concurrent.atomic.AtomicBoolean;
 
+import static com.google.common.collect.Lists.newArrayList;
+import static de.is24.deadcode4j.AnalysisContextBuilder.givenAnalysisContext;
+import static de.is24.deadcode4j.ModuleBuilder.givenModule;
+import static de.is24.deadcode4j.junit.FileLoader.getFile;
+import static java.util.Collections.singletonList;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
 
 public final class A_JavaFileAnalyzer extends AnAnalyzer<JavaFileAnalyzer> {
 
+    private static final String TYPE_RESOLUTION_PACKAGE = "de.is24.deadcode4j.analyzer.typeresolution.";
+    private static final String TYPE_RESOLUTION = "../../src/test/java/de/is24/deadcode4j/analyzer/typeresolution/";
+
     private AtomicBoolean didAnalyzeFile;
 
     @Before
@@ -44,4 +65,237 @@ public final class A_JavaFileAnalyzer extends AnAnalyzer<JavaFileAnalyzer> {
         assertThat(didAnalyzeFile.get(), is(false));
     }
 
-}
\ No newline at end of file
+    @Test
+    public void callsNodeCallbacksOfAllAnalyzersTheFileWasAnnouncedToWithinOneTraversal() {
+        File file = getFile("../../src/test/java/ClassWithTypeArgument.java");
+        TypeRecordingAnalyzer firstAnalyzer = new TypeRecordingAnalyzer(true);
+        TypeRecordingAnalyzer secondAnalyzer = new TypeRecordingAnalyzer(true);
+        firstAnalyzer.prefetch(analysisContext, singletonList(file));
+        secondAnalyzer.prefetch(analysisContext, singletonList(file));
+
+        firstAnalyzer.doAnalysis(analysisContext, file);
+        secondAnalyzer.doAnalysis(analysisContext, file);
+
+        assertThat(firstAnalyzer.numberOfTraversals, is(1));
+        assertThat(secondAnalyzer.numberOfTraversals, is(1));
+        assertThat(secondAnalyzer.visitedTypes, contains("ArrayList", "TypeParameterClass"));
+        firstAnalyzer.finishAnalysis(analysisContext);
+        secondAnalyzer.finishAnalysis(analysisContext);
+    }
+
+    @Test
+    public void traversesFileForEachAnalyzerIfFileWasNotAnnounced() {
+        File file = getFile("../../src/test/java/ClassWithTypeArgument.java");
+        TypeRecordingAnalyzer firstAnalyzer = new TypeRecordingAnalyzer(true);
+        TypeRecordingAnalyzer secondAnalyzer = new TypeRecordingAnalyzer(true);
+
+        firstAnalyzer.doAnalysis(analysisContext, file);
+
+        assertThat(secondAnalyzer.numberOfTraversals, is(0));
+
+        secondAnalyzer.doAnalysis(analysisContext, file);
+
+        assertThat(secondAnalyzer.numberOfTraversals, is(1));
+        assertThat(secondAnalyzer.visitedTypes, contains("ArrayList", "TypeParameterClass"));
+    }
+
+    @Test
+    public void doesNotCallNodeCallbacksForChildrenOfNodesTheyAreNotInterestedIn() {
+        File file = getFile("../../src/test/java/ClassWithTypeArgument.java");
+        TypeRecordingAnalyzer uninterestedAnalyzer = new TypeRecordingAnalyzer(false);
+        TypeRecordingAnalyzer interestedAnalyzer = new TypeRecordingAnalyzer(true);
+        uninterestedAnalyzer.prefetch(analysisContext, singletonList(file));
+        interestedAnalyzer.prefetch(analysisContext, singletonList(file));
+
+        uninterestedAnalyzer.doAnalysis(analysisContext, file);
+
+        assertThat(uninterestedAnalyzer.visitedTypes, contains("ArrayList"));
+        assertThat(interestedAnalyzer.visitedTypes, contains("ArrayList", "TypeParameterClass"));
+        uninterestedAnalyzer.finishAnalysis(analysisContext);
+        interestedAnalyzer.finishAnalysis(analysisContext);
+    }
+
+    @Test
+    public void resolvesTheSameNameDependingOnTheReferencingType() {
+        TypeResolvingAnalyzer analyzer = resolveTypesOf("ClassWithShadowedNestedType.java");
+
+        assertThat(analyzer.resolvedTypes, contains(
+                TYPE_RESOLUTION_PACKAGE + "ClassWithShadowedNestedType$Nested$Deeper",
+                TYPE_RESOLUTION_PACKAGE + "ClassWithShadowedNestedType$Nested$Deeper",
+                TYPE_RESOLUTION_PACKAGE + "ClassWithShadowedNestedType$Nested",
+                TYPE_RESOLUTION_PACKAGE + "ClassWithShadowedNestedType$Shadowing$Nested"));
+    }
+
+    @Test
+    public void resolvesTheSameNameDependingOnTheCompilationUnit() {
+        TypeResolvingAnalyzer analyzer =
+                resolveTypesOf("ClassWithShadowedNestedType.java", "ClassWithOtherNestedType.java");
+
+        assertThat(analyzer.resolvedTypes, hasSize(5));
+        assertThat(analyzer.resolvedTypes.get(2), is(TYPE_RESOLUTION_PACKAGE + "ClassWithShadowedNestedType$Nested"));
+        assertThat(analyzer.resolvedTypes.get(4), is(TYPE_RESOLUTION_PACKAGE + "ClassWithOtherNestedType$Nested"));
+    }
+
+    @Test
+    public void memoizesTypesThatCannotBeResolved() {
+        TypeResolvingAnalyzer analyzer = resolveTypesOf("ClassWithShadowedNestedType.java");
+
+        assertThat(analyzer.resolvedNames, contains("null", "null"));
+        assertThat(analyzer.examinedInheritedTypes.get(0), is(greaterThan(0)));
+        assertThat(analyzer.examinedInheritedTypes.get(1), is(analyzer.examinedInheritedTypes.get(0)));
+    }
+
+    @Test
+    public void distinguishesQualifiersEnclosedByDifferentParents() {
+        TypeResolvingAnalyzer analyzer = resolveTypesOf("ClassWithShadowedNestedType.java");
+
+        // the scope of Nested.Deeper is resolved along its parent first, the plain Nested afterwards
+        assertThat(analyzer.resolvedTypes.get(0),
+                is(TYPE_RESOLUTION_PACKAGE + "ClassWithShadowedNestedType$Nested$Deeper"));
+        assertThat(analyzer.resolvedTypes.get(2), is(TYPE_RESOLUTION_PACKAGE + "ClassWithShadowedNestedType$Nested"));
+    }
+
+    private TypeResolvingAnalyzer resolveTypesOf(String... fileNames) {
+        analysisContext = givenAnalysisContext(
+                givenModule("de.is24:deadcode4j-junit", getFile("."), Collections.<Resource>emptyList()));
+        TypeResolvingAnalyzer analyzer = new TypeResolvingAnalyzer();
+        for (String fileName : fileNames) {
+            analyzer.doAnalysis(analysisContext, getFile(TYPE_RESOLUTION + fileName));
+        }
+        return analyzer;
+    }
+
+    private static class TypeRecordingAnalyzer extends JavaFileAnalyzer {
+        private final boolean visitTypeArguments;
+        private final List<String> visitedTypes = newArrayList();
+        private int numberOfTraversals;
+
+        public TypeRecordingAnalyzer(boolean visitTypeArguments) {
+            this.visitTypeArguments = visitTypeArguments;
+        }
+
+        @Override
+        protected NodeCallbacks createNodeCallbacks(@Nonnull AnalysisContext analysisContext,
+                                                    @Nonnull CompilationUnit compilationUnit) {
+            numberOfTraversals++;
+            return new NodeCallbacks() {
+                @Override
+                protected boolean visit(@Nonnull ClassOrInterfaceType node, @Nonnull Scope scope) {
+                    visitedTypes.add(node.getName());
+                    return visitTypeArguments;
+                }
+            };
+        }
+    }
+
+    /**
+     * Resolves each type reference &amp; name it comes across; the scope of a qualified type is resolved before the
+     * type itself.
+     */
+    private static class TypeResolvingAnalyzer extends JavaFileAnalyzer {
+        private final List<String> resolvedTypes = newArrayList();
+        private final List<String> resolvedNames = newArrayList();
+        private final List<Integer> examinedInheritedTypes = newArrayList();
+        private int numberOfExaminedInheritedTypes;
+
+        @Override
+        protected NodeCallbacks createNodeCallbacks(@Nonnull final AnalysisContext analysisContext,
+                                                    @Nonnull CompilationUnit compilationUnit) {
+            return new NodeCallbacks() {
+                @Override
+                protected boolean visit(@Nonnull ClassOrInterfaceType node, @Nonnull Scope scope) {
+                    TypeQualifier qualifier = new TypeQualifier(node, null);
+                    Qualifier<?> scopeQualifier = qualifier.getScopeQualifier();
+                    if (scopeQualifier != null) {
+                        resolvedTypes.add(String.valueOf(resolveType(analysisContext, scopeQualifier).orNull()));
+                    }
+                    resolvedTypes.add(String.valueOf(resolveType(analysisContext, qualifier).orNull()));
+                    return false;
+                }
+
+                @Override
+                protected boolean visit(@Nonnull NameExpr node, @Nonnull Scope scope) {
+                    if (!Expression.class.isInstance(node.getParentNode())) {
+                        return true; // the name of a declaration
+                    }
+                    resolvedNames.add(String.valueOf(resolveType(analysisContext, new NameQualifier(node)).orNull()));
+                    examinedInheritedTypes.add(numberOfExaminedInheritedTypes);
+                    return true;
+                }
+            };
+        }
+
+        private static class TypeQualifier extends Qualifier<ClassOrInterfaceType> {
+
+            public TypeQualifier(@Nonnull ClassOrInterfaceType type, @Nullable TypeQualifier parent) {
+                super(type, parent);
+            }
+
+            @Nonnull
+            @Override
+            protected String getName(@Nonnull ClassOrInterfaceType type) {
+                return type.getName();
+            }
+
+            @Nonnull
+            @Override
+            protected String getFullQualifier(@Nonnull ClassOrInterfaceType type) {
+                ClassOrInterfaceType scope = type.getScope();
+                return scope == null ? type.getName() : getFullQualifier(scope) + "." + type.getName();
+            }
+
+            @Nullable
+            @Override
+            protected Qualifier<?> getScopeQualifier(@Nonnull ClassOrInterfaceType type) {
+                return type.getScope() == null ? null : new TypeQualifier(type.getScope(), this);
+            }
+
+            @Override
+            protected boolean allowsPartialResolving() {
+                return true;
+            }
+
+        }
+
+        private class NameQualifier extends Qualifier<NameExpr> {
+
+            public NameQualifier(@Nonnull NameExpr name) {
+                super(name);
+            }
+
+            @Nonnull
+            @Override
+            protected String getName(@Nonnull NameExpr name) {
+                return name.getName();
+            }
+
+            @Nonnull
+            @Override
+            protected String getFullQualifier(@Nonnull NameExpr name) {
+                return name.getName();
+            }
+
+            @Nullable
+            @Override
+            protected Qualifier<?> getScopeQualifier(@Nonnull NameExpr name) {
+                return null;
+            }
+
+            @Override
+            protected boolean allowsPartialResolving() {
+                return false;
+            }
+
+            @Nonnull
+            @Override
+            protected Optional<String> examineInheritedType(@Nonnull CtClass referencingClazz,
+                                                            @Nonnull CtClass inheritedClazz) {
+                numberOfExaminedInheritedTypes++;
+                return super.examineInheritedType(referencingClazz, inheritedClazz);
+            }
+
+        }
+
+    }
+
+}
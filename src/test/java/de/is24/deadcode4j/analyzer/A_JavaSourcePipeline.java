@@ -0,0 +1,201 @@
+package de.is24.deadcode4j.analyzer;
+
+import com.github.javaparser.ast.CompilationUnit;
+import com.google.common.base.Optional;
+import com.google.common.base.Predicates;
+import de.is24.deadcode4j.AnalysisContext;
+import de.is24.deadcode4j.DeadCodeFinder;
+import de.is24.guava.NonNullFunction;
+import org.junit.After;
+import org.junit.Test;
+
+import javax.annotation.Nonnull;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static de.is24.deadcode4j.AnalysisContextBuilder.givenAnalysisContext;
+import static de.is24.deadcode4j.ModuleBuilder.givenModule;
+import static de.is24.deadcode4j.analyzer.JavaSourcePipeline.PARSED_UNITS_PER_THREAD;
+import static java.util.Collections.singleton;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public final class A_JavaSourcePipeline {
+
+    private static final int NUMBER_OF_THREADS = 3;
+    private static final int CAPACITY = PARSED_UNITS_PER_THREAD * NUMBER_OF_THREADS;
+
+    private final AnalysisContext analysisContext = givenAnalysisContext(givenModule("de.is24:deadcode4j-junit"));
+
+    {
+        analysisContext.getProjectCache().put(DeadCodeFinder.NUMBER_OF_THREADS, NUMBER_OF_THREADS);
+    }
+    private final Map<File, CompilationUnit> parsedUnits = new ConcurrentHashMap<File, CompilationUnit>();
+    private final CountDownLatch parsingIsAllowed = new CountDownLatch(1);
+    private final List<File> files = newArrayList();
+
+    @After
+    public void stopParserThreads() throws IOException {
+        JavaSourcePipeline.stop(analysisContext);
+        parsingIsAllowed.countDown();
+        for (Object entry : analysisContext.getProjectCache().values()) {
+            if (entry instanceof Closeable) {
+                ((Closeable) entry).close();
+            }
+        }
+    }
+
+    @Test
+    public void providesTheUnitsParsedAheadInOrder() {
+        JavaSourcePipeline pipeline = givenPipelineFor(2 * CAPACITY + 1);
+
+        for (File file : files) {
+            Optional<CompilationUnit> unit = pipeline.take(file);
+
+            assertThat(unit, is(notNullValue()));
+            assertThat(unit.get(), is(sameInstance(parsedUnits.get(file))));
+        }
+    }
+
+    @Test
+    public void doesNotProvideUnitOfFileThatWasNotAnnounced() {
+        JavaSourcePipeline pipeline = givenPipelineFor(3);
+
+        assertThat(pipeline.take(new File("Unknown.java")), is(nullValue()));
+    }
+
+    @Test
+    public void doesNotProvideUnitOfFileThatWasSkipped() {
+        JavaSourcePipeline pipeline = givenPipelineFor(2 * CAPACITY + 1);
+
+        assertThat(pipeline.take(files.get(2 * CAPACITY)), is(notNullValue()));
+
+        assertThat(pipeline.take(files.get(0)), is(nullValue()));
+    }
+
+    @Test
+    public void doesNotProvideUnitOfFileThatIsNotToBeParsed() {
+        File skippedFile = givenFiles(2).get(1);
+        JavaSourcePipeline.start(analysisContext, files, new UnitCreator(),
+                Predicates.not(Predicates.in(singleton(skippedFile))));
+        JavaSourcePipeline pipeline = JavaSourcePipeline.pipelineFor(analysisContext);
+        allowParsing();
+
+        assertThat(pipeline.take(files.get(0)), is(notNullValue()));
+        assertThat(pipeline.take(skippedFile), is(nullValue()));
+        assertThat(parsedUnits.keySet(), contains(files.get(0)));
+    }
+
+    @Test
+    public void parsesAtMostTheConfiguredNumberOfFilesAhead() throws InterruptedException {
+        JavaSourcePipeline pipeline = givenPipelineFor(3 * CAPACITY);
+
+        awaitParsedUnits(CAPACITY);
+        assertThat(parsedUnits.keySet(), containsInAnyOrder(files.subList(0, CAPACITY).toArray()));
+
+        pipeline.take(files.get(CAPACITY / 2));
+        awaitParsedUnits(CAPACITY + CAPACITY / 2);
+        assertThat(parsedUnits.keySet(), containsInAnyOrder(files.subList(0, CAPACITY + CAPACITY / 2).toArray()));
+    }
+
+    @Test
+    public void parsesAheadForOneThreadIfTheNumberOfThreadsIsNotConfigured() throws InterruptedException {
+        analysisContext.getProjectCache().remove(DeadCodeFinder.NUMBER_OF_THREADS);
+        givenPipelineFor(CAPACITY);
+
+        awaitParsedUnits(PARSED_UNITS_PER_THREAD);
+        assertThat(parsedUnits.keySet(), containsInAnyOrder(files.subList(0, PARSED_UNITS_PER_THREAD).toArray()));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void passesOnExceptionOfParser() {
+        givenFiles(1);
+        JavaSourcePipeline.start(analysisContext, files, new NonNullFunction<File, Optional<CompilationUnit>>() {
+            @Nonnull
+            @Override
+            public Optional<CompilationUnit> apply(@Nonnull File file) {
+                throw new IllegalStateException("Failed to parse " + file);
+            }
+        }, Predicates.<File>alwaysTrue());
+
+        JavaSourcePipeline.pipelineFor(analysisContext).take(files.get(0));
+    }
+
+    @Test
+    public void cancelsPendingUnitsWhenClosed() throws InterruptedException {
+        givenFiles(CAPACITY);
+        final CountDownLatch parsingHasStarted = new CountDownLatch(1);
+        JavaSourcePipeline.start(analysisContext, files, new UnitCreator() {
+            @Nonnull
+            @Override
+            public Optional<CompilationUnit> apply(@Nonnull File file) {
+                parsingHasStarted.countDown();
+                return super.apply(file);
+            }
+        }, Predicates.<File>alwaysTrue());
+        JavaSourcePipeline pipeline = JavaSourcePipeline.pipelineFor(analysisContext);
+        assertThat(parsingHasStarted.await(10, TimeUnit.SECONDS), is(true));
+
+        pipeline.close();
+        allowParsing();
+
+        assertThat(pipeline.take(files.get(0)), is(nullValue()));
+        Thread.sleep(100);
+        assertThat(parsedUnits.size(), is(lessThanOrEqualTo(NUMBER_OF_THREADS)));
+    }
+
+    private List<File> givenFiles(int numberOfFiles) {
+        for (int i = 0; i < numberOfFiles; i++) {
+            files.add(new File("File" + i + ".java"));
+        }
+        return files;
+    }
+
+    private JavaSourcePipeline givenPipelineFor(int numberOfFiles) {
+        givenFiles(numberOfFiles);
+        JavaSourcePipeline.start(analysisContext, files, new UnitCreator(), Predicates.<File>alwaysTrue());
+        allowParsing();
+        return JavaSourcePipeline.pipelineFor(analysisContext);
+    }
+
+    private void allowParsing() {
+        parsingIsAllowed.countDown();
+    }
+
+    /**
+     * Waits for the given number of units to be parsed - and a little longer, to see if more are parsed.
+     */
+    private void awaitParsedUnits(int numberOfUnits) throws InterruptedException {
+        for (int i = 0; i < 1000 && parsedUnits.size() < numberOfUnits; i++) {
+            Thread.sleep(10);
+        }
+        Thread.sleep(100);
+    }
+
+    /**
+     * Creates a unit for each file once parsing is allowed.
+     */
+    private class UnitCreator implements NonNullFunction<File, Optional<CompilationUnit>> {
+        @Nonnull
+        @Override
+        public Optional<CompilationUnit> apply(@Nonnull File file) {
+            try {
+                parsingIsAllowed.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return Optional.absent();
+            }
+            CompilationUnit unit = new CompilationUnit();
+            parsedUnits.put(file, unit);
+            return Optional.of(unit);
+        }
+    }
+
+}
@@ -0,0 +1,46 @@
+package de.is24.deadcode4j.analyzer;
+
+import de.is24.deadcode4j.AnalysisContext;
+import org.junit.Test;
+
+import static de.is24.deadcode4j.AnalysisContextBuilder.givenAnalysisContext;
+import static de.is24.deadcode4j.ModuleBuilder.givenModule;
+import static java.util.Arrays.asList;
+import static java.util.Collections.singleton;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+
+public final class A_MarkersNotFoundInClassPath {
+
+    private final MarkersNotFoundInClassPath objectUnderTest =
+            new MarkersNotFoundInClassPath("markers", asList("foo.Bar", "foo.Baz"));
+
+    @Test
+    public void listsMarkersNotFoundInAnyClassPath() {
+        objectUnderTest.foundInClassPath(givenAnalysisContext(givenModule("A")), singleton("foo.Bar"));
+
+        assertThat(objectUnderTest.get(), contains("foo.Baz"));
+    }
+
+    @Test
+    public void considersMarkersFoundInClassPathOfReusedModule() {
+        AnalysisContext reusedModule = givenAnalysisContext(givenModule("A"));
+        new MarkersNotFoundInClassPath("markers", asList("foo.Bar", "foo.Baz"))
+                .foundInClassPath(reusedModule, singleton("foo.Baz"));
+
+        objectUnderTest.restoredFrom(reusedModule);
+        objectUnderTest.foundInClassPath(givenAnalysisContext(givenModule("B")), singleton("foo.Bar"));
+
+        assertThat(objectUnderTest.get(), is(empty()));
+    }
+
+    @Test
+    public void listsNothingIfClassPathOfReusedModuleIsUnknown() {
+        objectUnderTest.restoredFrom(givenAnalysisContext(givenModule("A")));
+
+        assertThat(objectUnderTest.get(), is(empty()));
+    }
+
+}
@@ -1,11 +1,17 @@
 package de.is24.deadcode4j.analyzer;
 
+import de.is24.deadcode4j.Resource;
 import de.is24.deadcode4j.analyzer.constants.ClassWithInnerClassNamedLikePotentialTarget;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Ignore;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
+import java.io.File;
+import java.io.IOException;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -13,11 +19,17 @@ import java.util.Set;
 import static com.google.common.collect.Iterables.concat;
 import static com.google.common.collect.Lists.newArrayList;
 import static com.google.common.collect.Sets.newHashSet;
+import static de.is24.deadcode4j.AnalysisContextBuilder.givenAnalysisContext;
+import static de.is24.deadcode4j.ModuleBuilder.givenModule;
+import static de.is24.deadcode4j.junit.FileLoader.getFile;
+import static java.util.Arrays.asList;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
 
 public final class A_ReferenceToConstantsAnalyzer extends AnAnalyzer<ReferenceToConstantsAnalyzer> {
     private static final String FQ_CONSTANTS = "de.is24.deadcode4j.analyzer.constants.Constants";
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
     private Set<String> dependers = newHashSet();
     private List<String> dependees = newArrayList();
 
@@ -580,6 +592,36 @@ public final class A_ReferenceToConstantsAnalyzer extends AnAnalyzer<ReferenceTo
                 "de.is24.deadcode4j.analyzer.constants.Superclass");
     }
 
+    @Test
+    public void analyzesOnlyAnnouncedFilesMentioningAConstantOfTheModule() {
+        analysisContext = givenAnalysisContext(
+                givenModule("de.is24:deadcode4j-junit", getFile("."), Collections.<Resource>emptyList()));
+        File fileUsingConstant = getFile("../../src/test/java/de/is24/deadcode4j/analyzer/constants/ClassUsingConstantInField.java");
+        File fileUsingEnum = getFile("../../src/test/java/de/is24/deadcode4j/analyzer/constants/ClassUsingEnumConstantInField.java");
+        objectUnderTest.prefetch(analysisContext, asList(fileUsingConstant, fileUsingEnum));
+
+        objectUnderTest.doAnalysis(analysisContext, fileUsingConstant);
+        objectUnderTest.doAnalysis(analysisContext, fileUsingEnum);
+        triggerFinishAnalysisEvent();
+
+        assertDependencyToConstantsExists("de.is24.deadcode4j.analyzer.constants.ClassUsingConstantInField");
+        assertThat(analysisContext.getAnalyzedCode().getCodeDependencies().keySet(),
+                not(hasItem("de.is24.deadcode4j.analyzer.constants.ClassUsingEnumConstantInField")));
+    }
+
+    @Test
+    public void selectsNoFileIfTheOutputDirectoryOfTheModuleDoesNotExist() throws IOException {
+        File outputDirectory = temporaryFolder.newFolder("classes");
+        analysisContext = givenAnalysisContext(
+                givenModule("de.is24:deadcode4j-junit", outputDirectory, Collections.<Resource>emptyList()));
+        assertThat(outputDirectory.delete(), is(true));
+        File fileUsingConstant = getFile("../../src/test/java/de/is24/deadcode4j/analyzer/constants/ClassUsingConstantInField.java");
+
+        List<File> selectedFiles = objectUnderTest.selectFilesToAnalyze(analysisContext, asList(fileUsingConstant));
+
+        assertThat(selectedFiles, is(empty()));
+    }
+
     private void triggerFinishAnalysisEvent() {
         objectUnderTest.finishAnalysis(analysisContext);
     }
@@ -1,7 +1,19 @@
 package de.is24.deadcode4j.analyzer;
 
+import de.is24.deadcode4j.Resource;
 import org.junit.Test;
 
+import java.io.File;
+import java.util.Collections;
+import java.util.List;
+
+import static de.is24.deadcode4j.AnalysisContextBuilder.givenAnalysisContext;
+import static de.is24.deadcode4j.ModuleBuilder.givenModule;
+import static de.is24.deadcode4j.junit.FileLoader.getFile;
+import static java.util.Arrays.asList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+
 public final class A_TypeErasureAnalyzer extends AnAnalyzer<TypeErasureAnalyzer> {
 
     @Override
@@ -93,4 +105,43 @@ public final class A_TypeErasureAnalyzer extends AnAnalyzer<TypeErasureAnalyzer>
         assertThatNoDependenciesAreReported();
     }
 
+    @Test
+    public void reportsTypeArgumentsRecordedByTheByteCode() {
+        analyzeFile("de/is24/deadcode4j/analyzer/typeerasure/ClassWithGenericMethod.class");
+
+        assertThatDependenciesAreReportedFor("de.is24.deadcode4j.analyzer.typeerasure.ClassWithGenericMethod",
+                "java.lang.String",
+                "java.lang.Thread");
+    }
+
+    @Test
+    public void analyzesOnlyAnnouncedFilesUsingTypeArgumentsNotRecordedByTheByteCode() {
+        analysisContext = givenAnalysisContext(
+                givenModule("de.is24:deadcode4j-junit", getFile("."), Collections.<Resource>emptyList()));
+        File fileUsingTypeArgumentForField = getFile("../../src/test/java/de/is24/deadcode4j/analyzer/typeerasure/ClassWithLowerBoundedWildCard.java");
+        File fileUsingTypeArgumentForExpression = getFile("../../src/test/java/ClassWithTypeArgument.java");
+        List<File> files = asList(fileUsingTypeArgumentForField, fileUsingTypeArgumentForExpression,
+                getFile("de/is24/deadcode4j/analyzer/typeerasure/ClassWithLowerBoundedWildCard.class"),
+                getFile("ClassWithTypeArgument.class"));
+
+        assertThat(objectUnderTest.selectFilesToAnalyze(analysisContext, files),
+                contains(fileUsingTypeArgumentForExpression));
+    }
+
+    @Test
+    public void analyzesAnnouncedFileUsingQualifiedTypeArgumentNotRecordedByTheByteCode() {
+        analysisContext = givenAnalysisContext(
+                givenModule("de.is24:deadcode4j-junit", getFile("."), Collections.<Resource>emptyList()));
+        File file = getFile("../../src/test/java/de/is24/deadcode4j/analyzer/typeerasure/ClassWithQualifiedTypeArgument.java");
+        File classFile = getFile("de/is24/deadcode4j/analyzer/typeerasure/ClassWithQualifiedTypeArgument.class");
+        objectUnderTest.prefetch(analysisContext, asList(file, classFile));
+
+        objectUnderTest.doAnalysis(analysisContext, file);
+        objectUnderTest.doAnalysis(analysisContext, classFile);
+
+        assertThatDependenciesAreReportedFor("de.is24.deadcode4j.analyzer.typeerasure.ClassWithQualifiedTypeArgument",
+                "de.is24.deadcode4j.analyzer.typeerasure.Entry",
+                "java.lang.String");
+    }
+
 }
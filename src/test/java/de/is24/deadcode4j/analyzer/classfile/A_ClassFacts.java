@@ -0,0 +1,169 @@
+package de.is24.deadcode4j.analyzer.classfile;
+
+import javassist.ClassPool;
+import javassist.CtClass;
+import org.apache.commons.io.FileUtils;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.List;
+
+import static com.google.common.collect.Sets.newHashSet;
+import static de.is24.deadcode4j.junit.FileLoader.getFile;
+import static java.lang.annotation.ElementType.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public final class A_ClassFacts {
+
+    @Test
+    public void providesTheTypeHierarchy() throws IOException {
+        ClassFacts classFacts = readClassFacts("SubClassOfClassImplementingExternalizable.class");
+
+        assertThat(classFacts.getClassName(), is("SubClassOfClassImplementingExternalizable"));
+        assertThat(classFacts.getSuperclass(), is("ClassImplementingExternalizable"));
+        assertThat(classFacts.getInterfaces(), is(empty()));
+        assertThat(classFacts.isInterface(), is(false));
+
+        classFacts = readClassFacts("ClassImplementingExternalizable.class");
+        assertThat(classFacts.getInterfaces(), contains("java.io.Externalizable"));
+    }
+
+    @Test
+    public void reportsReferencedClasses() throws IOException {
+        ClassFacts classFacts = readClassFacts("DependingClass.class");
+
+        assertThat(classFacts.getReferencedClasses(),
+                containsInAnyOrder("DependingClass", "IndependentClass", "java.lang.Object"));
+    }
+
+    @Test
+    public void reportsReferencedAnnotations() throws IOException {
+        ClassFacts classFacts = readClassFacts("AnnotatedClass.class");
+
+        assertThat(classFacts.getReferencedClasses(), hasItem("de.is24.deadcode4j.junit.Annotation"));
+    }
+
+    @Test
+    public void reportsTheSameClassesAsJavassist() throws IOException {
+        for (String fileName : new String[]{
+                "ClassWithTypeArgument.class",
+                "ClassImplementingExternalizable.class",
+                "SubClassOfAnnotatedClass.class",
+                "de/is24/deadcode4j/analyzer/classdependency/ClassWithInnerClasses.class",
+                "de/is24/deadcode4j/analyzer/classdependency/ClassWithInnerClasses$UnusedInnerClass.class"}) {
+            byte[] classFile = readClassFile(fileName);
+            CtClass clazz = new ClassPool(false).makeClass(new ByteArrayInputStream(classFile));
+
+            assertThat("Different references for [" + fileName + "]!",
+                    ClassFacts.read(ByteBuffer.wrap(classFile)).getReferencedClasses(),
+                    is(equalTo(newHashSet(getRefClasses(clazz)))));
+        }
+    }
+
+    @Test
+    public void providesTheAnnotationsAndTheirValues() throws IOException {
+        ClassFacts classFacts = readClassFacts("de/is24/deadcode4j/analyzer/hibernateannotations/ClassWithTypeDef.class");
+
+        List<AnnotationFacts> annotations = classFacts.getAnnotations(TYPE);
+        assertThat(annotations, hasSize(1));
+        AnnotationFacts annotation = annotations.get(0);
+        assertThat(annotation.getTypeName(), is("org.hibernate.annotations.TypeDef"));
+        assertThat(annotation.getMemberValue("name"), is((Object) "aRandomType"));
+        assertThat(annotation.getMemberValue("typeClass"), is(instanceOf(AnnotationFacts.ClassLiteral.class)));
+        assertThat(classFacts.getAnnotations(PACKAGE, METHOD, FIELD), is(empty()));
+    }
+
+    @Test
+    public void providesTheAnnotationsOfPackagesAndMembers() throws IOException {
+        ClassFacts classFacts = readClassFacts("de/is24/deadcode4j/analyzer/hibernateannotations/package-info.class");
+        assertThat(classFacts.getAnnotations(TYPE), is(empty()));
+        assertThat(classFacts.getAnnotations(PACKAGE), hasSize(2));
+        Object nestedAnnotations = classFacts.getAnnotations(PACKAGE).get(0).getMemberValue("value");
+        assertThat(nestedAnnotations, is(instanceOf(List.class)));
+        assertThat((List<?>) nestedAnnotations, everyItem(instanceOf(AnnotationFacts.class)));
+
+        classFacts = readClassFacts("de/is24/deadcode4j/analyzer/hibernateannotations/ClassUsingTypeAtField.class");
+        assertThat(classFacts.getAnnotations(FIELD), hasSize(1));
+        assertThat(classFacts.getAnnotations(TYPE, METHOD), is(empty()));
+    }
+
+    @Test
+    public void recognizesMainMethod() throws IOException {
+        assertThat(readClassFacts("MainClass.class").hasMainMethod(), is(true));
+        assertThat(readClassFacts("SingleClass.class").hasMainMethod(), is(false));
+    }
+
+    @Test
+    public void listsTheTypeArgumentsOfClassAndFieldSignatures() throws IOException {
+        ClassFacts classFacts = readClassFacts("de/is24/deadcode4j/analyzer/typeerasure/TypedArrayList.class");
+
+        assertThat(classFacts.getTypeArguments(), containsInAnyOrder(
+                "java.util.Map$Entry",
+                "java.math.BigDecimal",
+                "java.lang.Comparable",
+                "java.util.regex.Pattern",
+                "java.util.ResourceBundle$Control"));
+        classFacts = readClassFacts("de/is24/deadcode4j/analyzer/typeerasure/TypedArrayList$SecondInnerClass.class");
+        assertThat(classFacts.getTypeArguments(),
+                contains("de.is24.deadcode4j.analyzer.typeerasure.TypedArrayList$InnerClass$NestedInnerClass"));
+    }
+
+    @Test
+    public void listsTheTypeArgumentsOfMethodSignaturesAndLocalVariables() throws IOException {
+        ClassFacts classFacts = readClassFacts("de/is24/deadcode4j/analyzer/typeerasure/ClassWithGenericMethod.class");
+
+        assertThat(classFacts.getTypeArguments(), containsInAnyOrder("java.lang.String", "java.lang.Thread"));
+        assertThat(classFacts.getTypeVariables(), contains("T"));
+    }
+
+    @Test
+    public void listsNoTypeArgumentsIfThereAreNone() throws IOException {
+        ClassFacts classFacts =
+                readClassFacts("de/is24/deadcode4j/analyzer/typeerasure/ClassWithTypesThatShouldNotBeRecognized.class");
+
+        assertThat(classFacts.getTypeArguments(), is(empty()));
+    }
+
+    @Test
+    public void providesTheSourceFile() throws IOException {
+        ClassFacts classFacts = readClassFacts("de/is24/deadcode4j/analyzer/typeerasure/TypedArrayList$InnerClass.class");
+
+        assertThat(classFacts.getSourceFile(), is("TypedArrayList.java"));
+    }
+
+    @Test
+    public void listsTheNonPrivateConstants() throws IOException {
+        assertThat(readClassFacts("de/is24/deadcode4j/analyzer/constants/Constants.class").getNonPrivateConstants(),
+                containsInAnyOrder("FOO", "BAR"));
+        assertThat(readClassFacts("de/is24/deadcode4j/analyzer/constants/Constants$More.class").getNonPrivateConstants(),
+                contains("STUFF"));
+        assertThat(readClassFacts("de/is24/deadcode4j/analyzer/constants/AnonymousClassUsingConstantOfOuterClassInFieldDirectly.class")
+                .getNonPrivateConstants(), is(empty()));
+        assertThat(readClassFacts("de/is24/deadcode4j/analyzer/constants/AnonymousClassUsingConstantOfOuterClassInFieldDirectly$1.class")
+                .getNonPrivateConstants(), contains("BAR"));
+        assertThat(readClassFacts("de/is24/deadcode4j/analyzer/constants/Superclass.class").getNonPrivateConstants(),
+                is(empty()));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsFileThatIsNoClassFile() {
+        ClassFacts.read(ByteBuffer.wrap("deadcode4j".getBytes()));
+    }
+
+    @SuppressWarnings("unchecked")
+    private Iterable<String> getRefClasses(CtClass clazz) {
+        return clazz.getRefClasses();
+    }
+
+    private ClassFacts readClassFacts(String fileName) throws IOException {
+        return ClassFacts.read(ByteBuffer.wrap(readClassFile(fileName)));
+    }
+
+    private byte[] readClassFile(String fileName) throws IOException {
+        return FileUtils.readFileToByteArray(getFile(fileName));
+    }
+
+}
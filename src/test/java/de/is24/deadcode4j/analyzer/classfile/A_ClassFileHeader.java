@@ -0,0 +1,58 @@
+package de.is24.deadcode4j.analyzer.classfile;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import static de.is24.deadcode4j.junit.FileLoader.getFile;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public final class A_ClassFileHeader {
+
+    @Test
+    public void readsClassNameAndSupertypes() throws IOException {
+        ClassFileHeader header = readHeaderOf("SubClassOfClassImplementingExternalizable.class");
+
+        assertThat(header.getClassName(), is("SubClassOfClassImplementingExternalizable"));
+        assertThat(header.getSuperclass(), is("ClassImplementingExternalizable"));
+        assertThat(header.getInterfaces(), is(empty()));
+        assertThat(header.hasSuperclass(), is(true));
+        assertThat(header.hasSupertypes(), is(true));
+    }
+
+    @Test
+    public void readsDirectlyImplementedInterfaces() throws IOException {
+        ClassFileHeader header = readHeaderOf("ClassImplementingExternalizable.class");
+
+        assertThat(header.getInterfaces(), contains("java.io.Externalizable"));
+        assertThat(header.hasSuperclass(), is(false));
+        assertThat(header.hasSupertypes(), is(true));
+    }
+
+    @Test
+    public void recognizesClassWithoutSupertypesAndAnnotations() throws IOException {
+        ClassFileHeader header = readHeaderOf("SingleClass.class");
+
+        assertThat(header.getSuperclass(), is("java.lang.Object"));
+        assertThat(header.hasSupertypes(), is(false));
+        assertThat(header.mayCarryAnnotations(), is(false));
+    }
+
+    @Test
+    public void recognizesThatClassMayCarryAnnotations() throws IOException {
+        assertThat(readHeaderOf("AnnotatedClass.class").mayCarryAnnotations(), is(true));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsFileThatIsNoClassFile() {
+        ClassFileHeader.read(ByteBuffer.wrap("deadcode4j".getBytes()));
+    }
+
+    private ClassFileHeader readHeaderOf(String fileName) throws IOException {
+        return ClassFileHeader.read(ByteBuffer.wrap(FileUtils.readFileToByteArray(getFile(fileName))));
+    }
+
+}
@@ -0,0 +1,64 @@
+package de.is24.deadcode4j.analyzer.classfile;
+
+import javassist.ClassPool;
+import javassist.CtClass;
+import org.apache.commons.io.FileUtils;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Set;
+
+import static com.google.common.collect.Sets.newHashSet;
+import static de.is24.deadcode4j.junit.FileLoader.getFile;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public final class A_ClassReferences {
+
+    @Test
+    public void reportsReferencedClasses() throws IOException {
+        Set<String> referencedClasses = ClassReferences.of(ByteBuffer.wrap(readClassFile("DependingClass.class")));
+
+        assertThat(referencedClasses, containsInAnyOrder("DependingClass", "IndependentClass", "java.lang.Object"));
+    }
+
+    @Test
+    public void reportsReferencedAnnotations() throws IOException {
+        Set<String> referencedClasses = ClassReferences.of(ByteBuffer.wrap(readClassFile("AnnotatedClass.class")));
+
+        assertThat(referencedClasses, hasItem("de.is24.deadcode4j.junit.Annotation"));
+    }
+
+    @Test
+    public void reportsTheSameClassesAsJavassist() throws IOException {
+        for (String fileName : new String[]{
+                "ClassWithTypeArgument.class",
+                "ClassImplementingExternalizable.class",
+                "SubClassOfAnnotatedClass.class",
+                "de/is24/deadcode4j/analyzer/classdependency/ClassWithInnerClasses.class",
+                "de/is24/deadcode4j/analyzer/classdependency/ClassWithInnerClasses$UnusedInnerClass.class"}) {
+            byte[] classFile = readClassFile(fileName);
+            CtClass clazz = new ClassPool(false).makeClass(new ByteArrayInputStream(classFile));
+
+            assertThat("Different references for [" + fileName + "]!",
+                    ClassReferences.of(ByteBuffer.wrap(classFile)), is(equalTo(newHashSet(getRefClasses(clazz)))));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsFileThatIsNoClassFile() {
+        ClassReferences.of(ByteBuffer.wrap("deadcode4j".getBytes()));
+    }
+
+    @SuppressWarnings("unchecked")
+    private Iterable<String> getRefClasses(CtClass clazz) {
+        return clazz.getRefClasses();
+    }
+
+    private byte[] readClassFile(String fileName) throws IOException {
+        return FileUtils.readFileToByteArray(getFile(fileName));
+    }
+
+}
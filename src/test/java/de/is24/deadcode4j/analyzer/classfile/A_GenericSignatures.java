@@ -0,0 +1,63 @@
+package de.is24.deadcode4j.analyzer.classfile;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Set;
+
+import static com.google.common.collect.Sets.newHashSet;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public final class A_GenericSignatures {
+
+    private Set<String> typeArguments;
+    private Set<String> typeVariables;
+    private GenericSignatures objectUnderTest;
+
+    @Before
+    public void setUp() {
+        typeArguments = newHashSet();
+        typeVariables = newHashSet();
+        objectUnderTest = new GenericSignatures(typeArguments, typeVariables);
+    }
+
+    @Test
+    public void listsTheTypeArgumentsOfAFieldSignature() {
+        objectUnderTest.parse("Ljava/util/Map<Ljava/lang/String;[Ljava/util/List<+Ljava/lang/Thread;>;>;");
+
+        assertThat(typeArguments, containsInAnyOrder("java.lang.String", "java.util.List", "java.lang.Thread"));
+        assertThat(typeVariables, is(empty()));
+    }
+
+    @Test
+    public void listsNestedClassUsedAsTypeArgument() {
+        objectUnderTest.parse("Ljava/util/List<Lde/is24/Outer<TT;>.Inner;>;");
+
+        assertThat(typeArguments, contains("de.is24.Outer$Inner"));
+        assertThat(typeVariables, contains("T"));
+    }
+
+    @Test
+    public void listsTheTypeVariablesAndTypeArgumentsOfAMethodSignature() {
+        objectUnderTest.parse("<T::Ljava/lang/Comparable<TT;>;>(Ljava/util/Map<Ljava/lang/String;+TT;>;)" +
+                "Ljava/util/List<TT;>;^TE;");
+
+        assertThat(typeArguments, contains("java.lang.String"));
+        assertThat(typeVariables, containsInAnyOrder("T", "E"));
+    }
+
+    @Test
+    public void ignoresTypesThatAreNoTypeArguments() {
+        objectUnderTest.parse("<T:Ljava/lang/Number;>Ljava/lang/Object;Ljava/lang/Comparable<*>;");
+
+        assertThat(typeArguments, is(empty()));
+        assertThat(typeVariables, contains("T"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsMalformedSignature() {
+        objectUnderTest.parse("Ljava/util/List<Ljava/lang/String;");
+    }
+
+}
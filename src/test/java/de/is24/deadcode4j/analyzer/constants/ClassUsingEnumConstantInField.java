@@ -0,0 +1,5 @@
+package de.is24.deadcode4j.analyzer.constants;
+@SuppressWarnings("UnusedDeclaration")
+public class ClassUsingEnumConstantInField {
+    public final Object value = EnumUsingConstantInField.ENUM;
+}
@@ -0,0 +1,76 @@
+package de.is24.deadcode4j.analyzer.javassist;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static de.is24.deadcode4j.AnalysisContextBuilder.givenAnalysisContext;
+import static de.is24.deadcode4j.ModuleBuilder.givenModule;
+import static java.util.Arrays.asList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public final class A_ClassHierarchy {
+
+    private ClassHierarchy objectUnderTest;
+
+    @Before
+    public void setUp() {
+        objectUnderTest = new ClassHierarchy(new ClassPoolAccessor(givenAnalysisContext(givenModule("A"))));
+    }
+
+    @Test
+    public void retrievesAllSuperclasses() {
+        assertThat(objectUnderTest.getSuperclassesOf("SubClassOfClassImplementingExternalizable"),
+                contains("ClassImplementingExternalizable", "java.lang.Object"));
+        assertThat(objectUnderTest.getSuperclassesOf("java.lang.Object"), is(empty()));
+    }
+
+    @Test
+    public void retrievesAllImplementedInterfaces() {
+        assertThat(objectUnderTest.getAllInterfacesOf("SubClassOfClassImplementingExternalizable"),
+                containsInAnyOrder("java.io.Externalizable", "java.io.Serializable"));
+    }
+
+    @Test
+    public void retrievesAllSupertypesInDepthFirstOrder() {
+        assertThat(objectUnderTest.getSupertypesOf("SubClassOfClassImplementingExternalizable"),
+                contains("ClassImplementingExternalizable", "java.io.Externalizable", "java.io.Serializable"));
+    }
+
+    @Test
+    public void memoizesResults() {
+        assertThat(objectUnderTest.getAllInterfacesOf("SubClassOfClassImplementingExternalizable"),
+                is(sameInstance(objectUnderTest.getAllInterfacesOf("SubClassOfClassImplementingExternalizable"))));
+    }
+
+    @Test
+    public void checksIfClassIsSubtypeOfAnyType() {
+        assertThat(objectUnderTest.isSubtypeOfAny("SubClassOfClassImplementingExternalizable",
+                asList("java.lang.Runnable", "java.io.Serializable")), is(true));
+        assertThat(objectUnderTest.isSubtypeOfAny("SubClassOfClassImplementingExternalizable",
+                asList("java.lang.Runnable", "SubClassOfAnnotatedClass")), is(false));
+    }
+
+    @Test
+    public void retrievesAllMetaAnnotations() {
+        assertThat(objectUnderTest.getAnnotationClosureOf("de.is24.deadcode4j.junit.AnnotatedAnnotation"),
+                containsInAnyOrder(
+                        "de.is24.deadcode4j.junit.AnnotatedAnnotation",
+                        "de.is24.deadcode4j.junit.Annotation",
+                        "java.lang.annotation.Inherited",
+                        "java.lang.annotation.Retention",
+                        "java.lang.annotation.Target"));
+        assertThat(objectUnderTest.getAnnotationClosureOf("de.is24.deadcode4j.junit.Annotation"),
+                is(sameInstance(objectUnderTest.getAnnotationClosureOf("de.is24.deadcode4j.junit.Annotation"))));
+    }
+
+    @Test
+    public void handlesUnknownClassesSilently() {
+        assertThat(objectUnderTest.getClassMetadata("NoSuchClass"), is(nullValue()));
+        assertThat(objectUnderTest.getSuperclassesOf("NoSuchClass"), is(empty()));
+        assertThat(objectUnderTest.getAllInterfacesOf("NoSuchClass"), is(empty()));
+        assertThat(objectUnderTest.getSupertypesOf("NoSuchClass"), is(empty()));
+        assertThat(objectUnderTest.getAnnotationClosureOf("NoSuchClass"), contains("NoSuchClass"));
+    }
+
+}
@@ -0,0 +1,133 @@
+package de.is24.deadcode4j.analyzer.javassist;
+
+import de.is24.deadcode4j.AnalysisContext;
+import de.is24.deadcode4j.ClassNameTable;
+import de.is24.deadcode4j.IntermediateResult;
+import de.is24.deadcode4j.junit.FileLoader;
+import javassist.ClassPath;
+import javassist.ClassPool;
+import javassist.CtClass;
+import org.apache.commons.io.FileUtils;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+import static de.is24.deadcode4j.ModuleBuilder.givenModule;
+import static de.is24.deadcode4j.analyzer.javassist.ClassPathRegistry.classPathRegistryFor;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public final class A_ClassPathRegistry {
+
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void isSharedByAllContextsOfAProject() {
+        ConcurrentMap<Object, Object> projectCache = new ConcurrentHashMap<Object, Object>();
+        ClassNameTable classNames = new ClassNameTable();
+        AnalysisContext firstContext = new AnalysisContext(givenModule("A"),
+                Collections.<Object, IntermediateResult>emptyMap(), classNames, projectCache);
+        AnalysisContext secondContext = new AnalysisContext(givenModule("B"),
+                Collections.<Object, IntermediateResult>emptyMap(), classNames, projectCache);
+
+        ClassPathRegistry registry = classPathRegistryFor(firstContext);
+
+        assertThat(classPathRegistryFor(secondContext), is(sameInstance(registry)));
+        File file = new File("some.jar");
+        assertThat(registry.getClassPathFor(file), is(sameInstance(registry.getClassPathFor(file.getAbsoluteFile()))));
+    }
+
+    @Test
+    public void providesClassesOfJarFilesAndDirectories() throws Exception {
+        ClassPathRegistry registry = new ClassPathRegistry(ClassPathRegistry.DEFAULT_MAX_OPEN_JAR_FILES, null);
+        ClassPool classPool = new ClassPool(false);
+        classPool.appendClassPath(registry.getClassPathFor(givenJarContaining("A")));
+        classPool.appendClassPath(registry.getClassPathFor(FileLoader.getFile(".")));
+
+        assertThat(classPool.getOrNull("A"), is(notNullValue()));
+        assertThat(classPool.getOrNull("B"), is(notNullValue()));
+        assertThat(classPool.getOrNull("NoSuchClass"), is(nullValue()));
+        assertThat(classPool.find("A").getProtocol(), is("jar"));
+    }
+
+    @Test
+    public void reopensJarFilesThatWereClosed() throws Exception {
+        ClassPathRegistry registry = new ClassPathRegistry(1, null);
+        ClassPath first = registry.getClassPathFor(givenJarContaining("A"));
+        ClassPath second = registry.getClassPathFor(givenJarContaining("B"));
+
+        assertThat(loadFrom(first, "A"), is(notNullValue()));
+        assertThat(loadFrom(second, "B"), is(notNullValue()));
+        assertThat(loadFrom(first, "A"), is(notNullValue()));
+        registry.close();
+        assertThat(loadFrom(second, "B"), is(notNullValue()));
+        assertThat(loadFrom(second, "A"), is(nullValue()));
+    }
+
+    @Test
+    public void keepsNoMoreJarFilesOpenThanAllowed() throws Exception {
+        ClassPathRegistry registry = new ClassPathRegistry(1, null);
+        ClassPath first = registry.getClassPathFor(givenJarContaining("A"));
+        ClassPath second = registry.getClassPathFor(givenJarContainingNoClasses());
+
+        assertThat(loadFrom(first, "A"), is(notNullValue()));
+        assertThat(loadFrom(second, "A"), is(nullValue()));
+
+        assertThat(registry.getNumberOfOpenJarFiles(), is(1));
+        registry.close();
+        assertThat(registry.getNumberOfOpenJarFiles(), is(0));
+    }
+
+    @Test
+    public void ignoresFilesThatCannotBeOpened() throws Exception {
+        ClassPathRegistry registry = new ClassPathRegistry(ClassPathRegistry.DEFAULT_MAX_OPEN_JAR_FILES, null);
+
+        ClassPath classPath = registry.getClassPathFor(temporaryFolder.newFile("broken.jar"));
+
+        assertThat(classPath.openClassfile("A"), is(nullValue()));
+        assertThat(classPath.find("A"), is(nullValue()));
+    }
+
+    private File givenJarContaining(String className) throws IOException {
+        File jarFile = temporaryFolder.newFile(className + ".jar");
+        JarOutputStream out = new JarOutputStream(new FileOutputStream(jarFile));
+        try {
+            out.putNextEntry(new JarEntry(className + ".class"));
+            out.write(FileUtils.readFileToByteArray(FileLoader.getFile(className + ".class")));
+            out.closeEntry();
+        } finally {
+            out.close();
+        }
+        return jarFile;
+    }
+
+    private File givenJarContainingNoClasses() throws IOException {
+        File jarFile = temporaryFolder.newFile("resources.jar");
+        JarOutputStream out = new JarOutputStream(new FileOutputStream(jarFile));
+        try {
+            out.putNextEntry(new JarEntry("spring.xml"));
+            out.write(FileUtils.readFileToByteArray(FileLoader.getFile("spring.xml")));
+            out.closeEntry();
+        } finally {
+            out.close();
+        }
+        return jarFile;
+    }
+
+    private CtClass loadFrom(ClassPath classPath, String className) {
+        ClassPool classPool = new ClassPool(false);
+        classPool.appendClassPath(classPath);
+        return classPool.getOrNull(className);
+    }
+
+}
@@ -0,0 +1,124 @@
+package de.is24.deadcode4j.analyzer.javassist;
+
+import de.is24.deadcode4j.junit.FileLoader;
+import org.apache.commons.io.FileUtils;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public final class A_JarIndexStore {
+
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+    private File indexDirectory;
+    private JarIndexStore objectUnderTest;
+
+    @Before
+    public void setUp() throws IOException {
+        indexDirectory = temporaryFolder.newFolder("index");
+        objectUnderTest = new JarIndexStore(indexDirectory);
+    }
+
+    @Test
+    public void indexesTheHierarchyOfAllClasses() throws IOException {
+        File jarFile = givenJarContaining("AnnotatedClass", "SubClassOfAnnotatedClass",
+                "ClassImplementingExternalizable", "de/is24/deadcode4j/junit/Annotation");
+
+        JarIndex jarIndex = objectUnderTest.getIndexFor(jarFile);
+
+        assertThat(jarIndex, is(notNullValue()));
+        assertThat(jarIndex.getClassNames(), containsInAnyOrder("AnnotatedClass", "SubClassOfAnnotatedClass",
+                "ClassImplementingExternalizable", "de.is24.deadcode4j.junit.Annotation"));
+        assertThat(jarIndex.getPackages(), containsInAnyOrder("", "de.is24.deadcode4j.junit"));
+        assertThat(jarIndex.getClassMetadata("SubClassOfAnnotatedClass").getSuperclass(), is("AnnotatedClass"));
+        assertThat(jarIndex.getClassMetadata("AnnotatedClass").getAnnotations(),
+                contains("de.is24.deadcode4j.junit.Annotation"));
+        assertThat(jarIndex.getClassMetadata("ClassImplementingExternalizable").getInterfaces(),
+                contains("java.io.Externalizable"));
+        assertThat(jarIndex.getClassMetadata("de.is24.deadcode4j.junit.Annotation").isInheritedAnnotation(), is(true));
+        assertThat(jarIndex.getClassMetadata("AnnotatedClass").isInheritedAnnotation(), is(false));
+    }
+
+    @Test
+    public void storesTheIndexInACompactFormat() throws IOException {
+        File jarFile = givenJarContaining("AnnotatedClass", "SubClassOfAnnotatedClass",
+                "de/is24/deadcode4j/junit/Annotation");
+
+        objectUnderTest.getIndexFor(jarFile);
+
+        File[] indexFiles = indexDirectory.listFiles();
+        assertThat(indexFiles, is(arrayWithSize(1)));
+        assertThat(indexFiles[0].length(), is(lessThan(jarFile.length() / 4)));
+    }
+
+    @Test
+    public void readsStoredIndex() throws IOException {
+        File jarFile = givenJarContaining("A");
+        objectUnderTest.getIndexFor(jarFile);
+        File indexFile = indexDirectory.listFiles()[0];
+        File otherIndexDirectory = temporaryFolder.newFolder("otherIndex");
+        new JarIndexStore(otherIndexDirectory).getIndexFor(givenJarContaining("B"));
+        FileUtils.copyFile(otherIndexDirectory.listFiles()[0], indexFile);
+
+        JarIndex jarIndex = new JarIndexStore(indexDirectory).getIndexFor(jarFile);
+
+        assertThat(jarIndex.getClassNames(), contains("B"));
+    }
+
+    @Test
+    public void recreatesCorruptIndex() throws IOException {
+        File jarFile = givenJarContaining("A");
+        objectUnderTest.getIndexFor(jarFile);
+        FileUtils.writeStringToFile(indexDirectory.listFiles()[0], "corrupt");
+
+        JarIndex jarIndex = objectUnderTest.getIndexFor(jarFile);
+
+        assertThat(jarIndex.getClassNames(), contains("A"));
+    }
+
+    @Test
+    public void returnsNullForFilesThatCannotBeIndexed() throws IOException {
+        assertThat(objectUnderTest.getIndexFor(temporaryFolder.newFile("broken.jar")), is(nullValue()));
+        assertThat(objectUnderTest.getIndexFor(new File(temporaryFolder.getRoot(), "missing.jar")), is(nullValue()));
+    }
+
+    @Test
+    public void isUsedByTheClassPathRegistry() throws Exception {
+        File jarFile = givenJarContaining("A");
+        ClassPathRegistry classPathRegistry =
+                new ClassPathRegistry(ClassPathRegistry.DEFAULT_MAX_OPEN_JAR_FILES, objectUnderTest);
+
+        JarIndex jarIndex = classPathRegistry.getJarIndexFor(jarFile);
+
+        assertThat(jarIndex, is(notNullValue()));
+        assertThat(jarIndex.containsClass("A"), is(true));
+        assertThat(classPathRegistry.getClassPathFor(jarFile).openClassfile("A"), is(notNullValue()));
+        assertThat(classPathRegistry.getClassPathFor(jarFile).openClassfile("B"), is(nullValue()));
+    }
+
+    private File givenJarContaining(String... classes) throws IOException {
+        File jarFile = temporaryFolder.newFile();
+        JarOutputStream out = new JarOutputStream(new FileOutputStream(jarFile));
+        try {
+            for (String clazz : classes) {
+                out.putNextEntry(new JarEntry(clazz + ".class"));
+                out.write(FileUtils.readFileToByteArray(FileLoader.getFile(clazz + ".class")));
+                out.closeEntry();
+            }
+        } finally {
+            out.close();
+        }
+        return jarFile;
+    }
+
+}
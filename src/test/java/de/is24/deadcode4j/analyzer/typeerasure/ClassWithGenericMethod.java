@@ -0,0 +1,11 @@
+package de.is24.deadcode4j.analyzer.typeerasure;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+@SuppressWarnings("UnusedDeclaration")
+public class ClassWithGenericMethod {
+    public <T extends Comparable<T>> List<T> sort(Map<String, ? extends T> elements) {
+        List<Thread> threads = Collections.emptyList();
+        return null;
+    }
+}
@@ -0,0 +1,9 @@
+package de.is24.deadcode4j.analyzer.typeerasure;
+import java.util.ArrayList;
+import java.util.Map;
+@SuppressWarnings("UnusedDeclaration")
+public class ClassWithQualifiedTypeArgument {
+    public Object createListFor(Map.Entry<String, String> entry) {
+        return new ArrayList<de.is24.deadcode4j.analyzer.typeerasure.Entry>();
+    }
+}
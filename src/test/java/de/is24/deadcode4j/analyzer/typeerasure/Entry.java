@@ -0,0 +1,3 @@
+package de.is24.deadcode4j.analyzer.typeerasure;
+@SuppressWarnings("UnusedDeclaration")
+public class Entry { }
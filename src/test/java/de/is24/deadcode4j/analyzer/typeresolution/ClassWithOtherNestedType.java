@@ -0,0 +1,10 @@
+package de.is24.deadcode4j.analyzer.typeresolution;
+
+public class ClassWithOtherNestedType {
+
+    private Nested nested;
+
+    public static class Nested {
+    }
+
+}
@@ -0,0 +1,24 @@
+package de.is24.deadcode4j.analyzer.typeresolution;
+
+public class ClassWithShadowedNestedType {
+
+    private Nested.Deeper deeper;
+    private Nested nested;
+
+    public int twice(int value) {
+        return value + value;
+    }
+
+    public static class Nested {
+        public static class Deeper {
+        }
+    }
+
+    public static class Shadowing {
+        private Nested nested;
+
+        public static class Nested {
+        }
+    }
+
+}
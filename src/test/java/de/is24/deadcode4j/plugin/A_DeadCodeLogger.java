@@ -53,6 +53,17 @@ public class A_DeadCodeLogger {
         verify(logMock).warn("  SingleClass");
     }
 
+    @Test
+    public void logsDeadIslands() throws Exception {
+        Collection<Collection<String>> deadIslands = Collections.singletonList(classes("B", "A"));
+        DeadCode deadCode = new DeadCode(noExceptions(), classes("A", "B"), noClasses, deadIslands);
+
+        objectUnderTest.log(deadCode);
+
+        verify(logMock).warn("Found 1 group(s) of classes only used by each other:");
+        verify(logMock).warn("  A, B");
+    }
+
     @Test
     public void logsThatAnExceptionOccurredDuringFileAnalysis() {
         DeadCode deadCode = new DeadCode(exceptionAt(AnalysisStage.FILE_ANALYSIS), noClasses, noClasses);